@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import java.io.IOException;
+
+/**
+ * Generates the CSV content used by the CSV benchmarks.
+ */
+final class CSVBenchmarkData {
+	static final int ROWS = 10000;
+
+	enum Shape {
+		NARROW(5), WIDE(40);
+
+		private final int columns;
+
+		Shape(final int columns) {
+			this.columns = columns;
+		}
+	}
+
+	enum Quoting {
+		NONE, HEAVY
+	}
+
+	private CSVBenchmarkData() {
+		// no instance
+	}
+
+	static CSVRecord[] createRecords(final Shape shape, final Quoting quoting, final char separator) {
+		final CSVRecord[] result = new CSVRecord[CSVBenchmarkData.ROWS];
+		final String[] fields = new String[shape.columns];
+		for (int row = 0; row < result.length; row++) {
+			for (int column = 0; column < fields.length; column++) {
+				if (quoting == Quoting.HEAVY && column % 2 == 1) {
+					fields[column] = "text " + row + separator + " with \"quotes\"\nand a line break";
+				} else if (column % 3 == 0) {
+					fields[column] = Integer.toString(row * column);
+				} else {
+					fields[column] = "value" + column + "_" + row;
+				}
+			}
+			result[row] = new CSVRecord(fields);
+		}
+		return result;
+	}
+
+	static String createContent(final Shape shape, final Quoting quoting, final CSVSeparator separator) {
+		final StringBuilder result = new StringBuilder();
+		final CSVRecordWriter writer = new CSVRecordWriter(result, separator);
+		try {
+			writer.write(createRecords(shape, quoting, separator.asCharacter()));
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return result.toString();
+	}
+}
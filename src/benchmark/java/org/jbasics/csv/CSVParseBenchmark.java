@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing throughput in records per second. Run with the gc profiler (default in the benchmark profile)
+ * the metric gc.alloc.rate.norm is the number of bytes allocated per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVParseBenchmark {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Param({"NARROW", "WIDE"})
+	public CSVBenchmarkData.Shape shape;
+
+	@Param({"NONE", "HEAVY"})
+	public CSVBenchmarkData.Quoting quoting;
+
+	@Param({"COMMA", "SEMICOLON", "TAB"})
+	public CSVSeparator separator;
+
+	private String content;
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.content = CSVBenchmarkData.createContent(this.shape, this.quoting, this.separator);
+		this.file = File.createTempFile("jbasics-benchmark", ".csv");
+		Files.write(this.file.toPath(), this.content.getBytes(CSVParseBenchmark.UTF8));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public CSVTable parserTable() throws IOException {
+		return new CSVParser(false, this.separator.asCharacter(), true).parse(new StringReader(this.content));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void parserStreaming(final Blackhole blackhole) throws IOException {
+		try (CSVDataConnection connection = new CSVParser(false, this.separator.asCharacter(), true).open(new StringReader(this.content))) {
+			CSVRecord record;
+			while ((record = connection.readNext()) != null) {
+				blackhole.consume(record);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void recordReader(final Blackhole blackhole) throws IOException {
+		try (CSVRecordReader reader = new CSVRecordReader(new StringReader(this.content), this.separator)) {
+			CSVRecord record;
+			while ((record = reader.readNext()) != null) {
+				blackhole.consume(record);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void mappedReaderAllColumns(final Blackhole blackhole) throws IOException {
+		try (MappedCSVRecordReader reader = new MappedCSVRecordReader(this.file.toPath(), CSVParseBenchmark.UTF8, this.separator, true)) {
+			CSVRecord record;
+			while ((record = reader.readNext()) != null) {
+				for (final String field : record) {
+					blackhole.consume(field);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void mappedReaderThreeColumns(final Blackhole blackhole) throws IOException {
+		try (MappedCSVRecordReader reader = new MappedCSVRecordReader(this.file.toPath(), CSVParseBenchmark.UTF8, this.separator, true)) {
+			CSVRecord record;
+			while ((record = reader.readNext()) != null) {
+				blackhole.consume(record.getField(0));
+				blackhole.consume(record.getField(1));
+				blackhole.consume(record.getField(2));
+			}
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the writing throughput in records per second. The output is discarded so only the formatting, escaping and
+ * encoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVWriteBenchmark {
+	@Param({"NARROW", "WIDE"})
+	public CSVBenchmarkData.Shape shape;
+
+	@Param({"NONE", "HEAVY"})
+	public CSVBenchmarkData.Quoting quoting;
+
+	@Param({"COMMA", "SEMICOLON", "TAB"})
+	public CSVSeparator separator;
+
+	private CSVRecord[] records;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.records = CSVBenchmarkData.createRecords(this.shape, this.quoting, this.separator.asCharacter());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void writerToWriter() throws IOException {
+		final CSVRecordWriter writer = new CSVRecordWriter(new DiscardingWriter(), this.separator);
+		writer.write(this.records);
+		writer.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public void writerToStream() throws IOException {
+		final CSVRecordWriter writer = new CSVRecordWriter(new DiscardingOutputStream(), Charset.forName("UTF-8"), this.separator);
+		writer.write(this.records);
+		writer.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CSVBenchmarkData.ROWS)
+	public StringBuilder recordAppend() throws IOException {
+		final StringBuilder result = new StringBuilder();
+		for (final CSVRecord record : this.records) {
+			record.append(result, this.separator.asCharacter()).append("\r\n");
+			result.setLength(0);
+		}
+		return result;
+	}
+
+	private static final class DiscardingWriter extends Writer {
+		@Override
+		public void write(final char[] buffer, final int offset, final int length) {
+			// discard
+		}
+
+		@Override
+		public void flush() {
+			// nothing to flush
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+
+	private static final class DiscardingOutputStream extends OutputStream {
+		@Override
+		public void write(final int b) {
+			// discard
+		}
+
+		@Override
+		public void write(final byte[] buffer, final int offset, final int length) {
+			// discard
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the multiplication algorithms of {@link InternalCalculation} with each other and with {@link BigInteger}
+ * over the operand length in words. The cross over points of the algorithms are the values for {@link
+ * InternalCalculation#KARATSUBA_THRESHOLD} and {@link InternalCalculation#TOOM_COOK_3_THRESHOLD}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiplicationBenchmark {
+	@Param({"16", "32", "48", "64", "96", "128", "192", "256", "512", "1024", "4096"})
+	public int words;
+
+	@Param({"SCHOOLBOOK", "KARATSUBA", "TOOM_COOK_3", "DEFAULT"})
+	public Algorithm algorithm;
+
+	private InternalCalculation calculation;
+	private int[] x;
+	private int[] y;
+	private BigInteger referenceX;
+	private BigInteger referenceY;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Random random = new Random(this.words);
+		this.referenceX = new BigInteger(this.words * 32, random).setBit(this.words * 32 - 1);
+		this.referenceY = new BigInteger(this.words * 32, random).setBit(this.words * 32 - 1);
+		this.x = toMagnitude(this.referenceX);
+		this.y = toMagnitude(this.referenceY);
+		this.calculation = this.algorithm.create();
+	}
+
+	@Benchmark
+	public int[] multiply() {
+		return this.calculation.multiply(this.x, this.y);
+	}
+
+	@Benchmark
+	public int[] square() {
+		return this.calculation.square(this.x);
+	}
+
+	@Benchmark
+	public BigInteger bigIntegerMultiply() {
+		return this.referenceX.multiply(this.referenceY);
+	}
+
+	@Benchmark
+	public BigInteger bigIntegerSquare() {
+		return this.referenceX.multiply(this.referenceX);
+	}
+
+	private static int[] toMagnitude(final BigInteger value) {
+		final int[] result = new int[(value.bitLength() + 31) >>> 5];
+		for (int i = 0; i < result.length; i++) {
+			result[result.length - 1 - i] = value.shiftRight(i * 32).intValue();
+		}
+		return result;
+	}
+
+	public enum Algorithm {
+		SCHOOLBOOK {
+			@Override
+			InternalCalculation create() {
+				return new Int32CalculationImpl();
+			}
+		},
+		KARATSUBA {
+			@Override
+			InternalCalculation create() {
+				return new KaratsubaCalculationImpl(InternalCalculation.KARATSUBA_THRESHOLD);
+			}
+		},
+		TOOM_COOK_3 {
+			@Override
+			InternalCalculation create() {
+				return new ToomCook3CalculationImpl(InternalCalculation.KARATSUBA_THRESHOLD,
+						InternalCalculation.KARATSUBA_THRESHOLD);
+			}
+		},
+		DEFAULT {
+			@Override
+			InternalCalculation create() {
+				return InternalCalculation.IMPL;
+			}
+		};
+
+		abstract InternalCalculation create();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+import org.jbasics.pattern.factory.Factory;
+import org.jbasics.pattern.pooling.Pool;
+import org.jbasics.types.factories.QueueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures acquire and release of a pooled instance under contention. The benchmark runs with 200 threads as seen by
+ * the JAXB marshaller pools in a request processing server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(200)
+@Fork(1)
+public class PoolContentionBenchmark {
+	@Param({"LAZY_QUEUE", "STRIPED"})
+	public Implementation implementation;
+
+	@Param({"5", "64"})
+	public int maxPoolSize;
+
+	@Param({"16"})
+	public int work;
+
+	private Pool<StringBuilder> pool;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.pool = this.implementation.create(new Factory<StringBuilder>() {
+			@Override
+			public StringBuilder newInstance() {
+				return new StringBuilder(64);
+			}
+		}, this.maxPoolSize);
+	}
+
+	@Benchmark
+	public void acquireRelease(final Blackhole blackhole) {
+		final StringBuilder instance = this.pool.acquire();
+		try {
+			instance.setLength(0);
+			Blackhole.consumeCPU(this.work);
+			blackhole.consume(instance.append('x'));
+		} finally {
+			this.pool.release(instance);
+		}
+	}
+
+	public enum Implementation {
+		LAZY_QUEUE {
+			@Override
+			<T> Pool<T> create(final Factory<T> factory, final int maxPoolSize) {
+				return new LazyQueuePool<T>(factory, new QueueFactory<T>(), maxPoolSize);
+			}
+		},
+		STRIPED {
+			@Override
+			<T> Pool<T> create(final Factory<T> factory, final int maxPoolSize) {
+				return new StripedPool<T>(factory, maxPoolSize);
+			}
+		};
+
+		abstract <T> Pool<T> create(Factory<T> factory, int maxPoolSize);
+	}
+}
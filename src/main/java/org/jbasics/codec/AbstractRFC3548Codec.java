@@ -0,0 +1,569 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.codec;
+
+import org.jbasics.arrays.ArrayConstants;
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.coder.Codec;
+import org.jbasics.text.StringUtilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Base of the RFC3548 codecs. A block of {@link #getInputBlockSize()} bytes is encoded into {@link
+ * #getOutputBlockSize()} characters of the alphabet each carrying the same number of bits. Encoding and decoding use
+ * lookup tables built once per codec instance.
+ * <p>
+ * Besides the array based {@link Codec} methods the codec works on {@link ByteBuffer} and {@link CharBuffer} and offers
+ * stream wrappers so large payloads can be coded in chunks without holding them in memory. Decoding skips all
+ * characters not in the alphabet (like line breaks) and drops an incomplete last block. The codec can also be used as a
+ * {@link CodingStage} in a {@link CodingPipeline}.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public abstract class AbstractRFC3548Codec implements Codec<byte[], CharSequence>, StagedEncoder<byte[], CharSequence>,
+		StagedDecoder<byte[], CharSequence> {
+	/**
+	 * The padding character used to fill the remaining characters to fit into the output block size
+	 */
+	public static final char PADDING_CHARACTER = '=';
+
+	private static final int BUFFER_SIZE = 4096;
+	private static final byte SKIP = -1;
+	private static final byte PADDING = -2;
+
+	private final char[] encodeTable;
+	private final byte[] decodeTable;
+	private final int bitsPerCharacter;
+	private final int inputBlockSize;
+	private final int outputBlockSize;
+	private final boolean fillWithoutPadding;
+
+	/**
+	 * Creates the codec for the given alphabet. The block sizes are derived from the bits per character.
+	 *
+	 * @param alphabet           The alphabet with one character for every value of the bits per character
+	 * @param ignoreCase         True if the decoding should accept the lower case letters of the alphabet as well
+	 * @param usePadding         True if the {@link #PADDING_CHARACTER} is used to fill the last block
+	 * @param fillWithoutPadding True to fill the last block with zero bits rather than padding characters
+	 */
+	protected AbstractRFC3548Codec(final String alphabet, final boolean ignoreCase, final boolean usePadding, final boolean fillWithoutPadding) {
+		final int size = ContractCheck.mustNotBeNullOrEmpty(alphabet, "alphabet").length(); //$NON-NLS-1$
+		this.bitsPerCharacter = Integer.numberOfTrailingZeros(size);
+		if (Integer.bitCount(size) != 1 || this.bitsPerCharacter > 8) {
+			throw new IllegalArgumentException("The alphabet size must be a power of two up to 256"); //$NON-NLS-1$
+		}
+		final int blockBits = this.bitsPerCharacter * 8 / gcd(this.bitsPerCharacter, 8);
+		this.inputBlockSize = blockBits / 8;
+		this.outputBlockSize = blockBits / this.bitsPerCharacter;
+		this.fillWithoutPadding = fillWithoutPadding;
+		this.encodeTable = alphabet.toCharArray();
+		this.decodeTable = new byte[256];
+		Arrays.fill(this.decodeTable, AbstractRFC3548Codec.SKIP);
+		if (usePadding) {
+			this.decodeTable[AbstractRFC3548Codec.PADDING_CHARACTER] = AbstractRFC3548Codec.PADDING;
+		}
+		for (int i = 0; i < size; i++) {
+			final char c = this.encodeTable[i];
+			this.decodeTable[c] = (byte) i;
+			if (ignoreCase) {
+				this.decodeTable[Character.toLowerCase(c)] = (byte) i;
+				this.decodeTable[Character.toUpperCase(c)] = (byte) i;
+			}
+		}
+	}
+
+	private static int gcd(final int a, final int b) {
+		return b == 0 ? a : AbstractRFC3548Codec.gcd(b, a % b);
+	}
+
+	/**
+	 * Returns the input block size used for encoding.
+	 *
+	 * @return The input block size
+	 */
+	public int getInputBlockSize() {
+		return this.inputBlockSize;
+	}
+
+	/**
+	 * Returns the output block size used for encoding
+	 *
+	 * @return The output block size
+	 */
+	public int getOutputBlockSize() {
+		return this.outputBlockSize;
+	}
+
+	/**
+	 * Returns the number of characters the given number of bytes are encoded to.
+	 *
+	 * @param byteCount The number of bytes
+	 *
+	 * @return The number of characters
+	 */
+	public int getEncodedLength(final int byteCount) {
+		return (byteCount + this.inputBlockSize - 1) / this.inputBlockSize * this.outputBlockSize;
+	}
+
+	/**
+	 * Returns the maximum number of bytes the given number of characters can be decoded to.
+	 *
+	 * @param charCount The number of characters
+	 *
+	 * @return The maximum number of bytes
+	 */
+	public int getMaxDecodedLength(final int charCount) {
+		return charCount / this.outputBlockSize * this.inputBlockSize;
+	}
+
+	@Override
+	public CharSequence encode(final byte[] input) {
+		if (input == null || input.length == 0) {
+			return StringUtilities.EMPTY_STRING;
+		}
+		final char[] result = new char[getEncodedLength(input.length)];
+		final int full = input.length - input.length % this.inputBlockSize;
+		final int written = encodeBlocks(input, 0, full, result, 0);
+		encodeTail(input, full, input.length - full, result, written);
+		return toCharSequence(result);
+	}
+
+	/**
+	 * Wraps the encoded characters into the result of {@link #encode(byte[])}.
+	 *
+	 * @param encoded The encoded characters which are not used anywhere else
+	 *
+	 * @return The character sequence
+	 */
+	protected CharSequence toCharSequence(final char[] encoded) {
+		return new String(encoded);
+	}
+
+	/**
+	 * Encodes the remaining bytes of the input into the output as far as the output has room for. Only complete blocks
+	 * are encoded unless the end of input is reached in which case the last incomplete block is encoded as well. Both
+	 * buffer positions are advanced.
+	 *
+	 * @param input      The bytes to encode
+	 * @param output     The buffer to write the characters to
+	 * @param endOfInput True if no more input follows the remaining bytes
+	 *
+	 * @return True if all remaining input was encoded
+	 */
+	public boolean encode(final ByteBuffer input, final CharBuffer output, final boolean endOfInput) {
+		final int blocks = Math.min(input.remaining() / this.inputBlockSize, output.remaining() / this.outputBlockSize);
+		if (blocks > 0) {
+			final int length = blocks * this.inputBlockSize;
+			if (input.hasArray() && output.hasArray()) {
+				final int written = encodeBlocks(input.array(), input.arrayOffset() + input.position(), length, output.array(),
+						output.arrayOffset() + output.position());
+				input.position(input.position() + length);
+				output.position(output.position() + written);
+			} else {
+				final byte[] in = new byte[Math.min(length, AbstractRFC3548Codec.BUFFER_SIZE / this.outputBlockSize * this.inputBlockSize)];
+				final char[] out = new char[in.length / this.inputBlockSize * this.outputBlockSize];
+				for (int left = length; left > 0; ) {
+					final int chunk = Math.min(left, in.length);
+					input.get(in, 0, chunk);
+					output.put(out, 0, encodeBlocks(in, 0, chunk, out, 0));
+					left -= chunk;
+				}
+			}
+		}
+		if (endOfInput && input.remaining() > 0 && input.remaining() < this.inputBlockSize && output.remaining() >= this.outputBlockSize) {
+			final byte[] in = new byte[input.remaining()];
+			final char[] out = new char[this.outputBlockSize];
+			input.get(in);
+			output.put(out, 0, encodeTail(in, 0, in.length, out, 0));
+		}
+		return !input.hasRemaining();
+	}
+
+	/**
+	 * Encodes all remaining bytes of the input.
+	 *
+	 * @param input The bytes to encode
+	 *
+	 * @return The encoded characters ready to be read
+	 */
+	public CharBuffer encodeBuffer(final ByteBuffer input) {
+		final CharBuffer result = CharBuffer.allocate(getEncodedLength(input.remaining()));
+		encode(input, result, true);
+		result.flip();
+		return result;
+	}
+
+	@Override
+	public byte[] decode(final CharSequence input) {
+		if (input == null || input.length() == 0) {
+			return ArrayConstants.ZERO_LENGTH_BYTE_ARRAY;
+		}
+		final byte[] result = new byte[getMaxDecodedLength(input.length()) + this.inputBlockSize];
+		final int[] position = {0};
+		final int written = decode(input, input.length(), position, result, 0, result.length, true);
+		return written == result.length ? result : Arrays.copyOf(result, written);
+	}
+
+	/**
+	 * Decodes the remaining characters of the input into the output as far as the output has room for. The input is
+	 * only consumed up to the last complete block. At the end of input an incomplete block is dropped.
+	 *
+	 * @param input      The characters to decode
+	 * @param output     The buffer to write the bytes to
+	 * @param endOfInput True if no more input follows the remaining characters
+	 *
+	 * @return True if all remaining input was consumed
+	 */
+	public boolean decode(final CharBuffer input, final ByteBuffer output, final boolean endOfInput) {
+		final int[] position = {0};
+		if (output.hasArray()) {
+			final int offset = output.arrayOffset() + output.position();
+			final int written = decode(input, input.remaining(), position, output.array(), offset, offset + output.remaining(), endOfInput);
+			output.position(output.position() + written);
+		} else {
+			final byte[] out = new byte[output.remaining()];
+			output.put(out, 0, decode(input, input.remaining(), position, out, 0, out.length, endOfInput));
+		}
+		input.position(input.position() + position[0]);
+		return !input.hasRemaining();
+	}
+
+	/**
+	 * Decodes all remaining characters of the input.
+	 *
+	 * @param input The characters to decode
+	 *
+	 * @return The decoded bytes ready to be read
+	 */
+	public ByteBuffer decodeBuffer(final CharBuffer input) {
+		final ByteBuffer result = ByteBuffer.allocate(getMaxDecodedLength(input.remaining()) + this.inputBlockSize);
+		decode(input, result, true);
+		result.flip();
+		return result;
+	}
+
+	/**
+	 * Creates a stream encoding all bytes written to it into characters written to the given writer. Closing the stream
+	 * encodes the last incomplete block and closes the writer.
+	 *
+	 * @param writer The writer to write the characters to (must not be null)
+	 *
+	 * @return The encoding stream
+	 */
+	public OutputStream newEncodingStream(final Writer writer) {
+		return new EncodingOutputStream(ContractCheck.mustNotBeNull(writer, "writer")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates a stream decoding the characters read from the given reader.
+	 *
+	 * @param reader The reader to read the characters from (must not be null)
+	 *
+	 * @return The decoding stream
+	 */
+	public InputStream newDecodingStream(final Reader reader) {
+		return new DecodingInputStream(ContractCheck.mustNotBeNull(reader, "reader")); //$NON-NLS-1$
+	}
+
+	@Override
+	public CodingStage<ByteBuffer, CharBuffer> newEncodingStage() {
+		return new CodingStage<ByteBuffer, CharBuffer>() {
+			@Override
+			public int getInputBlockSize() {
+				return AbstractRFC3548Codec.this.inputBlockSize;
+			}
+
+			@Override
+			public int getOutputBlockSize() {
+				return AbstractRFC3548Codec.this.outputBlockSize;
+			}
+
+			@Override
+			public CharBuffer allocateOutput(final int capacity) {
+				return CharBuffer.allocate(capacity);
+			}
+
+			@Override
+			public boolean code(final ByteBuffer input, final CharBuffer output, final boolean endOfInput) {
+				encode(input, output, endOfInput);
+				return endOfInput ? !input.hasRemaining() : input.remaining() < AbstractRFC3548Codec.this.inputBlockSize;
+			}
+		};
+	}
+
+	@Override
+	public CodingStage<CharBuffer, ByteBuffer> newDecodingStage() {
+		return new CodingStage<CharBuffer, ByteBuffer>() {
+			@Override
+			public int getInputBlockSize() {
+				return AbstractRFC3548Codec.this.outputBlockSize;
+			}
+
+			@Override
+			public int getOutputBlockSize() {
+				return AbstractRFC3548Codec.this.inputBlockSize;
+			}
+
+			@Override
+			public ByteBuffer allocateOutput(final int capacity) {
+				return ByteBuffer.allocate(capacity);
+			}
+
+			@Override
+			public boolean code(final CharBuffer input, final ByteBuffer output, final boolean endOfInput) {
+				decode(input, output, endOfInput);
+				// decoding only stops early if the output has no room for another block
+				return output.remaining() >= AbstractRFC3548Codec.this.inputBlockSize;
+			}
+		};
+	}
+
+	private int encodeBlocks(final byte[] in, final int from, final int length, final char[] out, final int offset) {
+		final char[] table = this.encodeTable;
+		final int bits = this.bitsPerCharacter;
+		final int mask = table.length - 1;
+		final int inBlock = this.inputBlockSize;
+		final int outBlock = this.outputBlockSize;
+		int j = offset;
+		if (inBlock == 1) {
+			for (int i = from, end = from + length; i < end; i++) {
+				out[j++] = table[(in[i] & 0xff) >>> bits];
+				out[j++] = table[in[i] & mask];
+			}
+			return j - offset;
+		} else if (inBlock == 3) {
+			for (int i = from, end = from + length; i < end; i += 3) {
+				final int block = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8 | in[i + 2] & 0xff;
+				out[j++] = table[block >>> 18];
+				out[j++] = table[block >>> 12 & mask];
+				out[j++] = table[block >>> 6 & mask];
+				out[j++] = table[block & mask];
+			}
+			return j - offset;
+		}
+		for (int i = from, end = from + length; i < end; i += inBlock) {
+			long block = 0;
+			for (int k = 0; k < inBlock; k++) {
+				block = block << 8 | in[i + k] & 0xff;
+			}
+			for (int shift = (outBlock - 1) * bits; shift >= 0; shift -= bits) {
+				out[j++] = table[(int) (block >>> shift) & mask];
+			}
+		}
+		return j - offset;
+	}
+
+	private int encodeTail(final byte[] in, final int from, final int length, final char[] out, final int offset) {
+		if (length == 0) {
+			return 0;
+		}
+		long block = 0;
+		for (int k = 0; k < this.inputBlockSize; k++) {
+			block = block << 8 | (k < length ? in[from + k] & 0xff : 0);
+		}
+		final int used = this.fillWithoutPadding ? this.outputBlockSize : (length * 8 + this.bitsPerCharacter - 1) / this.bitsPerCharacter;
+		final int mask = this.encodeTable.length - 1;
+		int shift = (this.outputBlockSize - 1) * this.bitsPerCharacter;
+		for (int k = 0; k < this.outputBlockSize; k++, shift -= this.bitsPerCharacter) {
+			out[offset + k] = k < used ? this.encodeTable[(int) (block >>> shift) & mask] : AbstractRFC3548Codec.PADDING_CHARACTER;
+		}
+		return this.outputBlockSize;
+	}
+
+	private int decode(final CharSequence in, final int length, final int[] position, final byte[] out, final int offset, final int limit,
+					   final boolean endOfInput) {
+		final byte[] table = this.decodeTable;
+		final int bits = this.bitsPerCharacter;
+		final int inBlock = this.inputBlockSize;
+		final int outBlock = this.outputBlockSize;
+		int j = offset;
+		int consumed = position[0];
+		int count = 0;
+		int padding = 0;
+		long block = 0;
+		for (int i = consumed; i < length && j + inBlock <= limit; i++) {
+			final char c = in.charAt(i);
+			final int value = c < 256 ? table[c] : AbstractRFC3548Codec.SKIP;
+			if (value == AbstractRFC3548Codec.SKIP) {
+				if (count == 0) {
+					consumed = i + 1;
+				}
+				continue;
+			}
+			if (value == AbstractRFC3548Codec.PADDING) {
+				padding++;
+				block <<= bits;
+			} else {
+				block = block << bits | value;
+			}
+			if (++count == outBlock) {
+				final int bytes = padding == 0 ? inBlock : Math.max(1, (outBlock - padding) * bits / 8);
+				for (int k = 1; k <= bytes; k++) {
+					out[j++] = (byte) (block >>> (inBlock - k) * 8);
+				}
+				count = 0;
+				padding = 0;
+				block = 0;
+				consumed = i + 1;
+			}
+		}
+		position[0] = endOfInput && j + inBlock <= limit ? length : consumed;
+		return j - offset;
+	}
+
+	private final class EncodingOutputStream extends OutputStream {
+		private final Writer writer;
+		private final byte[] pending = new byte[AbstractRFC3548Codec.BUFFER_SIZE / AbstractRFC3548Codec.this.outputBlockSize
+				* AbstractRFC3548Codec.this.inputBlockSize];
+		private final char[] chars = new char[getEncodedLength(this.pending.length)];
+		private int count;
+		private boolean closed;
+
+		private EncodingOutputStream(final Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			if (this.count == this.pending.length) {
+				flushBlocks();
+			}
+			this.pending[this.count++] = (byte) b;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			int from = off;
+			int left = len;
+			while (left > 0) {
+				if (this.count == this.pending.length) {
+					flushBlocks();
+				}
+				final int chunk = Math.min(left, this.pending.length - this.count);
+				System.arraycopy(b, from, this.pending, this.count, chunk);
+				this.count += chunk;
+				from += chunk;
+				left -= chunk;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			flushBlocks();
+			this.writer.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				final int full = this.count - this.count % AbstractRFC3548Codec.this.inputBlockSize;
+				int written = encodeBlocks(this.pending, 0, full, this.chars, 0);
+				written += encodeTail(this.pending, full, this.count - full, this.chars, written);
+				this.count = 0;
+				this.writer.write(this.chars, 0, written);
+				this.writer.close();
+			}
+		}
+
+		private void flushBlocks() throws IOException {
+			final int full = this.count - this.count % AbstractRFC3548Codec.this.inputBlockSize;
+			if (full > 0) {
+				this.writer.write(this.chars, 0, encodeBlocks(this.pending, 0, full, this.chars, 0));
+				System.arraycopy(this.pending, full, this.pending, 0, this.count - full);
+				this.count -= full;
+			}
+		}
+	}
+
+	private final class DecodingInputStream extends InputStream {
+		private final Reader reader;
+		private final CharBuffer chars = CharBuffer.allocate(AbstractRFC3548Codec.BUFFER_SIZE);
+		private final ByteBuffer bytes = ByteBuffer.allocate(getMaxDecodedLength(AbstractRFC3548Codec.BUFFER_SIZE));
+		private boolean endOfInput;
+
+		private DecodingInputStream(final Reader reader) {
+			this.reader = reader;
+			this.bytes.flip();
+		}
+
+		@Override
+		public int read() throws IOException {
+			return fill() ? this.bytes.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			final int chunk = Math.min(len, this.bytes.remaining());
+			this.bytes.get(b, off, chunk);
+			return chunk;
+		}
+
+		@Override
+		public int available() {
+			return this.bytes.remaining();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.reader.close();
+		}
+
+		private boolean fill() throws IOException {
+			while (!this.bytes.hasRemaining()) {
+				if (this.endOfInput && !this.chars.hasRemaining()) {
+					return false;
+				}
+				if (!this.endOfInput) {
+					this.chars.compact();
+					try {
+						this.endOfInput = this.reader.read(this.chars) < 0;
+					} finally {
+						this.chars.flip();
+					}
+				}
+				this.bytes.clear();
+				decode(this.chars, this.bytes, this.endOfInput);
+				this.bytes.flip();
+			}
+			return true;
+		}
+	}
+}
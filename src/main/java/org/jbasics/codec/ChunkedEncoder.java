@@ -27,18 +27,20 @@ import org.jbasics.annotation.ImmutableState;
 import org.jbasics.annotation.ThreadSafe;
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.checker.ContractViolationException;
-import org.jbasics.pattern.coder.Encoder;
+
+import java.nio.CharBuffer;
 
 /**
  * An encoder to encode the input in chunks with a separator. The encoder takes the input and builds blocks of data
- * separated by the given separator.
+ * separated by the given separator. As a {@link CodingStage} the chunks are inserted while the characters stream
+ * through.
  *
  * @author Stephan Schloepke
  * @since 1.0
  */
 @ThreadSafe
 @ImmutableState
-public class ChunkedEncoder implements Encoder<CharSequence, CharSequence> {
+public class ChunkedEncoder implements StagedEncoder<CharSequence, CharSequence> {
 	private final int chunkSize;
 	private final String separator;
 
@@ -77,4 +79,49 @@ public class ChunkedEncoder implements Encoder<CharSequence, CharSequence> {
 		}
 		return temp;
 	}
+
+	@Override
+	public CodingStage<CharBuffer, CharBuffer> newEncodingStage() {
+		return new CodingStage<CharBuffer, CharBuffer>() {
+			private int column;
+
+			@Override
+			public int getInputBlockSize() {
+				return 1;
+			}
+
+			@Override
+			public int getOutputBlockSize() {
+				return ChunkedEncoder.this.separator.length() + 1;
+			}
+
+			@Override
+			public CharBuffer allocateOutput(final int capacity) {
+				return CharBuffer.allocate(capacity);
+			}
+
+			@Override
+			public boolean code(final CharBuffer input, final CharBuffer output, final boolean endOfInput) {
+				while (input.hasRemaining()) {
+					if (this.column == ChunkedEncoder.this.chunkSize) {
+						if (output.remaining() <= ChunkedEncoder.this.separator.length()) {
+							return false;
+						}
+						output.append(ChunkedEncoder.this.separator);
+						this.column = 0;
+					}
+					final int length = Math.min(Math.min(input.remaining(), output.remaining()), ChunkedEncoder.this.chunkSize - this.column);
+					if (length == 0) {
+						return false;
+					}
+					final int limit = input.limit();
+					input.limit(input.position() + length);
+					output.put(input);
+					input.limit(limit);
+					this.column += length;
+				}
+				return true;
+			}
+		};
+	}
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.codec;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.exception.DelegatedException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link CodingStage} over input pushed in chunks and hands the output to a sink in chunks of a fixed size.
+ * Chained stages are fused with {@link #compose(CodingStage, CodingStage)} into one stage passing a fixed size buffer
+ * between them, so the memory used stays bounded for any input size.
+ *
+ * @param <I> The type of the input buffer
+ * @param <O> The type of the output buffer
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class CodingPipeline<I extends Buffer, O extends Buffer> {
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	private final CodingStage<I, O> stage;
+	private final O output;
+	private final Consumer<? super O> sink;
+
+	/**
+	 * Creates a pipeline for the given stage. The sink is called with the output buffer ready to be read and must
+	 * consume all of it.
+	 *
+	 * @param stage The stage to run (must not be null)
+	 * @param sink  The consumer of the output (must not be null)
+	 */
+	public CodingPipeline(final CodingStage<I, O> stage, final Consumer<? super O> sink) {
+		this.stage = ContractCheck.mustNotBeNull(stage, "stage"); //$NON-NLS-1$
+		this.sink = ContractCheck.mustNotBeNull(sink, "sink"); //$NON-NLS-1$
+		this.output = stage.allocateOutput(Math.max(CodingPipeline.DEFAULT_BUFFER_SIZE, stage.getOutputBlockSize()));
+	}
+
+	/**
+	 * Codes the input and passes the output to the sink. Without the end of input a trailing incomplete block may be
+	 * left in the input which the caller has to keep (for example with compact) for the next call.
+	 *
+	 * @param input      The input buffer of the input type of the stage
+	 * @param endOfInput True if this is the last input
+	 */
+	public void process(final I input, final boolean endOfInput) {
+		boolean underflow;
+		do {
+			underflow = this.stage.code(input, this.output, endOfInput);
+			this.output.flip();
+			if (this.output.hasRemaining()) {
+				this.sink.accept(this.output);
+			}
+			this.output.clear();
+		} while (!underflow);
+	}
+
+	/**
+	 * Fuses two stages into one. The output of the first stage is passed to the second in a buffer of fixed size.
+	 *
+	 * @param first  The first stage (must not be null)
+	 * @param second The second stage taking the output of the first (must not be null)
+	 * @param <I>    The input type of the first stage
+	 * @param <M>    The type between the stages
+	 * @param <O>    The output type of the second stage
+	 *
+	 * @return The fused stage
+	 */
+	public static <I extends Buffer, M extends Buffer, O extends Buffer> CodingStage<I, O> compose(final CodingStage<I, ? extends M> first,
+																								  final CodingStage<? super M, O> second) {
+		return CodingPipeline.fuse(first, second);
+	}
+
+	/**
+	 * Returns a sink appending character output to the given appendable.
+	 *
+	 * @param appendable The appendable to append to (must not be null)
+	 *
+	 * @return The sink
+	 */
+	public static Consumer<CharBuffer> appendTo(final Appendable appendable) {
+		ContractCheck.mustNotBeNull(appendable, "appendable"); //$NON-NLS-1$
+		return buffer -> {
+			try {
+				appendable.append(buffer);
+			} catch (final IOException e) {
+				throw DelegatedException.delegate(e);
+			}
+			buffer.position(buffer.limit());
+		};
+	}
+
+	/**
+	 * Returns a sink writing byte output to the given stream.
+	 *
+	 * @param out The stream to write to (must not be null)
+	 *
+	 * @return The sink
+	 */
+	public static Consumer<ByteBuffer> writeTo(final OutputStream out) {
+		ContractCheck.mustNotBeNull(out, "out"); //$NON-NLS-1$
+		return bytes -> {
+			try {
+				if (bytes.hasArray()) {
+					out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+				} else {
+					final byte[] temp = new byte[bytes.remaining()];
+					bytes.duplicate().get(temp);
+					out.write(temp);
+				}
+			} catch (final IOException e) {
+				throw DelegatedException.delegate(e);
+			}
+			bytes.position(bytes.limit());
+		};
+	}
+
+	/**
+	 * Codes a complete byte array or character sequence with the given stage. The stage is only known by its wildcard
+	 * type, so it has to take the buffer wrapping the input.
+	 *
+	 * @param stage The stage to run
+	 * @param input The input as byte array or character sequence
+	 *
+	 * @return The output as byte array or as string
+	 */
+	@SuppressWarnings("unchecked")
+	static Object codeAll(final CodingStage<?, ?> stage, final Object input) {
+		final Buffer buffer = input instanceof byte[] ? ByteBuffer.wrap((byte[]) input) : CharBuffer.wrap((CharSequence) input);
+		final Buffer probe = stage.allocateOutput(0);
+		if (probe instanceof CharBuffer) {
+			final StringBuilder result = new StringBuilder(buffer.remaining() * 2);
+			new CodingPipeline<Buffer, CharBuffer>((CodingStage<Buffer, CharBuffer>) stage, CodingPipeline.appendTo(result)).process(buffer, true);
+			return result.toString();
+		} else {
+			final ByteArrayOutputStream result = new ByteArrayOutputStream(buffer.remaining());
+			new CodingPipeline<Buffer, ByteBuffer>((CodingStage<Buffer, ByteBuffer>) stage, CodingPipeline.writeTo(result)).process(buffer, true);
+			return result.toByteArray();
+		}
+	}
+
+	// captures the exact output type of the first stage so the buffer between the stages can be written by it
+	private static <I extends Buffer, M extends Buffer, O extends Buffer> CodingStage<I, O> fuse(final CodingStage<I, M> first,
+																							   final CodingStage<? super M, O> second) {
+		return new CompositeStage<I, M, O>(first, second);
+	}
+
+	private static void compact(final Buffer buffer) {
+		if (buffer instanceof ByteBuffer) {
+			((ByteBuffer) buffer).compact();
+		} else if (buffer instanceof CharBuffer) {
+			((CharBuffer) buffer).compact();
+		} else {
+			throw new IllegalArgumentException("Only byte and char buffers are supported between stages"); //$NON-NLS-1$
+		}
+	}
+
+	private static final class CompositeStage<I extends Buffer, M extends Buffer, O extends Buffer> implements CodingStage<I, O> {
+		private final CodingStage<I, M> first;
+		private final CodingStage<? super M, O> second;
+		private final M middle;
+
+		private CompositeStage(final CodingStage<I, M> first, final CodingStage<? super M, O> second) {
+			this.first = ContractCheck.mustNotBeNull(first, "first"); //$NON-NLS-1$
+			this.second = ContractCheck.mustNotBeNull(second, "second"); //$NON-NLS-1$
+			this.middle = first.allocateOutput(Math.max(CodingPipeline.DEFAULT_BUFFER_SIZE,
+					2 * (first.getOutputBlockSize() + second.getInputBlockSize())));
+		}
+
+		@Override
+		public int getInputBlockSize() {
+			return this.first.getInputBlockSize();
+		}
+
+		@Override
+		public int getOutputBlockSize() {
+			return this.second.getOutputBlockSize();
+		}
+
+		@Override
+		public O allocateOutput(final int capacity) {
+			return this.second.allocateOutput(capacity);
+		}
+
+		@Override
+		public boolean code(final I input, final O output, final boolean endOfInput) {
+			while (true) {
+				final int inputBefore = input.position();
+				final int outputBefore = output.position();
+				final int middleBefore = this.middle.position();
+				final boolean firstUnderflow = this.first.code(input, this.middle, endOfInput);
+				final boolean produced = this.middle.position() != middleBefore;
+				this.middle.flip();
+				final int pending = this.middle.remaining();
+				final boolean secondUnderflow = this.second.code(this.middle, output, endOfInput && firstUnderflow);
+				final boolean consumed = this.middle.remaining() != pending;
+				CodingPipeline.compact(this.middle);
+				if (!secondUnderflow) {
+					return false;
+				}
+				if (firstUnderflow) {
+					return true;
+				}
+				if (!produced && !consumed && input.position() == inputBefore && output.position() == outputBefore) {
+					throw new IllegalStateException("Chained coding stages do not make any progress"); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+}
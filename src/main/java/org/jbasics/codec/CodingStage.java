@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.codec;
+
+import java.nio.Buffer;
+
+/**
+ * One stage of a streaming coding. A stage is created for a single coding run and keeps the state needed between calls
+ * like a partial block. Data is passed in {@link java.nio.ByteBuffer}s or {@link java.nio.CharBuffer}s of fixed size
+ * so chained stages never need to hold the complete intermediate result.
+ * <p>
+ * The block sizes form the contract between chained stages. The stage consumes its input in multiples of the input
+ * block size (except at the end of input) and makes progress as long as the output has room for at least one output
+ * block.
+ * </p>
+ *
+ * @param <I> The type of the input buffer
+ * @param <O> The type of the output buffer
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public interface CodingStage<I extends Buffer, O extends Buffer> {
+
+	int getInputBlockSize();
+
+	int getOutputBlockSize();
+
+	/**
+	 * Allocates a buffer of the output type of this stage.
+	 *
+	 * @param capacity The capacity of the buffer
+	 *
+	 * @return The new buffer ready to be written to
+	 */
+	O allocateOutput(int capacity);
+
+	/**
+	 * Codes the input into the output as far as possible. Once this method returned true with the end of input it must
+	 * not produce any more output and return true again if called.
+	 *
+	 * @param input      The input buffer to read from
+	 * @param output     The output buffer to write to
+	 * @param endOfInput True if no input follows the remaining input
+	 *
+	 * @return True if more input is needed (or the coding is complete at the end of input), false if the output is full
+	 */
+	boolean code(I input, O output, boolean endOfInput);
+}
@@ -28,10 +28,14 @@ import org.jbasics.annotation.ThreadSafe;
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.pattern.coder.Decoder;
 
+import java.nio.Buffer;
+
 /**
  * A chain of {@link Decoder}s to call. Actually this is an encoder Pair and a fully chain can be applied by attaching
  * one {@link Decoder} with another {@link DecoderChain}. <p> The guarantee to be thread safe is only guaranteed if the
- * decoder given is also thread safe. Same applies to be immutable. </p>
+ * decoder given is also thread safe. Same applies to be immutable. </p> <p> If both decoders are {@link StagedDecoder}s
+ * the chain is fused into one {@link CodingStage} so the intermediate result is passed in fixed size buffers rather than
+ * built in full. </p>
  *
  * @param <T>    The decoded type
  * @param <TEnc> The encoded type
@@ -41,7 +45,7 @@ import org.jbasics.pattern.coder.Decoder;
  */
 @ThreadSafe(derived = true)
 @ImmutableState(derived = true)
-public final class DecoderChain<T, TEnc> implements Decoder<T, TEnc> {
+public final class DecoderChain<T, TEnc> implements StagedDecoder<T, TEnc> {
 	@SuppressWarnings("rawtypes")
 	private final Decoder first;
 	@SuppressWarnings("rawtypes")
@@ -69,6 +73,25 @@ public final class DecoderChain<T, TEnc> implements Decoder<T, TEnc> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public T decode(final TEnc input) {
+		if (input instanceof byte[] || input instanceof CharSequence) {
+			final CodingStage<?, ?> stage = newDecodingStage();
+			if (stage != null) {
+				return (T) CodingPipeline.codeAll(stage, input);
+			}
+		}
 		return (T) this.second.decode(this.first.decode(input));
 	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CodingStage<?, ?> newDecodingStage() {
+		if (this.first instanceof StagedDecoder && this.second instanceof StagedDecoder) {
+			final CodingStage<?, ?> firstStage = ((StagedDecoder<?, ?>) this.first).newDecodingStage();
+			final CodingStage<?, ?> secondStage = ((StagedDecoder<?, ?>) this.second).newDecodingStage();
+			if (firstStage != null && secondStage != null) {
+				return CodingPipeline.compose((CodingStage<Buffer, Buffer>) firstStage, (CodingStage<Buffer, Buffer>) secondStage);
+			}
+		}
+		return null;
+	}
 }
@@ -28,10 +28,14 @@ import org.jbasics.annotation.ThreadSafe;
 import org.jbasics.pattern.coder.Decoder;
 import org.jbasics.pattern.coder.Encoder;
 
+import java.nio.Buffer;
+
 /**
  * A chain of {@link Decoder}s to call. Actually this is an encoder Pair and a fully chain can be applied by attaching
  * one {@link Decoder} with another {@link DecoderChain}. <p> The guarantee to be thread safe is only guaranteed if the
- * decoder given is also thread safe. Same applies to be immutable. </p>
+ * decoder given is also thread safe. Same applies to be immutable. </p> <p> If both encoders are {@link StagedEncoder}s
+ * the chain is fused into one {@link CodingStage} so the intermediate result is passed in fixed size buffers rather than
+ * built in full. </p>
  *
  * @param <T>    The decoded type
  * @param <TEnc> The encoded type
@@ -41,7 +45,7 @@ import org.jbasics.pattern.coder.Encoder;
  */
 @ThreadSafe(derived = true)
 @ImmutableState(derived = true)
-public final class EncoderChain<T, TEnc> implements Encoder<T, TEnc> {
+public final class EncoderChain<T, TEnc> implements StagedEncoder<T, TEnc> {
 	@SuppressWarnings("rawtypes")
 	private final Encoder first;
 	@SuppressWarnings("rawtypes")
@@ -69,6 +73,25 @@ public final class EncoderChain<T, TEnc> implements Encoder<T, TEnc> {
 	@Override
 	@SuppressWarnings("unchecked")
 	public TEnc encode(final T input) {
+		if (input instanceof byte[] || input instanceof CharSequence) {
+			final CodingStage<?, ?> stage = newEncodingStage();
+			if (stage != null) {
+				return (TEnc) CodingPipeline.codeAll(stage, input);
+			}
+		}
 		return (TEnc) this.second.encode(this.first.encode(input));
 	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CodingStage<?, ?> newEncodingStage() {
+		if (this.first instanceof StagedEncoder && this.second instanceof StagedEncoder) {
+			final CodingStage<?, ?> firstStage = ((StagedEncoder<?, ?>) this.first).newEncodingStage();
+			final CodingStage<?, ?> secondStage = ((StagedEncoder<?, ?>) this.second).newEncodingStage();
+			if (firstStage != null && secondStage != null) {
+				return CodingPipeline.compose((CodingStage<Buffer, Buffer>) firstStage, (CodingStage<Buffer, Buffer>) secondStage);
+			}
+		}
+		return null;
+	}
 }
@@ -23,13 +23,8 @@
  */
 package org.jbasics.codec;
 
-import org.jbasics.arrays.ArrayConstants;
-import org.jbasics.pattern.coder.Codec;
-import org.jbasics.text.StringUtilities;
 import org.jbasics.types.sequences.ArrayCharacterSequence;
 
-import java.io.ByteArrayOutputStream;
-
 /**
  * Codec for the RFC3548 base 16 coding. This is one of the three codecs defined in the RFC3548. The codec is also known
  * as the hex codec because it results. in two character hex values for one byte.
@@ -37,7 +32,7 @@ import java.io.ByteArrayOutputStream;
  * @author Stephan Schloepke
  * @since 1.0
  */
-public class RFC3548Base16Codec implements Codec<byte[], CharSequence> {
+public class RFC3548Base16Codec extends AbstractRFC3548Codec {
 	/**
 	 * The alphabet used for coding and decoding
 	 *
@@ -52,71 +47,16 @@ public class RFC3548Base16Codec implements Codec<byte[], CharSequence> {
 	public static final RFC3548Base16Codec INSTANCE = new RFC3548Base16Codec();
 
 	/**
-	 * Returns the input block size used for encoding.
-	 *
-	 * @return The input block size
-	 *
-	 * @since 1.0
-	 */
-	public int getInputBlockSize() {
-		return 1;
-	}
-
-	/**
-	 * Returns the output block size used for encoding
-	 *
-	 * @return The output block size
+	 * Creates the codec. Decoding accepts upper and lower case letters.
 	 *
 	 * @since 1.0
 	 */
-	public int getOutputBlockSize() {
-		return 2;
+	public RFC3548Base16Codec() {
+		super(RFC3548Base16Codec.BASE16_ALPHABET, true, false, false);
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.jbasics.pattern.coder.Encoder#encode(java.lang.Object)
-	 */
-	@Override
-	public CharSequence encode(final byte[] input) {
-		if (input == null || input.length == 0) {
-			return StringUtilities.EMPTY_STRING;
-		}
-		final char[] result = new char[input.length * 2];
-		for (int i = 0, j = 0; i < input.length; i++, j += 2) {
-			result[j] = RFC3548Base16Codec.BASE16_ALPHABET.charAt(input[i] >> 4 & 0x0f);
-			result[j + 1] = RFC3548Base16Codec.BASE16_ALPHABET.charAt(input[i] & 0x0f);
-		}
-		return new ArrayCharacterSequence(result);
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.jbasics.pattern.coder.Decoder#decode(java.lang.Object)
-	 */
 	@Override
-	public byte[] decode(final CharSequence input) {
-		if (input == null || input.length() == 0) {
-			return ArrayConstants.ZERO_LENGTH_BYTE_ARRAY;
-		}
-		final ByteArrayOutputStream data = new ByteArrayOutputStream(input.length() / 2);
-		boolean flip = false;
-		byte value = 0;
-		for (int i = 0; i < input.length(); i++) {
-			final int current = RFC3548Base16Codec.BASE16_ALPHABET.indexOf(Character.toUpperCase(input.charAt(i)));
-			if (current < 0) {
-				continue;
-			}
-			value = (byte) (value << 4 | current);
-			if (flip) {
-				data.write(value);
-				flip = false;
-			} else {
-				flip = true;
-			}
-		}
-		return data.toByteArray();
+	protected CharSequence toCharSequence(final char[] encoded) {
+		return new ArrayCharacterSequence(encoded);
 	}
 }
@@ -24,14 +24,20 @@
 package org.jbasics.codec;
 
 import org.jbasics.checker.ContractCheck;
+import org.jbasics.exception.DelegatedException;
 import org.jbasics.pattern.coder.Codec;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.Random;
 
-public class XOrCryptCodec implements Codec<CharSequence, byte[]> {
+public class XOrCryptCodec implements Codec<CharSequence, byte[]>, StagedEncoder<CharSequence, byte[]>, StagedDecoder<CharSequence, byte[]> {
 	public static final Charset UTF8_CHARSET = Charset.forName("UTF8"); //$NON-NLS-1$
 	public static final Codec<CharSequence, byte[]> INSTANCE = new XOrCryptCodec();
 
@@ -60,17 +66,11 @@ public class XOrCryptCodec implements Codec<CharSequence, byte[]> {
 		final ByteBuffer bytes = this.charset.encode(CharBuffer.wrap(decoded));
 		final byte[] b = new byte[bytes.limit() + 1];
 		bytes.get(b, 1, bytes.limit());
-		final int seed = Math.abs((int) (Math.random() * 983) % 109) + 13;
+		final int seed = XOrCryptCodec.newSeed();
 		b[0] = (byte) seed;
 		final Random r = new Random(seed);
-		if (this.xorSource != null) {
-			for (int i = 1; i < b.length; i++) {
-				b[i] = (byte) (b[i] ^ this.xorSource[r.nextInt(this.xorSource.length)]);
-			}
-		} else {
-			for (int i = 1; i < b.length; i++) {
-				b[i] = (byte) (b[i] ^ r.nextInt(256));
-			}
+		for (int i = 1; i < b.length; i++) {
+			b[i] = (byte) (b[i] ^ nextKey(r));
 		}
 		return b;
 	}
@@ -80,16 +80,143 @@ public class XOrCryptCodec implements Codec<CharSequence, byte[]> {
 		final ByteBuffer b = ByteBuffer.allocate(encoded.length - 1);
 		final int seed = encoded[0];
 		final Random r = new Random(seed);
-		if (this.xorSource != null) {
-			for (int i = 1; i < encoded.length; i++) {
-				b.put((byte) (encoded[i] ^ this.xorSource[r.nextInt(this.xorSource.length)]));
-			}
-		} else {
-			for (int i = 1; i < encoded.length; i++) {
-				b.put((byte) (encoded[i] ^ r.nextInt(256)));
-			}
+		for (int i = 1; i < encoded.length; i++) {
+			b.put((byte) (encoded[i] ^ nextKey(r)));
 		}
 		b.rewind();
 		return this.charset.decode(b).toString();
 	}
+
+	@Override
+	public CodingStage<CharBuffer, ByteBuffer> newEncodingStage() {
+		return new CodingStage<CharBuffer, ByteBuffer>() {
+			private final CharsetEncoder encoder = XOrCryptCodec.this.charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			private Random random;
+			private boolean flushed;
+
+			@Override
+			public int getInputBlockSize() {
+				// a surrogate pair needs to be encoded together
+				return 2;
+			}
+
+			@Override
+			public int getOutputBlockSize() {
+				return 2 * (int) Math.ceil(this.encoder.maxBytesPerChar()) + 1;
+			}
+
+			@Override
+			public ByteBuffer allocateOutput(final int capacity) {
+				return ByteBuffer.allocate(capacity);
+			}
+
+			@Override
+			public boolean code(final CharBuffer input, final ByteBuffer output, final boolean endOfInput) {
+				if (this.flushed) {
+					return true;
+				}
+				if (this.random == null) {
+					if (!output.hasRemaining()) {
+						return false;
+					}
+					final int seed = XOrCryptCodec.newSeed();
+					output.put((byte) seed);
+					this.random = new Random(seed);
+				}
+				final int start = output.position();
+				CoderResult result = this.encoder.encode(input, output, endOfInput);
+				if (result.isUnderflow() && endOfInput) {
+					result = this.encoder.flush(output);
+					this.flushed = result.isUnderflow();
+				}
+				for (int i = start; i < output.position(); i++) {
+					output.put(i, (byte) (output.get(i) ^ nextKey(this.random)));
+				}
+				XOrCryptCodec.checkError(result);
+				return result.isUnderflow();
+			}
+		};
+	}
+
+	@Override
+	public CodingStage<ByteBuffer, CharBuffer> newDecodingStage() {
+		return new CodingStage<ByteBuffer, CharBuffer>() {
+			private final CharsetDecoder decoder = XOrCryptCodec.this.charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			private final ByteBuffer plain = ByteBuffer.allocate(CodingPipeline.DEFAULT_BUFFER_SIZE);
+			private Random random;
+			private boolean flushed;
+
+			@Override
+			public int getInputBlockSize() {
+				return 1;
+			}
+
+			@Override
+			public int getOutputBlockSize() {
+				return 2 * (int) Math.ceil(this.decoder.maxCharsPerByte());
+			}
+
+			@Override
+			public CharBuffer allocateOutput(final int capacity) {
+				return CharBuffer.allocate(capacity);
+			}
+
+			@Override
+			public boolean code(final ByteBuffer input, final CharBuffer output, final boolean endOfInput) {
+				if (this.flushed) {
+					return true;
+				}
+				if (this.random == null) {
+					if (!input.hasRemaining()) {
+						this.flushed = endOfInput;
+						return true;
+					}
+					this.random = new Random(input.get());
+				}
+				while (true) {
+					while (input.hasRemaining() && this.plain.hasRemaining()) {
+						this.plain.put((byte) (input.get() ^ nextKey(this.random)));
+					}
+					this.plain.flip();
+					final boolean last = endOfInput && !input.hasRemaining();
+					CoderResult result = this.decoder.decode(this.plain, output, last);
+					this.plain.compact();
+					XOrCryptCodec.checkError(result);
+					if (result.isOverflow()) {
+						return false;
+					}
+					if (!input.hasRemaining()) {
+						if (last) {
+							result = this.decoder.flush(output);
+							if (result.isOverflow()) {
+								return false;
+							}
+							this.flushed = true;
+						}
+						return true;
+					}
+				}
+			}
+		};
+	}
+
+	private int nextKey(final Random r) {
+		return this.xorSource != null ? this.xorSource[r.nextInt(this.xorSource.length)] : r.nextInt(256);
+	}
+
+	private static int newSeed() {
+		return Math.abs((int) (Math.random() * 983) % 109) + 13;
+	}
+
+	private static void checkError(final CoderResult result) {
+		if (result.isError()) {
+			try {
+				result.throwException();
+			} catch (final CharacterCodingException e) {
+				throw DelegatedException.delegate(e);
+			}
+		}
+	}
 }
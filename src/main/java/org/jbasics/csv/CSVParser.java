@@ -23,6 +23,7 @@
  */
 package org.jbasics.csv;
 
+import org.jbasics.checker.ContractCheck;
 import org.jbasics.exception.DelegatedException;
 
 import java.io.Closeable;
@@ -37,6 +38,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class CSVParser {
 	private final boolean parseWithHeaders;
@@ -89,88 +91,66 @@ public class CSVParser {
 
 	public CSVTable parse(final Readable reader) throws IOException {
 		final List<CSVRecord> records = new ArrayList<CSVRecord>();
-		final List<String> fields = new ArrayList<String>();
-		final CharBuffer buf = CharBuffer.allocate(128);
-		final StringBuffer fieldData = new StringBuffer(32);
-		ParsingState state = ParsingState.NONE;
-		boolean skipReadNext = false;
-		char c = ' ';
-		while (reader.read(buf) > 0) {
-			buf.flip();
-			while (buf.hasRemaining()) {
-				if (!skipReadNext) {
-					c = buf.get();
-				} else {
-					skipReadNext = false;
-				}
-				switch (state) {
-					case QUOTED_END:
-						if (c == '"') {
-							fieldData.append(c);
-							state = ParsingState.QUOTED;
-						} else {
-							state = ParsingState.NONE;
-							skipReadNext = true;
-						}
-						break;
-					case QUOTED:
-						if (c == '"') {
-							state = ParsingState.QUOTED_END;
-						} else {
-							fieldData.append(c);
-						}
-						break;
-					case RECORD_END:
-						state = ParsingState.NONE;
-						if (this.skipEmptyLines) {
-							if (fields.size() == 0 && fieldData.length() == 0) {
-								break;
-							}
-						}
-						fields.add(fieldData.toString());
-						fieldData.setLength(0);
-						records.add(new CSVRecord(fields));
-						fields.clear();
-						if (c == '\n') {
-							break;
-						}
-					case NONE:
-						switch (c) {
-							case '\n':
-							case '\r':
-								state = ParsingState.RECORD_END;
-								break;
-							case '"':
-								state = ParsingState.QUOTED;
-								break;
-							default:
-								if (c == this.separator) {
-									fields.add(fieldData.toString());
-									fieldData.setLength(0);
-								} else {
-									fieldData.append(c);
-								}
-						}
-				}
+		try (final CSVDataConnection connection = open(reader)) {
+			CSVRecord record;
+			while ((record = connection.readNext()) != null) {
+				records.add(record);
+			}
+			if (connection.hasHeaders()) {
+				return new CSVTable(null, this.separator, connection.getHeaders(), records.toArray(new CSVRecord[records.size()]));
+			} else {
+				return new CSVTable(null, this.separator, (CSVRecord) null, records.toArray(new CSVRecord[records.size()]));
 			}
-			buf.clear();
-		}
-		if (fieldData.length() > 0) {
-			fields.add(fieldData.toString());
-		}
-		if (!fields.isEmpty()) {
-			records.add(new CSVRecord(fields));
-		}
-		if (reader instanceof Closeable) {
-			((Closeable) reader).close();
 		}
-		if (this.parseWithHeaders && !records.isEmpty()) {
-			return new CSVTable(null, this.separator, records.get(0), records.subList(1, records.size()).toArray(new CSVRecord[records.size() - 1]));
-		} else {
-			return new CSVTable(null, this.separator, (CSVRecord) null, records.toArray(new CSVRecord[records.size()]));
+	}
+
+	/**
+	 * Parses the given input and hands each record over to the sink as soon as it is complete. Only one record is held
+	 * in memory at any time so the memory required does not depend on the size of the input. When parsing with headers
+	 * the first record is consumed as header and not handed to the sink.
+	 *
+	 * @param reader The input to parse (must not be null).
+	 * @param sink   The sink receiving each record in input order (must not be null).
+	 *
+	 * @return The header record if parsing with headers or null otherwise.
+	 *
+	 * @throws IOException If reading from the input failed.
+	 */
+	public CSVRecord parse(final Readable reader, final Consumer<? super CSVRecord> sink) throws IOException {
+		ContractCheck.mustNotBeNull(sink, "sink");
+		try (final CSVDataConnection connection = open(reader)) {
+			CSVRecord record;
+			while ((record = connection.readNext()) != null) {
+				sink.accept(record);
+			}
+			return connection.getHeaders();
 		}
 	}
 
+	public CSVDataConnection open(final InputStream in, final Charset charset) throws IOException {
+		return new StreamingConnection(new InputStreamReader(ContractCheck.mustNotBeNull(in, "in"), charset), charset);
+	}
+
+	public CSVDataConnection open(final InputStream in) throws IOException {
+		return open(in, Charset.defaultCharset());
+	}
+
+	/**
+	 * Opens a streaming connection on the given input. Unlike {@link #parse(Readable)} no table is built, each call to
+	 * {@link CSVDataConnection#readNext()} parses exactly the next record from the input. If the parser is configured
+	 * to parse with headers the header record is read immediately.
+	 *
+	 * @param reader The input to parse (must not be null).
+	 *
+	 * @return The connection delivering the records one by one. Closing the connection closes the reader if it is
+	 * {@link Closeable}.
+	 *
+	 * @throws IOException If reading the header record failed.
+	 */
+	public CSVDataConnection open(final Readable reader) throws IOException {
+		return new StreamingConnection(ContractCheck.mustNotBeNull(reader, "reader"), Charset.defaultCharset());
+	}
+
 	public CSVTable parse(final String input) {
 		try {
 			return parse(new StringReader(input));
@@ -214,4 +194,129 @@ public class CSVParser {
 	private enum ParsingState {
 		NONE, QUOTED, QUOTED_END, RECORD_END
 	}
+
+	private class StreamingConnection implements CSVDataConnection {
+		private final Readable reader;
+		private final Charset charset;
+		private final CharBuffer buf = CharBuffer.allocate(128);
+		private final List<String> fields = new ArrayList<String>();
+		private final StringBuilder fieldData = new StringBuilder(32);
+		private final CSVRecord headers;
+		private ParsingState state = ParsingState.NONE;
+		private boolean skipReadNext = false;
+		private boolean endOfInput = false;
+		private boolean closed = false;
+		private char c = ' ';
+
+		StreamingConnection(final Readable reader, final Charset charset) throws IOException {
+			this.reader = reader;
+			this.charset = charset;
+			this.buf.flip();
+			this.headers = CSVParser.this.parseWithHeaders ? parseNext() : null;
+		}
+
+		@Override
+		public Charset getCharset() {
+			return this.charset;
+		}
+
+		@Override
+		public boolean hasHeaders() {
+			return this.headers != null;
+		}
+
+		@Override
+		public CSVRecord getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public CSVRecord readNext() throws IOException {
+			if (this.closed) {
+				throw new IllegalStateException("Already closed");
+			}
+			return parseNext();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				if (this.reader instanceof Closeable) {
+					((Closeable) this.reader).close();
+				}
+			}
+		}
+
+		private CSVRecord parseNext() throws IOException {
+			while (!this.endOfInput) {
+				while (this.skipReadNext || this.buf.hasRemaining()) {
+					if (!this.skipReadNext) {
+						this.c = this.buf.get();
+					} else {
+						this.skipReadNext = false;
+					}
+					switch (this.state) {
+						case QUOTED_END:
+							if (this.c == '"') {
+								this.fieldData.append(this.c);
+								this.state = ParsingState.QUOTED;
+							} else {
+								this.state = ParsingState.NONE;
+								this.skipReadNext = true;
+							}
+							break;
+						case QUOTED:
+							if (this.c == '"') {
+								this.state = ParsingState.QUOTED_END;
+							} else {
+								this.fieldData.append(this.c);
+							}
+							break;
+						case RECORD_END:
+							this.state = ParsingState.NONE;
+							this.skipReadNext = this.c != '\n';
+							if (CSVParser.this.skipEmptyLines && this.fields.isEmpty() && this.fieldData.length() == 0) {
+								break;
+							}
+							return completeRecord(false);
+						case NONE:
+							switch (this.c) {
+								case '\n':
+								case '\r':
+									this.state = ParsingState.RECORD_END;
+									break;
+								case '"':
+									this.state = ParsingState.QUOTED;
+									break;
+								default:
+									if (this.c == CSVParser.this.separator) {
+										this.fields.add(this.fieldData.toString());
+										this.fieldData.setLength(0);
+									} else {
+										this.fieldData.append(this.c);
+									}
+							}
+					}
+				}
+				this.buf.clear();
+				this.endOfInput = this.reader.read(this.buf) <= 0;
+				this.buf.flip();
+			}
+			if (this.fieldData.length() > 0 || !this.fields.isEmpty()) {
+				return completeRecord(true);
+			}
+			return null;
+		}
+
+		private CSVRecord completeRecord(final boolean lastRecord) {
+			if (!lastRecord || this.fieldData.length() > 0) {
+				this.fields.add(this.fieldData.toString());
+			}
+			this.fieldData.setLength(0);
+			final CSVRecord result = new CSVRecord(this.fields);
+			this.fields.clear();
+			return result;
+		}
+	}
 }
@@ -84,58 +84,72 @@ public class CSVRecord implements Iterable<String>, Indexed<String> {
 	}
 
 	public Appendable append(final Appendable appendable, final char separator) throws IOException {
-		boolean delim = false;
-		for (final String field : this.fields) {
-			if (delim) {
+		final int size = size();
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
 				appendable.append(separator);
-			} else {
-				delim = true;
 			}
-			appendValue(field, appendable, separator);
+			appendValue(getField(i), appendable, separator);
 		}
 		return appendable;
 	}
 
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(fields);
+		int result = 1;
+		final int size = size();
+		for (int i = 0; i < size; i++) {
+			final String field = getField(i);
+			result = 31 * result + (field == null ? 0 : field.hashCode());
+		}
+		return result;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) {
 			return true;
-		} else if (obj == null || getClass() != obj.getClass()) {
+		} else if (!(obj instanceof CSVRecord)) {
 			return false;
 		} else {
-			return Arrays.equals(this.fields, ((CSVRecord) obj).fields);
+			final CSVRecord other = (CSVRecord) obj;
+			final int size = size();
+			if (size != other.size()) {
+				return false;
+			}
+			for (int i = 0; i < size; i++) {
+				if (!Objects.equals(getField(i), other.getField(i))) {
+					return false;
+				}
+			}
+			return true;
 		}
 	}
 
-	private Appendable appendValue(final String value, final Appendable appendable, final char separator) throws IOException {
+	/**
+	 * Appends the value and quotes it if it contains the separator, a quote or a line break. Also used by the {@link
+	 * CSVRecordWriter} so both escape the same way.
+	 */
+	static <A extends Appendable> A appendValue(final String value, final A appendable, final char separator) throws IOException {
 		if (value != null) {
-			final StringBuilder t = new StringBuilder();
+			final int length = value.length();
 			boolean quote = false;
-			for (int i = 0; i < value.length(); i++) {
+			for (int i = 0; i < length && !quote; i++) {
 				final char c = value.charAt(i);
-				t.append(c);
-				if (c == separator) {
-					quote = true;
-				} else {
-					switch (c) {
-						case '"':
-							t.append('"');
-						case '\n':
-						case '\r':
-							quote = true;
-							break;
-					}
-				}
+				quote = c == separator || c == '"' || c == '\n' || c == '\r';
 			}
 			if (quote) {
-				appendable.append('"').append(t).append('"');
+				appendable.append('"');
+				int start = 0;
+				for (int i = 0; i < length; i++) {
+					if (value.charAt(i) == '"') {
+						appendable.append(value, start, i + 1).append('"');
+						start = i + 1;
+					}
+				}
+				appendable.append(value, start, length).append('"');
 			} else {
-				appendable.append(t);
+				appendable.append(value);
 			}
 		}
 		return appendable;
@@ -143,7 +157,15 @@ public class CSVRecord implements Iterable<String>, Indexed<String> {
 
 	@Override
 	public String toString() {
-		return Arrays.toString(this.fields);
+		final StringBuilder result = new StringBuilder().append('[');
+		final int size = size();
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				result.append(", ");
+			}
+			result.append(getField(i));
+		}
+		return result.append(']').toString();
 	}
 
 	public static class Builder implements AddBuilder<Builder, CSVRecord, String> {
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.container.Indexed;
+import org.jbasics.pattern.container.TabularData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A prebuilt hash index over one or more key columns of a CSV table. Unlike {@link CSVTable#map(String...)} no key
+ * objects are created. The index only stores the row numbers in a flat open addressing table together with the hash of
+ * each row and a chain linking rows sharing the same key. Keys are compared against the cells of the table itself.
+ * <p>
+ * The index can be queried for the first matching record ({@link #get(String...)}) or for all matching records
+ * ({@link #getAll(String...)}). When created as unique index duplicate keys are rejected while building. The index is
+ * immutable and can be used concurrently as long as the underlying table is not modified.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class CSVRecordIndex {
+	private static final int NO_ROW = -1;
+
+	private final TabularData<String> data;
+	private final Indexed<CSVRecord> records;
+	private final int[] columns;
+	private final int[] rowHashes;
+	private final int[] nextRows;
+	private final int[] slots;
+	private final int mask;
+	private final int keyCount;
+
+	/**
+	 * Builds the index over the given key columns of the table.
+	 *
+	 * @param table   The table to index (must not be null).
+	 * @param unique  True if each key must only occur once.
+	 * @param columns The key columns in the order the lookup keys are given.
+	 *
+	 * @throws IllegalArgumentException If the index is unique and a key occurs more than once.
+	 */
+	public <D extends TabularData<String> & Indexed<CSVRecord>> CSVRecordIndex(final D table, final boolean unique, final int... columns) {
+		this.data = ContractCheck.mustNotBeNull(table, "table");
+		this.records = table;
+		if (ContractCheck.mustNotBeNull(columns, "columns").length == 0) {
+			throw new IllegalArgumentException("At least one key column required");
+		}
+		this.columns = columns.clone();
+		for (final int column : this.columns) {
+			ContractCheck.mustBeInRange(column, 0, Integer.MAX_VALUE, "column");
+		}
+		final int rows = table.rowSize();
+		this.rowHashes = new int[rows];
+		this.nextRows = new int[rows];
+		this.slots = new int[tableSizeFor(rows)];
+		this.mask = this.slots.length - 1;
+		Arrays.fill(this.slots, CSVRecordIndex.NO_ROW);
+		int keys = 0;
+		// inserting in reverse order and prepending to the chain keeps the rows of one key in table order
+		for (int row = rows - 1; row >= 0; row--) {
+			final int hash = hashRow(row);
+			this.rowHashes[row] = hash;
+			int slot = spread(hash) & this.mask;
+			while (true) {
+				final int head = this.slots[slot];
+				if (head == CSVRecordIndex.NO_ROW) {
+					this.slots[slot] = row;
+					this.nextRows[row] = CSVRecordIndex.NO_ROW;
+					keys++;
+					break;
+				} else if (this.rowHashes[head] == hash && sameKey(head, row)) {
+					if (unique) {
+						throw new IllegalArgumentException("Duplicate key in rows " + row + " and " + head);
+					}
+					this.slots[slot] = row;
+					this.nextRows[row] = head;
+					break;
+				}
+				slot = (slot + 1) & this.mask;
+			}
+		}
+		this.keyCount = keys;
+	}
+
+	/**
+	 * Builds an index for the named key columns. The names are looked up in the headers of the table.
+	 */
+	public static CSVRecordIndex create(final CSVTable table, final boolean unique, final String... columnNames) {
+		return new CSVRecordIndex(table, unique, resolveColumns(ContractCheck.mustNotBeNull(table, "table").getHeaders(), columnNames));
+	}
+
+	/**
+	 * Builds an index for the named key columns. The names are looked up in the headers of the table.
+	 */
+	public static CSVRecordIndex create(final ColumnarCSVTable table, final boolean unique, final String... columnNames) {
+		return new CSVRecordIndex(table, unique, resolveColumns(ContractCheck.mustNotBeNull(table, "table").getHeaders(), columnNames));
+	}
+
+	static int[] resolveColumns(final CSVRecord headers, final String... columnNames) {
+		if (headers == null) {
+			throw new IllegalArgumentException("Cannot resolve column names on a table without headers");
+		}
+		final int[] result = new int[ContractCheck.mustNotBeNullOrEmpty(columnNames, "columnNames").length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = -1;
+			for (int j = 0; j < headers.size(); j++) {
+				if (columnNames[i].equals(headers.getField(j))) {
+					result[i] = j;
+					break;
+				}
+			}
+			if (result[i] < 0) {
+				throw new IllegalArgumentException("Unknown column " + columnNames[i]);
+			}
+		}
+		return result;
+	}
+
+	public int size() {
+		return this.rowHashes.length;
+	}
+
+	public int keyCount() {
+		return this.keyCount;
+	}
+
+	public boolean containsKey(final String... key) {
+		return findFirstRow(key) != CSVRecordIndex.NO_ROW;
+	}
+
+	/**
+	 * Returns the first record in table order with the given key or null if there is none.
+	 */
+	public CSVRecord get(final String... key) {
+		final int row = findFirstRow(key);
+		return row == CSVRecordIndex.NO_ROW ? null : this.records.getElementAtIndex(row);
+	}
+
+	/**
+	 * Returns the first record in table order whose key matches the given probe columns of another record. This allows
+	 * to join records without creating a key for each probe.
+	 */
+	public CSVRecord get(final CSVRecord probe, final int... probeColumns) {
+		final int row = findFirstRow(probe, probeColumns);
+		return row == CSVRecordIndex.NO_ROW ? null : this.records.getElementAtIndex(row);
+	}
+
+	/**
+	 * Returns all records with the given key in table order.
+	 */
+	public List<CSVRecord> getAll(final String... key) {
+		return collect(findFirstRow(key));
+	}
+
+	public List<CSVRecord> getAll(final CSVRecord probe, final int... probeColumns) {
+		return collect(findFirstRow(probe, probeColumns));
+	}
+
+	/**
+	 * Returns the row number of the first record with the given key or -1 if there is none. Further rows with the same
+	 * key can be retrieved with {@link #nextRow(int)}.
+	 */
+	public int findFirstRow(final String... key) {
+		if (ContractCheck.mustNotBeNull(key, "key").length != this.columns.length) {
+			throw new IllegalArgumentException("Key must have " + this.columns.length + " values but has " + key.length);
+		}
+		int hash = 1;
+		for (final String value : key) {
+			hash = 31 * hash + (value == null ? 0 : value.hashCode());
+		}
+		int slot = spread(hash) & this.mask;
+		int head;
+		while ((head = this.slots[slot]) != CSVRecordIndex.NO_ROW) {
+			if (this.rowHashes[head] == hash && matches(head, key)) {
+				return head;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return CSVRecordIndex.NO_ROW;
+	}
+
+	public int findFirstRow(final CSVRecord probe, final int... probeColumns) {
+		if (ContractCheck.mustNotBeNull(probeColumns, "probeColumns").length != this.columns.length) {
+			throw new IllegalArgumentException("Probe must have " + this.columns.length + " columns but has " + probeColumns.length);
+		}
+		int hash = 1;
+		for (final int column : probeColumns) {
+			final String value = probe.getField(column);
+			hash = 31 * hash + (value == null ? 0 : value.hashCode());
+		}
+		int slot = spread(hash) & this.mask;
+		int head;
+		while ((head = this.slots[slot]) != CSVRecordIndex.NO_ROW) {
+			if (this.rowHashes[head] == hash && matches(head, probe, probeColumns)) {
+				return head;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return CSVRecordIndex.NO_ROW;
+	}
+
+	/**
+	 * Returns the next row with the same key as the given row or -1 if there are no more rows.
+	 */
+	public int nextRow(final int row) {
+		return this.nextRows[row];
+	}
+
+	private List<CSVRecord> collect(final int firstRow) {
+		if (firstRow == CSVRecordIndex.NO_ROW) {
+			return Collections.emptyList();
+		}
+		final List<CSVRecord> result = new ArrayList<CSVRecord>();
+		for (int row = firstRow; row != CSVRecordIndex.NO_ROW; row = this.nextRows[row]) {
+			result.add(this.records.getElementAtIndex(row));
+		}
+		return result;
+	}
+
+	private int hashRow(final int row) {
+		int hash = 1;
+		for (final int column : this.columns) {
+			final String value = cell(row, column);
+			hash = 31 * hash + (value == null ? 0 : value.hashCode());
+		}
+		return hash;
+	}
+
+	private boolean sameKey(final int row, final int otherRow) {
+		for (final int column : this.columns) {
+			if (!Objects.equals(cell(row, column), cell(otherRow, column))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean matches(final int row, final String[] key) {
+		for (int i = 0; i < this.columns.length; i++) {
+			if (!Objects.equals(cell(row, this.columns[i]), key[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean matches(final int row, final CSVRecord probe, final int[] probeColumns) {
+		for (int i = 0; i < this.columns.length; i++) {
+			if (!Objects.equals(cell(row, this.columns[i]), probe.getField(probeColumns[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String cell(final int row, final int column) {
+		return column < this.data.columnSize() ? this.data.getValueAtRowAndColumn(row, column) : null;
+	}
+
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static int tableSizeFor(final int entries) {
+		int result = 2;
+		while (result < entries * 2 && result < 1 << 30) {
+			result <<= 1;
+		}
+		return result;
+	}
+}
@@ -26,11 +26,31 @@ package org.jbasics.csv;
 import org.jbasics.checker.ContractCheck;
 
 import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Writes CSV records to an {@link Appendable}. Values are escaped directly into an internal char buffer so no temporary
+ * objects are created per value. By default the target receives the data at the end of each write call. A buffered
+ * writer (writing to an {@link OutputStream} or created with buffering enabled) hands the buffer over only when it is
+ * full or the writer gets flushed or closed.
+ */
+public class CSVRecordWriter implements Closeable, Flushable {
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+	private static final String LINE_SEPARATOR = "\r\n";
 
-public class CSVRecordWriter implements Closeable {
 	private final Appendable writer;
 	private final char separator;
+	private final char[] buffer;
+	private final CharBuffer bufferSequence;
+	private final Appendable bufferAppender = new BufferAppender();
+	private final boolean flushOnEachWrite;
+	private int count;
 
 	public CSVRecordWriter(final Appendable out) {
 		this(out, ',');
@@ -40,27 +60,199 @@ public class CSVRecordWriter implements Closeable {
 		this(out, separator.asCharacter());
 	}
 
+	/**
+	 * Creates a writer which may keep the written data in its buffer until it is flushed or closed.
+	 *
+	 * @param out       The target to write to (must not be null)
+	 * @param separator The separator to use
+	 * @param buffered  True to hand data to the target only when the buffer is full or on flush and close
+	 */
+	public CSVRecordWriter(final Appendable out, final CSVSeparator separator, final boolean buffered) {
+		this(out, separator.asCharacter(), buffered);
+	}
+
+	/**
+	 * Creates a buffered writer encoding the output with the given charset rather than the platform default. The data
+	 * reaches the stream when the buffer is full or this writer is flushed or closed.
+	 */
+	public CSVRecordWriter(final OutputStream out, final Charset charset, final CSVSeparator separator) {
+		this(new OutputStreamWriter(ContractCheck.mustNotBeNull(out, "out"), ContractCheck.mustNotBeNull(charset, "charset")),
+				(separator == null ? CSVSeparator.AUTO : separator).asCharacter(), true);
+	}
+
 	@Deprecated
 	public CSVRecordWriter(final Appendable out, final char separator) {
+		this(out, separator, false);
+	}
+
+	private CSVRecordWriter(final Appendable out, final char separator, final boolean buffered) {
 		this.separator = separator;
 		this.writer = ContractCheck.mustNotBeNull(out, "appendable");
+		this.buffer = new char[CSVRecordWriter.DEFAULT_BUFFER_SIZE];
+		this.bufferSequence = CharBuffer.wrap(this.buffer);
+		this.flushOnEachWrite = !buffered;
 	}
 
 	public CSVRecordWriter write(final CSVRecord... records) throws IOException {
 		for (final CSVRecord record : records) {
-			write(record);
+			putRecord(record);
 		}
-		return this;
+		return written();
+	}
+
+	public CSVRecordWriter write(final Iterable<? extends CSVRecord> records) throws IOException {
+		for (final CSVRecord record : records) {
+			putRecord(record);
+		}
+		return written();
 	}
 
 	public CSVRecordWriter write(final CSVRecord record) throws IOException {
-		record.append(this.writer, this.separator).append("\r\n");
-		return this;
+		putRecord(record);
+		return written();
+	}
+
+	/**
+	 * Writes the given values as one record without the need to create a {@link CSVRecord}.
+	 */
+	public CSVRecordWriter writeFields(final String... fields) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				put(this.separator);
+			}
+			putValue(fields[i]);
+		}
+		putLineSeparator();
+		return written();
+	}
+
+	/**
+	 * Writes data given column by column. Record i consists of the i-th value of each column so all columns must have
+	 * the same length.
+	 *
+	 * @param columns The columns to write (must not be null).
+	 *
+	 * @return This writer for chaining.
+	 *
+	 * @throws IOException If writing failed.
+	 */
+	public CSVRecordWriter writeColumns(final String[]... columns) throws IOException {
+		if (ContractCheck.mustNotBeNull(columns, "columns").length > 0) {
+			final int rows = ContractCheck.mustNotBeNull(columns[0], "columns[0]").length;
+			for (int i = 1; i < columns.length; i++) {
+				ContractCheck.mustMatchSizeAndNotBeNull(columns[i], rows, "columns[" + i + "]");
+			}
+			for (int row = 0; row < rows; row++) {
+				for (int column = 0; column < columns.length; column++) {
+					if (column > 0) {
+						put(this.separator);
+					}
+					putValue(columns[column][row]);
+				}
+				putLineSeparator();
+			}
+		}
+		return written();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if (this.writer instanceof Flushable) {
+			((Flushable) this.writer).flush();
+		}
 	}
 
 	public void close() throws IOException {
+		flushBuffer();
 		if (this.writer instanceof Closeable) {
 			((Closeable) this.writer).close();
 		}
 	}
+
+	private CSVRecordWriter written() throws IOException {
+		if (this.flushOnEachWrite) {
+			flushBuffer();
+		}
+		return this;
+	}
+
+	private void putRecord(final CSVRecord record) throws IOException {
+		final int size = record.size();
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				put(this.separator);
+			}
+			putValue(record.getField(i));
+		}
+		putLineSeparator();
+	}
+
+	private void putLineSeparator() throws IOException {
+		put(CSVRecordWriter.LINE_SEPARATOR, 0, CSVRecordWriter.LINE_SEPARATOR.length());
+	}
+
+	private void putValue(final String value) throws IOException {
+		CSVRecord.appendValue(value, this.bufferAppender, this.separator);
+	}
+
+	private void put(final char c) throws IOException {
+		if (this.count == this.buffer.length) {
+			flushBuffer();
+		}
+		this.buffer[this.count++] = c;
+	}
+
+	private void put(final CharSequence value, final int start, final int end) throws IOException {
+		if (!(value instanceof String)) {
+			for (int i = start; i < end; i++) {
+				put(value.charAt(i));
+			}
+			return;
+		}
+		final String text = (String) value;
+		int position = start;
+		while (position < end) {
+			if (this.count == this.buffer.length) {
+				flushBuffer();
+			}
+			final int chunk = Math.min(end - position, this.buffer.length - this.count);
+			text.getChars(position, position + chunk, this.buffer, this.count);
+			this.count += chunk;
+			position += chunk;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (this.count > 0) {
+			if (this.writer instanceof Writer) {
+				((Writer) this.writer).write(this.buffer, 0, this.count);
+			} else {
+				this.writer.append(this.bufferSequence, 0, this.count);
+			}
+			this.count = 0;
+		}
+	}
+
+	/**
+	 * Appends to the internal buffer so values are escaped by {@link CSVRecord} the same way without temporary objects.
+	 */
+	private final class BufferAppender implements Appendable {
+		@Override
+		public Appendable append(final CharSequence csq) throws IOException {
+			return append(csq, 0, csq.length());
+		}
+
+		@Override
+		public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+			put(csq, start, end);
+			return this;
+		}
+
+		@Override
+		public Appendable append(final char c) throws IOException {
+			put(c);
+			return this;
+		}
+	}
 }
@@ -180,6 +180,7 @@ public class CSVTable implements Iterable<CSVRecord>, Mapable<Sequence<String>,
 			out.write(this.headers);
 		}
 		out.write(this.records);
+		out.flush();
 		return appendable;
 	}
 
@@ -199,6 +200,18 @@ public class CSVTable implements Iterable<CSVRecord>, Mapable<Sequence<String>,
 		return map(new CSVRecordSequenceTransposer(fields));
 	}
 
+	/**
+	 * Builds a reusable hash index over the named columns. Other than {@link #map(String...)} the index does not create
+	 * a key per record and supports several records sharing the same key.
+	 */
+	public CSVRecordIndex index(final String... columnNames) {
+		return CSVRecordIndex.create(this, false, columnNames);
+	}
+
+	public CSVRecordIndex index(final int... columns) {
+		return new CSVRecordIndex(this, false, columns);
+	}
+
 	@Override
 	public CSVDataConnection openConnection() {
 		return new CSVDataConnection() {
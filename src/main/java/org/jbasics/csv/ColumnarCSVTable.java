@@ -0,0 +1,591 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.builder.AddBuilder;
+import org.jbasics.pattern.container.Indexed;
+import org.jbasics.pattern.container.TabularData;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A CSV table storing its data column by column in primitive arrays instead of one string per cell. The type of each
+ * column is inferred while adding the records. A column starts as {@link ColumnType#LONG} and is widened to
+ * {@link ColumnType#DOUBLE}, {@link ColumnType#DECIMAL} and finally {@link ColumnType#STRING} as soon as a value cannot
+ * be represented by the current type. A value is only stored as number if formatting the number yields exactly the
+ * original text, so {@link #getValueAtRowAndColumn(int, int)} always returns the parsed content. String columns are
+ * dictionary encoded so repeated values are only stored once.
+ * <p>
+ * Records are created on demand when accessed through {@link #getRecord(int)} or the iterator. Fast column scans should
+ * use the typed accessors like {@link #getLong(int, int)} or {@link #getDouble(int, int)}.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class ColumnarCSVTable implements Iterable<CSVRecord>, Indexed<CSVRecord>, CSVDataReference, TabularData<String> {
+	private final Charset charset;
+	private final CSVRecord headers;
+	private final char separator;
+	private final int rowSize;
+	private final Column[] columns;
+
+	private ColumnarCSVTable(final Charset charset, final char separator, final CSVRecord headers, final int rowSize, final Column[] columns) {
+		this.charset = charset == null ? Charset.defaultCharset() : charset;
+		this.separator = separator;
+		this.headers = headers;
+		this.rowSize = rowSize;
+		this.columns = columns;
+	}
+
+	public static Builder newBuilder() {
+		return new Builder();
+	}
+
+	public static ColumnarCSVTable valueOf(final CSVTable table) {
+		return newBuilder().setCharset(table.getCharset()).setSeparator(table.getSeparator()).setHeaders(table.getHeaders()).addAll(table).build();
+	}
+
+	/**
+	 * Reads all records of the connection into a new columnar table. The records are consumed one by one so only the
+	 * columnar representation needs to fit into memory. The connection is not closed.
+	 *
+	 * @param connection The connection to read from (must not be null).
+	 *
+	 * @return The columnar table.
+	 *
+	 * @throws IOException If reading from the connection failed.
+	 */
+	public static ColumnarCSVTable read(final CSVDataConnection connection) throws IOException {
+		final Builder builder = newBuilder().setCharset(ContractCheck.mustNotBeNull(connection, "connection").getCharset()).setHeaders(connection.getHeaders());
+		CSVRecord record;
+		while ((record = connection.readNext()) != null) {
+			builder.add(record);
+		}
+		return builder.build();
+	}
+
+	@Override
+	public int size() {
+		return this.rowSize;
+	}
+
+	@Override
+	public int rowSize() {
+		return this.rowSize;
+	}
+
+	@Override
+	public int columnSize() {
+		return this.columns.length;
+	}
+
+	public ColumnType getColumnType(final int column) {
+		return this.columns[column].type;
+	}
+
+	@Override
+	public String getValueAtRowAndColumn(final int row, final int column) {
+		return this.columns[column].getString(checkRow(row));
+	}
+
+	/**
+	 * Returns true if the cell is either missing in its record or empty.
+	 */
+	public boolean isNullOrEmpty(final int row, final int column) {
+		return this.columns[column].isNullOrEmpty(checkRow(row));
+	}
+
+	/**
+	 * Returns the cell of a {@link ColumnType#LONG} column. Missing and empty cells are returned as 0, use
+	 * {@link #isNullOrEmpty(int, int)} to tell them apart from a stored zero.
+	 */
+	public long getLong(final int row, final int column) {
+		final Column temp = this.columns[column];
+		if (temp.type != ColumnType.LONG) {
+			throw new IllegalArgumentException("Column " + column + " is of type " + temp.type + " and cannot be read as long");
+		}
+		return temp.longs[checkRow(row)];
+	}
+
+	/**
+	 * Returns the cell of a numeric column as double. Missing and empty cells are returned as {@link Double#NaN}.
+	 */
+	public double getDouble(final int row, final int column) {
+		final Column temp = this.columns[column];
+		if (temp.isNullOrEmpty(checkRow(row))) {
+			return Double.NaN;
+		}
+		switch (temp.type) {
+			case LONG:
+				return temp.longs[row];
+			case DOUBLE:
+				return temp.doubles[row];
+			case DECIMAL:
+				return temp.getDecimal(row).doubleValue();
+			default:
+				throw new IllegalArgumentException("Column " + column + " is of type " + temp.type + " and cannot be read as double");
+		}
+	}
+
+	/**
+	 * Returns the cell of a numeric column as {@link BigDecimal}. Missing and empty cells are returned as null.
+	 */
+	public BigDecimal getDecimal(final int row, final int column) {
+		final Column temp = this.columns[column];
+		if (temp.isNullOrEmpty(checkRow(row))) {
+			return null;
+		}
+		switch (temp.type) {
+			case LONG:
+				return BigDecimal.valueOf(temp.longs[row]);
+			case DOUBLE:
+				return new BigDecimal(Double.toString(temp.doubles[row]));
+			case DECIMAL:
+				return temp.getDecimal(row);
+			default:
+				throw new IllegalArgumentException("Column " + column + " is of type " + temp.type + " and cannot be read as decimal");
+		}
+	}
+
+	@Override
+	public CSVRecord getElementAtIndex(final int index) {
+		return getRecord(index);
+	}
+
+	public CSVRecord getRecord(final int index) {
+		checkRow(index);
+		int length = this.columns.length;
+		while (length > 0 && this.columns[length - 1].isNull(index)) {
+			length--;
+		}
+		final String[] fields = new String[length];
+		for (int i = 0; i < length; i++) {
+			fields[i] = this.columns[i].getString(index);
+		}
+		return new CSVRecord(fields);
+	}
+
+	public Charset getCharset() {
+		return this.charset;
+	}
+
+	public char getSeparator() {
+		return this.separator;
+	}
+
+	public CSVRecord getHeaders() {
+		return this.headers;
+	}
+
+	public boolean hasHeaders() {
+		return this.headers != null;
+	}
+
+	@Override
+	public Iterator<CSVRecord> iterator() {
+		return new Iterator<CSVRecord>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < ColumnarCSVTable.this.rowSize;
+			}
+
+			@Override
+			public CSVRecord next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getRecord(this.next++);
+			}
+		};
+	}
+
+	/**
+	 * Builds a reusable hash index over the named columns. Several records may share the same key.
+	 */
+	public CSVRecordIndex index(final String... columnNames) {
+		return CSVRecordIndex.create(this, false, columnNames);
+	}
+
+	public CSVRecordIndex index(final int... columns) {
+		return new CSVRecordIndex(this, false, columns);
+	}
+
+	public CSVTable toCSVTable() {
+		final CSVRecord[] records = new CSVRecord[this.rowSize];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = getRecord(i);
+		}
+		return new CSVTable(this.charset, this.separator, this.headers, records);
+	}
+
+	@Override
+	public CSVDataConnection openConnection() {
+		return new CSVDataConnection() {
+			private Iterator<CSVRecord> iterator = ColumnarCSVTable.this.iterator();
+
+			@Override
+			public Charset getCharset() {
+				return ColumnarCSVTable.this.getCharset();
+			}
+
+			@Override
+			public boolean hasHeaders() {
+				return ColumnarCSVTable.this.hasHeaders();
+			}
+
+			@Override
+			public CSVRecord getHeaders() {
+				return ColumnarCSVTable.this.getHeaders();
+			}
+
+			@Override
+			public CSVRecord readNext() {
+				if (this.iterator == null) {
+					throw new IllegalStateException("Already closed");
+				}
+				return this.iterator.hasNext() ? this.iterator.next() : null;
+			}
+
+			@Override
+			public void close() {
+				this.iterator = null;
+			}
+		};
+	}
+
+	private int checkRow(final int row) {
+		if (row < 0 || row >= this.rowSize) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + this.rowSize + ")");
+		}
+		return row;
+	}
+
+	public enum ColumnType {
+		LONG, DOUBLE, DECIMAL, STRING
+	}
+
+	/**
+	 * Mutable column used while building. Once the table is built the column is never changed again.
+	 */
+	private static final class Column {
+		private ColumnType type = ColumnType.LONG;
+		private int size;
+		private long[] longs = new long[16];
+		private double[] doubles;
+		private byte[] scales;
+		private int[] codes;
+		private Map<String, Integer> dictionaryIndex;
+		private List<String> dictionary;
+		private BitSet nulls;
+		private BitSet empties;
+
+		Column(final int leadingNulls) {
+			for (int i = 0; i < leadingNulls; i++) {
+				add(null);
+			}
+		}
+
+		void add(final String value) {
+			ensureCapacity(this.size + 1);
+			if (value == null) {
+				if (this.nulls == null) {
+					this.nulls = new BitSet();
+				}
+				this.nulls.set(this.size);
+			} else if (value.isEmpty()) {
+				if (this.empties == null) {
+					this.empties = new BitSet();
+				}
+				this.empties.set(this.size);
+			} else {
+				while (!store(this.size, value)) {
+					widen();
+				}
+			}
+			this.size++;
+		}
+
+		boolean isNull(final int row) {
+			return this.nulls != null && this.nulls.get(row);
+		}
+
+		boolean isNullOrEmpty(final int row) {
+			return isNull(row) || this.empties != null && this.empties.get(row);
+		}
+
+		String getString(final int row) {
+			if (isNull(row)) {
+				return null;
+			} else if (this.empties != null && this.empties.get(row)) {
+				return "";
+			}
+			switch (this.type) {
+				case LONG:
+					return Long.toString(this.longs[row]);
+				case DOUBLE:
+					return Double.toString(this.doubles[row]);
+				case DECIMAL:
+					return getDecimal(row).toString();
+				default:
+					return this.dictionary.get(this.codes[row]);
+			}
+		}
+
+		BigDecimal getDecimal(final int row) {
+			return BigDecimal.valueOf(this.longs[row], this.scales[row]);
+		}
+
+		private boolean store(final int row, final String value) {
+			switch (this.type) {
+				case LONG:
+					final char first = value.charAt(0);
+					if ((first < '0' || first > '9') && first != '-') {
+						return false;
+					}
+					try {
+						final long temp = Long.parseLong(value);
+						if (!Long.toString(temp).equals(value)) {
+							return false;
+						}
+						this.longs[row] = temp;
+						return true;
+					} catch (final NumberFormatException e) {
+						return false;
+					}
+				case DOUBLE:
+					try {
+						final double temp = Double.parseDouble(value);
+						if (!Double.toString(temp).equals(value)) {
+							return false;
+						}
+						this.doubles[row] = temp;
+						return true;
+					} catch (final NumberFormatException e) {
+						return false;
+					}
+				case DECIMAL:
+					try {
+						final BigDecimal temp = new BigDecimal(value);
+						final BigInteger unscaled = temp.unscaledValue();
+						if (unscaled.bitLength() > 63 || temp.scale() != (byte) temp.scale() || !temp.toString().equals(value)) {
+							return false;
+						}
+						this.longs[row] = unscaled.longValue();
+						this.scales[row] = (byte) temp.scale();
+						return true;
+					} catch (final NumberFormatException e) {
+						return false;
+					}
+				default:
+					Integer code = this.dictionaryIndex.get(value);
+					if (code == null) {
+						code = Integer.valueOf(this.dictionary.size());
+						this.dictionaryIndex.put(value, code);
+						this.dictionary.add(value);
+					}
+					this.codes[row] = code.intValue();
+					return true;
+			}
+		}
+
+		/**
+		 * Moves the column to the next wider type and converts all values stored so far. If one of the values cannot be
+		 * represented by the new type either the column is widened again.
+		 */
+		private void widen() {
+			final String[] existing = new String[this.size];
+			for (int i = 0; i < this.size; i++) {
+				existing[i] = getString(i);
+			}
+			final int capacity = currentCapacity();
+			this.type = ColumnType.values()[this.type.ordinal() + 1];
+			this.longs = null;
+			this.doubles = null;
+			this.scales = null;
+			switch (this.type) {
+				case DOUBLE:
+					this.doubles = new double[capacity];
+					break;
+				case DECIMAL:
+					this.longs = new long[capacity];
+					this.scales = new byte[capacity];
+					break;
+				default:
+					this.codes = new int[capacity];
+					this.dictionaryIndex = new HashMap<String, Integer>();
+					this.dictionary = new ArrayList<String>();
+			}
+			for (int i = 0; i < existing.length; i++) {
+				if (existing[i] != null && !existing[i].isEmpty() && !store(i, existing[i])) {
+					widen();
+					return;
+				}
+			}
+		}
+
+		private void ensureCapacity(final int capacity) {
+			final int current = currentCapacity();
+			if (current < capacity) {
+				final int newCapacity = Math.max(capacity, current + (current >> 1));
+				if (this.longs != null) {
+					this.longs = Arrays.copyOf(this.longs, newCapacity);
+				}
+				if (this.doubles != null) {
+					this.doubles = Arrays.copyOf(this.doubles, newCapacity);
+				}
+				if (this.scales != null) {
+					this.scales = Arrays.copyOf(this.scales, newCapacity);
+				}
+				if (this.codes != null) {
+					this.codes = Arrays.copyOf(this.codes, newCapacity);
+				}
+			}
+		}
+
+		private int currentCapacity() {
+			switch (this.type) {
+				case LONG:
+				case DECIMAL:
+					return this.longs.length;
+				case DOUBLE:
+					return this.doubles.length;
+				default:
+					return this.codes.length;
+			}
+		}
+
+		private Column trim() {
+			if (this.longs != null) {
+				this.longs = Arrays.copyOf(this.longs, this.size);
+			}
+			if (this.doubles != null) {
+				this.doubles = Arrays.copyOf(this.doubles, this.size);
+			}
+			if (this.scales != null) {
+				this.scales = Arrays.copyOf(this.scales, this.size);
+			}
+			if (this.codes != null) {
+				this.codes = Arrays.copyOf(this.codes, this.size);
+				this.dictionary = new ArrayList<String>(this.dictionary);
+			}
+			this.dictionaryIndex = null;
+			return this;
+		}
+	}
+
+	public static class Builder implements AddBuilder<Builder, ColumnarCSVTable, CSVRecord> {
+		private final List<Column> columns = new ArrayList<Column>();
+		private Charset charset;
+		private char separator = ',';
+		private CSVRecord headers;
+		private int rowSize;
+
+		public Builder setCharset(final Charset charset) {
+			this.charset = charset;
+			return this;
+		}
+
+		public Builder setSeparator(final char separator) {
+			this.separator = separator;
+			return this;
+		}
+
+		public Builder setHeaders(final CSVRecord headers) {
+			this.headers = headers;
+			return this;
+		}
+
+		@Override
+		public Builder add(final CSVRecord record) {
+			final int size = record.size();
+			while (this.columns.size() < size) {
+				this.columns.add(new Column(this.rowSize));
+			}
+			for (int i = 0; i < this.columns.size(); i++) {
+				this.columns.get(i).add(i < size ? record.getField(i) : null);
+			}
+			this.rowSize++;
+			return this;
+		}
+
+		@Override
+		public Builder addAll(final CSVRecord... records) {
+			for (final CSVRecord record : records) {
+				add(record);
+			}
+			return this;
+		}
+
+		@Override
+		public Builder addAll(final Collection<? extends CSVRecord> records) {
+			for (final CSVRecord record : records) {
+				add(record);
+			}
+			return this;
+		}
+
+		@Override
+		public Builder addAll(final Iterable<? extends CSVRecord> records) {
+			for (final CSVRecord record : records) {
+				add(record);
+			}
+			return this;
+		}
+
+		@Override
+		public void reset() {
+			this.columns.clear();
+			this.rowSize = 0;
+			this.headers = null;
+		}
+
+		@Override
+		public ColumnarCSVTable build() {
+			final Column[] result = new Column[this.columns.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = this.columns.get(i).trim();
+			}
+			final ColumnarCSVTable table = new ColumnarCSVTable(this.charset, this.separator, this.headers, this.rowSize, result);
+			this.columns.clear();
+			this.rowSize = 0;
+			return table;
+		}
+	}
+}
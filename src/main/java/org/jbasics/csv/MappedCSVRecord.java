@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.jbasics.arrays.unstable.ArrayIterator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+/**
+ * Record created by the {@link MappedCSVRecordReader} which only knows the byte ranges of its fields inside the mapped
+ * file. A field is decoded to a {@link String} the first time it is requested and cached afterwards. Decoding is
+ * idempotent so concurrent first access may decode twice but always yields an equal result.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+class MappedCSVRecord extends CSVRecord {
+	private final ByteBuffer data;
+	private final Charset charset;
+	private final int[] bounds;
+	private final boolean[] quoted;
+	private final String[] decoded;
+
+	MappedCSVRecord(final ByteBuffer data, final Charset charset, final int[] bounds, final boolean[] quoted) {
+		this.data = data;
+		this.charset = charset;
+		this.bounds = bounds;
+		this.quoted = quoted;
+		this.decoded = new String[bounds.length >> 1];
+	}
+
+	@Override
+	public int size() {
+		return this.decoded.length;
+	}
+
+	@Override
+	public String getField(final int index) {
+		String result = this.decoded[index];
+		if (result == null) {
+			result = decode(index);
+			this.decoded[index] = result;
+		}
+		return result;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		final int size = size();
+		for (int i = 0; i < size; i++) {
+			getField(i);
+		}
+		return new ArrayIterator<String>(this.decoded);
+	}
+
+	private String decode(final int index) {
+		final int start = this.bounds[index << 1];
+		final int length = this.bounds[(index << 1) + 1] - start;
+		final byte[] raw = new byte[length];
+		final ByteBuffer slice = this.data.duplicate();
+		slice.position(start);
+		slice.get(raw);
+		final String value = new String(raw, this.charset);
+		return this.quoted[index] ? unquote(value) : value;
+	}
+
+	private static String unquote(final String value) {
+		final StringBuilder result = new StringBuilder(value.length());
+		boolean inQuotes = false;
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c != '"') {
+				result.append(c);
+			} else if (inQuotes && i + 1 < value.length() && value.charAt(i + 1) == '"') {
+				result.append(c);
+				i++;
+			} else {
+				inQuotes = !inQuotes;
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.utilities.DataUtilities;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads CSV records from a file by mapping it into memory instead of copying the content through a char buffer. Each
+ * record only remembers the byte range of its fields and decodes a field to a {@link String} when it is accessed for
+ * the first time. Jobs reading only a few columns of wide files therefore avoid creating strings for the columns they
+ * never look at.
+ * <p>
+ * The file is mapped in windows so files larger than 2GB can be read. A record is never split across windows, a
+ * record larger than the window size simply enlarges the window. Records stay valid after the reader moved on or got
+ * closed since they keep their window referenced.
+ * </p>
+ * <p>
+ * The charset must encode the separator, quote, carriage return and line feed as single bytes which cannot appear
+ * inside a multi byte sequence (true for UTF-8, US-ASCII and the ISO-8859 family). Records end at CR LF, a single CR or
+ * a single LF.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class MappedCSVRecordReader implements Closeable {
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final FileChannel channel;
+	private final Charset charset;
+	private final boolean skipEmptyLines;
+	private final byte separator;
+	private final long endPosition;
+	private final int windowSize;
+	private final boolean ownsChannel;
+	private MappedByteBuffer window;
+	private long windowStart;
+	private int position;
+	private int[] bounds = new int[64];
+	private boolean[] quoted = new boolean[32];
+	private int fieldCount;
+
+	public MappedCSVRecordReader(final File file) throws IOException {
+		this(file.toPath(), null, null, true);
+	}
+
+	public MappedCSVRecordReader(final Path file, final Charset charset, final CSVSeparator separator, final boolean skipEmptyLines) throws IOException {
+		this(file, charset, separator, skipEmptyLines, MappedCSVRecordReader.DEFAULT_WINDOW_SIZE);
+	}
+
+	public MappedCSVRecordReader(final Path file, final Charset charset, final CSVSeparator separator, final boolean skipEmptyLines, final int windowSize) throws IOException {
+		this(FileChannel.open(ContractCheck.mustNotBeNull(file, "file"), StandardOpenOption.READ), true, 0L, -1L, charset, separator, skipEmptyLines, windowSize);
+	}
+
+	/**
+	 * Creates a reader for the records inside the given byte range of the channel. The range must start and end at
+	 * record boundaries.
+	 */
+	MappedCSVRecordReader(final FileChannel channel, final boolean ownsChannel, final long startPosition, final long endPosition, final Charset charset,
+						  final CSVSeparator separator, final boolean skipEmptyLines, final int windowSize) throws IOException {
+		this.charset = DataUtilities.coalesce(charset, Charset.defaultCharset());
+		this.separator = singleByte(DataUtilities.coalesce(separator, CSVSeparator.AUTO).asCharacter(), this.charset);
+		singleByte('"', this.charset);
+		singleByte('\r', this.charset);
+		singleByte('\n', this.charset);
+		this.skipEmptyLines = skipEmptyLines;
+		this.windowSize = ContractCheck.mustBeInRange(windowSize, 1, Integer.MAX_VALUE, "windowSize");
+		this.channel = channel;
+		this.ownsChannel = ownsChannel;
+		this.endPosition = endPosition < 0 ? channel.size() : endPosition;
+		map(startPosition, this.windowSize);
+	}
+
+	public CSVRecord readNext() throws IOException {
+		if (this.window == null) {
+			throw new IllegalStateException("Already closed");
+		}
+		while (this.windowStart + this.position < this.endPosition) {
+			final int end = scanRecord();
+			if (end < 0) {
+				final int recordLength = this.window.limit() - this.position;
+				map(this.windowStart + this.position, Math.max(this.windowSize, recordLength > Integer.MAX_VALUE >> 1 ? Integer.MAX_VALUE : recordLength << 1));
+			} else {
+				final ByteBuffer data = this.window;
+				final boolean emptyLine = this.fieldCount == 1 && this.bounds[0] == this.bounds[1] && !this.quoted[0];
+				final int[] recordBounds = Arrays.copyOf(this.bounds, this.fieldCount << 1);
+				final boolean[] recordQuoted = Arrays.copyOf(this.quoted, this.fieldCount);
+				skipLineBreak(end);
+				if (!emptyLine || !this.skipEmptyLines) {
+					return new MappedCSVRecord(data, this.charset, recordBounds, recordQuoted);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the file position of the first byte not consumed yet.
+	 */
+	long getPosition() {
+		return this.windowStart + this.position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.window = null;
+		if (this.ownsChannel) {
+			this.channel.close();
+		}
+	}
+
+	/**
+	 * Scans the record starting at the current position and collects the field bounds.
+	 *
+	 * @return The index of the line break ending the record, the limit of the window if the record ends with the file
+	 * or -1 if the window ends before the record does.
+	 */
+	private int scanRecord() {
+		final ByteBuffer data = this.window;
+		final int limit = data.limit();
+		boolean inQuotes = false;
+		int fieldStart = this.position;
+		this.fieldCount = 0;
+		this.quoted[0] = false;
+		for (int i = this.position; i < limit; i++) {
+			final byte b = data.get(i);
+			if (b == MappedCSVRecordReader.QUOTE) {
+				inQuotes = !inQuotes;
+				this.quoted[this.fieldCount] = true;
+			} else if (!inQuotes) {
+				if (b == this.separator) {
+					addField(fieldStart, i);
+					fieldStart = i + 1;
+				} else if (b == MappedCSVRecordReader.CR || b == MappedCSVRecordReader.LF) {
+					addField(fieldStart, i);
+					return i;
+				}
+			}
+		}
+		if (this.windowStart + limit >= this.endPosition) {
+			addField(fieldStart, limit);
+			return limit;
+		}
+		return -1;
+	}
+
+	private void addField(final int start, final int end) {
+		final int index = this.fieldCount++;
+		if (this.quoted.length <= this.fieldCount) {
+			this.bounds = Arrays.copyOf(this.bounds, this.bounds.length << 1);
+			this.quoted = Arrays.copyOf(this.quoted, this.quoted.length << 1);
+		}
+		this.bounds[index << 1] = start;
+		this.bounds[(index << 1) + 1] = end;
+		this.quoted[this.fieldCount] = false;
+	}
+
+	private void skipLineBreak(final int end) throws IOException {
+		final int limit = this.window.limit();
+		this.position = end + 1;
+		if (end < limit && this.window.get(end) == MappedCSVRecordReader.CR) {
+			if (end + 1 < limit) {
+				if (this.window.get(end + 1) == MappedCSVRecordReader.LF) {
+					this.position++;
+				}
+			} else if (this.windowStart + limit < this.endPosition) {
+				// the CR is the last byte of the window so the LF can only be found in the next one
+				map(this.windowStart + limit, this.windowSize);
+				if (this.window.get(0) == MappedCSVRecordReader.LF) {
+					this.position++;
+				}
+			}
+		}
+	}
+
+	private void map(final long start, final int size) throws IOException {
+		this.windowStart = start;
+		this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, this.endPosition - start));
+		this.position = 0;
+	}
+
+	static byte singleByte(final char c, final Charset charset) {
+		final byte[] encoded = String.valueOf(c).getBytes(charset);
+		if (encoded.length != 1 || encoded[0] != (byte) c) {
+			throw new IllegalArgumentException("Charset " + charset.name() + " does not encode '" + c + "' as single ASCII byte");
+		}
+		return encoded[0];
+	}
+}
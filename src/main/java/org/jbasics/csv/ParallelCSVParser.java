@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.exception.DelegatedException;
+import org.jbasics.utilities.DataUtilities;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Parses a CSV file with several threads. The file is split into byte ranges which are adjusted to record boundaries
+ * and then parsed concurrently with {@link MappedCSVRecordReader}s on a {@link ForkJoinPool}.
+ * <p>
+ * Finding a record boundary requires to know if a line break is inside a quoted field. Therefore the quotes of each
+ * range are counted first (in parallel as well). Since escaped quotes always come in pairs, an odd number of quotes in
+ * front of a range means the range starts inside a quoted field. With that knowledge each range start is moved behind
+ * the first line break outside of quotes. Both scans read the file through a small buffer instead of mapping it, so
+ * even tiny chunk sizes do not create a mapping per chunk.
+ * </p>
+ * <p>
+ * The same restrictions regarding the charset as for the {@link MappedCSVRecordReader} apply.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class ParallelCSVParser {
+	public static final long DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+	private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final ForkJoinPool pool;
+	private final Charset charset;
+	private final CSVSeparator separator;
+	private final boolean parseWithHeaders;
+	private final boolean skipEmptyLines;
+	private final long chunkSize;
+
+	public ParallelCSVParser() {
+		this(null, null, null, true, true, ParallelCSVParser.DEFAULT_CHUNK_SIZE);
+	}
+
+	public ParallelCSVParser(final Charset charset, final CSVSeparator separator, final boolean parseWithHeaders) {
+		this(null, charset, separator, parseWithHeaders, true, ParallelCSVParser.DEFAULT_CHUNK_SIZE);
+	}
+
+	public ParallelCSVParser(final ForkJoinPool pool, final Charset charset, final CSVSeparator separator, final boolean parseWithHeaders,
+							 final boolean skipEmptyLines, final long chunkSize) {
+		this.pool = DataUtilities.coalesce(pool, ForkJoinPool.commonPool());
+		this.charset = DataUtilities.coalesce(charset, Charset.defaultCharset());
+		this.separator = DataUtilities.coalesce(separator, CSVSeparator.AUTO);
+		this.parseWithHeaders = parseWithHeaders;
+		this.skipEmptyLines = skipEmptyLines;
+		this.chunkSize = ContractCheck.mustBeInRange(chunkSize, 1L, Integer.MAX_VALUE - 1L, "chunkSize");
+		MappedCSVRecordReader.singleByte('"', this.charset);
+	}
+
+	/**
+	 * Parses the whole file into a table keeping the records in the order of the file.
+	 *
+	 * @param file The file to parse (must not be null).
+	 *
+	 * @return The parsed table.
+	 *
+	 * @throws IOException If reading the file failed.
+	 */
+	public CSVTable parse(final Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(ContractCheck.mustNotBeNull(file, "file"), StandardOpenOption.READ)) {
+			final long[] boundaries = findRecordBoundaries(channel);
+			final List<ForkJoinTask<List<CSVRecord>>> tasks = new ArrayList<ForkJoinTask<List<CSVRecord>>>(boundaries.length - 1);
+			for (int i = 1; i < boundaries.length; i++) {
+				tasks.add(this.pool.submit(new ChunkTask(channel, boundaries[i - 1], boundaries[i], null)));
+			}
+			final List<CSVRecord> records = new ArrayList<CSVRecord>();
+			for (final ForkJoinTask<List<CSVRecord>> task : tasks) {
+				records.addAll(join(task));
+			}
+			CSVRecord headers = null;
+			if (this.parseWithHeaders && !records.isEmpty()) {
+				headers = records.get(0);
+				records.remove(0);
+			}
+			return new CSVTable(this.charset, this.separator.asCharacter(), headers, records.toArray(new CSVRecord[records.size()]));
+		}
+	}
+
+	/**
+	 * Parses the file handing each record to the sink as soon as it got parsed. The records arrive in no particular order
+	 * and from several threads at the same time so the sink must be thread safe. Records are not collected.
+	 *
+	 * @param file The file to parse (must not be null).
+	 * @param sink The thread safe sink receiving the records (must not be null).
+	 *
+	 * @return The header record if parsing with headers or null otherwise.
+	 *
+	 * @throws IOException If reading the file failed.
+	 */
+	public CSVRecord parse(final Path file, final Consumer<? super CSVRecord> sink) throws IOException {
+		ContractCheck.mustNotBeNull(sink, "sink");
+		try (FileChannel channel = FileChannel.open(ContractCheck.mustNotBeNull(file, "file"), StandardOpenOption.READ)) {
+			final long[] boundaries = findRecordBoundaries(channel);
+			CSVRecord headers = null;
+			if (this.parseWithHeaders && boundaries.length > 1) {
+				try (MappedCSVRecordReader reader = createReader(channel, boundaries[0], boundaries[1])) {
+					headers = reader.readNext();
+					if (headers != null) {
+						boundaries[0] = reader.getPosition();
+					}
+				}
+			}
+			final List<ForkJoinTask<List<CSVRecord>>> tasks = new ArrayList<ForkJoinTask<List<CSVRecord>>>(boundaries.length - 1);
+			for (int i = 1; i < boundaries.length; i++) {
+				tasks.add(this.pool.submit(new ChunkTask(channel, boundaries[i - 1], boundaries[i], sink)));
+			}
+			for (final ForkJoinTask<List<CSVRecord>> task : tasks) {
+				join(task);
+			}
+			return headers;
+		}
+	}
+
+	/**
+	 * Splits the file into chunks and moves the start of each chunk to the next record boundary.
+	 *
+	 * @return The positions of the record boundaries starting with zero and ending with the file size. Each pair of
+	 * neighbours forms a chunk.
+	 */
+	long[] findRecordBoundaries(final FileChannel channel) throws IOException {
+		final long size = channel.size();
+		final int chunks = (int) Math.max(1L, (size + this.chunkSize - 1) / this.chunkSize);
+		final List<ForkJoinTask<Long>> quoteCounts = new ArrayList<ForkJoinTask<Long>>(chunks);
+		for (int i = 0; i < chunks; i++) {
+			final long start = i * this.chunkSize;
+			final long end = Math.min(size, start + this.chunkSize);
+			quoteCounts.add(this.pool.submit(() -> Long.valueOf(countQuotes(channel, start, end))));
+		}
+		final List<ForkJoinTask<Long>> starts = new ArrayList<ForkJoinTask<Long>>(chunks);
+		long quotes = 0;
+		for (int i = 1; i < chunks; i++) {
+			quotes += join(quoteCounts.get(i - 1)).longValue();
+			final long chunkStart = i * this.chunkSize;
+			final boolean inQuotes = (quotes & 1) != 0;
+			starts.add(this.pool.submit(() -> Long.valueOf(nextRecordStart(channel, chunkStart, size, inQuotes))));
+		}
+		final long[] temp = new long[chunks + 1];
+		int count = 1;
+		for (final ForkJoinTask<Long> start : starts) {
+			final long boundary = join(start).longValue();
+			if (boundary > temp[count - 1] && boundary < size) {
+				temp[count++] = boundary;
+			}
+		}
+		temp[count++] = size;
+		final long[] result = new long[count];
+		System.arraycopy(temp, 0, result, 0, count);
+		return result;
+	}
+
+	private static long countQuotes(final FileChannel channel, final long start, final long end) throws IOException {
+		final ByteBuffer data = ByteBuffer.allocate((int) Math.min(ParallelCSVParser.SCAN_BUFFER_SIZE, end - start));
+		long result = 0;
+		for (long position = start; position < end; position += data.limit()) {
+			read(channel, data, position, end);
+			final int limit = data.limit();
+			for (int i = 0; i < limit; i++) {
+				if (data.get(i) == ParallelCSVParser.QUOTE) {
+					result++;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the start of the first record beginning at or after the given position. The byte in front of the position
+	 * is examined as well since it may be the line break ending the previous record.
+	 */
+	private long nextRecordStart(final FileChannel channel, final long position, final long size, final boolean inQuotesAtPosition) throws IOException {
+		long bufferStart = position - 1;
+		boolean inQuotes = inQuotesAtPosition;
+		final ByteBuffer data = read(channel, ByteBuffer.allocate((int) Math.min(ParallelCSVParser.SCAN_BUFFER_SIZE, this.chunkSize + 1)), bufferStart, size);
+		if (data.get(0) == ParallelCSVParser.QUOTE) {
+			inQuotes = !inQuotes;
+		}
+		// the position behind a carriage return ending a record while a following line feed still needs to be checked
+		long afterCR = -1;
+		while (true) {
+			if (!data.hasRemaining()) {
+				bufferStart += data.limit();
+				if (bufferStart >= size) {
+					return afterCR >= 0 ? afterCR : size;
+				}
+				read(channel, data, bufferStart, size);
+			}
+			final byte b = data.get();
+			if (afterCR >= 0) {
+				return b == ParallelCSVParser.LF ? afterCR + 1 : afterCR;
+			} else if (b == ParallelCSVParser.QUOTE) {
+				inQuotes = !inQuotes;
+			} else if (!inQuotes && b == ParallelCSVParser.LF) {
+				return bufferStart + data.position();
+			} else if (!inQuotes && b == ParallelCSVParser.CR) {
+				afterCR = bufferStart + data.position();
+			}
+		}
+	}
+
+	/**
+	 * Fills the buffer with the bytes at the given position up to its capacity or the end and flips it for reading.
+	 */
+	private static ByteBuffer read(final FileChannel channel, final ByteBuffer buffer, final long position, final long end) throws IOException {
+		buffer.clear();
+		buffer.limit((int) Math.min(buffer.capacity(), end - position));
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("File ended before position " + end); //$NON-NLS-1$
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private MappedCSVRecordReader createReader(final FileChannel channel, final long start, final long end) throws IOException {
+		return new MappedCSVRecordReader(channel, false, start, end, this.charset, this.separator, this.skipEmptyLines,
+				(int) Math.min(MappedCSVRecordReader.DEFAULT_WINDOW_SIZE, Math.max(1L, end - start)));
+	}
+
+	private static <T> T join(final ForkJoinTask<T> task) throws IOException {
+		try {
+			return task.join();
+		} catch (final RuntimeException e) {
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+			}
+			throw e;
+		}
+	}
+
+	private class ChunkTask extends RecursiveTask<List<CSVRecord>> {
+		private static final long serialVersionUID = 1L;
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final Consumer<? super CSVRecord> sink;
+
+		ChunkTask(final FileChannel channel, final long start, final long end, final Consumer<? super CSVRecord> sink) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.sink = sink;
+		}
+
+		@Override
+		protected List<CSVRecord> compute() {
+			final List<CSVRecord> result = new ArrayList<CSVRecord>();
+			try (MappedCSVRecordReader reader = createReader(this.channel, this.start, this.end)) {
+				CSVRecord record;
+				while ((record = reader.readNext()) != null) {
+					if (this.sink != null) {
+						this.sink.accept(record);
+					} else {
+						result.add(record);
+					}
+				}
+			} catch (final IOException e) {
+				throw DelegatedException.delegate(e);
+			}
+			return result;
+		}
+	}
+}
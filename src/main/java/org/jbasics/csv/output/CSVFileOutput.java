@@ -29,21 +29,28 @@ import org.jbasics.exception.DelegatedException;
 import org.jbasics.utilities.DataUtilities;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 public class CSVFileOutput implements CSVOutput {
 	private final File outputFile;
+	private final Charset charset;
 	private final CSVSeparator separator;
 	private final boolean hasHeaders;
 	private CSVRecordWriter outWriter;
 
 	public CSVFileOutput(File outputFile, CSVSeparator separator, CSVRecord headers) {
+		this(outputFile, null, separator, headers);
+	}
+
+	public CSVFileOutput(File outputFile, Charset charset, CSVSeparator separator, CSVRecord headers) {
 		try {
 			this.outputFile = ContractCheck.mustNotBeNull(outputFile, "outputFile");
+			this.charset = DataUtilities.coalesce(charset, Charset.defaultCharset());
 			this.separator = DataUtilities.coalesce(separator, CSVSeparator.AUTO);
 			this.hasHeaders = headers != null;
-			this.outWriter = new CSVRecordWriter(new FileWriter(this.outputFile), this.separator);
+			this.outWriter = new CSVRecordWriter(new FileOutputStream(this.outputFile), this.charset, this.separator);
 			if (headers != null) {
 				outWriter.write(headers);
 			}
@@ -70,7 +77,7 @@ public class CSVFileOutput implements CSVOutput {
 		try {
 			this.outWriter.close();
 			this.outWriter = null;
-			return new CSVDataLocation(this.outputFile.toURI().toURL(), null, this.hasHeaders, this.separator, true);
+			return new CSVDataLocation(this.outputFile.toURI().toURL(), this.charset, this.hasHeaders, this.separator, true);
 		} catch(IOException e) {
 			throw DelegatedException.delegate(e);
 		}
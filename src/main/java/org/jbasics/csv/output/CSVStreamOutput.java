@@ -30,21 +30,27 @@ import org.jbasics.utilities.DataUtilities;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.net.URL;
+import java.nio.charset.Charset;
 
 public class CSVStreamOutput implements CSVOutput {
 	private final URL resultURL;
+	private final Charset charset;
 	private final CSVSeparator separator;
 	private final boolean hasHeaders;
 	private CSVRecordWriter outWriter;
 
 	public CSVStreamOutput(URL resultURL, OutputStream out, CSVSeparator separator, CSVRecord headers) {
+		this(resultURL, out, null, separator, headers);
+	}
+
+	public CSVStreamOutput(URL resultURL, OutputStream out, Charset charset, CSVSeparator separator, CSVRecord headers) {
 		try {
 			this.resultURL = ContractCheck.mustNotBeNull(resultURL, "resultURL");
+			this.charset = DataUtilities.coalesce(charset, Charset.defaultCharset());
 			this.separator = DataUtilities.coalesce(separator, CSVSeparator.AUTO);
 			this.hasHeaders = headers != null;
-			this.outWriter = new CSVRecordWriter(new OutputStreamWriter(ContractCheck.mustNotBeNull(out, "out")), this.separator);
+			this.outWriter = new CSVRecordWriter(ContractCheck.mustNotBeNull(out, "out"), this.charset, this.separator);
 			if (headers != null) {
 				outWriter.write(headers);
 			}
@@ -70,7 +76,7 @@ public class CSVStreamOutput implements CSVOutput {
 		try {
 			outWriter.close();
 			this.outWriter = null;
-			return new CSVDataLocation(this.resultURL, null, this.hasHeaders, this.separator, true);
+			return new CSVDataLocation(this.resultURL, this.charset, this.hasHeaders, this.separator, true);
 		} catch(IOException e) {
 			throw DelegatedException.delegate(e);
 		}
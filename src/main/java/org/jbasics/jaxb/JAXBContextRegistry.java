@@ -43,8 +43,8 @@ import org.jbasics.pattern.delegation.Delegate;
 import org.jbasics.text.StringUtilities;
 import org.jbasics.types.delegates.LazyDelegate;
 import org.jbasics.types.delegates.LazySoftReferenceDelegate;
-import org.jbasics.types.pools.LazyQueuePool;
 import org.jbasics.types.pools.PooledDelegate;
+import org.jbasics.types.pools.StripedPool;
 
 /**
  * Created by schls1 on 03.06.2015.
@@ -53,8 +53,8 @@ public class JAXBContextRegistry {
 	private final Map<String, String> namespacePackageMapping;
 	private final Map<String, Delegate<JAXBContext>> contexts;
 	private final Delegate<JAXBContext> registryContext;
-	private final LazyQueuePool<Marshaller> marshallerPool;
-	private final LazyQueuePool<Unmarshaller> unmarshallerPool;
+	private final StripedPool<Marshaller> marshallerPool;
+	private final StripedPool<Unmarshaller> unmarshallerPool;
 
 	public static JAXBContextRegistry createFromProperties(final String propertyResourceName) {
 		return createFromProperties(propertyResourceName, null);
@@ -83,8 +83,8 @@ public class JAXBContextRegistry {
 		this.namespacePackageMapping = Collections.unmodifiableMap(new HashMap<String, String>(ContractCheck.mustNotBeNullOrEmpty(namespacePackageMapping, "namespacePackageMapping")));
 		this.contexts = new HashMap<>();
 		this.registryContext = new LazyDelegate<>(new JAXBContextFactory(StringUtilities.joinToString(":", this.namespacePackageMapping.values())));
-		this.marshallerPool = new LazyQueuePool<Marshaller>(new JAXBMarshallerFactory(this.registryContext, true));
-		this.unmarshallerPool = new LazyQueuePool<Unmarshaller>(new JAXBUnmarshallerFactory(this.registryContext));
+		this.marshallerPool = new StripedPool<Marshaller>(new JAXBMarshallerFactory(this.registryContext, true));
+		this.unmarshallerPool = new StripedPool<Unmarshaller>(new JAXBUnmarshallerFactory(this.registryContext));
 	}
 
 	public Set<String> getRegisteredNamespaces() {
@@ -25,38 +25,56 @@ package org.jbasics.jaxb;
 
 import org.jbasics.types.delegates.UnmodifiableDelegate;
 import org.jbasics.types.pools.LazyQueuePool;
+import org.jbasics.types.pools.StripedPool;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
 import javax.xml.validation.Schema;
 
 public class JAXBMarshallerPool extends LazyQueuePool<Marshaller> {
+	// acquire and release go through a lock free pool so concurrent threads do not serialize on this pool
+	private final StripedPool<Marshaller> pool;
 
 	public JAXBMarshallerPool(final Class<?>... classes) {
-		super(new JAXBMarshallerFactory(new JAXBContextFactory(classes)));
+		this(new JAXBMarshallerFactory(new JAXBContextFactory(classes)));
 	}
 
 	public JAXBMarshallerPool(final String contextPath) {
-		super(new JAXBMarshallerFactory(new JAXBContextFactory(contextPath)));
+		this(new JAXBMarshallerFactory(new JAXBContextFactory(contextPath)));
 	}
 
 	public JAXBMarshallerPool(final String contextPath, final Schema schema) {
-		super(new JAXBMarshallerFactory(new JAXBContextFactory(contextPath), schema));
+		this(new JAXBMarshallerFactory(new JAXBContextFactory(contextPath), schema));
 	}
 
 	public JAXBMarshallerPool(final JAXBContext context) {
-		super(new JAXBMarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context)));
+		this(new JAXBMarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context)));
 	}
 
 	public JAXBMarshallerPool(final JAXBContext context, final Schema schema) {
-		super(new JAXBMarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context), schema));
+		this(new JAXBMarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context), schema));
 	}
 
 	public JAXBMarshallerPool(final JAXBContextFactory contextFactory) {
-		super(new JAXBMarshallerFactory(contextFactory));
+		this(new JAXBMarshallerFactory(contextFactory));
 	}
 
 	public JAXBMarshallerPool(final JAXBContextFactory contextFactory, final Schema schema) {
-		super(new JAXBMarshallerFactory(contextFactory, schema));
+		this(new JAXBMarshallerFactory(contextFactory, schema));
+	}
+
+	private JAXBMarshallerPool(final JAXBMarshallerFactory factory) {
+		super(factory);
+		this.pool = new StripedPool<Marshaller>(factory);
+	}
+
+	@Override
+	public Marshaller acquire() {
+		return this.pool.acquire();
+	}
+
+	@Override
+	public boolean release(final Marshaller object) {
+		return this.pool.release(object);
 	}
 }
@@ -26,25 +26,43 @@ package org.jbasics.jaxb;
 import org.jbasics.pattern.pooling.Pool;
 import org.jbasics.types.delegates.UnmodifiableDelegate;
 import org.jbasics.types.pools.LazyQueuePool;
+import org.jbasics.types.pools.StripedPool;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Unmarshaller;
 
 public class JAXBUnmarshallerPool extends LazyQueuePool<Unmarshaller> implements Pool<Unmarshaller> {
+	// acquire and release go through a lock free pool so concurrent threads do not serialize on this pool
+	private final StripedPool<Unmarshaller> pool;
 
 	public JAXBUnmarshallerPool(final Class<?>... classes) {
-		super(new JAXBUnmarshallerFactory(new JAXBContextFactory(classes)));
+		this(new JAXBUnmarshallerFactory(new JAXBContextFactory(classes)));
 	}
 
 	public JAXBUnmarshallerPool(final String contextPath) {
-		super(new JAXBUnmarshallerFactory(new JAXBContextFactory(contextPath)));
+		this(new JAXBUnmarshallerFactory(new JAXBContextFactory(contextPath)));
 	}
 
 	public JAXBUnmarshallerPool(final JAXBContext context) {
-		super(new JAXBUnmarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context)));
+		this(new JAXBUnmarshallerFactory(new UnmodifiableDelegate<JAXBContext>(context)));
 	}
 
 	public JAXBUnmarshallerPool(final JAXBContextFactory contextFactory) {
-		super(new JAXBUnmarshallerFactory(contextFactory));
+		this(new JAXBUnmarshallerFactory(contextFactory));
+	}
+
+	private JAXBUnmarshallerPool(final JAXBUnmarshallerFactory factory) {
+		super(factory);
+		this.pool = new StripedPool<Unmarshaller>(factory);
+	}
+
+	@Override
+	public Unmarshaller acquire() {
+		return this.pool.acquire();
+	}
+
+	@Override
+	public boolean release(final Unmarshaller object) {
+		return this.pool.release(object);
 	}
 }
@@ -30,7 +30,9 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 
 /**
- * Static class holding arbitrary correct decimal functions based on BigDecimal and BigInteger.
+ * Static class holding arbitrary correct decimal functions based on BigDecimal and BigInteger. The results of the
+ * functions are shared through the {@link IrationalNumberCache#getSharedInstance() shared cache} so evaluating a
+ * function repeatedly with the same argument does not repeat the calculation.
  *
  * @author Stephan Schloepke
  * @since 1.0
@@ -136,7 +138,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> exp(final BigDecimal x) {
-		return ExponentialIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("exp", ExponentialIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -204,7 +206,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> sqrt(final BigDecimal x) {
-		return SquareRootIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("sqrt", SquareRootIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -218,7 +220,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> arithmeticGeometricMean(final BigDecimal a, final BigDecimal b) {
-		return ArithmeticGeometricMeanIrationalNumber.valueOf(a, b);
+		return BigDecimalMathLibrary.cached("arithmeticGeometricMean", ArithmeticGeometricMeanIrationalNumber.valueOf(a, b), a, b); //$NON-NLS-1$
 	}
 
 	/**
@@ -231,7 +233,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> ln(final BigDecimal x) {
-		return LogNaturalFunctionIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("ln", LogNaturalFunctionIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -244,7 +246,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> lg(final BigDecimal x) {
-		return LogIrationalNumber.valueOf(x, BigDecimal.TEN);
+		return BigDecimalMathLibrary.cached("lg", LogIrationalNumber.valueOf(x, BigDecimal.TEN), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -257,7 +259,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> ld(final BigDecimal x) {
-		return LogIrationalNumber.valueOf(x, MathImplConstants.TWO);
+		return BigDecimalMathLibrary.cached("ld", LogIrationalNumber.valueOf(x, MathImplConstants.TWO), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -271,7 +273,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> log(final BigDecimal x, final BigDecimal b) {
-		return LogIrationalNumber.valueOf(x, b);
+		return BigDecimalMathLibrary.cached("log", LogIrationalNumber.valueOf(x, b), x, b); //$NON-NLS-1$
 	}
 
 	/**
@@ -286,7 +288,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> pow(final BigDecimal a, final BigDecimal x) {
-		return PowIrationalNumber.valueOf(a, x);
+		return BigDecimalMathLibrary.cached("pow", PowIrationalNumber.valueOf(a, x), a, x); //$NON-NLS-1$
 	}
 
 	/**
@@ -299,7 +301,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> sin(final BigDecimal x) {
-		return SineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("sin", SineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -312,7 +314,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> cos(final BigDecimal x) {
-		return CosineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("cos", CosineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -325,7 +327,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> tan(final BigDecimal x) {
-		return TangentIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("tan", TangentIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -338,7 +340,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> asin(final BigDecimal x) {
-		return ArcSineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("asin", ArcSineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -351,7 +353,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> acos(final BigDecimal x) {
-		return ArcCosineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("acos", ArcCosineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -364,7 +366,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> atan(final BigDecimal x) {
-		return ArcTangentIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("atan", ArcTangentIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -377,7 +379,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> sinh(final BigDecimal x) {
-		return HyperbolicSineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("sinh", HyperbolicSineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -390,7 +392,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> cosh(final BigDecimal x) {
-		return HyperbolicCosineIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("cosh", HyperbolicCosineIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -403,7 +405,7 @@ public final class BigDecimalMathLibrary {
 	 * @since 1.0
 	 */
 	public static IrationalNumber<BigDecimal> tanh(final BigDecimal x) {
-		return HyperbolicTangentIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("tanh", HyperbolicTangentIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -414,7 +416,7 @@ public final class BigDecimalMathLibrary {
 	 * @return The gamma value of x
 	 */
 	public static IrationalNumber<BigDecimal> gamma(final BigDecimal x) {
-		return GammaFunctionIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("gamma", GammaFunctionIrationalNumber.valueOf(x), x); //$NON-NLS-1$
 	}
 
 	/**
@@ -440,6 +442,11 @@ public final class BigDecimalMathLibrary {
 	 * @return The ln(gamma(x)) value of x
 	 */
 	public static IrationalNumber<BigDecimal> lnGamma(final BigDecimal x) {
-		return GammaLnFunctionIrationalNumber.valueOf(x);
+		return BigDecimalMathLibrary.cached("lnGamma", GammaLnFunctionIrationalNumber.valueOf(x), x); //$NON-NLS-1$
+	}
+
+	private static IrationalNumber<BigDecimal> cached(final String function, final IrationalNumber<BigDecimal> number, final BigDecimal... arguments) {
+		final IrationalNumberCache cache = IrationalNumberCache.getSharedInstance();
+		return cache == null ? number : cache.lookup(function, number, arguments);
 	}
 }
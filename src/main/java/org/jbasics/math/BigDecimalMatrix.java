@@ -33,10 +33,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Collection<BigDecimal>> /* , Comparable<BigDecimalMatrix> */ {
 	private final int rows, columns;
 	private final BigDecimal[][] matrix;
+	/**
+	 * The number of result columns computed together for a row range when multiplying. A block of transposed factor
+	 * rows is reused for every row of the range before moving on to the next block.
+	 */
+	private static final int MULTIPLY_BLOCK_SIZE = 64;
 	private transient Collection<BigDecimal>[] iterables;
 
 	public BigDecimalMatrix(final int rows, final int columns, final Number... values) {
@@ -143,6 +149,15 @@ public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Colle
 		return BigDecimalMatrix.createRandomMatrix(1, ContractCheck.mustBeInRange(size, 0, Integer.MAX_VALUE, "size"), r); //$NON-NLS-1$
 	}
 
+	/**
+	 * Converts this matrix to a {@link DoubleMatrix} rounding each value to the nearest double.
+	 *
+	 * @return The double matrix
+	 */
+	public DoubleMatrix toDoubleMatrix() {
+		return DoubleMatrix.valueOf(this);
+	}
+
 	public BigDecimal get(final int row, final int column) {
 		return this.matrix[row][column];
 	}
@@ -161,12 +176,26 @@ public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Colle
 	}
 
 	public BigDecimalMatrix transpose() {
+		return transpose(null);
+	}
+
+	/**
+	 * Transposes this matrix splitting the rows of the result across the given pool.
+	 *
+	 * @param pool The fork join pool to use (null to run in the current thread)
+	 *
+	 * @return The transposed matrix
+	 */
+	public BigDecimalMatrix transpose(final ForkJoinPool pool) {
 		final BigDecimalMatrix result = new BigDecimalMatrix(this.columns, this.rows);
-		for (int i = 0; i < this.rows; i++) {
-			for (int j = 0; j < this.columns; j++) {
-				result.matrix[j][i] = this.matrix[i][j];
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int j = fromRow; j < toRow; j++) {
+				final BigDecimal[] target = result.matrix[j];
+				for (int i = 0; i < this.rows; i++) {
+					target[i] = this.matrix[i][j];
+				}
 			}
-		}
+		}, this.columns, this.rows);
 		return result;
 	}
 
@@ -175,15 +204,32 @@ public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Colle
 	}
 
 	public BigDecimalMatrix add(final BigDecimalMatrix summant, final MathContext mc) {
+		return add(summant, mc, null);
+	}
+
+	/**
+	 * Adds the given matrix splitting the rows across the given pool. The result is identical to {@link
+	 * #add(BigDecimalMatrix, MathContext)}.
+	 *
+	 * @param summant The matrix to add
+	 * @param mc      The math context to round each element with
+	 * @param pool    The fork join pool to use (null to run in the current thread)
+	 *
+	 * @return The sum of both matrices
+	 */
+	public BigDecimalMatrix add(final BigDecimalMatrix summant, final MathContext mc, final ForkJoinPool pool) {
 		if (ContractCheck.mustNotBeNull(summant, "summant").rows != this.rows || summant.columns != this.columns) {
 			throw new IllegalArgumentException("Matrix summation can only be done with matrices of the exact same dimensions");
 		}
 		final BigDecimalMatrix result = new BigDecimalMatrix(this.rows, this.columns);
-		for (int i = 0; i < this.matrix.length; i++) {
-			for (int j = 0; j < this.matrix[i].length; j++) {
-				result.matrix[i][j] = this.matrix[i][j].add(summant.matrix[i][j], mc);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++) {
+				final BigDecimal[] left = this.matrix[i], right = summant.matrix[i], target = result.matrix[i];
+				for (int j = 0; j < left.length; j++) {
+					target[j] = left[j].add(right[j], mc);
+				}
 			}
-		}
+		}, this.rows, this.columns);
 		return result;
 	}
 
@@ -192,15 +238,32 @@ public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Colle
 	}
 
 	public BigDecimalMatrix subtract(final BigDecimalMatrix summant, final MathContext mc) {
+		return subtract(summant, mc, null);
+	}
+
+	/**
+	 * Subtracts the given matrix splitting the rows across the given pool. The result is identical to {@link
+	 * #subtract(BigDecimalMatrix, MathContext)}.
+	 *
+	 * @param summant The matrix to subtract
+	 * @param mc      The math context to round each element with
+	 * @param pool    The fork join pool to use (null to run in the current thread)
+	 *
+	 * @return The difference of both matrices
+	 */
+	public BigDecimalMatrix subtract(final BigDecimalMatrix summant, final MathContext mc, final ForkJoinPool pool) {
 		if (ContractCheck.mustNotBeNull(summant, "summant").rows != this.rows || summant.columns != this.columns) {
 			throw new IllegalArgumentException("Matrix summation can only be done with matrices of the exact same dimensions");
 		}
 		final BigDecimalMatrix result = new BigDecimalMatrix(this.rows, this.columns);
-		for (int i = 0; i < this.matrix.length; i++) {
-			for (int j = 0; j < this.matrix[i].length; j++) {
-				result.matrix[i][j] = this.matrix[i][j].subtract(summant.matrix[i][j], mc);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++) {
+				final BigDecimal[] left = this.matrix[i], right = summant.matrix[i], target = result.matrix[i];
+				for (int j = 0; j < left.length; j++) {
+					target[j] = left[j].subtract(right[j], mc);
+				}
 			}
-		}
+		}, this.rows, this.columns);
 		return result;
 	}
 
@@ -239,19 +302,46 @@ public class BigDecimalMatrix implements TabularData<BigDecimal>, Iterable<Colle
 	}
 
 	public BigDecimalMatrix multiply(final BigDecimalMatrix factor, final MathContext mc) {
-		if (this.columns != factor.rows) {
+		return multiply(factor, mc, null);
+	}
+
+	/**
+	 * Multiplies this matrix with the given factor splitting the rows of the result across the given pool.
+	 * <p>
+	 * The factor is transposed once so every dot product walks two row arrays. The result columns are processed in
+	 * blocks so a block of transposed factor rows is reused for all rows of a task. Each element is summed exactly and
+	 * rounded once with the given math context. Since exact summation does not depend on the order of the terms the
+	 * result is bit identical regardless of the pool or the blocking.
+	 * </p>
+	 *
+	 * @param factor The matrix to multiply with
+	 * @param mc     The math context to round each element with
+	 * @param pool   The fork join pool to use (null to run in the current thread)
+	 *
+	 * @return The product of both matrices
+	 */
+	public BigDecimalMatrix multiply(final BigDecimalMatrix factor, final MathContext mc, final ForkJoinPool pool) {
+		if (ContractCheck.mustNotBeNull(factor, "factor").rows != this.columns) { //$NON-NLS-1$
 			throw new IllegalArgumentException("The rows of the matrix factor must be equal to the columns of this matrix"); //$NON-NLS-1$
 		}
+		final BigDecimal[][] right = factor.transpose(pool).matrix;
 		final BigDecimalMatrix result = new BigDecimalMatrix(this.rows, factor.columns);
-		for (int i = 0; i < result.columns; i++) {
-			for (int j = 0; j < result.rows; j++) {
-				BigDecimal temp = BigDecimal.ZERO;
-				for (int k = 0; k < this.columns; k++) {
-					temp = temp.add(this.matrix[j][k].multiply(factor.matrix[k][i]));
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int blockStart = 0; blockStart < result.columns; blockStart += BigDecimalMatrix.MULTIPLY_BLOCK_SIZE) {
+				final int blockEnd = Math.min(result.columns, blockStart + BigDecimalMatrix.MULTIPLY_BLOCK_SIZE);
+				for (int i = fromRow; i < toRow; i++) {
+					final BigDecimal[] left = this.matrix[i], target = result.matrix[i];
+					for (int j = blockStart; j < blockEnd; j++) {
+						final BigDecimal[] column = right[j];
+						BigDecimal temp = BigDecimal.ZERO;
+						for (int k = 0; k < left.length; k++) {
+							temp = temp.add(left[k].multiply(column[k]));
+						}
+						target[j] = temp.round(mc);
+					}
 				}
-				result.matrix[j][i] = temp.round(mc);
 			}
-		}
+		}, this.rows, (long) this.columns * factor.columns);
 		return result;
 	}
 
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Mutable accumulator for sums and products of {@link BigRational} values. <p> Unlike the immutable {@link BigRational}
+ * operations the accumulator does not create a new instance per operation and delays the reduction by the greatest
+ * common divisor to checkpoints. A checkpoint is reached after a given number of operations or when the denominator
+ * grows beyond a given bit length. Values with the same denominator as the current sum only advance the numerator.
+ * </p> <p> The accumulator is not thread safe. For parallel streams use {@link #summing()} or {@link #multiplying()}
+ * which accumulate thread local partial results and {@link #combine(BigRationalAccumulator) combine} them at the end.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class BigRationalAccumulator {
+	/**
+	 * The default amount of operations after which the accumulated value is reduced.
+	 */
+	public static final int DEFAULT_REDUCE_INTERVAL = 256;
+	/**
+	 * The default bit length of the denominator after which the accumulated value is reduced.
+	 */
+	public static final int DEFAULT_REDUCE_BIT_LENGTH = 4096;
+
+	private final int reduceInterval;
+	private final int reduceBitLength;
+	private BigInteger numerator;
+	private BigInteger denominator;
+	private int pendingOperations;
+
+	/**
+	 * Create an accumulator starting at zero with the default checkpoints.
+	 */
+	public BigRationalAccumulator() {
+		this(BigRationalAccumulator.DEFAULT_REDUCE_INTERVAL, BigRationalAccumulator.DEFAULT_REDUCE_BIT_LENGTH);
+	}
+
+	/**
+	 * Create an accumulator starting at zero reducing after the given amount of operations or if the denominator exceeds
+	 * the given bit length.
+	 *
+	 * @param reduceInterval  The amount of operations after which to reduce (must be positive)
+	 * @param reduceBitLength The bit length of the denominator after which to reduce (must be positive)
+	 */
+	public BigRationalAccumulator(final int reduceInterval, final int reduceBitLength) {
+		if (reduceInterval <= 0 || reduceBitLength <= 0) {
+			throw new IllegalArgumentException("reduceInterval and reduceBitLength must be positive");
+		}
+		this.reduceInterval = reduceInterval;
+		this.reduceBitLength = reduceBitLength;
+		reset();
+	}
+
+	/**
+	 * Returns a collector summing {@link BigRational} values into a normalized {@link BigRational}. Partial sums of
+	 * parallel streams are merged with {@link #combine(BigRationalAccumulator)}.
+	 *
+	 * @return The summing collector
+	 */
+	public static Collector<BigRational, BigRationalAccumulator, BigRational> summing() {
+		return Collector.of(BigRationalAccumulator::new, BigRationalAccumulator::add, BigRationalAccumulator::combine,
+				BigRationalAccumulator::toBigRational, Collector.Characteristics.UNORDERED);
+	}
+
+	/**
+	 * Returns a collector multiplying {@link BigRational} values into a normalized {@link BigRational}. Partial products
+	 * of parallel streams are merged with {@link #combineProduct(BigRationalAccumulator)}.
+	 *
+	 * @return The multiplying collector
+	 */
+	public static Collector<BigRational, BigRationalAccumulator, BigRational> multiplying() {
+		return Collector.of(() -> new BigRationalAccumulator().reset(BigRational.ONE), BigRationalAccumulator::multiply,
+				BigRationalAccumulator::combineProduct, BigRationalAccumulator::toBigRational,
+				Collector.Characteristics.UNORDERED);
+	}
+
+	/**
+	 * Resets this accumulator to zero.
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator reset() {
+		this.numerator = BigInteger.ZERO;
+		this.denominator = BigInteger.ONE;
+		this.pendingOperations = 0;
+		return this;
+	}
+
+	/**
+	 * Resets this accumulator to the given value.
+	 *
+	 * @param value The value to start with (must not be null)
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator reset(final BigRational value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Null parameter: value");
+		}
+		this.numerator = value.numerator();
+		this.denominator = value.denominator();
+		this.pendingOperations = 1;
+		return this;
+	}
+
+	public BigRationalAccumulator add(final BigRational x) {
+		if (x == null) {
+			throw new IllegalArgumentException("Null parameter: x");
+		}
+		return addFraction(x.numerator(), x.denominator());
+	}
+
+	public BigRationalAccumulator add(final BigInteger x) {
+		if (x == null) {
+			throw new IllegalArgumentException("Null parameter: x");
+		}
+		this.numerator = this.numerator.add(BigInteger.ONE.equals(this.denominator) ? x : x.multiply(this.denominator));
+		return this;
+	}
+
+	public BigRationalAccumulator add(final long x) {
+		return add(BigInteger.valueOf(x));
+	}
+
+	public BigRationalAccumulator subtract(final BigRational x) {
+		if (x == null) {
+			throw new IllegalArgumentException("Null parameter: x");
+		}
+		return addFraction(x.numerator().negate(), x.denominator());
+	}
+
+	/**
+	 * Adds all values of the array. The values are summed pairwise without reduction so the intermediate denominators
+	 * stay balanced and only the final sum is reduced.
+	 *
+	 * @param values The values to add (must not be null or contain null)
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator addAll(final BigRational... values) {
+		if (values == null) {
+			throw new IllegalArgumentException("Null parameter: values");
+		}
+		if (values.length > 0) {
+			BigInteger[] sum = sumPairwise(values, 0, values.length);
+			BigInteger gcd = sum[0].gcd(sum[1]);
+			if (!BigInteger.ONE.equals(gcd) && gcd.signum() != 0) {
+				sum[0] = sum[0].divide(gcd);
+				sum[1] = sum[1].divide(gcd);
+			}
+			addFraction(sum[0], sum[1]);
+		}
+		return this;
+	}
+
+	public BigRationalAccumulator addAll(final Iterable<? extends BigRational> values) {
+		if (values == null) {
+			throw new IllegalArgumentException("Null parameter: values");
+		}
+		Iterator<? extends BigRational> it = values.iterator();
+		while (it.hasNext()) {
+			add(it.next());
+		}
+		return this;
+	}
+
+	/**
+	 * Adds all values of the stream. A parallel stream is summed into thread local accumulators which are combined
+	 * into this accumulator.
+	 *
+	 * @param values The values to add (must not be null or contain null)
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator addAll(final Stream<? extends BigRational> values) {
+		if (values == null) {
+			throw new IllegalArgumentException("Null parameter: values");
+		}
+		if (values.isParallel()) {
+			return combine(values.collect(BigRationalAccumulator::new, BigRationalAccumulator::add,
+					BigRationalAccumulator::combine));
+		}
+		values.forEachOrdered(this::add);
+		return this;
+	}
+
+	public BigRationalAccumulator multiply(final BigRational x) {
+		if (x == null) {
+			throw new IllegalArgumentException("Null parameter: x");
+		}
+		return multiplyFraction(x.numerator(), x.denominator());
+	}
+
+	public BigRationalAccumulator multiply(final BigInteger x) {
+		if (x == null) {
+			throw new IllegalArgumentException("Null parameter: x");
+		}
+		return multiplyFraction(x, BigInteger.ONE);
+	}
+
+	public BigRationalAccumulator multiply(final long x) {
+		return multiply(BigInteger.valueOf(x));
+	}
+
+	/**
+	 * Adds the value of the other accumulator to this accumulator.
+	 *
+	 * @param other The other accumulator (must not be null)
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator combine(final BigRationalAccumulator other) {
+		if (other == null) {
+			throw new IllegalArgumentException("Null parameter: other");
+		}
+		return addFraction(other.numerator, other.denominator);
+	}
+
+	/**
+	 * Multiplies this accumulator with the value of the other accumulator.
+	 *
+	 * @param other The other accumulator (must not be null)
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator combineProduct(final BigRationalAccumulator other) {
+		if (other == null) {
+			throw new IllegalArgumentException("Null parameter: other");
+		}
+		return multiplyFraction(other.numerator, other.denominator);
+	}
+
+	/**
+	 * Reduces the accumulated value by the greatest common divisor of numerator and denominator now (checkpoint).
+	 *
+	 * @return This accumulator
+	 */
+	public BigRationalAccumulator reduce() {
+		if (this.numerator.signum() == 0) {
+			this.denominator = BigInteger.ONE;
+		} else if (!BigInteger.ONE.equals(this.denominator)) {
+			BigInteger gcd = this.numerator.gcd(this.denominator);
+			if (!BigInteger.ONE.equals(gcd)) {
+				this.numerator = this.numerator.divide(gcd);
+				this.denominator = this.denominator.divide(gcd);
+			}
+		}
+		this.pendingOperations = 0;
+		return this;
+	}
+
+	/**
+	 * Returns the accumulated value as a reduced {@link BigRational}. The accumulator keeps its value and can be used
+	 * further.
+	 *
+	 * @return The reduced value
+	 */
+	public BigRational toBigRational() {
+		reduce();
+		if (this.numerator.signum() == 0) {
+			return BigRational.ZERO;
+		} else if (BigInteger.ONE.equals(this.numerator) && BigInteger.ONE.equals(this.denominator)) {
+			return BigRational.ONE;
+		}
+		return new BigRational(this.numerator, this.denominator);
+	}
+
+	@Override
+	public String toString() {
+		return this.numerator + "/" + this.denominator; //$NON-NLS-1$
+	}
+
+	private BigRationalAccumulator addFraction(final BigInteger n, final BigInteger d) {
+		if (n.signum() == 0) {
+			return this;
+		} else if (this.denominator.equals(d)) {
+			this.numerator = this.numerator.add(n);
+		} else if (BigInteger.ONE.equals(d)) {
+			this.numerator = this.numerator.add(n.multiply(this.denominator));
+		} else if (this.numerator.signum() == 0) {
+			this.numerator = n;
+			this.denominator = d;
+		} else {
+			this.numerator = this.numerator.multiply(d).add(n.multiply(this.denominator));
+			this.denominator = this.denominator.multiply(d);
+			checkpoint();
+		}
+		return this;
+	}
+
+	private BigRationalAccumulator multiplyFraction(final BigInteger n, final BigInteger d) {
+		this.numerator = this.numerator.multiply(n);
+		if (!BigInteger.ONE.equals(d)) {
+			this.denominator = this.denominator.multiply(d);
+		}
+		checkpoint();
+		return this;
+	}
+
+	private void checkpoint() {
+		if (++this.pendingOperations >= this.reduceInterval || this.denominator.bitLength() > this.reduceBitLength) {
+			reduce();
+		}
+	}
+
+	private BigInteger[] sumPairwise(final BigRational[] values, final int from, final int to) {
+		if (to - from == 1) {
+			BigRational value = values[from];
+			if (value == null) {
+				throw new IllegalArgumentException("Null value at index " + from);
+			}
+			return new BigInteger[]{value.numerator(), value.denominator()};
+		}
+		int middle = (from + to) >>> 1;
+		BigInteger[] left = sumPairwise(values, from, middle);
+		BigInteger[] right = sumPairwise(values, middle, to);
+		if (left[1].equals(right[1])) {
+			left[0] = left[0].add(right[0]);
+		} else {
+			left[0] = left[0].multiply(right[1]).add(right[0].multiply(left[1]));
+			left[1] = left[1].multiply(right[1]);
+			if (left[1].bitLength() > this.reduceBitLength) {
+				BigInteger gcd = left[0].gcd(left[1]);
+				if (!BigInteger.ONE.equals(gcd) && gcd.signum() != 0) {
+					left[0] = left[0].divide(gcd);
+					left[1] = left[1].divide(gcd);
+				}
+			}
+		}
+		return left;
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.jbasics.checker.ContractCheck;
+
+/**
+ * The LU decomposition of a square {@link DoubleMatrix} with partial (row) pivoting so that P * A = L * U. L is a unit
+ * lower triangular matrix and U an upper triangular matrix. Both are stored combined in one array. The decomposition
+ * can be reused to solve any number of equation systems with the same matrix.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class DoubleLUDecomposition {
+	private final int size;
+	private final double[] lu;
+	private final int[] pivot;
+	private final boolean singular;
+	private int pivotSign;
+
+	DoubleLUDecomposition(final int size, final double[] lu) {
+		this.size = size;
+		this.lu = lu;
+		this.pivot = new int[size];
+		for (int i = 0; i < size; i++) {
+			this.pivot[i] = i;
+		}
+		this.pivotSign = 1;
+		boolean isSingular = false;
+		for (int k = 0; k < size; k++) {
+			int p = k;
+			double max = Math.abs(lu[k * size + k]);
+			for (int i = k + 1; i < size; i++) {
+				final double temp = Math.abs(lu[i * size + k]);
+				if (temp > max) {
+					max = temp;
+					p = i;
+				}
+			}
+			if (p != k) {
+				swapRows(p, k);
+			}
+			final double diagonal = lu[k * size + k];
+			if (diagonal == 0.0) {
+				isSingular = true;
+				continue;
+			}
+			for (int i = k + 1; i < size; i++) {
+				final int row = i * size;
+				final double factor = lu[row + k] /= diagonal;
+				if (factor != 0.0) {
+					for (int j = k + 1, r = k * size + j; j < size; j++) {
+						lu[row + j] -= factor * lu[r++];
+					}
+				}
+			}
+		}
+		this.singular = isSingular;
+	}
+
+	private void swapRows(final int a, final int b) {
+		final int rowA = a * this.size, rowB = b * this.size;
+		for (int j = 0; j < this.size; j++) {
+			final double temp = this.lu[rowA + j];
+			this.lu[rowA + j] = this.lu[rowB + j];
+			this.lu[rowB + j] = temp;
+		}
+		final int temp = this.pivot[a];
+		this.pivot[a] = this.pivot[b];
+		this.pivot[b] = temp;
+		this.pivotSign = -this.pivotSign;
+	}
+
+	public boolean isSingular() {
+		return this.singular;
+	}
+
+	public double determinant() {
+		double result = this.pivotSign;
+		for (int i = 0; i < this.size; i++) {
+			result *= this.lu[i * this.size + i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the row permutation where the row i of P * A is the row pivot[i] of A.
+	 *
+	 * @return A copy of the pivot permutation
+	 */
+	public int[] getPivot() {
+		return this.pivot.clone();
+	}
+
+	public DoubleMatrix getLower() {
+		final double[] temp = new double[this.lu.length];
+		for (int i = 0; i < this.size; i++) {
+			System.arraycopy(this.lu, i * this.size, temp, i * this.size, i);
+			temp[i * this.size + i] = 1.0;
+		}
+		return new DoubleMatrix(this.size, this.size, temp);
+	}
+
+	public DoubleMatrix getUpper() {
+		final double[] temp = new double[this.lu.length];
+		for (int i = 0; i < this.size; i++) {
+			System.arraycopy(this.lu, i * this.size + i, temp, i * this.size + i, this.size - i);
+		}
+		return new DoubleMatrix(this.size, this.size, temp);
+	}
+
+	/**
+	 * Solves A * X = B for X using forward and back substitution.
+	 *
+	 * @param rightHandSide The right hand side B with the same number of rows as A
+	 *
+	 * @return The solution X
+	 *
+	 * @throws ArithmeticException If the decomposed matrix is singular
+	 */
+	public DoubleMatrix solve(final DoubleMatrix rightHandSide) {
+		if (ContractCheck.mustNotBeNull(rightHandSide, "rightHandSide").rowSize() != this.size) { //$NON-NLS-1$
+			throw new IllegalArgumentException("The right hand side must have as many rows as the decomposed matrix"); //$NON-NLS-1$
+		}
+		if (this.singular) {
+			throw new ArithmeticException("Matrix is singular"); //$NON-NLS-1$
+		}
+		final int n = rightHandSide.columnSize();
+		final double[] b = rightHandSide.values();
+		final double[] x = new double[this.size * n];
+		for (int i = 0; i < this.size; i++) {
+			System.arraycopy(b, this.pivot[i] * n, x, i * n, n);
+		}
+		for (int k = 0; k < this.size; k++) {
+			for (int i = k + 1; i < this.size; i++) {
+				final double factor = this.lu[i * this.size + k];
+				if (factor != 0.0) {
+					for (int j = 0; j < n; j++) {
+						x[i * n + j] -= x[k * n + j] * factor;
+					}
+				}
+			}
+		}
+		for (int k = this.size - 1; k >= 0; k--) {
+			final double diagonal = this.lu[k * this.size + k];
+			for (int j = 0; j < n; j++) {
+				x[k * n + j] /= diagonal;
+			}
+			for (int i = 0; i < k; i++) {
+				final double factor = this.lu[i * this.size + k];
+				if (factor != 0.0) {
+					for (int j = 0; j < n; j++) {
+						x[i * n + j] -= x[k * n + j] * factor;
+					}
+				}
+			}
+		}
+		return new DoubleMatrix(this.size, n, x);
+	}
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.container.TabularData;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A dense matrix of primitive doubles stored row by row in a single array. It is the fast counterpart to {@link
+ * BigDecimalMatrix} for workloads not requiring arbitrary precision. Both can be converted into each other with {@link
+ * #valueOf(BigDecimalMatrix)} and {@link #toBigDecimalMatrix()}. Like {@link BigDecimalMatrix} the matrix is immutable
+ * and all operations return a new matrix.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class DoubleMatrix implements TabularData<Double> {
+	private static final int MULTIPLY_BLOCK_SIZE = 64;
+
+	private final int rows, columns;
+	private final double[] values;
+
+	public DoubleMatrix(final int rows, final int columns, final double... values) {
+		this.rows = ContractCheck.mustBeInRange(rows, 1, Integer.MAX_VALUE, "rows"); //$NON-NLS-1$
+		this.columns = ContractCheck.mustBeInRange(columns, 1, Integer.MAX_VALUE, "columns"); //$NON-NLS-1$
+		this.values = new double[rows * columns];
+		if (values != null) {
+			System.arraycopy(values, 0, this.values, 0, Math.min(values.length, this.values.length));
+		}
+	}
+
+	private DoubleMatrix(final int rows, final int columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.values = new double[rows * columns];
+	}
+
+	public static DoubleMatrixBuilder create() {
+		return new DoubleMatrixBuilder();
+	}
+
+	public static DoubleMatrix createColumnVector(final double... values) {
+		return new DoubleMatrix(ContractCheck.mustNotBeNull(values, "values").length, 1, values); //$NON-NLS-1$
+	}
+
+	public static DoubleMatrix createRowVector(final double... values) {
+		return new DoubleMatrix(1, ContractCheck.mustNotBeNull(values, "values").length, values); //$NON-NLS-1$
+	}
+
+	public static DoubleMatrix createIdentityMatrix(final int size) {
+		final DoubleMatrix result = new DoubleMatrix(size, size, (double[]) null);
+		for (int i = 0; i < size; i++) {
+			result.values[i * size + i] = 1.0;
+		}
+		return result;
+	}
+
+	public static DoubleMatrix createRandomMatrix(final int rows, final int columns) {
+		return DoubleMatrix.createRandomMatrix(rows, columns, new JavaRandomNumberSequence());
+	}
+
+	public static DoubleMatrix createRandomMatrix(final int rows, final int columns, final RandomNumberSequence<? extends Number> r) {
+		final DoubleMatrix result = new DoubleMatrix(rows, columns, (double[]) null);
+		for (int i = 0; i < result.values.length; i++) {
+			result.values[i] = r.nextRandomNumber().doubleValue();
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a double matrix from the given big decimal matrix. Values not representable as a double are rounded to
+	 * the nearest double.
+	 *
+	 * @param matrix The matrix to convert
+	 *
+	 * @return The converted matrix
+	 */
+	public static DoubleMatrix valueOf(final BigDecimalMatrix matrix) {
+		final DoubleMatrix result = new DoubleMatrix(ContractCheck.mustNotBeNull(matrix, "matrix").rowSize(), matrix.columnSize()); //$NON-NLS-1$
+		for (int i = 0, k = 0; i < result.rows; i++) {
+			for (int j = 0; j < result.columns; j++) {
+				result.values[k++] = matrix.get(i, j).doubleValue();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Converts this matrix to a big decimal matrix using the shortest decimal representation of each value.
+	 *
+	 * @return The converted matrix
+	 *
+	 * @throws NumberFormatException If a value is infinite or NaN
+	 */
+	public BigDecimalMatrix toBigDecimalMatrix() {
+		final Number[] temp = new Number[this.values.length];
+		for (int i = 0; i < temp.length; i++) {
+			temp[i] = BigDecimal.valueOf(this.values[i]);
+		}
+		return new BigDecimalMatrix(this.rows, this.columns, temp);
+	}
+
+	public double get(final int row, final int column) {
+		return this.values[index(row, column)];
+	}
+
+	@Override
+	public Double getValueAtRowAndColumn(final int row, final int column) {
+		return Double.valueOf(this.values[index(row, column)]);
+	}
+
+	@Override
+	public int rowSize() {
+		return this.rows;
+	}
+
+	@Override
+	public int columnSize() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns a copy of the given row.
+	 *
+	 * @param row The row index
+	 *
+	 * @return A copy of the row values
+	 */
+	public double[] getRow(final int row) {
+		final int offset = ContractCheck.mustBeInRange(row, 0, this.rows - 1, "row") * this.columns; //$NON-NLS-1$
+		return Arrays.copyOfRange(this.values, offset, offset + this.columns);
+	}
+
+	public DoubleMatrix transpose() {
+		return transpose(null);
+	}
+
+	public DoubleMatrix transpose(final ForkJoinPool pool) {
+		final DoubleMatrix result = new DoubleMatrix(this.columns, this.rows);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int j = fromRow; j < toRow; j++) {
+				for (int i = 0, k = j * this.rows; i < this.rows; i++) {
+					result.values[k++] = this.values[i * this.columns + j];
+				}
+			}
+		}, this.columns, this.rows);
+		return result;
+	}
+
+	public DoubleMatrix add(final DoubleMatrix summant) {
+		return add(summant, null);
+	}
+
+	public DoubleMatrix add(final DoubleMatrix summant, final ForkJoinPool pool) {
+		checkSameDimension(summant);
+		final DoubleMatrix result = new DoubleMatrix(this.rows, this.columns);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int k = fromRow * this.columns, end = toRow * this.columns; k < end; k++) {
+				result.values[k] = this.values[k] + summant.values[k];
+			}
+		}, this.rows, this.columns);
+		return result;
+	}
+
+	public DoubleMatrix subtract(final DoubleMatrix summant) {
+		return subtract(summant, null);
+	}
+
+	public DoubleMatrix subtract(final DoubleMatrix summant, final ForkJoinPool pool) {
+		checkSameDimension(summant);
+		final DoubleMatrix result = new DoubleMatrix(this.rows, this.columns);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int k = fromRow * this.columns, end = toRow * this.columns; k < end; k++) {
+				result.values[k] = this.values[k] - summant.values[k];
+			}
+		}, this.rows, this.columns);
+		return result;
+	}
+
+	public DoubleMatrix multiply(final double scalar) {
+		final DoubleMatrix result = new DoubleMatrix(this.rows, this.columns);
+		for (int k = 0; k < this.values.length; k++) {
+			result.values[k] = this.values[k] * scalar;
+		}
+		return result;
+	}
+
+	public DoubleMatrix multiply(final DoubleMatrix factor) {
+		return multiply(factor, null);
+	}
+
+	/**
+	 * Multiplies this matrix with the given factor splitting the rows of the result across the given pool. The inner
+	 * dimension is processed in blocks so the used rows of the factor stay in cache while the rows of a task are
+	 * accumulated. Each element is always summed in ascending order of the inner index so the result does not depend
+	 * on the pool.
+	 *
+	 * @param factor The matrix to multiply with
+	 * @param pool   The fork join pool to use (null to run in the current thread)
+	 *
+	 * @return The product of both matrices
+	 */
+	public DoubleMatrix multiply(final DoubleMatrix factor, final ForkJoinPool pool) {
+		if (ContractCheck.mustNotBeNull(factor, "factor").rows != this.columns) { //$NON-NLS-1$
+			throw new IllegalArgumentException("The rows of the matrix factor must be equal to the columns of this matrix"); //$NON-NLS-1$
+		}
+		final int n = factor.columns;
+		final DoubleMatrix result = new DoubleMatrix(this.rows, n);
+		MatrixRowTask.run(pool, (fromRow, toRow) -> {
+			for (int blockStart = 0; blockStart < this.columns; blockStart += DoubleMatrix.MULTIPLY_BLOCK_SIZE) {
+				final int blockEnd = Math.min(this.columns, blockStart + DoubleMatrix.MULTIPLY_BLOCK_SIZE);
+				for (int i = fromRow; i < toRow; i++) {
+					final int leftOffset = i * this.columns, targetOffset = i * n;
+					for (int k = blockStart; k < blockEnd; k++) {
+						final double a = this.values[leftOffset + k];
+						for (int j = 0, r = k * n; j < n; j++) {
+							result.values[targetOffset + j] += a * factor.values[r++];
+						}
+					}
+				}
+			}
+		}, this.rows, (long) this.columns * n);
+		return result;
+	}
+
+	/**
+	 * Decomposes this square matrix in a lower and upper triangular matrix using partial pivoting.
+	 *
+	 * @return The LU decomposition
+	 */
+	public DoubleLUDecomposition decomposeLU() {
+		if (this.rows != this.columns) {
+			throw new IllegalArgumentException("LU decomposition requires a square matrix"); //$NON-NLS-1$
+		}
+		return new DoubleLUDecomposition(this.rows, this.values.clone());
+	}
+
+	/**
+	 * Solves the linear equation system A * X = B where this matrix is A.
+	 *
+	 * @param rightHandSide The right hand side B (one column per system to solve)
+	 *
+	 * @return The solution X
+	 *
+	 * @throws ArithmeticException If this matrix is singular
+	 */
+	public DoubleMatrix solve(final DoubleMatrix rightHandSide) {
+		return decomposeLU().solve(rightHandSide);
+	}
+
+	double[] values() {
+		return this.values;
+	}
+
+	private int index(final int row, final int column) {
+		if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+			throw new IndexOutOfBoundsException("Row " + row + " / column " + column + " outside of " + this.rows + "x" + this.columns); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		return row * this.columns + column;
+	}
+
+	private void checkSameDimension(final DoubleMatrix summant) {
+		if (ContractCheck.mustNotBeNull(summant, "summant").rows != this.rows || summant.columns != this.columns) { //$NON-NLS-1$
+			throw new IllegalArgumentException("Matrix summation can only be done with matrices of the exact same dimensions"); //$NON-NLS-1$
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.rows * 31 + this.columns) * 31 + Arrays.hashCode(this.values);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		final DoubleMatrix other = (DoubleMatrix) obj;
+		return this.rows == other.rows && this.columns == other.columns && Arrays.equals(this.values, other.values);
+	}
+
+	@Override
+	@SuppressWarnings("nls")
+	public String toString() {
+		final StringBuilder t = new StringBuilder();
+		for (int i = 0; i < this.rows; i++) {
+			t.append(i == 0 ? "[ " : " | ");
+			for (int j = 0; j < this.columns; j++) {
+				if (j > 0) {
+					t.append(" ");
+				}
+				t.append(this.values[i * this.columns + j]);
+			}
+		}
+		return t.append(" ]").toString();
+	}
+}
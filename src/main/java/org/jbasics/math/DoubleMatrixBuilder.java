@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.builder.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Builder for a {@link DoubleMatrix} working the same way as the {@link BigDecimalMatrixBuilder}. Rows and columns
+ * are one based and missing values are zero.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class DoubleMatrixBuilder implements Builder<DoubleMatrix> {
+	private final List<double[]> storage;
+	private int columns = 0;
+	private int currentRow = 0;
+
+	public DoubleMatrixBuilder() {
+		this.storage = new ArrayList<double[]>();
+	}
+
+	public DoubleMatrixBuilder withSize(final int rows, final int cols) {
+		set(rows, cols, 0.0);
+		return this;
+	}
+
+	public DoubleMatrixBuilder set(final int row, final int column, final double value) {
+		final int x = ContractCheck.mustBeInRange(row, 1, Integer.MAX_VALUE, "row") - 1; //$NON-NLS-1$
+		final int y = ContractCheck.mustBeInRange(column, 1, Integer.MAX_VALUE, "column") - 1; //$NON-NLS-1$
+		while (this.storage.size() <= x) {
+			this.storage.add(new double[0]);
+		}
+		double[] temp = this.storage.get(x);
+		if (temp.length <= y) {
+			temp = Arrays.copyOf(temp, Math.max(y + 1, this.columns));
+			this.storage.set(x, temp);
+		}
+		this.columns = Math.max(this.columns, y + 1);
+		temp[y] = value;
+		return this;
+	}
+
+	public DoubleMatrixBuilder withRow(final double... values) {
+		this.currentRow++;
+		if (values != null) {
+			for (int i = 0; i < values.length; i++) {
+				set(this.currentRow, i + 1, values[i]);
+			}
+		}
+		return this;
+	}
+
+	public DoubleMatrixBuilder withRowFromLongs(final long... values) {
+		this.currentRow++;
+		if (values != null) {
+			for (int i = 0; i < values.length; i++) {
+				set(this.currentRow, i + 1, values[i]);
+			}
+		}
+		return this;
+	}
+
+	public DoubleMatrixBuilder withRowFromNumbers(final Number... values) {
+		this.currentRow++;
+		if (values != null) {
+			for (int i = 0; i < values.length; i++) {
+				final Number temp = values[i];
+				set(this.currentRow, i + 1, temp == null ? 0.0 : temp.doubleValue());
+			}
+		}
+		return this;
+	}
+
+	public DoubleMatrixBuilder withRowFromStrings(final String... values) {
+		this.currentRow++;
+		if (values != null) {
+			for (int i = 0; i < values.length; i++) {
+				final String temp = values[i];
+				set(this.currentRow, i + 1, temp == null ? 0.0 : Double.parseDouble(temp));
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public void reset() {
+		this.storage.clear();
+		this.columns = 0;
+		this.currentRow = 0;
+	}
+
+	@Override
+	public DoubleMatrix build() {
+		ContractCheck.mustNotBeNullOrEmpty(this.storage, "storage"); //$NON-NLS-1$
+		final double[] values = new double[this.storage.size() * this.columns];
+		for (int i = 0; i < this.storage.size(); i++) {
+			final double[] row = this.storage.get(i);
+			System.arraycopy(row, 0, values, i * this.columns, row.length);
+		}
+		return new DoubleMatrix(this.storage.size(), this.columns, values);
+	}
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.builder.Builder;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded concurrent cache of {@link IrationalNumber} results keyed by the function and its arguments. <p> The cache
+ * stores the {@link IrationalNumber} itself which memorizes its most precise result. So an entry once calculated to a
+ * high precision serves all requests with a lower or equal precision by rounding. A request with a higher precision is
+ * counted as miss and lets the stored number calculate the more precise result. </p> <p> The size of an entry is the
+ * highest precision (in digits) requested so far. The cache is bounded by the number of entries and the sum of all
+ * digits. Once a bound is exceeded entries are evicted in the order of the configured {@link EvictionPolicy} until the
+ * cache is down to seven eighths of its bounds. </p> <p> {@link BigDecimalMathLibrary} uses the {@link
+ * #getSharedInstance() shared instance} for all its functions. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class IrationalNumberCache {
+	public static final int DEFAULT_MAXIMUM_ENTRIES = 1024;
+	public static final long DEFAULT_MAXIMUM_DIGITS = 1L << 20;
+
+	private static volatile IrationalNumberCache sharedInstance = new IrationalNumberCache(IrationalNumberCache.DEFAULT_MAXIMUM_ENTRIES,
+			IrationalNumberCache.DEFAULT_MAXIMUM_DIGITS, EvictionPolicy.LEAST_RECENTLY_USED);
+
+	private final int maximumEntries;
+	private final long maximumDigits;
+	private final EvictionPolicy evictionPolicy;
+	private final ConcurrentMap<Key, Entry> entries;
+	private final ReentrantLock evictionLock;
+	private final AtomicLong clock;
+	private final AtomicLong totalDigits;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong evictions;
+
+	public IrationalNumberCache(final int maximumEntries, final long maximumDigits, final EvictionPolicy evictionPolicy) {
+		this.maximumEntries = ContractCheck.mustBeInRange(maximumEntries, 1, Integer.MAX_VALUE, "maximumEntries"); //$NON-NLS-1$
+		this.maximumDigits = ContractCheck.mustBeInRange(maximumDigits, 1L, Long.MAX_VALUE, "maximumDigits"); //$NON-NLS-1$
+		this.evictionPolicy = ContractCheck.mustNotBeNull(evictionPolicy, "evictionPolicy"); //$NON-NLS-1$
+		this.entries = new ConcurrentHashMap<Key, Entry>();
+		this.evictionLock = new ReentrantLock();
+		this.clock = new AtomicLong();
+		this.totalDigits = new AtomicLong();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.evictions = new AtomicLong();
+	}
+
+	public static IrationalNumberCacheBuilder newBuilder() {
+		return new IrationalNumberCacheBuilder();
+	}
+
+	/**
+	 * Returns the cache shared by the functions of {@link BigDecimalMathLibrary}.
+	 *
+	 * @return The shared cache or null if caching is disabled
+	 */
+	public static IrationalNumberCache getSharedInstance() {
+		return IrationalNumberCache.sharedInstance;
+	}
+
+	/**
+	 * Replaces the shared cache. Setting null disables caching for {@link BigDecimalMathLibrary}.
+	 *
+	 * @param cache The new shared cache (can be null)
+	 */
+	public static void setSharedInstance(final IrationalNumberCache cache) {
+		IrationalNumberCache.sharedInstance = cache;
+	}
+
+	/**
+	 * Returns the number for the given function and arguments backed by this cache. If the cache holds no number for
+	 * the key yet the given number is stored once its value is requested the first time.
+	 *
+	 * @param function  The name of the function
+	 * @param number    The number to use if the cache has no number for the function and arguments
+	 * @param arguments The arguments of the function
+	 *
+	 * @return The cached number
+	 */
+	public IrationalNumber<BigDecimal> lookup(final String function, final IrationalNumber<BigDecimal> number, final BigDecimal... arguments) {
+		return new CachedIrationalNumber(new Key(ContractCheck.mustNotBeNull(function, "function"), //$NON-NLS-1$
+				ContractCheck.mustNotBeNull(arguments, "arguments")), ContractCheck.mustNotBeNull(number, "number")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	public long getEvictionCount() {
+		return this.evictions.get();
+	}
+
+	public double getHitRatio() {
+		final long h = this.hits.get(), total = h + this.misses.get();
+		return total == 0 ? 0.0 : (double) h / total;
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Returns the sum of the precisions of all cached entries.
+	 *
+	 * @return The number of digits currently held
+	 */
+	public long getTotalDigits() {
+		return this.totalDigits.get();
+	}
+
+	public int getMaximumEntries() {
+		return this.maximumEntries;
+	}
+
+	public long getMaximumDigits() {
+		return this.maximumDigits;
+	}
+
+	public EvictionPolicy getEvictionPolicy() {
+		return this.evictionPolicy;
+	}
+
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			for (final Map.Entry<Key, Entry> temp : this.entries.entrySet()) {
+				remove(temp.getKey(), temp.getValue());
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	public void resetStatistics() {
+		this.hits.set(0);
+		this.misses.set(0);
+		this.evictions.set(0);
+	}
+
+	private BigDecimal valueToPrecision(final Key key, final IrationalNumber<BigDecimal> number, final MathContext mc) {
+		final int precision = (mc == null ? MathContext.DECIMAL128 : mc).getPrecision();
+		Entry entry = this.entries.get(key);
+		if (entry == null) {
+			final Entry temp = new Entry(number);
+			entry = this.entries.putIfAbsent(key, temp);
+			if (entry == null) {
+				entry = temp;
+			}
+		}
+		entry.lastAccess = this.clock.incrementAndGet();
+		entry.accessCount.incrementAndGet();
+		if (precision > 0 && entry.precision >= precision) {
+			this.hits.incrementAndGet();
+			return entry.number.valueToPrecision(mc);
+		}
+		this.misses.incrementAndGet();
+		final BigDecimal result = entry.number.valueToPrecision(mc);
+		synchronized (entry) {
+			if (!entry.removed && precision > entry.precision) {
+				this.totalDigits.addAndGet(precision - entry.precision);
+				entry.precision = precision;
+			}
+		}
+		if (this.entries.size() > this.maximumEntries || this.totalDigits.get() > this.maximumDigits) {
+			evict();
+		}
+		return result;
+	}
+
+	private void evict() {
+		if (!this.evictionLock.tryLock()) {
+			// some other thread is evicting already
+			return;
+		}
+		try {
+			final int entryTarget = this.maximumEntries - (this.maximumEntries >> 3);
+			final long digitTarget = this.maximumDigits - (this.maximumDigits >> 3);
+			if (this.entries.size() <= this.maximumEntries && this.totalDigits.get() <= this.maximumDigits) {
+				return;
+			}
+			// Lookups keep changing the access values while we sort so the order is based on a snapshot of them
+			final List<EvictionCandidate> candidates = new ArrayList<EvictionCandidate>(this.entries.size());
+			for (final Map.Entry<Key, Entry> entry : this.entries.entrySet()) {
+				candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+			}
+			Collections.sort(candidates, this.evictionPolicy.comparator);
+			for (final EvictionCandidate candidate : candidates) {
+				if (this.entries.size() <= entryTarget && this.totalDigits.get() <= digitTarget) {
+					break;
+				}
+				if (remove(candidate.key, candidate.entry)) {
+					this.evictions.incrementAndGet();
+				}
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private boolean remove(final Key key, final Entry entry) {
+		if (this.entries.remove(key, entry)) {
+			synchronized (entry) {
+				entry.removed = true;
+				this.totalDigits.addAndGet(-entry.precision);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The order in which entries are evicted once the cache exceeds its bounds.
+	 */
+	public enum EvictionPolicy {
+		/**
+		 * Evicts the entries not accessed for the longest time first.
+		 */
+		LEAST_RECENTLY_USED(new Comparator<EvictionCandidate>() {
+			@Override
+			public int compare(final EvictionCandidate o1, final EvictionCandidate o2) {
+				return Long.compare(o1.lastAccess, o2.lastAccess);
+			}
+		}),
+		/**
+		 * Evicts the entries with the fewest accesses first.
+		 */
+		LEAST_FREQUENTLY_USED(new Comparator<EvictionCandidate>() {
+			@Override
+			public int compare(final EvictionCandidate o1, final EvictionCandidate o2) {
+				final int result = Long.compare(o1.accessCount, o2.accessCount);
+				return result != 0 ? result : Long.compare(o1.lastAccess, o2.lastAccess);
+			}
+		}),
+		/**
+		 * Evicts the entries with the highest precision first.
+		 */
+		LARGEST_FIRST(new Comparator<EvictionCandidate>() {
+			@Override
+			public int compare(final EvictionCandidate o1, final EvictionCandidate o2) {
+				final int result = Integer.compare(o2.precision, o1.precision);
+				return result != 0 ? result : Long.compare(o1.lastAccess, o2.lastAccess);
+			}
+		});
+
+		private final Comparator<EvictionCandidate> comparator;
+
+		EvictionPolicy(final Comparator<EvictionCandidate> comparator) {
+			this.comparator = comparator;
+		}
+	}
+
+	private static final class Key {
+		private final String function;
+		private final BigDecimal[] arguments;
+		private final int hashCode;
+
+		Key(final String function, final BigDecimal[] arguments) {
+			this.function = function;
+			this.arguments = new BigDecimal[arguments.length];
+			for (int i = 0; i < arguments.length; i++) {
+				// 1.0 and 1.00 are the same argument for any function
+				this.arguments[i] = ContractCheck.mustNotBeNull(arguments[i], "arguments[i]").signum() == 0 ? BigDecimal.ZERO //$NON-NLS-1$
+						: arguments[i].stripTrailingZeros();
+			}
+			this.hashCode = function.hashCode() * 31 + Arrays.hashCode(this.arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return this.hashCode == other.hashCode && this.function.equals(other.function) && Arrays.equals(this.arguments, other.arguments);
+		}
+	}
+
+	private static final class Entry {
+		private final IrationalNumber<BigDecimal> number;
+		private final AtomicLong accessCount;
+		private volatile long lastAccess;
+		// precision and removed are only changed while holding the monitor of the entry
+		private volatile int precision;
+		private boolean removed;
+
+		Entry(final IrationalNumber<BigDecimal> number) {
+			this.number = number;
+			this.accessCount = new AtomicLong();
+		}
+	}
+
+	/**
+	 * Immutable copy of the access values of an entry taken when eviction starts.
+	 */
+	private static final class EvictionCandidate {
+		private final Key key;
+		private final Entry entry;
+		private final long lastAccess;
+		private final long accessCount;
+		private final int precision;
+
+		EvictionCandidate(final Key key, final Entry entry) {
+			this.key = key;
+			this.entry = entry;
+			this.lastAccess = entry.lastAccess;
+			this.accessCount = entry.accessCount.get();
+			this.precision = entry.precision;
+		}
+	}
+
+	private final class CachedIrationalNumber implements IrationalNumber<BigDecimal> {
+		private final Key key;
+		private final IrationalNumber<BigDecimal> number;
+
+		CachedIrationalNumber(final Key key, final IrationalNumber<BigDecimal> number) {
+			this.key = key;
+			this.number = number;
+		}
+
+		@Override
+		public BigDecimal valueToPrecision(final MathContext mc) {
+			return IrationalNumberCache.this.valueToPrecision(this.key, this.number, mc);
+		}
+	}
+
+	/**
+	 * Builder for an {@link IrationalNumberCache}.
+	 */
+	public static final class IrationalNumberCacheBuilder implements Builder<IrationalNumberCache> {
+		private int maximumEntries;
+		private long maximumDigits;
+		private EvictionPolicy evictionPolicy;
+
+		IrationalNumberCacheBuilder() {
+			reset();
+		}
+
+		public IrationalNumberCacheBuilder setMaximumEntries(final int maximumEntries) {
+			this.maximumEntries = ContractCheck.mustBeInRange(maximumEntries, 1, Integer.MAX_VALUE, "maximumEntries"); //$NON-NLS-1$
+			return this;
+		}
+
+		public IrationalNumberCacheBuilder setMaximumDigits(final long maximumDigits) {
+			this.maximumDigits = ContractCheck.mustBeInRange(maximumDigits, 1L, Long.MAX_VALUE, "maximumDigits"); //$NON-NLS-1$
+			return this;
+		}
+
+		public IrationalNumberCacheBuilder setEvictionPolicy(final EvictionPolicy evictionPolicy) {
+			this.evictionPolicy = ContractCheck.mustNotBeNull(evictionPolicy, "evictionPolicy"); //$NON-NLS-1$
+			return this;
+		}
+
+		@Override
+		public void reset() {
+			this.maximumEntries = IrationalNumberCache.DEFAULT_MAXIMUM_ENTRIES;
+			this.maximumDigits = IrationalNumberCache.DEFAULT_MAXIMUM_DIGITS;
+			this.evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+		}
+
+		@Override
+		public IrationalNumberCache build() {
+			return new IrationalNumberCache(this.maximumEntries, this.maximumDigits, this.evictionPolicy);
+		}
+	}
+}
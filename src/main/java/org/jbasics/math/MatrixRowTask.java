@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join action splitting a range of matrix rows in halves until the estimated work of a range falls below the
+ * split threshold. Each leaf runs the {@link RowKernel} on its row range. Since every row of the result is written by
+ * exactly one leaf the kernels do not need any synchronization.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class MatrixRowTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The minimum number of scalar operations a row range must have before it gets split into two tasks.
+	 */
+	static final long SPLIT_THRESHOLD = 1L << 14;
+
+	private final RowKernel kernel;
+	private final int fromRow;
+	private final int toRow;
+	private final long workPerRow;
+
+	MatrixRowTask(final RowKernel kernel, final int fromRow, final int toRow, final long workPerRow) {
+		this.kernel = kernel;
+		this.fromRow = fromRow;
+		this.toRow = toRow;
+		this.workPerRow = Math.max(1L, workPerRow);
+	}
+
+	/**
+	 * Runs the kernel over all rows in the given pool. If the pool is null or the work is too small to be worth
+	 * splitting the kernel is called directly in the current thread.
+	 *
+	 * @param pool       The pool to run in (null to run sequential)
+	 * @param kernel     The kernel to run
+	 * @param rows       The number of rows
+	 * @param workPerRow The estimated scalar operations per row
+	 */
+	static void run(final ForkJoinPool pool, final RowKernel kernel, final int rows, final long workPerRow) {
+		if (pool == null || rows < 2 || rows * workPerRow < MatrixRowTask.SPLIT_THRESHOLD) {
+			kernel.compute(0, rows);
+		} else {
+			pool.invoke(new MatrixRowTask(kernel, 0, rows, workPerRow));
+		}
+	}
+
+	@Override
+	protected void compute() {
+		final int count = this.toRow - this.fromRow;
+		if (count < 2 || count * this.workPerRow < MatrixRowTask.SPLIT_THRESHOLD) {
+			this.kernel.compute(this.fromRow, this.toRow);
+		} else {
+			final int middle = this.fromRow + (count >>> 1);
+			RecursiveAction.invokeAll(new MatrixRowTask(this.kernel, this.fromRow, middle, this.workPerRow),
+					new MatrixRowTask(this.kernel, middle, this.toRow, this.workPerRow));
+		}
+	}
+
+	/**
+	 * A kernel computing all result rows in the range [fromRow, toRow).
+	 */
+	interface RowKernel {
+		void compute(int fromRow, int toRow);
+	}
+}
@@ -138,7 +138,10 @@ public class ArbitraryInteger implements ArbitraryNumber {
 	}
 
 	public ArbitraryInteger square() {
-		return multiply(this);
+		if (isZero()) {
+			return ZERO;
+		}
+		return new ArbitraryInteger(false, InternalCalculation.IMPL.square(this.magnitude));
 	}
 
 	public ArbitraryNumber increment() {
@@ -255,6 +258,95 @@ public class ArbitraryInteger implements ArbitraryNumber {
 		return ArbitraryRational.valueOf(this, divisor);
 	}
 
+	/**
+	 * Divides this by the divisor truncating towards zero and returns the quotient and the remainder. The remainder
+	 * has the sign of this (like {@link BigInteger#divideAndRemainder(BigInteger)}).
+	 *
+	 * @param divisor The divisor
+	 *
+	 * @return The quotient at index 0 and the remainder at index 1
+	 *
+	 * @throws ArithmeticException If the divisor is zero
+	 */
+	public ArbitraryInteger[] divideAndRemainder(ArbitraryInteger divisor) {
+		int[][] result = InternalCalculation.IMPL.divideAndRemainder(this.magnitude, divisor.magnitude);
+		return new ArbitraryInteger[]{valueOf(this.negativ != divisor.negativ, result[0]), valueOf(this.negativ, result[1])};
+	}
+
+	public ArbitraryInteger quotient(ArbitraryInteger divisor) {
+		return divideAndRemainder(divisor)[0];
+	}
+
+	public ArbitraryInteger remainder(ArbitraryInteger divisor) {
+		return divideAndRemainder(divisor)[1];
+	}
+
+	/**
+	 * Returns this mod the modulus which unlike {@link #remainder(ArbitraryInteger)} is never negative.
+	 *
+	 * @param modulus The modulus (must be positiv)
+	 *
+	 * @return The value in the range [0, modulus)
+	 *
+	 * @throws ArithmeticException If the modulus is not positiv
+	 */
+	public ArbitraryInteger mod(ArbitraryInteger modulus) {
+		if (!modulus.isPositiv()) {
+			throw new ArithmeticException("Modulus not positiv");
+		}
+		ArbitraryInteger result = remainder(modulus);
+		return result.negativ ? result.add(modulus) : result;
+	}
+
+	/**
+	 * Returns the greatest common divisor of the absolute values of this and that.
+	 *
+	 * @param that The other value
+	 *
+	 * @return The greatest common divisor (zero only if both values are zero)
+	 */
+	public ArbitraryInteger gcd(ArbitraryInteger that) {
+		if (this.isZero()) {
+			return that.abs();
+		} else if (that.isZero()) {
+			return this.abs();
+		} else if (this.magnitude.length == 1 && this.magnitude[0] == 1 || that.magnitude.length == 1 && that.magnitude[0] == 1) {
+			return ONE;
+		}
+		return valueOf(false, InternalCalculation.IMPL.gcd(this.magnitude, that.magnitude));
+	}
+
+	/**
+	 * Calculates this^exponent mod modulus.
+	 *
+	 * @param exponent The exponent (must not be negative)
+	 * @param modulus  The modulus (must be positive)
+	 *
+	 * @return The result in the range [0, modulus)
+	 *
+	 * @throws ArithmeticException If the exponent is negative or the modulus is zero
+	 */
+	public ArbitraryInteger modPow(ArbitraryInteger exponent, ArbitraryInteger modulus) {
+		if (exponent.negativ) {
+			throw new ArithmeticException("Negative exponent is not supported since it would require the modular inverse"); //$NON-NLS-1$
+		}
+		ArbitraryInteger base = mod(modulus);
+		return valueOf(false, InternalCalculation.IMPL.modPow(base.magnitude, exponent.magnitude, modulus.magnitude));
+	}
+
+	public boolean isOne() {
+		return !this.negativ && this.magnitude.length == 1 && this.magnitude[0] == 1;
+	}
+
+	private static ArbitraryInteger valueOf(boolean negativ, int[] magnitude) {
+		if (magnitude.length == 0) {
+			return ZERO;
+		} else if (!negativ && magnitude.length == 1 && magnitude[0] == 1) {
+			return ONE;
+		}
+		return new ArbitraryInteger(negativ, magnitude);
+	}
+
 	public ArbitraryRational add(ArbitraryRational summand) {
 		return summand.add(this);
 	}
@@ -299,7 +391,7 @@ public class ArbitraryInteger implements ArbitraryNumber {
 			ArbitraryInteger a = this;
 			ArbitraryInteger b = n % 2 == 0 ? ONE : this;
 			while ((n >>>= 1) > 0) {
-				a = a.multiply(a);
+				a = a.square();
 				if (n % 2 == 1) {
 					b = b.multiply(a);
 				}
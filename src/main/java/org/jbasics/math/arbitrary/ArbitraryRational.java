@@ -84,89 +84,159 @@ public class ArbitraryRational implements ArbitraryNumber {
 
 	@Override
 	public ArbitraryRational abs() {
-		return ArbitraryRational.valueOf(this.numerator.abs(), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.abs(), this.denominator);
 	}
 
 	@Override
 	public ArbitraryRational negate() {
-		return ArbitraryRational.valueOf(this.numerator.negate(), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.negate(), this.denominator);
 	}
 
 	@Override
 	public ArbitraryRational reciprocal() {
-		return ArbitraryRational.valueOf(this.denominator, this.numerator);
+		return ArbitraryRational.normalized(this.denominator, this.numerator);
 	}
 
 	@Override
 	public ArbitraryRational square() {
-		return multiply(this);
+		return ArbitraryRational.normalized(this.numerator.square(), this.denominator.square());
 	}
 
 	@Override
 	public ArbitraryRational increment() {
-		return ArbitraryRational.valueOf(this.numerator.add(this.denominator), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.add(this.denominator), this.denominator);
 	}
 
 	@Override
 	public ArbitraryRational decrement() {
-		return ArbitraryRational.valueOf(this.numerator.subtract(this.denominator), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.subtract(this.denominator), this.denominator);
 	}
 
 	// Global operations
 
 	@Override
 	public ArbitraryRational add(final ArbitraryInteger summand) {
-		return ArbitraryRational.valueOf(this.numerator.add(summand.multiply(this.denominator)), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.add(summand.multiply(this.denominator)), this.denominator);
 	}
 
 	@Override
 	public ArbitraryRational subtract(final ArbitraryInteger subtrahend) {
-		return ArbitraryRational.valueOf(this.numerator.subtract(subtrahend.multiply(this.denominator)), this.denominator);
+		return ArbitraryRational.normalized(this.numerator.subtract(subtrahend.multiply(this.denominator)), this.denominator);
 	}
 
 	@Override
 	public ArbitraryRational multiply(final ArbitraryInteger factor) {
-		return ArbitraryRational.valueOf(this.numerator.multiply(factor), this.denominator);
+		final ArbitraryInteger g = factor.gcd(this.denominator);
+		if (g.isOne()) {
+			return ArbitraryRational.normalized(this.numerator.multiply(factor), this.denominator);
+		}
+		return ArbitraryRational.normalized(this.numerator.multiply(factor.quotient(g)), this.denominator.quotient(g));
 	}
 
 	@Override
 	public ArbitraryRational divide(final ArbitraryInteger divisor) {
-		return ArbitraryRational.valueOf(this.numerator, this.denominator.multiply(divisor));
+		if (divisor.isZero()) {
+			throw new ArithmeticException("Division by zero");
+		}
+		final ArbitraryInteger g = this.numerator.gcd(divisor);
+		if (g.isOne()) {
+			return ArbitraryRational.normalized(this.numerator, this.denominator.multiply(divisor));
+		}
+		return ArbitraryRational.normalized(this.numerator.quotient(g), this.denominator.multiply(divisor.quotient(g)));
 	}
 
 	// The integer operators
 
 	@Override
 	public ArbitraryRational add(final ArbitraryRational summand) {
-		return ArbitraryRational.valueOf(this.numerator.multiply(summand.denominator).add(summand.numerator.multiply(this.denominator)),
-				this.denominator.multiply(summand.denominator));
+		return ArbitraryRational.sum(this.numerator, this.denominator, summand.numerator, summand.denominator);
 	}
 
 	@Override
 	public ArbitraryRational subtract(final ArbitraryRational subtrahend) {
-		return ArbitraryRational.valueOf(this.numerator.multiply(subtrahend.denominator).subtract(subtrahend.numerator.multiply(this.denominator)),
-				this.denominator.multiply(subtrahend.denominator));
+		return ArbitraryRational.sum(this.numerator, this.denominator, subtrahend.numerator.negate(), subtrahend.denominator);
 	}
 
 	@Override
 	public ArbitraryRational multiply(final ArbitraryRational factor) {
-		return ArbitraryRational.valueOf(this.numerator.multiply(factor.numerator), this.denominator.multiply(factor.denominator));
+		return ArbitraryRational.product(this.numerator, this.denominator, factor.numerator, factor.denominator);
 	}
 
 	@Override
 	public ArbitraryRational divide(final ArbitraryRational divisor) {
-		return ArbitraryRational.valueOf(this.numerator.multiply(divisor.denominator), this.denominator.multiply(divisor.numerator));
+		if (divisor.isZero()) {
+			throw new ArithmeticException("Division by zero");
+		}
+		return ArbitraryRational.product(this.numerator, this.denominator, divisor.denominator, divisor.numerator);
 	}
 
 	// The rational operations
 
+	/**
+	 * Creates the rational numerator / denominator reduced to lowest terms.
+	 *
+	 * @param numerator   The numerator
+	 * @param denominator The denominator (must not be zero)
+	 *
+	 * @return The normalized rational with a positiv denominator
+	 */
 	public static ArbitraryRational valueOf(final ArbitraryInteger numerator, final ArbitraryInteger denominator) {
+		if (numerator.isZero()) {
+			return ArbitraryRational.ZERO;
+		} else if (denominator.isZero()) {
+			throw new ArithmeticException("Division by zero");
+		}
+		final ArbitraryInteger g = numerator.gcd(denominator);
+		if (g.isOne()) {
+			return new ArbitraryRational(numerator, denominator);
+		}
+		return new ArbitraryRational(numerator.quotient(g), denominator.quotient(g));
+	}
+
+	/**
+	 * Creates the rational from a numerator and denominator already known to be coprime.
+	 */
+	private static ArbitraryRational normalized(final ArbitraryInteger numerator, final ArbitraryInteger denominator) {
 		if (numerator.isZero()) {
 			return ArbitraryRational.ZERO;
 		}
 		return new ArbitraryRational(numerator, denominator);
 	}
 
+	/**
+	 * Adds a/b and c/d of normalized rationals dividing out gcd(b, d) first so the intermediate values stay small
+	 * (Knuth TAOCP Vol. 2, 4.5.1).
+	 */
+	private static ArbitraryRational sum(final ArbitraryInteger a, final ArbitraryInteger b, final ArbitraryInteger c,
+										 final ArbitraryInteger d) {
+		final ArbitraryInteger g = b.gcd(d);
+		if (g.isOne()) {
+			return ArbitraryRational.normalized(a.multiply(d).add(c.multiply(b)), b.multiply(d));
+		}
+		final ArbitraryInteger bg = b.quotient(g);
+		final ArbitraryInteger t = a.multiply(d.quotient(g)).add(c.multiply(bg));
+		final ArbitraryInteger g2 = t.gcd(g);
+		if (g2.isOne()) {
+			return ArbitraryRational.normalized(t, bg.multiply(d));
+		}
+		return ArbitraryRational.normalized(t.quotient(g2), bg.multiply(d.quotient(g2)));
+	}
+
+	/**
+	 * Multiplies a/b and c/d of normalized rationals by cross cancelling gcd(a, d) and gcd(c, b).
+	 */
+	private static ArbitraryRational product(final ArbitraryInteger a, final ArbitraryInteger b, final ArbitraryInteger c,
+											 final ArbitraryInteger d) {
+		if (a.isZero() || c.isZero()) {
+			return ArbitraryRational.ZERO;
+		}
+		final ArbitraryInteger g1 = a.gcd(d);
+		final ArbitraryInteger g2 = c.gcd(b);
+		final ArbitraryInteger numerator = (g1.isOne() ? a : a.quotient(g1)).multiply(g2.isOne() ? c : c.quotient(g2));
+		final ArbitraryInteger denominator = (g2.isOne() ? b : b.quotient(g2)).multiply(g1.isOne() ? d : d.quotient(g1));
+		return ArbitraryRational.normalized(numerator, denominator);
+	}
+
 	public BigDecimal toNumber(final MathContext mc) {
 		return new BigDecimal(this.numerator.toNumber()).divide(new BigDecimal(this.denominator.toNumber()), mc);
 	}
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary.internal;
+
+import org.jbasics.arrays.ArrayConstants;
+
+/**
+ * Division, greatest common divisor and modular exponentiation on stripped big endian magnitudes. The division is the
+ * Algorithm D from Knuth (TAOCP Vol. 2, 4.3.1), the gcd reduces the operands by Euclidean steps as long as their
+ * lengths differ and finishes with the binary gcd working in place.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class DivisionHelper {
+	private static final int[] INT_ARRAY_ONE = new int[]{1};
+	private static final int MOD_POW_WINDOW_BITS = 4;
+
+	private DivisionHelper() {
+		// to hinder instantiation
+	}
+
+	/**
+	 * Divides x by y and returns the quotient and the remainder in that order.
+	 *
+	 * @param x The dividend (stripped)
+	 * @param y The divisor (stripped)
+	 *
+	 * @return The quotient at index 0 and the remainder at index 1 both stripped
+	 *
+	 * @throws ArithmeticException If y is zero
+	 */
+	static int[][] divideAndRemainder(final int[] x, final int[] y) {
+		if (y.length == 0) {
+			throw new ArithmeticException("Division by zero"); //$NON-NLS-1$
+		} else if (compare(x, x.length, y, y.length) < 0) {
+			return new int[][]{ArrayConstants.ZERO_LENGTH_INT_ARRAY, x};
+		} else if (y.length == 1) {
+			return divideByWord(x, y[0] & InternalCalculation.LONG_32BIT_MASK);
+		} else {
+			return knuthDivision(x, y);
+		}
+	}
+
+	private static int[][] divideByWord(final int[] x, final long divisor) {
+		int[] quotient = new int[x.length];
+		long remainder = 0;
+		for (int i = 0; i < x.length; i++) {
+			long t = remainder << 32 | x[i] & InternalCalculation.LONG_32BIT_MASK;
+			quotient[i] = (int) Long.divideUnsigned(t, divisor);
+			remainder = Long.remainderUnsigned(t, divisor);
+		}
+		return new int[][]{strip(quotient), remainder == 0 ? ArrayConstants.ZERO_LENGTH_INT_ARRAY : new int[]{(int) remainder}};
+	}
+
+	private static int[][] knuthDivision(final int[] x, final int[] y) {
+		final int n = y.length;
+		final int m = x.length - n;
+		final int shift = Integer.numberOfLeadingZeros(y[0]);
+		// D1: normalize so the top word of the divisor has its highest bit set
+		int[] v = shiftLeft(y, shift, 0);
+		int[] u = shiftLeft(x, shift, 1);
+		final long v1 = v[0] & InternalCalculation.LONG_32BIT_MASK;
+		final long v2 = v[1] & InternalCalculation.LONG_32BIT_MASK;
+		int[] quotient = new int[m + 1];
+		for (int j = 0; j <= m; j++) {
+			// D3: estimate the quotient word from the top two words and correct it with the third
+			long u0 = u[j] & InternalCalculation.LONG_32BIT_MASK;
+			long u1 = u[j + 1] & InternalCalculation.LONG_32BIT_MASK;
+			long u2 = u[j + 2] & InternalCalculation.LONG_32BIT_MASK;
+			long qhat;
+			long rhat;
+			if (u0 == v1) {
+				qhat = InternalCalculation.LONG_32BIT_MASK;
+				rhat = u0 + u1;
+			} else {
+				long numerator = u0 << 32 | u1;
+				qhat = Long.divideUnsigned(numerator, v1);
+				rhat = Long.remainderUnsigned(numerator, v1);
+			}
+			while (rhat <= InternalCalculation.LONG_32BIT_MASK && Long.compareUnsigned(qhat * v2, rhat << 32 | u2) > 0) {
+				qhat--;
+				rhat += v1;
+			}
+			// D4: multiply and subtract
+			long carry = 0;
+			long borrow = 0;
+			for (int i = n - 1; i >= 0; i--) {
+				long product = qhat * (v[i] & InternalCalculation.LONG_32BIT_MASK) + carry;
+				carry = product >>> 32;
+				long t = (u[j + 1 + i] & InternalCalculation.LONG_32BIT_MASK) - (product & InternalCalculation.LONG_32BIT_MASK) - borrow;
+				u[j + 1 + i] = (int) t;
+				borrow = t >>> 63;
+			}
+			long t = u0 - carry - borrow;
+			u[j] = (int) t;
+			if (t < 0) {
+				// D6: the estimate was one too large so add the divisor back
+				qhat--;
+				carry = 0;
+				for (int i = n - 1; i >= 0; i--) {
+					long sum = (u[j + 1 + i] & InternalCalculation.LONG_32BIT_MASK) + (v[i] & InternalCalculation.LONG_32BIT_MASK) + carry;
+					u[j + 1 + i] = (int) sum;
+					carry = sum >>> 32;
+				}
+				u[j] += (int) carry;
+			}
+			quotient[j] = (int) qhat;
+		}
+		// D8: unnormalize the remainder
+		int[] remainder = new int[n];
+		for (int i = 0; i < n; i++) {
+			int low = u[m + 1 + i];
+			remainder[i] = shift == 0 ? low : low >>> shift | u[m + i] << 32 - shift;
+		}
+		return new int[][]{strip(quotient), strip(remainder)};
+	}
+
+	/**
+	 * Calculates the greatest common divisor of x and y.
+	 *
+	 * @param x The x value (stripped)
+	 * @param y The y value (stripped)
+	 *
+	 * @return The greatest common divisor (stripped)
+	 */
+	static int[] gcd(final int[] x, final int[] y) {
+		int[] a = x;
+		int[] b = y;
+		if (compare(a, a.length, b, b.length) < 0) {
+			a = y;
+			b = x;
+		}
+		while (b.length != 0) {
+			if (a.length - b.length < 2) {
+				return binaryGcd(a, b);
+			}
+			int[] r = divideAndRemainder(a, b)[1];
+			a = b;
+			b = r;
+		}
+		return a;
+	}
+
+	private static int[] binaryGcd(final int[] x, final int[] y) {
+		// Both values are kept right aligned in their arrays, the least significant word is the last one
+		int[] a = x.clone();
+		int[] b = y.clone();
+		int alen = a.length;
+		int blen = b.length;
+		int za = trailingZeros(a, alen);
+		int zb = trailingZeros(b, blen);
+		final int k = Math.min(za, zb);
+		alen = shiftRight(a, alen, za);
+		blen = shiftRight(b, blen, zb);
+		while (alen > 0 && blen > 0) {
+			if (alen <= 2 && blen <= 2) {
+				long g = binaryGcd(toLong(a, alen), toLong(b, blen));
+				return shiftLeft(strip(new int[]{(int) (g >>> 32), (int) g}), k);
+			}
+			int t = compare(a, alen, b, blen);
+			if (t == 0) {
+				blen = 0;
+			} else if (t > 0) {
+				alen = subtractInPlace(a, alen, b, blen);
+				alen = shiftRight(a, alen, trailingZeros(a, alen));
+			} else {
+				blen = subtractInPlace(b, blen, a, alen);
+				blen = shiftRight(b, blen, trailingZeros(b, blen));
+			}
+		}
+		int[] result = alen > 0 ? a : b;
+		int len = alen > 0 ? alen : blen;
+		int[] g = new int[len];
+		System.arraycopy(result, result.length - len, g, 0, len);
+		return shiftLeft(g, k);
+	}
+
+	private static long binaryGcd(long a, long b) {
+		// a and b are odd here
+		while (a != b) {
+			if (Long.compareUnsigned(a, b) > 0) {
+				a -= b;
+				a >>>= Long.numberOfTrailingZeros(a);
+			} else {
+				b -= a;
+				b >>>= Long.numberOfTrailingZeros(b);
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * Calculates base^exponent mod modulus with a fixed window of {@value #MOD_POW_WINDOW_BITS} exponent bits.
+	 *
+	 * @param calculation The calculation used for the multiplications and squares
+	 * @param base        The base (stripped)
+	 * @param exponent    The exponent (stripped)
+	 * @param modulus     The modulus (stripped)
+	 *
+	 * @return The result (stripped)
+	 *
+	 * @throws ArithmeticException If the modulus is zero
+	 */
+	static int[] modPow(final InternalCalculation calculation, final int[] base, final int[] exponent, final int[] modulus) {
+		if (modulus.length == 0) {
+			throw new ArithmeticException("Modulus is zero"); //$NON-NLS-1$
+		} else if (modulus.length == 1 && modulus[0] == 1) {
+			return ArrayConstants.ZERO_LENGTH_INT_ARRAY;
+		} else if (exponent.length == 0) {
+			// callers may modify the result so the shared constant must not be returned
+			return new int[]{1};
+		}
+		final int windowSize = 1 << DivisionHelper.MOD_POW_WINDOW_BITS;
+		int[][] table = new int[windowSize][];
+		table[0] = DivisionHelper.INT_ARRAY_ONE;
+		table[1] = divideAndRemainder(base, modulus)[1];
+		for (int i = 2; i < windowSize; i++) {
+			table[i] = reduce(calculation.multiply(table[i - 1], table[1]), modulus);
+		}
+		int[] result = null;
+		for (int bit = exponent.length * 32 - DivisionHelper.MOD_POW_WINDOW_BITS; bit >= 0; bit -= DivisionHelper.MOD_POW_WINDOW_BITS) {
+			int window = (exponent[exponent.length - 1 - (bit >>> 5)] >>> (bit & 31)) & (windowSize - 1);
+			if (result == null) {
+				if (window != 0) {
+					result = table[window];
+				}
+			} else {
+				for (int i = 0; i < DivisionHelper.MOD_POW_WINDOW_BITS; i++) {
+					result = reduce(calculation.square(result), modulus);
+				}
+				if (window != 0) {
+					result = reduce(calculation.multiply(result, table[window]), modulus);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static int[] reduce(final int[] x, final int[] modulus) {
+		return divideAndRemainder(x, modulus)[1];
+	}
+
+	// Helpers working on right aligned magnitudes with an explicit length
+
+	private static int compare(final int[] x, final int xlen, final int[] y, final int ylen) {
+		if (xlen != ylen) {
+			return xlen < ylen ? -1 : 1;
+		}
+		int i = x.length - xlen;
+		int j = y.length - ylen;
+		for (int k = 0; k < xlen; k++, i++, j++) {
+			if (x[i] != y[j]) {
+				return (x[i] & InternalCalculation.LONG_32BIT_MASK) < (y[j] & InternalCalculation.LONG_32BIT_MASK) ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Subtracts y from x in place (x must be greater than y) and returns the new length of x.
+	 */
+	private static int subtractInPlace(final int[] x, final int xlen, final int[] y, final int ylen) {
+		int i = x.length;
+		int j = y.length;
+		final int xstart = x.length - xlen;
+		final int ystart = y.length - ylen;
+		long difference = 0;
+		while (j > ystart) {
+			x[--i] = (int) (difference = (x[i] & InternalCalculation.LONG_32BIT_MASK) - (y[--j] & InternalCalculation.LONG_32BIT_MASK) + difference);
+			difference >>= 32;
+		}
+		while (difference != 0 && i > xstart) {
+			x[--i] = (int) (difference = (x[i] & InternalCalculation.LONG_32BIT_MASK) + difference);
+			difference >>= 32;
+		}
+		int len = xlen;
+		while (len > 0 && x[x.length - len] == 0) {
+			len--;
+		}
+		return len;
+	}
+
+	private static int trailingZeros(final int[] x, final int len) {
+		int zeros = 0;
+		for (int i = x.length - 1; i >= x.length - len; i--) {
+			if (x[i] != 0) {
+				return zeros + Integer.numberOfTrailingZeros(x[i]);
+			}
+			zeros += 32;
+		}
+		return zeros;
+	}
+
+	/**
+	 * Shifts the right aligned x right by the given bits in place and returns its new length.
+	 */
+	private static int shiftRight(final int[] x, final int len, final int bits) {
+		if (bits == 0) {
+			return len;
+		}
+		final int words = bits >>> 5;
+		final int shift = bits & 31;
+		final int start = x.length - len;
+		int newLen = len - words;
+		for (int i = x.length - 1; i >= start; i--) {
+			int from = i - words;
+			int low = from >= start ? x[from] : 0;
+			if (shift != 0) {
+				int high = from - 1 >= start ? x[from - 1] : 0;
+				low = low >>> shift | high << 32 - shift;
+			}
+			x[i] = low;
+		}
+		while (newLen > 0 && x[x.length - newLen] == 0) {
+			newLen--;
+		}
+		return newLen;
+	}
+
+	private static long toLong(final int[] x, final int len) {
+		long result = x[x.length - 1] & InternalCalculation.LONG_32BIT_MASK;
+		if (len > 1) {
+			result |= (long) x[x.length - 2] << 32;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns x shifted left by the given bits in a new array with the given amount of extra leading words.
+	 */
+	private static int[] shiftLeft(final int[] x, final int shift, final int extraWords) {
+		int[] result = new int[x.length + extraWords];
+		if (shift == 0) {
+			System.arraycopy(x, 0, result, extraWords, x.length);
+		} else {
+			int carry = 0;
+			for (int i = x.length - 1; i >= 0; i--) {
+				result[i + extraWords] = x[i] << shift | carry;
+				carry = x[i] >>> 32 - shift;
+			}
+			if (extraWords > 0) {
+				result[extraWords - 1] = carry;
+			}
+		}
+		return result;
+	}
+
+	private static int[] shiftLeft(final int[] x, final int bits) {
+		if (bits == 0) {
+			return x;
+		}
+		int[] shifted = shiftLeft(x, bits & 31, 1);
+		int[] result = new int[shifted.length + (bits >>> 5)];
+		System.arraycopy(shifted, 0, result, 0, shifted.length);
+		return strip(result);
+	}
+
+	private static int[] strip(final int[] x) {
+		int i = 0;
+		while (i < x.length && x[i] == 0) {
+			i++;
+		}
+		if (i == 0) {
+			return x;
+		}
+		int[] result = new int[x.length - i];
+		System.arraycopy(x, i, result, 0, result.length);
+		return result;
+	}
+}
@@ -23,8 +23,9 @@
  */
 package org.jbasics.math.arbitrary.internal;
 
+import org.jbasics.arrays.ArrayConstants;
+
 class Int32CalculationImpl implements InternalCalculation {
-	private static final int KARATSUBA_THRESHOLD = 40;
 
 	/**
 	 * Adds x and y and returns the result.
@@ -150,17 +151,61 @@ class Int32CalculationImpl implements InternalCalculation {
 	 * newly allocated array.
 	 */
 	public int[] multiply(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen) {
-		int[] z;
-		if (xlen > KARATSUBA_THRESHOLD && ylen > KARATSUBA_THRESHOLD) {
-			if (xlen < ylen) {
-				z = karatsuba(y, x, yoff, ylen, xoff, xlen);
-			} else {
-				z = karatsuba(x, y, xoff, xlen, yoff, ylen);
-			}
-		} else {
-			z = basecamp(x, y, xoff, xlen, yoff, ylen);
+		if (xlen == 0 || ylen == 0) {
+			return ArrayConstants.ZERO_LENGTH_INT_ARRAY;
 		}
-		return stripLeadingZeros(z);
+		return stripLeadingZeros(product(x, y, xoff, xlen, yoff, ylen));
+	}
+
+	/**
+	 * Squares x and returns the result in a newly allocated array.
+	 *
+	 * @param x The x value
+	 *
+	 * @return The newly allocated array holding the square of x
+	 */
+	public int[] square(int[] x) {
+		if (x.length == 0) {
+			return ArrayConstants.ZERO_LENGTH_INT_ARRAY;
+		}
+		return stripLeadingZeros(squareProduct(x, 0, x.length));
+	}
+
+	/**
+	 * Divides x by y and returns the quotient at index 0 and the remainder at index 1.
+	 *
+	 * @param x The dividend
+	 * @param y The divisor (must not be zero)
+	 *
+	 * @return The quotient and the remainder in newly allocated arrays
+	 */
+	public int[][] divideAndRemainder(int[] x, int[] y) {
+		return DivisionHelper.divideAndRemainder(stripLeadingZeros(x), stripLeadingZeros(y));
+	}
+
+	/**
+	 * Calculates the greatest common divisor of x and y.
+	 *
+	 * @param x The x value
+	 * @param y The y value
+	 *
+	 * @return The greatest common divisor
+	 */
+	public int[] gcd(int[] x, int[] y) {
+		return DivisionHelper.gcd(stripLeadingZeros(x), stripLeadingZeros(y));
+	}
+
+	/**
+	 * Calculates base^exponent mod modulus using this calculation for the multiplications.
+	 *
+	 * @param base     The base
+	 * @param exponent The exponent
+	 * @param modulus  The modulus (must not be zero)
+	 *
+	 * @return The result in a newly allocated array
+	 */
+	public int[] modPow(int[] base, int[] exponent, int[] modulus) {
+		return DivisionHelper.modPow(this, stripLeadingZeros(base), stripLeadingZeros(exponent), stripLeadingZeros(modulus));
 	}
 
 	/**
@@ -185,7 +230,92 @@ class Int32CalculationImpl implements InternalCalculation {
 		return result;
 	}
 
-	private int[] basecamp(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen) {
+	/**
+	 * Calculates the product of the two non empty slices of x and y. The result is not stripped and always has the
+	 * length xlen + ylen. Subclasses override this to dispatch to faster algorithms and call it again for their sub
+	 * products.
+	 */
+	protected int[] product(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen) {
+		return basecamp(x, y, xoff, xlen, yoff, ylen);
+	}
+
+	/**
+	 * Calculates the square of the non empty slice of x. The result is not stripped and always has the length 2 * len.
+	 */
+	protected int[] squareProduct(int[] x, int off, int len) {
+		int[] z = new int[len << 1];
+		int top = off + len - 1;
+		int last = z.length - 1;
+		// sum of all x[i] * x[j] with i < j (p and r are the significance of the words)
+		for (int p = 0; p < len - 1; p++) {
+			long xp = x[top - p] & InternalCalculation.LONG_32BIT_MASK;
+			long product = 0;
+			for (int r = p + 1; r < len; r++) {
+				int k = last - p - r;
+				z[k] = (int) (product = xp * (x[top - r] & InternalCalculation.LONG_32BIT_MASK)
+						+ (z[k] & InternalCalculation.LONG_32BIT_MASK) + product);
+				product >>>= 32;
+			}
+			z[last - p - len] = (int) product;
+		}
+		// double it
+		int carry = 0;
+		for (int k = last; k >= 0; k--) {
+			int t = z[k];
+			z[k] = t << 1 | carry;
+			carry = t >>> 31;
+		}
+		// and add the diagonal x[i] * x[i]
+		long sum = 0;
+		for (int p = 0; p < len; p++) {
+			long xp = x[top - p] & InternalCalculation.LONG_32BIT_MASK;
+			long square = xp * xp;
+			int k = last - (p << 1);
+			z[k] = (int) (sum = (z[k] & InternalCalculation.LONG_32BIT_MASK) + (square & InternalCalculation.LONG_32BIT_MASK) + sum);
+			sum >>>= 32;
+			z[k - 1] = (int) (sum = (z[k - 1] & InternalCalculation.LONG_32BIT_MASK) + (square >>> 32) + sum);
+			sum >>>= 32;
+		}
+		return z;
+	}
+
+	/**
+	 * Adds a into z where the least significant word of a is placed at z[end - 1]. Leading zero words of a may lie
+	 * outside of z, the carry is propagated towards z[0].
+	 */
+	static void addInto(int[] z, int end, int[] a) {
+		int i = a.length;
+		int k = end;
+		long sum = 0;
+		while (i > 0 && k > 0) {
+			z[--k] = (int) (sum = (z[k] & InternalCalculation.LONG_32BIT_MASK) + (a[--i] & InternalCalculation.LONG_32BIT_MASK) + sum);
+			sum >>>= 32;
+		}
+		while (sum != 0 && k > 0) {
+			z[--k] = (int) (sum = (z[k] & InternalCalculation.LONG_32BIT_MASK) + sum);
+			sum >>>= 32;
+		}
+	}
+
+	/**
+	 * Subtracts a from z where the least significant word of a is placed at z[end - 1]. The value in z must be at least
+	 * as large as the shifted a.
+	 */
+	static void subtractFrom(int[] z, int end, int[] a) {
+		int i = a.length;
+		int k = end;
+		long difference = 0;
+		while (i > 0 && k > 0) {
+			z[--k] = (int) (difference = (z[k] & InternalCalculation.LONG_32BIT_MASK) - (a[--i] & InternalCalculation.LONG_32BIT_MASK) + difference);
+			difference >>= 32;
+		}
+		while (difference != 0 && k > 0) {
+			z[--k] = (int) (difference = (z[k] & InternalCalculation.LONG_32BIT_MASK) + difference);
+			difference >>= 32;
+		}
+	}
+
+	private static int[] basecamp(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen) {
 		int[] z = new int[xlen + ylen];
 		int i = xoff + xlen;
 		int j = yoff + ylen - 1;
@@ -211,29 +341,4 @@ class Int32CalculationImpl implements InternalCalculation {
 		}
 		return z;
 	}
-
-	private int[] karatsuba(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen) {
-		// Karatsuba multiplication is currently quite inefficient in memory. tweaking requires
-		// an addTo and a subtractFrom
-		int sublen = xlen >> 1;
-		if (ylen > sublen) {
-			int[] a0b0 = multiply(x, y, xoff + xlen - sublen, sublen, yoff + ylen - sublen, sublen);
-			int[] a1b1 = multiply(x, y, xoff, xlen - sublen, yoff, ylen - sublen);
-			int[] a01b01 = multiply(add(x, x, xoff + xlen - sublen, sublen, xoff, xlen - sublen),
-					add(y, y, yoff + ylen - sublen, sublen, yoff, ylen - sublen));
-			a01b01 = subtract(subtract(a01b01, a0b0), a1b1);
-			int[] t = new int[a1b1.length + sublen];
-			System.arraycopy(a1b1, 0, t, 0, a1b1.length);
-			t = add(t, a01b01);
-			int[] res = new int[t.length + sublen];
-			System.arraycopy(t, 0, res, 0, t.length);
-			return add(res, a0b0);
-		} else {
-			int[] a0b0 = multiply(x, y, xoff + xlen - sublen, sublen, yoff, ylen);
-			int[] a1b0 = multiply(x, y, xoff, xlen - sublen, yoff, ylen);
-			int[] res = new int[a1b0.length + sublen];
-			System.arraycopy(a1b0, 0, res, 0, a1b0.length);
-			return add(res, a0b0);
-		}
-	}
 }
@@ -26,8 +26,19 @@ package org.jbasics.math.arbitrary.internal;
 import org.jbasics.arch.ArithmeticArchitecture;
 
 public interface InternalCalculation {
-	final static InternalCalculation IMPL = ArithmeticArchitecture.is32Bit() ? new Int32CalculationImpl()
-			: new Int32CalculationImpl();
+	/**
+	 * Word length from which on operands are multiplied by Karatsuba instead of the schoolbook method.
+	 */
+	final static int KARATSUBA_THRESHOLD = 48;
+
+	/**
+	 * Word length from which on operands are multiplied by Toom-Cook 3-way instead of Karatsuba.
+	 */
+	final static int TOOM_COOK_3_THRESHOLD = 128;
+
+	final static InternalCalculation IMPL = ArithmeticArchitecture.is32Bit() ? new ToomCook3CalculationImpl(
+			KARATSUBA_THRESHOLD, TOOM_COOK_3_THRESHOLD) : new ToomCook3CalculationImpl(KARATSUBA_THRESHOLD,
+			TOOM_COOK_3_THRESHOLD);
 
 	final static long LONG_32BIT_MASK = 0xffffffffL;
 
@@ -83,5 +94,45 @@ public interface InternalCalculation {
 
 	int[] multiply(int[] x, int[] y, int xoff, int xlen, int yoff, int ylen);
 
+	/**
+	 * Squares x which is usually cheaper than multiplying x with itself.
+	 *
+	 * @param x The x array
+	 *
+	 * @return The square of x in a newly allocated array with all leading zeros stripped
+	 */
+	int[] square(int[] x);
+
+	/**
+	 * Divides x by y (Knuth Algorithm D) and returns the quotient and the remainder.
+	 *
+	 * @param x The dividend
+	 * @param y The divisor (must not be zero)
+	 *
+	 * @return The quotient at index 0 and the remainder at index 1 with all leading zeros stripped
+	 */
+	int[][] divideAndRemainder(int[] x, int[] y);
+
+	/**
+	 * Calculates the greatest common divisor of x and y.
+	 *
+	 * @param x The x array
+	 * @param y The y array
+	 *
+	 * @return The greatest common divisor with all leading zeros stripped (zero only if x and y are zero)
+	 */
+	int[] gcd(int[] x, int[] y);
+
+	/**
+	 * Calculates base^exponent mod modulus.
+	 *
+	 * @param base     The base array
+	 * @param exponent The exponent array
+	 * @param modulus  The modulus array (must not be zero)
+	 *
+	 * @return The result with all leading zeros stripped
+	 */
+	int[] modPow(int[] base, int[] exponent, int[] modulus);
+
 	int[] stripLeadingZeros(int[] x);
 }
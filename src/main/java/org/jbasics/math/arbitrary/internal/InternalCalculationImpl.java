@@ -183,6 +183,22 @@ class InternalCalculationImpl implements InternalCalculation {
 		return stripLeadingZeros(z);
 	}
 
+	public int[] square(int[] x) {
+		return multiply(x, x);
+	}
+
+	public int[][] divideAndRemainder(int[] x, int[] y) {
+		return DivisionHelper.divideAndRemainder(stripLeadingZeros(x), stripLeadingZeros(y));
+	}
+
+	public int[] gcd(int[] x, int[] y) {
+		return DivisionHelper.gcd(stripLeadingZeros(x), stripLeadingZeros(y));
+	}
+
+	public int[] modPow(int[] base, int[] exponent, int[] modulus) {
+		return DivisionHelper.modPow(this, stripLeadingZeros(base), stripLeadingZeros(exponent), stripLeadingZeros(modulus));
+	}
+
 	public int[] stripLeadingZeros(int[] x) {
 		if (x.length == 0 || x[0] != 0) {
 			return x;
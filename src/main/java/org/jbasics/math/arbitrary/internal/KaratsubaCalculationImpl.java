@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary.internal;
+
+import org.jbasics.checker.ContractCheck;
+
+/**
+ * Multiplies magnitudes with the Karatsuba algorithm once both operands reach the threshold length and falls back to
+ * the schoolbook multiplication below. Sub products are calculated through {@link #product(int[], int[], int, int,
+ * int, int)} so subclasses can dispatch them again.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+class KaratsubaCalculationImpl extends Int32CalculationImpl {
+	private final int karatsubaThreshold;
+
+	KaratsubaCalculationImpl(final int karatsubaThreshold) {
+		this.karatsubaThreshold = ContractCheck.mustBeInRange(karatsubaThreshold, 2, Integer.MAX_VALUE,
+				"karatsubaThreshold"); //$NON-NLS-1$
+	}
+
+	@Override
+	protected int[] product(final int[] x, final int[] y, final int xoff, final int xlen, final int yoff, final int ylen) {
+		if (xlen < this.karatsubaThreshold || ylen < this.karatsubaThreshold) {
+			return super.product(x, y, xoff, xlen, yoff, ylen);
+		} else if (xlen < ylen) {
+			return karatsuba(y, x, yoff, ylen, xoff, xlen);
+		} else {
+			return karatsuba(x, y, xoff, xlen, yoff, ylen);
+		}
+	}
+
+	@Override
+	protected int[] squareProduct(final int[] x, final int off, final int len) {
+		if (len < this.karatsubaThreshold) {
+			return super.squareProduct(x, off, len);
+		}
+		int half = (len + 1) >> 1;
+		int[] z0 = squareProduct(x, off + len - half, half);
+		int[] z2 = squareProduct(x, off, len - half);
+		int[] sum = add(x, x, off + len - half, half, off, len - half);
+		int[] z1 = squareProduct(sum, 0, sum.length);
+		return combine(z0, z1, z2, half, len << 1);
+	}
+
+	/**
+	 * Karatsuba multiplication of x and y where xlen is at least ylen. Splits x in two halves and calculates the three
+	 * products x0*y0, x1*y1 and (x0+x1)*(y0+y1). If y is too short to be split the two halves of x are multiplied with y
+	 * on their own.
+	 */
+	private int[] karatsuba(final int[] x, final int[] y, final int xoff, final int xlen, final int yoff, final int ylen) {
+		int half = (xlen + 1) >> 1;
+		if (ylen <= half) {
+			int[] z = new int[xlen + ylen];
+			Int32CalculationImpl.addInto(z, z.length, product(x, y, xoff + xlen - half, half, yoff, ylen));
+			Int32CalculationImpl.addInto(z, z.length - half, product(x, y, xoff, xlen - half, yoff, ylen));
+			return z;
+		}
+		int[] z0 = product(x, y, xoff + xlen - half, half, yoff + ylen - half, half);
+		int[] z2 = product(x, y, xoff, xlen - half, yoff, ylen - half);
+		int[] xs = add(x, x, xoff + xlen - half, half, xoff, xlen - half);
+		int[] ys = add(y, y, yoff + ylen - half, half, yoff, ylen - half);
+		int[] z1 = product(xs, ys, 0, xs.length, 0, ys.length);
+		return combine(z0, z1, z2, half, xlen + ylen);
+	}
+
+	/**
+	 * Calculates z2*B^(2*half) + (z1-z0-z2)*B^half + z0 into a new array of the given length.
+	 */
+	private static int[] combine(final int[] z0, final int[] z1, final int[] z2, final int half, final int length) {
+		Int32CalculationImpl.subtractFrom(z1, z1.length, z0);
+		Int32CalculationImpl.subtractFrom(z1, z1.length, z2);
+		int[] z = new int[length];
+		Int32CalculationImpl.addInto(z, length, z0);
+		Int32CalculationImpl.addInto(z, length - (half << 1), z2);
+		Int32CalculationImpl.addInto(z, length - half, z1);
+		return z;
+	}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary.internal;
+
+import org.jbasics.arrays.ArrayConstants;
+import org.jbasics.checker.ContractCheck;
+
+import java.util.Arrays;
+
+/**
+ * Multiplies magnitudes with the Toom-Cook 3-way algorithm once both operands reach the Toom-Cook threshold length and
+ * dispatches to Karatsuba and finally the schoolbook multiplication below. The evaluation and interpolation follows the
+ * sequence by Marco Bodrato (points 0, 1, -1, 2 and infinity) which only requires exact divisions by two and three.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+class ToomCook3CalculationImpl extends KaratsubaCalculationImpl {
+	private final int toomCook3Threshold;
+
+	ToomCook3CalculationImpl(final int karatsubaThreshold, final int toomCook3Threshold) {
+		super(karatsubaThreshold);
+		this.toomCook3Threshold = ContractCheck.mustBeInRange(toomCook3Threshold, 3, Integer.MAX_VALUE,
+				"toomCook3Threshold"); //$NON-NLS-1$
+	}
+
+	@Override
+	protected int[] product(final int[] x, final int[] y, final int xoff, final int xlen, final int yoff, final int ylen) {
+		if (xlen >= this.toomCook3Threshold && ylen >= this.toomCook3Threshold) {
+			if (xlen < ylen) {
+				int k = (ylen + 2) / 3;
+				if (xlen > k << 1) {
+					return toomCook3(y, x, yoff, ylen, xoff, xlen, k);
+				}
+			} else {
+				int k = (xlen + 2) / 3;
+				if (ylen > k << 1) {
+					return toomCook3(x, y, xoff, xlen, yoff, ylen, k);
+				}
+			}
+		}
+		return super.product(x, y, xoff, xlen, yoff, ylen);
+	}
+
+	@Override
+	protected int[] squareProduct(final int[] x, final int off, final int len) {
+		if (len < this.toomCook3Threshold) {
+			return super.squareProduct(x, off, len);
+		}
+		return toomCook3(x, x, off, len, off, len, (len + 2) / 3);
+	}
+
+	private int[] toomCook3(final int[] x, final int[] y, final int xoff, final int xlen, final int yoff, final int ylen,
+							final int k) {
+		boolean square = x == y && xoff == yoff && xlen == ylen;
+		Value a2 = Value.slice(x, xoff, xlen - (k << 1));
+		Value a1 = Value.slice(x, xoff + xlen - (k << 1), k);
+		Value a0 = Value.slice(x, xoff + xlen - k, k);
+		Value b2 = square ? a2 : Value.slice(y, yoff, ylen - (k << 1));
+		Value b1 = square ? a1 : Value.slice(y, yoff + ylen - (k << 1), k);
+		Value b0 = square ? a0 : Value.slice(y, yoff + ylen - k, k);
+
+		Value v0 = multiply(a0, b0, square);
+		Value da1 = add(a2, a0);
+		Value db1 = square ? da1 : add(b2, b0);
+		Value vm1 = multiply(subtract(da1, a1), subtract(db1, b1), square);
+		da1 = add(da1, a1);
+		db1 = square ? da1 : add(db1, b1);
+		Value v1 = multiply(da1, db1, square);
+		Value da2 = subtract(add(da1, a2).shiftLeft(), a0);
+		Value db2 = square ? da2 : subtract(add(db1, b2).shiftLeft(), b0);
+		Value v2 = multiply(da2, db2, square);
+		Value vinf = multiply(a2, b2, square);
+
+		Value t2 = subtract(v2, vm1).divideByThree();
+		Value tm1 = subtract(v1, vm1).shiftRight();
+		Value t1 = subtract(v1, v0);
+		t2 = subtract(t2, t1).shiftRight();
+		t1 = subtract(subtract(t1, tm1), vinf);
+		t2 = subtract(t2, vinf.shiftLeft());
+		tm1 = subtract(tm1, t2);
+
+		int length = xlen + ylen;
+		int[] z = new int[length];
+		Int32CalculationImpl.addInto(z, length, v0.coefficient());
+		Int32CalculationImpl.addInto(z, length - k, tm1.coefficient());
+		Int32CalculationImpl.addInto(z, length - 2 * k, t1.coefficient());
+		Int32CalculationImpl.addInto(z, length - 3 * k, t2.coefficient());
+		Int32CalculationImpl.addInto(z, length - 4 * k, vinf.coefficient());
+		return z;
+	}
+
+	private Value multiply(final Value a, final Value b, final boolean square) {
+		if (a.magnitude.length == 0 || b.magnitude.length == 0) {
+			return Value.ZERO;
+		} else if (square) {
+			return new Value(false, squareProduct(a.magnitude, 0, a.magnitude.length));
+		} else {
+			return new Value(a.negative != b.negative, product(a.magnitude, b.magnitude, 0, a.magnitude.length, 0,
+					b.magnitude.length));
+		}
+	}
+
+	private Value add(final Value a, final Value b) {
+		if (a.negative == b.negative) {
+			return new Value(a.negative, add(a.magnitude, b.magnitude));
+		}
+		return subtractMagnitudes(a, b);
+	}
+
+	private Value subtract(final Value a, final Value b) {
+		if (a.negative != b.negative) {
+			return new Value(a.negative, add(a.magnitude, b.magnitude));
+		}
+		return subtractMagnitudes(a, b);
+	}
+
+	/**
+	 * Calculates |a| - |b| with the sign of a.
+	 */
+	private Value subtractMagnitudes(final Value a, final Value b) {
+		if (b.magnitude.length == 0) {
+			return a;
+		} else if (a.magnitude.length == 0) {
+			return new Value(!a.negative, b.magnitude);
+		}
+		int t = a.compareMagnitude(b);
+		if (t == 0) {
+			return Value.ZERO;
+		} else if (t > 0) {
+			return new Value(a.negative, subtract(a.magnitude, b.magnitude));
+		} else {
+			return new Value(!a.negative, subtract(b.magnitude, a.magnitude));
+		}
+	}
+
+	/**
+	 * Signed intermediate value of the evaluation and interpolation. The magnitude never has leading zeros.
+	 */
+	private static final class Value {
+		static final Value ZERO = new Value(false, ArrayConstants.ZERO_LENGTH_INT_ARRAY);
+
+		final boolean negative;
+		final int[] magnitude;
+
+		Value(final boolean negative, final int[] magnitude) {
+			int i = 0;
+			while (i < magnitude.length && magnitude[i] == 0) {
+				i++;
+			}
+			this.magnitude = i == 0 ? magnitude : Arrays.copyOfRange(magnitude, i, magnitude.length);
+			this.negative = negative && this.magnitude.length > 0;
+		}
+
+		static Value slice(final int[] x, final int off, final int len) {
+			return new Value(false, Arrays.copyOfRange(x, off, off + len));
+		}
+
+		int[] coefficient() {
+			if (this.negative) {
+				throw new IllegalStateException("Toom-Cook interpolation yields an invalid coefficient"); //$NON-NLS-1$
+			}
+			return this.magnitude;
+		}
+
+		int compareMagnitude(final Value that) {
+			if (this.magnitude.length != that.magnitude.length) {
+				return this.magnitude.length < that.magnitude.length ? -1 : 1;
+			}
+			for (int i = 0; i < this.magnitude.length; i++) {
+				if (this.magnitude[i] != that.magnitude[i]) {
+					return (this.magnitude[i] & InternalCalculation.LONG_32BIT_MASK) < (that.magnitude[i] & InternalCalculation.LONG_32BIT_MASK) ? -1 : 1;
+				}
+			}
+			return 0;
+		}
+
+		Value shiftLeft() {
+			int[] result = new int[this.magnitude.length + 1];
+			int carry = 0;
+			for (int i = this.magnitude.length; i > 0; i--) {
+				int t = this.magnitude[i - 1];
+				result[i] = t << 1 | carry;
+				carry = t >>> 31;
+			}
+			result[0] = carry;
+			return new Value(this.negative, result);
+		}
+
+		Value shiftRight() {
+			int[] result = new int[this.magnitude.length];
+			int carry = 0;
+			for (int i = 0; i < result.length; i++) {
+				int t = this.magnitude[i];
+				result[i] = t >>> 1 | carry;
+				carry = t << 31;
+			}
+			return new Value(this.negative, result);
+		}
+
+		Value divideByThree() {
+			int[] result = new int[this.magnitude.length];
+			long remainder = 0;
+			for (int i = 0; i < result.length; i++) {
+				long t = remainder << 32 | this.magnitude[i] & InternalCalculation.LONG_32BIT_MASK;
+				result[i] = (int) (t / 3);
+				remainder = t % 3;
+			}
+			return new Value(this.negative, result);
+		}
+	}
+}
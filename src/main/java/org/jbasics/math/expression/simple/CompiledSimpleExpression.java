@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.math.expression.simple.impl.SimpleSymbolExpression;
+import org.jbasics.pattern.strategy.ContextualResolveStrategy;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link SimpleExpression} compiled to a flat array of post order instructions. Symbols are bound to slot indices so
+ * the evaluation is a single pass over the instructions with the values of one row given as an array in slot order
+ * ({@link #getSymbols()}). Subtrees of constants are folded at compile time. <p> All operations use the {@link
+ * MathContext} given on compile. Like the expression tree the result is null if a required value is null and the
+ * evaluation stops at the first null value without resolving or calling anything after it. Function calls and
+ * expressions which cannot be compiled are evaluated as tree with the {@link SimpleExpressionContext} given on
+ * evaluation and see the slot values as symbols.
+ * </p> <p> For whole columns of values {@link #evalBatch(Map, SimpleExpressionContext, ForkJoinPool)} processes the rows
+ * in chunks of {@value #CHUNK_SIZE} applying each instruction to the whole chunk at once. Formulas which do not need
+ * {@link BigDecimal} precision can be evaluated on double columns with {@link #evalBatchDouble(Map, ForkJoinPool)}.
+ * </p> <p> Instances are immutable and can be evaluated from multiple threads concurrently. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class CompiledSimpleExpression {
+	/**
+	 * The amount of rows evaluated together in a batch.
+	 */
+	public static final int CHUNK_SIZE = 1024;
+	/**
+	 * The amount of rows from which on a batch is split into parallel tasks.
+	 */
+	static final int PARALLEL_THRESHOLD = 4 * CompiledSimpleExpression.CHUNK_SIZE;
+
+	private final MathContext mathContext;
+	private final String[] symbols;
+	private final int[] opcodes;
+	private final int[] operands;
+	private final BigDecimal[] constants;
+	private final SimpleExpression[] calls;
+	private final int stackSize;
+	private final double[] doubleConstants;
+
+	CompiledSimpleExpression(final MathContext mathContext, final String[] symbols, final int[] opcodes, final int[] operands,
+							 final BigDecimal[] constants, final SimpleExpression[] calls, final int stackSize) {
+		this.mathContext = mathContext;
+		this.symbols = symbols;
+		this.opcodes = opcodes;
+		this.operands = operands;
+		this.constants = constants;
+		this.calls = calls;
+		this.stackSize = stackSize;
+		this.doubleConstants = new double[constants.length];
+		for (int i = 0; i < constants.length; i++) {
+			this.doubleConstants[i] = constants[i].doubleValue();
+		}
+	}
+
+	/**
+	 * Compiles the expression with the given math context. The symbols given in the symbol order get the first slots
+	 * in that order, all other symbols of the expression follow in the order of their first occurrence.
+	 *
+	 * @param expression  The expression to compile (must not be null)
+	 * @param mc          The math context used for all operations (must not be null)
+	 * @param symbolOrder The optional order of the first slots
+	 *
+	 * @return The compiled expression
+	 */
+	public static CompiledSimpleExpression compile(final SimpleExpression expression, final MathContext mc, final String... symbolOrder) {
+		return new SimpleExpressionCompiler(mc, symbolOrder).append(ContractCheck.mustNotBeNull(expression, "expression")).build(); //$NON-NLS-1$
+	}
+
+	public MathContext getMathContext() {
+		return this.mathContext;
+	}
+
+	/**
+	 * Returns the symbols in slot order.
+	 *
+	 * @return The unmodifiable list of symbols where the index is the slot
+	 */
+	public List<String> getSymbols() {
+		return Collections.unmodifiableList(Arrays.asList(this.symbols));
+	}
+
+	/**
+	 * Returns the slot of the given symbol or -1 if the expression does not use the symbol.
+	 *
+	 * @param symbol The symbol
+	 *
+	 * @return The slot index or -1
+	 */
+	public int getSlot(final String symbol) {
+		for (int i = 0; i < this.symbols.length; i++) {
+			if (this.symbols[i].equals(symbol)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int getInstructionCount() {
+		return this.opcodes.length;
+	}
+
+	/**
+	 * Returns true if the expression is folded to a single constant.
+	 *
+	 * @return True if the expression does not depend on any symbol or function
+	 */
+	public boolean isConstant() {
+		return this.opcodes.length == 1 && this.opcodes[0] == SimpleExpressionCompiler.LOAD_CONSTANT;
+	}
+
+	/**
+	 * Evaluates the expression with the values given in slot order.
+	 *
+	 * @param values The values in slot order (must be at least as long as the amount of symbols)
+	 *
+	 * @return The result or null if a value required is null
+	 *
+	 * @throws IllegalStateException If the expression contains function calls which require a context
+	 */
+	public BigDecimal eval(final BigDecimal... values) {
+		if (this.calls.length > 0) {
+			throw new IllegalStateException("Expression contains function calls which require a context to evaluate"); //$NON-NLS-1$
+		}
+		return eval(values, null);
+	}
+
+	/**
+	 * Evaluates the expression resolving each slot from the context once when it is first required.
+	 *
+	 * @param context The context to resolve the symbols and execute the functions (must not be null)
+	 *
+	 * @return The result or null if a value required is null
+	 */
+	public BigDecimal eval(final SimpleExpressionContext context) {
+		ContractCheck.mustNotBeNull(context, "context"); //$NON-NLS-1$
+		return eval(new BigDecimal[this.symbols.length], new boolean[this.symbols.length], context);
+	}
+
+	/**
+	 * Evaluates the expression with the values given in slot order and the context to execute function calls.
+	 *
+	 * @param values  The values in slot order (must be at least as long as the amount of symbols)
+	 * @param context The context to execute function calls (only required if the expression contains function calls)
+	 *
+	 * @return The result or null if a value required is null
+	 */
+	public BigDecimal eval(final BigDecimal[] values, final SimpleExpressionContext context) {
+		ContractCheck.mustNotBeNull(values, "values"); //$NON-NLS-1$
+		if (values.length < this.symbols.length) {
+			throw new IllegalArgumentException("Expected " + this.symbols.length + " values but got " + values.length); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return eval(values, null, context);
+	}
+
+	private BigDecimal eval(final BigDecimal[] values, final boolean[] resolved, final SimpleExpressionContext context) {
+		final BigDecimal[] stack = new BigDecimal[this.stackSize];
+		SimpleExpressionContext callContext = null;
+		int top = -1;
+		for (int i = 0; i < this.opcodes.length; i++) {
+			final int opcode = this.opcodes[i];
+			final BigDecimal value;
+			switch (opcode) {
+				case SimpleExpressionCompiler.LOAD_SLOT:
+					value = slotValue(this.operands[i], values, resolved, context);
+					break;
+				case SimpleExpressionCompiler.LOAD_CONSTANT:
+					value = this.constants[this.operands[i]];
+					break;
+				case SimpleExpressionCompiler.CALL:
+					if (callContext == null) {
+						callContext = createCallContext(values, resolved, ContractCheck.mustNotBeNull(context, "context")); //$NON-NLS-1$
+					}
+					value = this.calls[this.operands[i]].eval(callContext);
+					break;
+				default:
+					final BigDecimal right = stack[top--];
+					stack[top] = SimpleExpressionCompiler.operator(opcode).apply(stack[top], right, this.mathContext);
+					continue;
+			}
+			if (value == null) {
+				// every operation yields null on a null operand so the tree would not evaluate anything after this
+				return null;
+			}
+			stack[++top] = value;
+		}
+		return stack[0];
+	}
+
+	public BigDecimal[] evalBatch(final Map<String, BigDecimal[]> columns) {
+		return evalBatch(columns, null, null);
+	}
+
+	/**
+	 * Evaluates the expression for all rows of the given columns. Symbols without a column are resolved once from the
+	 * context and used for every row.
+	 *
+	 * @param columns The columns by symbol name which must all have the same amount of rows (must not be null or
+	 *                empty)
+	 * @param context The context for symbols without a column and function calls (can be null if not required)
+	 * @param pool    The pool to split the chunks across or null to evaluate in the calling thread
+	 *
+	 * @return The result column with a null for each row a required value is null
+	 */
+	public BigDecimal[] evalBatch(final Map<String, BigDecimal[]> columns, final SimpleExpressionContext context, final ForkJoinPool pool) {
+		final int rows = rowCount(columns);
+		final BigDecimal[][] slotColumns = new BigDecimal[this.symbols.length][];
+		final BigDecimal[] scalars = new BigDecimal[this.symbols.length];
+		for (int i = 0; i < this.symbols.length; i++) {
+			slotColumns[i] = columns.get(this.symbols[i]);
+			if (slotColumns[i] == null) {
+				if (context == null) {
+					throw new IllegalArgumentException("No column and no context to resolve symbol " + this.symbols[i]); //$NON-NLS-1$
+				}
+				scalars[i] = context.resolve(new SimpleSymbolExpression(this.symbols[i]));
+			}
+		}
+		if (this.calls.length > 0) {
+			ContractCheck.mustNotBeNull(context, "context"); //$NON-NLS-1$
+		}
+		final BigDecimal[] result = new BigDecimal[rows];
+		run(pool, rows, new Range() {
+			@Override
+			public void evaluate(final int from, final int to) {
+				evalChunks(slotColumns, scalars, context, result, from, to);
+			}
+		});
+		return result;
+	}
+
+	public double[] evalBatchDouble(final Map<String, double[]> columns) {
+		return evalBatchDouble(columns, null);
+	}
+
+	/**
+	 * Evaluates the expression in double precision for all rows of the given columns. The constants are converted to
+	 * double and power is calculated by {@link Math#pow(double, double)}. Function calls are not supported in this
+	 * mode.
+	 *
+	 * @param columns The columns by symbol name for every symbol of the expression which must all have the same
+	 *                amount of rows (must not be null or empty)
+	 * @param pool    The pool to split the chunks across or null to evaluate in the calling thread
+	 *
+	 * @return The result column
+	 *
+	 * @throws IllegalStateException If the expression contains function calls
+	 */
+	public double[] evalBatchDouble(final Map<String, double[]> columns, final ForkJoinPool pool) {
+		if (this.calls.length > 0) {
+			throw new IllegalStateException("Expression contains function calls which cannot be evaluated in double precision"); //$NON-NLS-1$
+		}
+		final int rows = rowCount(columns);
+		final double[][] slotColumns = new double[this.symbols.length][];
+		for (int i = 0; i < this.symbols.length; i++) {
+			slotColumns[i] = columns.get(this.symbols[i]);
+			if (slotColumns[i] == null) {
+				throw new IllegalArgumentException("No column for symbol " + this.symbols[i]); //$NON-NLS-1$
+			}
+		}
+		final double[] result = new double[rows];
+		run(pool, rows, new Range() {
+			@Override
+			public void evaluate(final int from, final int to) {
+				evalChunksDouble(slotColumns, result, from, to);
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < this.opcodes.length; i++) {
+			switch (this.opcodes[i]) {
+				case SimpleExpressionCompiler.LOAD_SLOT:
+					b.append("LOAD ").append(this.symbols[this.operands[i]]); //$NON-NLS-1$
+					break;
+				case SimpleExpressionCompiler.LOAD_CONSTANT:
+					b.append("CONST ").append(this.constants[this.operands[i]]); //$NON-NLS-1$
+					break;
+				case SimpleExpressionCompiler.CALL:
+					b.append("CALL ").append(this.calls[this.operands[i]]); //$NON-NLS-1$
+					break;
+				default:
+					b.append(SimpleExpressionCompiler.operator(this.opcodes[i]));
+			}
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+	private static int rowCount(final Map<String, ?> columns) {
+		ContractCheck.mustNotBeNull(columns, "columns"); //$NON-NLS-1$
+		int rows = -1;
+		for (final Map.Entry<String, ?> entry : columns.entrySet()) {
+			final Object column = entry.getValue();
+			final int length = column instanceof double[] ? ((double[]) column).length : ((Object[]) column).length;
+			if (rows < 0) {
+				rows = length;
+			} else if (rows != length) {
+				throw new IllegalArgumentException("Column " + entry.getKey() + " has " + length + " rows instead of " + rows); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
+		if (rows < 0) {
+			throw new IllegalArgumentException("No columns given"); //$NON-NLS-1$
+		}
+		return rows;
+	}
+
+	private static void run(final ForkJoinPool pool, final int rows, final Range range) {
+		if (pool == null || rows <= CompiledSimpleExpression.PARALLEL_THRESHOLD) {
+			range.evaluate(0, rows);
+		} else {
+			pool.invoke(new RangeTask(range, 0, rows));
+		}
+	}
+
+	private void evalChunks(final BigDecimal[][] columns, final BigDecimal[] scalars, final SimpleExpressionContext context,
+							final BigDecimal[] result, final int from, final int to) {
+		if (this.calls.length > 0) {
+			final BigDecimal[] values = scalars.clone();
+			for (int row = from; row < to; row++) {
+				for (int slot = 0; slot < values.length; slot++) {
+					if (columns[slot] != null) {
+						values[slot] = columns[slot][row];
+					}
+				}
+				result[row] = eval(values, context);
+			}
+			return;
+		}
+		final int length = Math.min(CompiledSimpleExpression.CHUNK_SIZE, to - from);
+		final BigDecimal[][] stack = new BigDecimal[this.stackSize][length];
+		// rows which loaded a null value are skipped by all following operations and yield null
+		final boolean[] nulls = new boolean[length];
+		for (int start = from; start < to; start += CompiledSimpleExpression.CHUNK_SIZE) {
+			final int n = Math.min(CompiledSimpleExpression.CHUNK_SIZE, to - start);
+			Arrays.fill(nulls, false);
+			int top = -1;
+			for (int i = 0; i < this.opcodes.length; i++) {
+				final int opcode = this.opcodes[i];
+				switch (opcode) {
+					case SimpleExpressionCompiler.LOAD_SLOT:
+						final int slot = this.operands[i];
+						final BigDecimal[] loaded = stack[++top];
+						if (columns[slot] != null) {
+							System.arraycopy(columns[slot], start, loaded, 0, n);
+						} else {
+							Arrays.fill(loaded, 0, n, scalars[slot]);
+						}
+						for (int j = 0; j < n; j++) {
+							nulls[j] |= loaded[j] == null;
+						}
+						break;
+					case SimpleExpressionCompiler.LOAD_CONSTANT:
+						Arrays.fill(stack[++top], 0, n, this.constants[this.operands[i]]);
+						break;
+					default:
+						final SimpleOperator operator = SimpleExpressionCompiler.operator(opcode);
+						final BigDecimal[] right = stack[top--];
+						final BigDecimal[] left = stack[top];
+						for (int j = 0; j < n; j++) {
+							if (!nulls[j]) {
+								left[j] = operator.apply(left[j], right[j], this.mathContext);
+							}
+						}
+				}
+			}
+			for (int j = 0; j < n; j++) {
+				result[start + j] = nulls[j] ? null : stack[0][j];
+			}
+		}
+	}
+
+	private void evalChunksDouble(final double[][] columns, final double[] result, final int from, final int to) {
+		final double[][] stack = new double[this.stackSize][Math.min(CompiledSimpleExpression.CHUNK_SIZE, to - from)];
+		for (int start = from; start < to; start += CompiledSimpleExpression.CHUNK_SIZE) {
+			final int n = Math.min(CompiledSimpleExpression.CHUNK_SIZE, to - start);
+			int top = -1;
+			for (int i = 0; i < this.opcodes.length; i++) {
+				final int opcode = this.opcodes[i];
+				if (opcode == SimpleExpressionCompiler.LOAD_SLOT) {
+					System.arraycopy(columns[this.operands[i]], start, stack[++top], 0, n);
+				} else if (opcode == SimpleExpressionCompiler.LOAD_CONSTANT) {
+					Arrays.fill(stack[++top], 0, n, this.doubleConstants[this.operands[i]]);
+				} else {
+					final double[] right = stack[top--];
+					final double[] left = stack[top];
+					switch (SimpleExpressionCompiler.operator(opcode)) {
+						case ADD:
+							for (int j = 0; j < n; j++) {
+								left[j] += right[j];
+							}
+							break;
+						case SUBTRACT:
+							for (int j = 0; j < n; j++) {
+								left[j] -= right[j];
+							}
+							break;
+						case MULTIPLY:
+							for (int j = 0; j < n; j++) {
+								left[j] *= right[j];
+							}
+							break;
+						case DIVIDE:
+							for (int j = 0; j < n; j++) {
+								left[j] /= right[j];
+							}
+							break;
+						default:
+							for (int j = 0; j < n; j++) {
+								left[j] = Math.pow(left[j], right[j]);
+							}
+					}
+				}
+			}
+			System.arraycopy(stack[0], 0, result, start, n);
+		}
+	}
+
+	private BigDecimal slotValue(final int slot, final BigDecimal[] values, final boolean[] resolved, final SimpleExpressionContext context) {
+		if (resolved != null && !resolved[slot]) {
+			values[slot] = context.resolve(new SimpleSymbolExpression(this.symbols[slot]));
+			resolved[slot] = true;
+		}
+		return values[slot];
+	}
+
+	private SimpleExpressionContext createCallContext(final BigDecimal[] values, final boolean[] resolved, final SimpleExpressionContext context) {
+		final SimpleExpressionContext.ContextBuilder builder = SimpleExpressionContext.newBuilder().withMathContext(this.mathContext)
+				.withAdditionalFunctionExecutor(context)
+				.withAdditionalSymbolResolver(new ContextualResolveStrategy<BigDecimal, SimpleSymbolExpression, SimpleExpressionContext>() {
+					@Override
+					public BigDecimal resolve(final SimpleSymbolExpression request, final SimpleExpressionContext ignored) {
+						final int slot = getSlot(request.getSymbol());
+						return slot >= 0 ? slotValue(slot, values, resolved, context) : context.resolve(request, context);
+					}
+				});
+		if (context.isMissingSymbolOrFunctionResolvesToNull()) {
+			builder.withMissingSymbolOrFunctionResolvesToNull();
+		}
+		return builder.build();
+	}
+
+	private interface Range {
+		void evaluate(int from, int to);
+	}
+
+	private static final class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final Range range;
+		private final int from;
+		private final int to;
+
+		RangeTask(final Range range, final int from, final int to) {
+			this.range = range;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= CompiledSimpleExpression.PARALLEL_THRESHOLD) {
+				this.range.evaluate(this.from, this.to);
+			} else {
+				// split on a chunk boundary
+				final int middle = this.from + ((this.to - this.from) / CompiledSimpleExpression.CHUNK_SIZE >>> 1) * CompiledSimpleExpression.CHUNK_SIZE;
+				ForkJoinTask.invokeAll(new RangeTask(this.range, this.from, middle), new RangeTask(this.range, middle, this.to));
+			}
+		}
+	}
+}
@@ -23,13 +23,25 @@
  */
 package org.jbasics.math.expression.simple;
 
+import org.jbasics.checker.ContractCheck;
+
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.Collection;
+import java.util.Map;
 
 public abstract class SimpleExpression {
 
+	/**
+	 * Returns the parsed expression from the {@link SimpleExpressionCache#getSharedInstance() shared cache}. Use {@link
+	 * #parse(CharSequence)} to always get a freshly parsed tree.
+	 *
+	 * @param expression The expression text
+	 *
+	 * @return The parsed expression
+	 */
 	public static SimpleExpression valueOf(final String expression) {
-		return SimpleExpression.parse(expression);
+		return SimpleExpressionCache.getSharedInstance().get(expression);
 	}
 
 	public static SimpleExpression parse(final CharSequence expression) {
@@ -38,5 +50,48 @@ public abstract class SimpleExpression {
 
 	public abstract BigDecimal eval(SimpleExpressionContext context);
 
+	/**
+	 * Compiles this expression for repeated evaluation with {@link MathContext#DECIMAL64} (the default of the {@link
+	 * SimpleExpressionContext}).
+	 *
+	 * @param symbolOrder The optional order of the first slots
+	 *
+	 * @return The compiled expression
+	 *
+	 * @see CompiledSimpleExpression#compile(SimpleExpression, MathContext, String...)
+	 */
+	public CompiledSimpleExpression compile(final String... symbolOrder) {
+		return CompiledSimpleExpression.compile(this, MathContext.DECIMAL64, symbolOrder);
+	}
+
+	public CompiledSimpleExpression compile(final MathContext mc, final String... symbolOrder) {
+		return CompiledSimpleExpression.compile(this, mc, symbolOrder);
+	}
+
+	/**
+	 * Compiles this expression with the math context of the given context and evaluates it for all rows of the
+	 * columns. Compile once and use {@link CompiledSimpleExpression#evalBatch(Map, SimpleExpressionContext,
+	 * java.util.concurrent.ForkJoinPool)} if the same expression is evaluated for several batches.
+	 *
+	 * @param columns The columns by symbol name
+	 * @param context The context for symbols without a column and function calls (must not be null)
+	 *
+	 * @return The result column
+	 */
+	public BigDecimal[] evalBatch(final Map<String, BigDecimal[]> columns, final SimpleExpressionContext context) {
+		return compile(ContractCheck.mustNotBeNull(context, "context").getMathContext()).evalBatch(columns, context, null); //$NON-NLS-1$
+	}
+
+	/**
+	 * Appends the post order instructions of this expression to the compiler. The default appends this expression as
+	 * opaque node which is evaluated by {@link #eval(SimpleExpressionContext)}, so expressions without own
+	 * instructions still compile.
+	 *
+	 * @param compiler The compiler to append to
+	 */
+	protected void compileTo(final SimpleExpressionCompiler compiler) {
+		compiler.appendOpaque(this);
+	}
+
 	public abstract <T extends Collection<String>> void collectSymbols(T collection);
 }
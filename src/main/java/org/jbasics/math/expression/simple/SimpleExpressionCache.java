@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.jbasics.checker.ContractCheck;
+
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed {@link SimpleExpression}s keyed by their source text. Since the expression trees are
+ * immutable the same instance can be handed out to any number of threads. The cache is split into segments each of
+ * which is an access ordered map evicting its least recently used entry, so the eviction order is LRU per segment.
+ * Parsing happens outside of the segment lock. Two threads missing the same text at the same time may both parse it but
+ * only the first result is kept.
+ * <p>
+ * Besides the parsed tree an entry keeps the last {@link CompiledSimpleExpression} requested through {@link
+ * #getCompiled(CharSequence, MathContext)}. Hit, miss and eviction counts are recorded for monitoring, warming the cache
+ * with {@link #warmUp(MathContext, Iterable)} does not count as a miss.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class SimpleExpressionCache {
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+	private static final SimpleExpressionCache SHARED_INSTANCE = new SimpleExpressionCache(SimpleExpressionCache.DEFAULT_MAXIMUM_SIZE);
+
+	private final Segment[] segments;
+	private final int maximumSize;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public SimpleExpressionCache() {
+		this(SimpleExpressionCache.DEFAULT_MAXIMUM_SIZE, SimpleExpressionCache.DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public SimpleExpressionCache(final int maximumSize) {
+		this(maximumSize, SimpleExpressionCache.DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Creates a cache holding at most the given number of expressions. The number of segments is the largest power of
+	 * two not exceeding the concurrency level nor the maximum size.
+	 *
+	 * @param maximumSize      The maximum number of cached expressions (must be positive)
+	 * @param concurrencyLevel The expected number of concurrently accessing threads (must be positive)
+	 */
+	public SimpleExpressionCache(final int maximumSize, final int concurrencyLevel) {
+		this.maximumSize = ContractCheck.mustBeInRange(maximumSize, 1, Integer.MAX_VALUE, "maximumSize"); //$NON-NLS-1$
+		final int count = Integer.highestOneBit(Math.min(maximumSize,
+				ContractCheck.mustBeInRange(concurrencyLevel, 1, Integer.MAX_VALUE, "concurrencyLevel"))); //$NON-NLS-1$
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			this.segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0), this.evictions);
+		}
+	}
+
+	/**
+	 * Returns the cache used by {@link SimpleExpression#valueOf(String)}.
+	 *
+	 * @return The shared cache
+	 */
+	public static SimpleExpressionCache getSharedInstance() {
+		return SimpleExpressionCache.SHARED_INSTANCE;
+	}
+
+	/**
+	 * Returns the parsed expression of the given text, parsing and caching it if not present.
+	 *
+	 * @param expression The expression text (must not be null)
+	 *
+	 * @return The parsed expression
+	 */
+	public SimpleExpression get(final CharSequence expression) {
+		return entry(expression, true).expression;
+	}
+
+	/**
+	 * Returns the compiled form of the given text. The compiled expression is kept with the cache entry as long as it
+	 * is requested with the same math context.
+	 *
+	 * @param expression The expression text (must not be null)
+	 * @param mc         The math context to compile with (must not be null)
+	 *
+	 * @return The compiled expression
+	 */
+	public CompiledSimpleExpression getCompiled(final CharSequence expression, final MathContext mc) {
+		return entry(expression, true).compiled(ContractCheck.mustNotBeNull(mc, "mc")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Parses all given expressions into the cache. Parse errors are not caught so a broken formula in the list fails the
+	 * warm up.
+	 *
+	 * @param mc          The math context to compile with or null to only parse
+	 * @param expressions The expression texts (must not be null)
+	 *
+	 * @return The number of expressions which were not cached before
+	 */
+	public int warmUp(final MathContext mc, final Iterable<? extends CharSequence> expressions) {
+		int added = 0;
+		for (final CharSequence expression : ContractCheck.mustNotBeNull(expressions, "expressions")) { //$NON-NLS-1$
+			if (!contains(expression)) {
+				added++;
+			}
+			final CacheEntry entry = entry(expression, false);
+			if (mc != null) {
+				entry.compiled(mc);
+			}
+		}
+		return added;
+	}
+
+	public int warmUp(final CharSequence... expressions) {
+		return warmUp(null, Arrays.asList(ContractCheck.mustNotBeNull(expressions, "expressions"))); //$NON-NLS-1$
+	}
+
+	public boolean contains(final CharSequence expression) {
+		final String key = ContractCheck.mustNotBeNull(expression, "expression").toString(); //$NON-NLS-1$
+		final Segment segment = segmentFor(key);
+		synchronized (segment) {
+			return segment.containsKey(key);
+		}
+	}
+
+	public int size() {
+		int result = 0;
+		for (final Segment segment : this.segments) {
+			synchronized (segment) {
+				result += segment.size();
+			}
+		}
+		return result;
+	}
+
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	public void clear() {
+		for (final Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * Returns the ratio of hits to all recorded requests or 1.0 if nothing was requested yet.
+	 *
+	 * @return The hit rate between 0.0 and 1.0
+	 */
+	public double getHitRate() {
+		final long hitCount = this.hits.sum();
+		final long total = hitCount + this.misses.sum();
+		return total == 0L ? 1.0 : (double) hitCount / total;
+	}
+
+	public void resetStatistics() {
+		this.hits.reset();
+		this.misses.reset();
+		this.evictions.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleExpressionCache [size=" + size() + ", maximumSize=" + this.maximumSize + ", hits=" + getHitCount() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private CacheEntry entry(final CharSequence expression, final boolean record) {
+		final String key = ContractCheck.mustNotBeNull(expression, "expression").toString(); //$NON-NLS-1$
+		final Segment segment = segmentFor(key);
+		CacheEntry entry;
+		synchronized (segment) {
+			entry = segment.get(key);
+		}
+		if (entry != null) {
+			if (record) {
+				this.hits.increment();
+			}
+			return entry;
+		}
+		if (record) {
+			this.misses.increment();
+		}
+		final CacheEntry parsed = new CacheEntry(SimpleExpressionParser.parse(key));
+		synchronized (segment) {
+			entry = segment.get(key);
+			if (entry == null) {
+				segment.put(key, parsed);
+				entry = parsed;
+			}
+		}
+		return entry;
+	}
+
+	private Segment segmentFor(final String key) {
+		final int h = key.hashCode();
+		return this.segments[(h ^ (h >>> 16)) & (this.segments.length - 1)];
+	}
+
+	private static final class CacheEntry {
+		private final SimpleExpression expression;
+		private volatile CompiledSimpleExpression compiled;
+
+		private CacheEntry(final SimpleExpression expression) {
+			this.expression = expression;
+		}
+
+		private CompiledSimpleExpression compiled(final MathContext mc) {
+			CompiledSimpleExpression temp = this.compiled;
+			if (temp == null || !temp.getMathContext().equals(mc)) {
+				temp = this.expression.compile(mc);
+				this.compiled = temp;
+			}
+			return temp;
+		}
+	}
+
+	private static final class Segment extends LinkedHashMap<String, CacheEntry> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+		private final transient LongAdder evictions;
+
+		private Segment(final int capacity, final LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+			if (size() > this.capacity) {
+				this.evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.math.expression.simple.impl.SimpleFunctionCallExpression;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the flat post order instructions of a {@link SimpleExpression} tree for a {@link CompiledSimpleExpression}.
+ * Symbols are bound to slot indices and operations on two constants are folded while appending.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class SimpleExpressionCompiler {
+	static final int LOAD_SLOT = -1;
+	static final int LOAD_CONSTANT = -2;
+	static final int CALL = -3;
+	private static final SimpleOperator[] OPERATORS = SimpleOperator.values();
+
+	private final MathContext mathContext;
+	private final Map<String, Integer> slots = new LinkedHashMap<String, Integer>();
+	private final List<BigDecimal> constants = new ArrayList<BigDecimal>();
+	private final List<SimpleExpression> calls = new ArrayList<SimpleExpression>();
+	private int[] opcodes = new int[16];
+	private int[] operands = new int[16];
+	private int size;
+	private int depth;
+	private int maxDepth;
+
+	SimpleExpressionCompiler(final MathContext mathContext, final String... symbolOrder) {
+		this.mathContext = ContractCheck.mustNotBeNull(mathContext, "mathContext"); //$NON-NLS-1$
+		if (symbolOrder != null) {
+			for (final String symbol : symbolOrder) {
+				slot(ContractCheck.mustNotBeNullOrTrimmedEmpty(symbol, "symbol")); //$NON-NLS-1$
+			}
+		}
+	}
+
+	public MathContext getMathContext() {
+		return this.mathContext;
+	}
+
+	public SimpleExpressionCompiler append(final SimpleExpression expression) {
+		ContractCheck.mustNotBeNull(expression, "expression").compileTo(this); //$NON-NLS-1$
+		return this;
+	}
+
+	public SimpleExpressionCompiler appendConstant(final BigDecimal value) {
+		this.constants.add(ContractCheck.mustNotBeNull(value, "value")); //$NON-NLS-1$
+		return emit(SimpleExpressionCompiler.LOAD_CONSTANT, this.constants.size() - 1, 1);
+	}
+
+	public SimpleExpressionCompiler appendSymbol(final String symbol) {
+		return emit(SimpleExpressionCompiler.LOAD_SLOT, slot(symbol), 1);
+	}
+
+	public SimpleExpressionCompiler appendOperation(final SimpleOperator operator) {
+		ContractCheck.mustNotBeNull(operator, "operator"); //$NON-NLS-1$
+		if (this.size >= 2 && this.opcodes[this.size - 1] == SimpleExpressionCompiler.LOAD_CONSTANT
+				&& this.opcodes[this.size - 2] == SimpleExpressionCompiler.LOAD_CONSTANT) {
+			final int rightIndex = this.operands[this.size - 1];
+			final int leftIndex = this.operands[this.size - 2];
+			try {
+				final BigDecimal folded = operator.apply(this.constants.get(leftIndex), this.constants.get(rightIndex), this.mathContext);
+				// the two constants are always the last ones added so they can be replaced
+				this.constants.remove(rightIndex);
+				this.constants.set(leftIndex, folded);
+				this.size--;
+				this.depth--;
+				return this;
+			} catch (final ArithmeticException e) {
+				// leave it to the evaluation to raise the exception
+			}
+		}
+		return emit(operator.ordinal(), 0, -1);
+	}
+
+	public SimpleExpressionCompiler appendCall(final SimpleFunctionCallExpression call) {
+		return appendOpaque(ContractCheck.mustNotBeNull(call, "call")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Appends an expression which is evaluated as tree by calling {@link SimpleExpression#eval(SimpleExpressionContext)}
+	 * with a context resolving the slot values as symbols.
+	 *
+	 * @param expression The expression to evaluate as tree (must not be null)
+	 *
+	 * @return This compiler
+	 */
+	public SimpleExpressionCompiler appendOpaque(final SimpleExpression expression) {
+		ContractCheck.mustNotBeNull(expression, "expression"); //$NON-NLS-1$
+		// the expression is evaluated by itself but its symbols need to be bound
+		expression.collectSymbols(new SlotCollection());
+		this.calls.add(expression);
+		return emit(SimpleExpressionCompiler.CALL, this.calls.size() - 1, 1);
+	}
+
+	CompiledSimpleExpression build() {
+		return new CompiledSimpleExpression(this.mathContext, this.slots.keySet().toArray(new String[this.slots.size()]),
+				Arrays.copyOf(this.opcodes, this.size), Arrays.copyOf(this.operands, this.size),
+				this.constants.toArray(new BigDecimal[this.constants.size()]),
+				this.calls.toArray(new SimpleExpression[this.calls.size()]), this.maxDepth);
+	}
+
+	static SimpleOperator operator(final int opcode) {
+		return SimpleExpressionCompiler.OPERATORS[opcode];
+	}
+
+	private int slot(final String symbol) {
+		Integer slot = this.slots.get(symbol);
+		if (slot == null) {
+			slot = Integer.valueOf(this.slots.size());
+			this.slots.put(symbol, slot);
+		}
+		return slot.intValue();
+	}
+
+	private SimpleExpressionCompiler emit(final int opcode, final int operand, final int stackChange) {
+		if (this.size == this.opcodes.length) {
+			this.opcodes = Arrays.copyOf(this.opcodes, this.size << 1);
+			this.operands = Arrays.copyOf(this.operands, this.size << 1);
+		}
+		this.opcodes[this.size] = opcode;
+		this.operands[this.size++] = operand;
+		this.depth += stackChange;
+		this.maxDepth = Math.max(this.maxDepth, this.depth);
+		return this;
+	}
+
+	private final class SlotCollection extends AbstractCollection<String> {
+		@Override
+		public boolean add(final String symbol) {
+			slot(symbol);
+			return true;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return SimpleExpressionCompiler.this.slots.keySet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return SimpleExpressionCompiler.this.slots.size();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.jbasics.math.BigDecimalMathLibrary;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * The binary operators of a {@link SimpleExpression}. Shared by the expression tree and the compiled form so both
+ * evaluate exactly the same way.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public enum SimpleOperator {
+	ADD {
+		@Override
+		public BigDecimal apply(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+			return left.add(right, mc);
+		}
+	},
+	SUBTRACT {
+		@Override
+		public BigDecimal apply(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+			return left.subtract(right, mc);
+		}
+	},
+	MULTIPLY {
+		@Override
+		public BigDecimal apply(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+			return left.multiply(right, mc);
+		}
+	},
+	DIVIDE {
+		@Override
+		public BigDecimal apply(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+			return left.divide(right, mc);
+		}
+	},
+	POWER {
+		@Override
+		public BigDecimal apply(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+			return BigDecimalMathLibrary.pow(left, right).valueToPrecision(mc);
+		}
+	};
+
+	public abstract BigDecimal apply(BigDecimal left, BigDecimal right, MathContext mc);
+}
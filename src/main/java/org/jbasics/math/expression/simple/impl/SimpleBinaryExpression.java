@@ -25,7 +25,9 @@ package org.jbasics.math.expression.simple.impl;
 
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleExpressionCompiler;
 import org.jbasics.math.expression.simple.SimpleExpressionContext;
+import org.jbasics.math.expression.simple.SimpleOperator;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -59,5 +61,26 @@ public abstract class SimpleBinaryExpression extends SimpleExpression {
 		this.rhs.collectSymbols(collection);
 	}
 
+	@Override
+	protected void compileTo(final SimpleExpressionCompiler compiler) {
+		final SimpleOperator operator = getOperator();
+		if (operator == null) {
+			super.compileTo(compiler);
+		} else {
+			compiler.append(this.lhs).append(this.rhs).appendOperation(operator);
+		}
+	}
+
 	protected abstract BigDecimal evalOp(BigDecimal left, BigDecimal right, MathContext mc);
+
+	/**
+	 * Returns the operator the compiled form uses for this expression. Subclasses with an own {@link
+	 * #evalOp(BigDecimal, BigDecimal, MathContext)} which is not one of the {@link SimpleOperator}s keep the default and
+	 * are evaluated as tree when compiled.
+	 *
+	 * @return The operator or null if the operation is not a {@link SimpleOperator}
+	 */
+	public SimpleOperator getOperator() {
+		return null;
+	}
 }
@@ -26,6 +26,7 @@ package org.jbasics.math.expression.simple.impl;
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.exception.DelegatedException;
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleExpressionCompiler;
 import org.jbasics.math.expression.simple.SimpleExpressionContext;
 
 import java.math.BigDecimal;
@@ -66,6 +67,11 @@ public class SimpleFunctionCallExpression extends SimpleExpression {
 		}
 	}
 
+	@Override
+	protected void compileTo(final SimpleExpressionCompiler compiler) {
+		compiler.appendCall(this);
+	}
+
 	@Override
 	public <T extends Collection<String>> void collectSymbols(final T collection) {
 		for (final SimpleExpression e : this.parameterExpressions) {
@@ -24,6 +24,7 @@
 package org.jbasics.math.expression.simple.impl;
 
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleOperator;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -36,7 +37,12 @@ public class SimpleMultiplyExpression extends SimpleBinaryExpression {
 
 	@Override
 	protected BigDecimal evalOp(final BigDecimal left, final BigDecimal right, final MathContext mc) {
-		return left.multiply(right, mc);
+		return SimpleOperator.MULTIPLY.apply(left, right, mc);
+	}
+
+	@Override
+	public SimpleOperator getOperator() {
+		return SimpleOperator.MULTIPLY;
 	}
 
 	@Override
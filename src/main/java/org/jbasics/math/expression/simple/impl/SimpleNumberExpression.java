@@ -25,6 +25,7 @@ package org.jbasics.math.expression.simple.impl;
 
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleExpressionCompiler;
 import org.jbasics.math.expression.simple.SimpleExpressionContext;
 
 import java.math.BigDecimal;
@@ -46,6 +47,11 @@ public class SimpleNumberExpression extends SimpleExpression {
 		return this.number;
 	}
 
+	@Override
+	protected void compileTo(final SimpleExpressionCompiler compiler) {
+		compiler.appendConstant(this.number);
+	}
+
 	@Override
 	public <T extends Collection<String>> void collectSymbols(final T collection) {
 		// Numbers cannot have any symbols
@@ -23,8 +23,8 @@
  */
 package org.jbasics.math.expression.simple.impl;
 
-import org.jbasics.math.BigDecimalMathLibrary;
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleOperator;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -37,7 +37,12 @@ public class SimplePowerExpression extends SimpleBinaryExpression {
 
 	@Override
 	protected BigDecimal evalOp(final BigDecimal left, final BigDecimal right, final MathContext mc) {
-		return BigDecimalMathLibrary.pow(left, right).valueToPrecision(mc);
+		return SimpleOperator.POWER.apply(left, right, mc);
+	}
+
+	@Override
+	public SimpleOperator getOperator() {
+		return SimpleOperator.POWER;
 	}
 
 	@Override
@@ -25,6 +25,7 @@ package org.jbasics.math.expression.simple.impl;
 
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.math.expression.simple.SimpleExpression;
+import org.jbasics.math.expression.simple.SimpleExpressionCompiler;
 import org.jbasics.math.expression.simple.SimpleExpressionContext;
 
 import java.math.BigDecimal;
@@ -46,6 +47,11 @@ public class SimpleSymbolExpression extends SimpleExpression {
 		return context.resolve(this);
 	}
 
+	@Override
+	protected void compileTo(final SimpleExpressionCompiler compiler) {
+		compiler.appendSymbol(this.symbol);
+	}
+
 	@Override
 	public <T extends Collection<String>> void collectSymbols(final T collection) {
 		ContractCheck.mustNotBeNull(collection, "collection").add(this.symbol); //$NON-NLS-1$
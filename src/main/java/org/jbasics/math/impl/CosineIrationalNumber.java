@@ -25,12 +25,12 @@ package org.jbasics.math.impl;
 
 import org.jbasics.math.AlgorithmStrategy;
 import org.jbasics.math.IrationalNumber;
-import org.jbasics.math.strategies.CosineAlgorithmStrategy;
+import org.jbasics.math.strategies.TrigonometricReductionAlgorithmStrategy;
 
 import java.math.BigDecimal;
 
 public class CosineIrationalNumber extends BigDecimalIrationalNumber {
-	private static final AlgorithmStrategy<BigDecimal> STRATEGY = new CosineAlgorithmStrategy();
+	private static final AlgorithmStrategy<BigDecimal> STRATEGY = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.COSINE);
 
 	private CosineIrationalNumber(BigDecimal x) {
 		super(STRATEGY, x);
@@ -25,7 +25,7 @@ package org.jbasics.math.impl;
 
 import org.jbasics.math.AlgorithmStrategy;
 import org.jbasics.math.IrationalNumber;
-import org.jbasics.math.strategies.ExponentialTaylerAlgorithmStrategy;
+import org.jbasics.math.strategies.ExponentialReductionAlgorithmStrategy;
 
 import java.math.BigDecimal;
 
@@ -34,7 +34,7 @@ public class ExponentialIrationalNumber extends BigDecimalIrationalNumber {
 	private static final AlgorithmStrategy<BigDecimal> STRATEGY;
 
 	static {
-		STRATEGY = new ExponentialTaylerAlgorithmStrategy();
+		STRATEGY = new ExponentialReductionAlgorithmStrategy();
 		E = new ExponentialIrationalNumber(BigDecimal.ONE);
 	}
 
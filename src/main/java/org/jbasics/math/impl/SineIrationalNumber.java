@@ -25,12 +25,12 @@ package org.jbasics.math.impl;
 
 import org.jbasics.math.AlgorithmStrategy;
 import org.jbasics.math.IrationalNumber;
-import org.jbasics.math.strategies.SineAlgorithmStrategy;
+import org.jbasics.math.strategies.TrigonometricReductionAlgorithmStrategy;
 
 import java.math.BigDecimal;
 
 public class SineIrationalNumber extends BigDecimalIrationalNumber {
-	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new SineAlgorithmStrategy();
+	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.SINE);
 
 	private SineIrationalNumber(BigDecimal x) {
 		super(STRATEGY, x);
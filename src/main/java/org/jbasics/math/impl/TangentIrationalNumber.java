@@ -25,12 +25,12 @@ package org.jbasics.math.impl;
 
 import org.jbasics.math.AlgorithmStrategy;
 import org.jbasics.math.IrationalNumber;
-import org.jbasics.math.strategies.TangentAlgorithmStrategy;
+import org.jbasics.math.strategies.TrigonometricReductionAlgorithmStrategy;
 
 import java.math.BigDecimal;
 
 public class TangentIrationalNumber extends BigDecimalIrationalNumber {
-	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new TangentAlgorithmStrategy();
+	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.TANGENT);
 
 	private TangentIrationalNumber(BigDecimal x) {
 		super(STRATEGY, x);
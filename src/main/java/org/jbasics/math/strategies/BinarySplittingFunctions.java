@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Exponential and trigonometric functions evaluated with {@link BinarySplittingSeries}. <p> The argument is first
+ * halved until it is below one and converted to a binary fixed point number. The fixed point number is then split into
+ * chunks of doubling bit length (bit burst). Each chunk y = u / 2<sup>h</sup> has a small numerator compared to its
+ * denominator so its series converges fast and stays cheap to split. The results of the chunks are multiplied (exp)
+ * or combined with the angle addition formulas (sin and cos) and finally squared or doubled to undo the halving.
+ * </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class BinarySplittingFunctions {
+	private static final double LOG2_10 = Math.log(10) / Math.log(2);
+	private static final int GUARD_BITS = 32;
+	private static final int FIRST_CHUNK_BITS = 16;
+	private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+	private BinarySplittingFunctions() {
+		// no instances
+	}
+
+	/**
+	 * Calculates e<sup>x</sup> with a few digits more than requested by the math context.
+	 *
+	 * @param x    The exponent
+	 * @param mc   The math context defining the required precision
+	 * @param pool The pool to evaluate large series in parallel (can be null)
+	 *
+	 * @return e<sup>x</sup> not yet rounded to the math context
+	 */
+	static BigDecimal exp(final BigDecimal x, final MathContext mc, final ForkJoinPool pool) {
+		if (x.signum() == 0) {
+			return BigDecimal.ONE;
+		}
+		final int halvings = BinarySplittingFunctions.halvings(x);
+		final int bits = BinarySplittingFunctions.precisionBits(mc) + halvings + BinarySplittingFunctions.GUARD_BITS;
+		final MathContext work = BinarySplittingFunctions.workContext(bits);
+		final BigInteger fixed = BinarySplittingFunctions.toFixedPoint(x, halvings, bits);
+		final BigInteger magnitude = fixed.abs();
+		BigDecimal result = BigDecimal.ONE;
+		for (int lo = 0, hi = BinarySplittingFunctions.FIRST_CHUNK_BITS; lo < bits; lo = hi, hi <<= 1) {
+			hi = Math.min(hi, bits);
+			final BigInteger u = BinarySplittingFunctions.chunk(magnitude, bits, lo, hi);
+			if (u.signum() != 0) {
+				final BigInteger numerator = fixed.signum() < 0 ? u.negate() : u;
+				final int shift = hi;
+				final int terms = BinarySplittingFunctions.terms(u, hi, bits, 1);
+				final BinarySplittingSeries series = new BinarySplittingSeries() {
+					@Override
+					protected BigInteger p(final int n) {
+						return n == 0 ? BigInteger.ONE : numerator;
+					}
+
+					@Override
+					protected BigInteger q(final int n) {
+						return n == 0 ? BigInteger.ONE : BigInteger.valueOf(n).shiftLeft(shift);
+					}
+				};
+				result = result.multiply(series.sum(terms, work, pool), work);
+			}
+		}
+		for (int i = 0; i < halvings; i++) {
+			result = result.multiply(result, work);
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates cos(x) and sin(x) with a few digits more than requested by the math context.
+	 *
+	 * @param x    The angle in radians
+	 * @param mc   The math context defining the required precision
+	 * @param pool The pool to evaluate large series in parallel (can be null)
+	 *
+	 * @return An array holding cos(x) at index 0 and sin(x) at index 1 not yet rounded to the math context
+	 */
+	static BigDecimal[] cosSin(final BigDecimal x, final MathContext mc, final ForkJoinPool pool) {
+		if (x.signum() == 0) {
+			return new BigDecimal[]{BigDecimal.ONE, BigDecimal.ZERO};
+		}
+		final int halvings = BinarySplittingFunctions.halvings(x);
+		// sin(x) is about x for small x so the leading zero bits of x are required as well
+		final int leading = Math.max(0, (int) ((x.scale() - x.precision()) * BinarySplittingFunctions.LOG2_10));
+		final int bits = BinarySplittingFunctions.precisionBits(mc) + 2 * halvings + leading + BinarySplittingFunctions.GUARD_BITS;
+		final MathContext work = BinarySplittingFunctions.workContext(bits);
+		final BigInteger fixed = BinarySplittingFunctions.toFixedPoint(x, halvings, bits);
+		final BigInteger magnitude = fixed.abs();
+		BigDecimal cos = null, sin = null;
+		for (int lo = 0, hi = BinarySplittingFunctions.FIRST_CHUNK_BITS; lo < bits; lo = hi, hi <<= 1) {
+			hi = Math.min(hi, bits);
+			final BigInteger u = BinarySplittingFunctions.chunk(magnitude, bits, lo, hi);
+			if (u.signum() != 0) {
+				final BigInteger numerator = fixed.signum() < 0 ? u.negate() : u;
+				final BigInteger square = u.multiply(u).negate();
+				final int shift = hi;
+				final int terms = BinarySplittingFunctions.terms(u, hi, bits, 2);
+				final BigDecimal chunkCos = new BinarySplittingSeries() {
+					@Override
+					protected BigInteger p(final int n) {
+						return n == 0 ? BigInteger.ONE : square;
+					}
+
+					@Override
+					protected BigInteger q(final int n) {
+						return n == 0 ? BigInteger.ONE : BigInteger.valueOf(2L * n - 1).multiply(BigInteger.valueOf(2L * n)).shiftLeft(2 * shift);
+					}
+				}.sum(terms, work, pool);
+				final BigDecimal chunkSin = new BinarySplittingSeries() {
+					@Override
+					protected BigInteger p(final int n) {
+						return n == 0 ? numerator : square;
+					}
+
+					@Override
+					protected BigInteger q(final int n) {
+						return n == 0 ? BigInteger.ONE.shiftLeft(shift)
+								: BigInteger.valueOf(2L * n).multiply(BigInteger.valueOf(2L * n + 1)).shiftLeft(2 * shift);
+					}
+				}.sum(terms, work, pool);
+				if (cos == null) {
+					cos = chunkCos;
+					sin = chunkSin;
+				} else {
+					final BigDecimal temp = cos.multiply(chunkCos, work).subtract(sin.multiply(chunkSin, work), work);
+					sin = sin.multiply(chunkCos, work).add(cos.multiply(chunkSin, work), work);
+					cos = temp;
+				}
+			}
+		}
+		if (cos == null) {
+			// x is below the resolution of the fixed point number
+			return new BigDecimal[]{BigDecimal.ONE, x};
+		}
+		for (int i = 0; i < halvings; i++) {
+			final BigDecimal temp = cos.multiply(cos, work).subtract(sin.multiply(sin, work), work);
+			sin = sin.multiply(cos, work).multiply(BinarySplittingFunctions.TWO);
+			cos = temp;
+		}
+		return new BigDecimal[]{cos, sin};
+	}
+
+	/**
+	 * The number of times x needs to be halved to get below one.
+	 */
+	private static int halvings(final BigDecimal x) {
+		final BigInteger integral = x.abs().toBigInteger();
+		return integral.signum() == 0 ? 0 : integral.bitLength();
+	}
+
+	private static int precisionBits(final MathContext mc) {
+		if (mc.getPrecision() == 0) {
+			throw new ArithmeticException("An irational result requires a limited precision"); //$NON-NLS-1$
+		}
+		return (int) Math.ceil(mc.getPrecision() * BinarySplittingFunctions.LOG2_10);
+	}
+
+	private static MathContext workContext(final int bits) {
+		return new MathContext((int) Math.ceil(bits / BinarySplittingFunctions.LOG2_10) + 2, RoundingMode.HALF_EVEN);
+	}
+
+	/**
+	 * Returns x / 2<sup>halvings</sup> as fixed point number with the given amount of fractional bits (truncated).
+	 */
+	private static BigInteger toFixedPoint(final BigDecimal x, final int halvings, final int bits) {
+		return x.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(bits - halvings))).setScale(0, RoundingMode.DOWN).toBigInteger();
+	}
+
+	/**
+	 * Returns the fractional bits lo (exclusive) to hi (inclusive) of the fixed point number as integer so the chunk
+	 * value is the result divided by 2<sup>hi</sup>.
+	 */
+	private static BigInteger chunk(final BigInteger magnitude, final int bits, final int lo, final int hi) {
+		return magnitude.shiftRight(bits - hi).and(BigInteger.ONE.shiftLeft(hi - lo).subtract(BigInteger.ONE));
+	}
+
+	/**
+	 * Estimates the number of terms required until the terms y<sup>step * n</sup> / (step * n)! drop below
+	 * 2<sup>-bits</sup> for y = u / 2<sup>hi</sup>.
+	 */
+	private static int terms(final BigInteger u, final int hi, final int bits, final int step) {
+		final double log2y = u.bitLength() - hi;
+		double log2Term = 0.0;
+		int k = 0;
+		while (log2Term > -bits - 2) {
+			k++;
+			log2Term += log2y - Math.log(k) / Math.log(2);
+		}
+		return k / step + 2;
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a hypergeometric like series with binary splitting on {@link BigInteger} values. <p> The series has the
+ * form S = &sum; a(n) * p(0) * &hellip; * p(n) / (q(0) * &hellip; * q(n)) for n = 0 &hellip; N - 1. Instead of summing
+ * up the terms one by one with a full precision division each, the range of terms is split in halves recursively and
+ * the partial products P, Q and the partial sum T of both halves are combined with integer multiplications only. The
+ * only division happens at the very end. Since the sizes of the numbers in both halves are balanced the cost is
+ * dominated by a few large multiplications instead of N full precision divisions. </p> <p> If a {@link ForkJoinPool}
+ * is given ranges with at least {@link #PARALLEL_THRESHOLD} terms evaluate their halves in parallel. </p> <p> The
+ * algorithm strategies based on a series take the pool on construction. Their default constructor uses the {@link
+ * ForkJoinPool#commonPool() common pool} and a null pool always calculates in the calling thread. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public abstract class BinarySplittingSeries {
+	/**
+	 * The minimum number of terms in a range before its halves are evaluated in parallel.
+	 */
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	/**
+	 * Returns the numerator of the ratio of term n to term n - 1 (for n = 0 the numerator of the first term).
+	 *
+	 * @param n The term index
+	 *
+	 * @return The numerator p(n)
+	 */
+	protected abstract BigInteger p(int n);
+
+	/**
+	 * Returns the denominator of the ratio of term n to term n - 1 (for n = 0 the denominator of the first term).
+	 *
+	 * @param n The term index
+	 *
+	 * @return The denominator q(n)
+	 */
+	protected abstract BigInteger q(int n);
+
+	/**
+	 * Returns the additional factor of term n. The default is one.
+	 *
+	 * @param n The term index
+	 *
+	 * @return The factor a(n)
+	 */
+	protected BigInteger a(final int n) {
+		return BigInteger.ONE;
+	}
+
+	/**
+	 * Sums up the first terms of the series and divides the result with the given math context.
+	 *
+	 * @param terms The number of terms to sum up
+	 * @param mc    The math context for the final division
+	 * @param pool  The pool to evaluate large ranges in parallel (null to evaluate sequential)
+	 *
+	 * @return The sum of the first terms
+	 */
+	public BigDecimal sum(final int terms, final MathContext mc, final ForkJoinPool pool) {
+		final Split result = split(terms, pool);
+		return new BigDecimal(result.t).divide(new BigDecimal(result.q), mc);
+	}
+
+	/**
+	 * Evaluates the first terms of the series returning the exact partial values.
+	 *
+	 * @param terms The number of terms (must be at least one)
+	 * @param pool  The pool to evaluate large ranges in parallel (null to evaluate sequential)
+	 *
+	 * @return The partial products and sum with the series sum being T / Q
+	 */
+	public Split split(final int terms, final ForkJoinPool pool) {
+		if (terms < 1) {
+			throw new IllegalArgumentException("At least one term needs to be evaluated"); //$NON-NLS-1$
+		}
+		if (pool != null && terms >= BinarySplittingSeries.PARALLEL_THRESHOLD) {
+			return pool.invoke(new SplitTask(0, terms));
+		}
+		return evaluate(0, terms);
+	}
+
+	private Split evaluate(final int from, final int to) {
+		if (to - from == 1) {
+			return leaf(from);
+		}
+		final int middle = (from + to) >>> 1;
+		return evaluate(from, middle).combine(evaluate(middle, to));
+	}
+
+	private Split leaf(final int n) {
+		final BigInteger p = p(n);
+		final BigInteger a = a(n);
+		return new Split(p, q(n), a == BigInteger.ONE ? p : a.multiply(p));
+	}
+
+	/**
+	 * The exact partial result of a range of terms [from, to). P and Q are the products of p(n) and q(n) over the range
+	 * and T / Q is the sum of the range relative to the term before the range.
+	 */
+	public static final class Split {
+		private final BigInteger p;
+		private final BigInteger q;
+		private final BigInteger t;
+
+		Split(final BigInteger p, final BigInteger q, final BigInteger t) {
+			this.p = p;
+			this.q = q;
+			this.t = t;
+		}
+
+		public BigInteger getP() {
+			return this.p;
+		}
+
+		public BigInteger getQ() {
+			return this.q;
+		}
+
+		public BigInteger getT() {
+			return this.t;
+		}
+
+		Split combine(final Split right) {
+			return new Split(this.p.multiply(right.p), this.q.multiply(right.q), right.q.multiply(this.t).add(this.p.multiply(right.t)));
+		}
+	}
+
+	private final class SplitTask extends RecursiveTask<Split> {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+
+		SplitTask(final int from, final int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Split compute() {
+			if (this.to - this.from < BinarySplittingSeries.PARALLEL_THRESHOLD) {
+				return evaluate(this.from, this.to);
+			}
+			final int middle = (this.from + this.to) >>> 1;
+			final SplitTask right = new SplitTask(middle, this.to);
+			right.fork();
+			final Split left = new SplitTask(this.from, middle).compute();
+			return left.combine(right.join());
+		}
+	}
+}
@@ -27,13 +27,32 @@ import org.jbasics.math.AlgorithmStrategy;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Calculates the cosine with its tayler series evaluated by binary splitting (see {@link BinarySplittingSeries}).
+ *
+ * @author Stephan Schloepke
+ * @since 1.0
+ */
 public class CosineAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
+	private final ForkJoinPool pool;
+
+	public CosineAlgorithmStrategy() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool for large series (see {@link BinarySplittingSeries})
+	 */
+	public CosineAlgorithmStrategy(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
 
 	public BigDecimal calculate(MathContext mc, BigDecimal guess, BigDecimal... xn) {
 		if (xn == null || xn.length != 1) {
 			throw new IllegalArgumentException("cosine requires exactly one argument cos(x) but supplied was " + (xn == null ? 0 : xn.length));
 		}
-		return BigDecimal.valueOf(Math.cos(xn[0].doubleValue())).round(mc);
+		return BinarySplittingFunctions.cosSin(xn[0], mc, this.pool)[0].round(mc);
 	}
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.math.AlgorithmStrategy;
+import org.jbasics.math.impl.MathImplConstants;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Reduces the argument of the exponential function by multiples of ln(2) before calculating the series. <p> The
+ * argument is written as x = k * ln(2) + r with |r| &lt;= ln(2)/2 so e<sup>x</sup> = 2<sup>k</sup> * e<sup>r</sup>.
+ * The series is only evaluated for the small r and 2<sup>k</sup> is a power of two. ln(2) and 1/ln(2) are taken from a
+ * shared table of reduction constants with a precision grown by the integer digits of x. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class ExponentialReductionAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
+	private static final int GUARD_DIGITS = 10;
+	private static final BigDecimal HALF_LN2_BOUND = new BigDecimal("0.35");
+	private static final int MAX_POW_EXPONENT = 999999999;
+
+	private final AlgorithmStrategy<BigDecimal> exponential;
+
+	public ExponentialReductionAlgorithmStrategy() {
+		this(new ExponentialTaylerAlgorithmStrategy());
+	}
+
+	public ExponentialReductionAlgorithmStrategy(final AlgorithmStrategy<BigDecimal> exponential) {
+		this.exponential = ContractCheck.mustNotBeNull(exponential, "exponential"); //$NON-NLS-1$
+	}
+
+	@Override
+	public BigDecimal calculate(final MathContext mc, final BigDecimal guess, final BigDecimal... xn) {
+		if (xn == null || xn.length == 0) {
+			throw new IllegalArgumentException("must supply x as input (the xn array must contain one x)");
+		}
+		final BigDecimal x = xn[0];
+		if (x.abs().compareTo(ExponentialReductionAlgorithmStrategy.HALF_LN2_BOUND) <= 0) {
+			return this.exponential.calculate(mc, null, x);
+		}
+		final int magnitude = Math.max(0, x.precision() - x.scale());
+		final int precision = mc.getPrecision() + magnitude + ExponentialReductionAlgorithmStrategy.GUARD_DIGITS;
+		final BigDecimal[] constants = ReductionConstants.ln2(precision);
+		final BigInteger k = x.multiply(constants[1], new MathContext(magnitude + 5, RoundingMode.HALF_EVEN)).setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+		if (k.bitLength() > Long.SIZE - 2) {
+			throw ExponentialReductionAlgorithmStrategy.exponentOverflow(x, null);
+		}
+		final BigDecimal r = x.subtract(constants[0].round(new MathContext(precision, RoundingMode.HALF_EVEN)).multiply(new BigDecimal(k)));
+		final MathContext work = new MathContext(mc.getPrecision() + ExponentialReductionAlgorithmStrategy.GUARD_DIGITS, RoundingMode.HALF_EVEN);
+		try {
+			return this.exponential.calculate(work, null, r).multiply(ExponentialReductionAlgorithmStrategy.powerOfTwo(k.longValue(), work), mc);
+		} catch (final ArithmeticException e) {
+			throw ExponentialReductionAlgorithmStrategy.exponentOverflow(x, e);
+		}
+	}
+
+	/**
+	 * Calculates 2<sup>k</sup> in stages of at most {@link #MAX_POW_EXPONENT} since {@link BigDecimal#pow(int,
+	 * MathContext)} only accepts exponents up to that size. BigDecimal throws an {@link ArithmeticException} once the
+	 * scale of the result leaves the int range.
+	 */
+	private static BigDecimal powerOfTwo(final long k, final MathContext mc) {
+		final int step = k < 0 ? -ExponentialReductionAlgorithmStrategy.MAX_POW_EXPONENT : ExponentialReductionAlgorithmStrategy.MAX_POW_EXPONENT;
+		long remaining = k;
+		BigDecimal result = BigDecimal.ONE;
+		BigDecimal stepPower = null;
+		while (Math.abs(remaining) > ExponentialReductionAlgorithmStrategy.MAX_POW_EXPONENT) {
+			if (stepPower == null) {
+				stepPower = MathImplConstants.TWO.pow(step, mc);
+			}
+			result = result.multiply(stepPower, mc);
+			remaining -= step;
+		}
+		return result.multiply(MathImplConstants.TWO.pow((int) remaining, mc), mc);
+	}
+
+	private static ArithmeticException exponentOverflow(final BigDecimal x, final ArithmeticException cause) {
+		final ArithmeticException result = new ArithmeticException("e^" + x + " exceeds the exponent range of BigDecimal"); //$NON-NLS-1$
+		if (cause != null) {
+			result.initCause(cause);
+		}
+		return result;
+	}
+}
@@ -24,15 +24,33 @@
 package org.jbasics.math.strategies;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.math.MathContext;
-import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
 
 import org.jbasics.math.AlgorithmStrategy;
 
+/**
+ * Calculates e<sup>x</sup> with the tayler series evaluated by binary splitting (see {@link BinarySplittingSeries}).
+ *
+ * @author Stephan Schloepke
+ * @since 1.0
+ */
 public class ExponentialTaylerAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
 	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new ExponentialTaylerAlgorithmStrategy();
 
+	private final ForkJoinPool pool;
+
+	public ExponentialTaylerAlgorithmStrategy() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool for large series (see {@link BinarySplittingSeries})
+	 */
+	public ExponentialTaylerAlgorithmStrategy(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
 	public BigDecimal calculate(MathContext mc, BigDecimal guess, BigDecimal... xn) {
 		if (xn == null || xn.length == 0) {
 			throw new IllegalArgumentException("must supply x as input (the xn array must contain one x)");
@@ -41,30 +59,6 @@ public class ExponentialTaylerAlgorithmStrategy implements AlgorithmStrategy<Big
 		if (x.signum() == 0) {
 			return BigDecimal.ONE;
 		}
-		int scale = (int) Math.ceil(Math.sqrt((mc.getPrecision() + 10) * Math.log(10) / Math.log(2)));
-		if (x.abs().compareTo(BigDecimal.ONE) > 0) {
-			BigInteger temp = x.unscaledValue();
-			int scale2 = (int) (x.scale() * (Math.log(10) / Math.log(2))) + 1;
-			int precis2 = temp.bitLength();
-			scale = scale + precis2 - scale2;
-		} else {
-			scale = scale + ((int) (x.scale() * (Math.log(10) / Math.log(2))));
-		}
-		BigDecimal xScaled = x.divide(new BigDecimal(BigInteger.ONE.shiftLeft(scale)));
-		MathContext calcContext = new MathContext(mc.getPrecision() + (int) Math.ceil(scale * Math.log10(2)) + 1, RoundingMode.HALF_EVEN);
-		BigInteger k = BigInteger.ONE;
-		int n = 1;
-		BigDecimal xPower = BigDecimal.ONE;
-		BigDecimal result = BigDecimal.ONE;
-		do {
-			xPower = xPower.multiply(xScaled, calcContext);
-			result = result.multiply(BigDecimal.valueOf(n)).add(xPower);
-			k = k.multiply(BigInteger.valueOf(n++));
-		} while (calcContext.getPrecision() - xPower.scale() + xPower.precision() > 0);
-		result = result.round(calcContext).divide(new BigDecimal(k), calcContext);
-		for (int i = scale; i > 0; i--) {
-			result = result.multiply(result, calcContext);
-		}
-		return result.round(mc);
+		return BinarySplittingFunctions.exp(x, mc, this.pool).round(mc);
 	}
 }
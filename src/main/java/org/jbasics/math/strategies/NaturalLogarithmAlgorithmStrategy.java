@@ -52,6 +52,11 @@ public class NaturalLogarithmAlgorithmStrategy implements AlgorithmStrategy<BigD
 			return BigDecimal.ZERO;
 		}
 		BigDecimal result = guess != null ? guess : BigDecimal.valueOf(Math.log(Math.max(x.doubleValue(), Double.MIN_NORMAL)));
+		// Newton doubles the correct digits each step so only the last steps need to run with the full precision
+		for (int precision = Math.max(16, Math.min(result.precision(), mc.getPrecision()) * 2); precision < mc.getPrecision(); precision *= 2) {
+			final MathContext stepContext = new MathContext(precision, mc.getRoundingMode());
+			result = result.add(this.exponentialFunction.calculate(stepContext, null, result.negate()).multiply(x, stepContext).subtract(BigDecimal.ONE));
+		}
 		BigDecimal oldResult;
 		BigDecimal diff = null, oldDiff = null;
 		do {
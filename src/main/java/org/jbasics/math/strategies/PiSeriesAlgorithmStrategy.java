@@ -24,37 +24,69 @@
 package org.jbasics.math.strategies;
 
 import org.jbasics.math.AlgorithmStrategy;
-import org.jbasics.math.BigRational;
-import org.jbasics.math.impl.Faculty;
 import org.jbasics.math.impl.SquareRootIrationalNumber;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Calculates PI with the series of Ramanujan 1/&pi; = 2&radic;2/9801 &sum; (4k)!(1103+26390k) / ((k!)<sup>4</sup>
+ * 396<sup>4k</sup>) evaluated by binary splitting (see {@link BinarySplittingSeries}). Each term adds about eight
+ * digits.
+ *
+ * @author Stephan Schloepke
+ * @since 1.0
+ */
 public class PiSeriesAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
 	public static final AlgorithmStrategy<BigDecimal> STRATEGY = new PiSeriesAlgorithmStrategy();
 
 	private static final BigDecimal END_CONSTANT = new BigDecimal("4900.5");
 	private static final BigInteger C1 = BigInteger.valueOf(1103);
 	private static final BigInteger C2 = BigInteger.valueOf(26390);
-	private static final BigInteger C3 = BigInteger.valueOf(396);
+	private static final BigInteger C3_POW4 = BigInteger.valueOf(396).pow(4);
+	private static final BinarySplittingSeries SERIES = new BinarySplittingSeries() {
+		@Override
+		protected BigInteger p(final int n) {
+			if (n == 0) {
+				return BigInteger.ONE;
+			}
+			final long k4 = 4L * n;
+			return BigInteger.valueOf((k4 - 3) * (k4 - 2)).multiply(BigInteger.valueOf((k4 - 1) * k4));
+		}
+
+		@Override
+		protected BigInteger q(final int n) {
+			return n == 0 ? BigInteger.ONE : BigInteger.valueOf(n).pow(4).multiply(PiSeriesAlgorithmStrategy.C3_POW4);
+		}
+
+		@Override
+		protected BigInteger a(final int n) {
+			return PiSeriesAlgorithmStrategy.C1.add(PiSeriesAlgorithmStrategy.C2.multiply(BigInteger.valueOf(n)));
+		}
+	};
+
+	private final ForkJoinPool pool;
+
+	public PiSeriesAlgorithmStrategy() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool for large series (see {@link BinarySplittingSeries})
+	 */
+	public PiSeriesAlgorithmStrategy(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
 
 	public BigDecimal calculate(MathContext mcOut, BigDecimal guess, BigDecimal... xn) {
 		MathContext mc = new MathContext(mcOut.getPrecision() + 2, RoundingMode.HALF_EVEN);
-		Faculty k4 = new Faculty(4);
-		Faculty k = new Faculty();
-		BigInteger c2k = C2.negate();
-		BigRational temp = BigRational.ZERO;
 		int max = (mcOut.getPrecision() + 8) / 8 + 3;
-		for (int i = 0; i < max; i++) {
-			BigInteger numerator = k4.next().multiply(C1.add(c2k = c2k.add(C2)));
-			BigInteger denominator = k.next().pow(4).multiply(C3.pow(4 * i));
-			temp = temp.add(new BigRational(numerator, denominator));
-		}
-		BigDecimal pi = temp.reciprocal().decimalValue(mc).multiply(
-				END_CONSTANT.divide(SquareRootIrationalNumber.SQUARE_ROOT_OF_2.valueToPrecision(mc), mc), mc);
+		BinarySplittingSeries.Split sum = SERIES.split(max, this.pool);
+		BigDecimal pi = new BigDecimal(sum.getQ()).multiply(END_CONSTANT).divide(
+				new BigDecimal(sum.getT()).multiply(SquareRootIrationalNumber.SQUARE_ROOT_OF_2.valueToPrecision(mc)), mc);
 		if (xn == null || xn.length == 0) {
 			return pi.round(mcOut);
 		} else {
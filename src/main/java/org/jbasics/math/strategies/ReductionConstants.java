@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import org.jbasics.math.IrationalNumber;
+import org.jbasics.math.impl.LogNaturalFunctionIrationalNumber;
+import org.jbasics.math.impl.MathImplConstants;
+import org.jbasics.math.impl.PiIrationalNumber;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Table of the constants used to reduce the arguments of periodic and exponential functions. Each entry holds the
+ * constant and its reciprocal (so the quotient can be estimated with a multiplication) to the highest precision
+ * requested so far. The constants are derived from {@link PiIrationalNumber#PI} and {@link
+ * LogNaturalFunctionIrationalNumber#LN2} which memorize their values themselves.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class ReductionConstants {
+	private static final AtomicReference<BigDecimal[]> HALF_PI = new AtomicReference<BigDecimal[]>();
+	private static final AtomicReference<BigDecimal[]> LN2 = new AtomicReference<BigDecimal[]>();
+
+	private ReductionConstants() {
+		// no instances
+	}
+
+	/**
+	 * Returns pi/2 and 2/pi with at least the given precision.
+	 *
+	 * @param precision The required precision
+	 *
+	 * @return An array with pi/2 at index 0 and 2/pi at index 1
+	 */
+	static BigDecimal[] halfPi(final int precision) {
+		return ReductionConstants.lookup(ReductionConstants.HALF_PI, PiIrationalNumber.PI, MathImplConstants.HALF, precision);
+	}
+
+	/**
+	 * Returns ln(2) and 1/ln(2) with at least the given precision.
+	 *
+	 * @param precision The required precision
+	 *
+	 * @return An array with ln(2) at index 0 and 1/ln(2) at index 1
+	 */
+	static BigDecimal[] ln2(final int precision) {
+		return ReductionConstants.lookup(ReductionConstants.LN2, LogNaturalFunctionIrationalNumber.LN2, BigDecimal.ONE, precision);
+	}
+
+	private static BigDecimal[] lookup(final AtomicReference<BigDecimal[]> entry, final IrationalNumber<BigDecimal> constant,
+									   final BigDecimal factor, final int precision) {
+		final BigDecimal[] cached = entry.get();
+		if (cached != null && cached[0].precision() >= precision) {
+			return cached;
+		}
+		final MathContext mc = new MathContext(precision, RoundingMode.HALF_EVEN);
+		final BigDecimal value = constant.valueToPrecision(mc).multiply(factor);
+		final BigDecimal[] result = new BigDecimal[]{value, BigDecimal.ONE.divide(value, mc)};
+		BigDecimal[] current;
+		do {
+			current = entry.get();
+		} while ((current == null || current[0].precision() < precision) && !entry.compareAndSet(current, result));
+		return result;
+	}
+}
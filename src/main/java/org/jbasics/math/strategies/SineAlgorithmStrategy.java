@@ -27,13 +27,32 @@ import org.jbasics.math.AlgorithmStrategy;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Calculates the sine with its tayler series evaluated by binary splitting (see {@link BinarySplittingSeries}).
+ *
+ * @author Stephan Schloepke
+ * @since 1.0
+ */
 public class SineAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
+	private final ForkJoinPool pool;
+
+	public SineAlgorithmStrategy() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool for large series (see {@link BinarySplittingSeries})
+	 */
+	public SineAlgorithmStrategy(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
 
 	public BigDecimal calculate(MathContext mc, BigDecimal guess, BigDecimal... xn) {
 		if (xn == null || xn.length != 1) {
 			throw new IllegalArgumentException("sine requires exactly one argument sin(x) but supplied was " + (xn == null ? 0 : xn.length));
 		}
-		return BigDecimal.valueOf(Math.sin(xn[0].doubleValue())).round(mc);
+		return BinarySplittingFunctions.cosSin(xn[0], mc, this.pool)[1].round(mc);
 	}
 }
@@ -27,13 +27,34 @@ import org.jbasics.math.AlgorithmStrategy;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Calculates the tangent as sin(x) / cos(x) with both evaluated by binary splitting (see {@link
+ * BinarySplittingSeries}).
+ *
+ * @author Stephan Schloepke
+ * @since 1.0
+ */
 public class TangentAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
+	private final ForkJoinPool pool;
+
+	public TangentAlgorithmStrategy() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool for large series (see {@link BinarySplittingSeries})
+	 */
+	public TangentAlgorithmStrategy(final ForkJoinPool pool) {
+		this.pool = pool;
+	}
 
 	public BigDecimal calculate(MathContext mc, BigDecimal guess, BigDecimal... xn) {
 		if (xn == null || xn.length != 1) {
 			throw new IllegalArgumentException("tangent requires exactly one argument tan(x) but supplied was " + (xn == null ? 0 : xn.length));
 		}
-		return BigDecimal.valueOf(Math.tan(xn[0].doubleValue())).round(mc);
+		final BigDecimal[] cosSin = BinarySplittingFunctions.cosSin(xn[0], mc, this.pool);
+		return cosSin[1].divide(cosSin[0], mc);
 	}
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.math.AlgorithmStrategy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Reduces the argument of sine, cosine and tangent to the range [-pi/4, pi/4] before calculating the function with the
+ * series strategies. <p> The argument is written as x = k * pi/2 + r. Depending on the quadrant k mod 4 the result is
+ * the sine or cosine of r with the matching sign (the tangent or the negative cotangent of r for the tangent). So the
+ * series always converge as fast as for small arguments. The required precision of pi/2 grows with the number of
+ * integer digits of x and with the digits cancelled if x is close to a multiple of pi/2. pi/2 and 2/pi are taken from
+ * a shared table of reduction constants. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class TrigonometricReductionAlgorithmStrategy implements AlgorithmStrategy<BigDecimal> {
+	private static final int GUARD_DIGITS = 10;
+	private static final BigDecimal QUARTER_PI_BOUND = new BigDecimal("0.785");
+
+	private final Function function;
+	private final AlgorithmStrategy<BigDecimal> sine;
+	private final AlgorithmStrategy<BigDecimal> cosine;
+	private final AlgorithmStrategy<BigDecimal> tangent;
+
+	public TrigonometricReductionAlgorithmStrategy(final Function function) {
+		this(function, new SineAlgorithmStrategy(), new CosineAlgorithmStrategy(), new TangentAlgorithmStrategy());
+	}
+
+	public TrigonometricReductionAlgorithmStrategy(final Function function, final AlgorithmStrategy<BigDecimal> sine,
+												   final AlgorithmStrategy<BigDecimal> cosine, final AlgorithmStrategy<BigDecimal> tangent) {
+		this.function = ContractCheck.mustNotBeNull(function, "function"); //$NON-NLS-1$
+		this.sine = ContractCheck.mustNotBeNull(sine, "sine"); //$NON-NLS-1$
+		this.cosine = ContractCheck.mustNotBeNull(cosine, "cosine"); //$NON-NLS-1$
+		this.tangent = ContractCheck.mustNotBeNull(tangent, "tangent"); //$NON-NLS-1$
+	}
+
+	@Override
+	public BigDecimal calculate(final MathContext mc, final BigDecimal guess, final BigDecimal... xn) {
+		if (xn == null || xn.length != 1) {
+			throw new IllegalArgumentException("Illegal amount of arguments supplied (required 1, got " + (xn == null ? 0 : xn.length) + ")");
+		}
+		final BigDecimal x = xn[0];
+		if (x.abs().compareTo(TrigonometricReductionAlgorithmStrategy.QUARTER_PI_BOUND) <= 0) {
+			return evaluate(0, x, mc);
+		}
+		final int magnitude = Math.max(0, x.precision() - x.scale());
+		int extra = 0;
+		while (true) {
+			final int precision = mc.getPrecision() + magnitude + TrigonometricReductionAlgorithmStrategy.GUARD_DIGITS + extra;
+			final BigDecimal[] constants = ReductionConstants.halfPi(precision);
+			final BigDecimal halfPi = constants[0].round(new MathContext(precision, RoundingMode.HALF_EVEN));
+			final BigInteger k = x.multiply(constants[1], new MathContext(magnitude + 5, RoundingMode.HALF_EVEN))
+					.setScale(0, RoundingMode.HALF_EVEN).toBigInteger();
+			final BigDecimal r = x.subtract(halfPi.multiply(new BigDecimal(k)));
+			// the digits cancelled by the subtraction need to be added to the precision of pi/2
+			final int cancelled = r.signum() == 0 ? mc.getPrecision() : r.scale() - r.precision();
+			if (cancelled <= extra) {
+				final MathContext work = new MathContext(mc.getPrecision() + TrigonometricReductionAlgorithmStrategy.GUARD_DIGITS, mc.getRoundingMode());
+				return evaluate(k.intValue() & 3, r, work).round(mc);
+			}
+			extra = cancelled + 2;
+		}
+	}
+
+	private BigDecimal evaluate(final int quadrant, final BigDecimal r, final MathContext mc) {
+		switch (this.function) {
+			case SINE:
+				switch (quadrant) {
+					case 0:
+						return this.sine.calculate(mc, null, r);
+					case 1:
+						return this.cosine.calculate(mc, null, r);
+					case 2:
+						return this.sine.calculate(mc, null, r).negate();
+					default:
+						return this.cosine.calculate(mc, null, r).negate();
+				}
+			case COSINE:
+				switch (quadrant) {
+					case 0:
+						return this.cosine.calculate(mc, null, r);
+					case 1:
+						return this.sine.calculate(mc, null, r).negate();
+					case 2:
+						return this.cosine.calculate(mc, null, r).negate();
+					default:
+						return this.sine.calculate(mc, null, r);
+				}
+			default:
+				final BigDecimal temp = this.tangent.calculate(mc, null, r);
+				if ((quadrant & 1) == 0) {
+					return temp;
+				} else if (temp.signum() == 0) {
+					throw new ArithmeticException("Tangent is undefined at odd multiples of pi/2"); //$NON-NLS-1$
+				}
+				return BigDecimal.ONE.divide(temp, mc).negate();
+		}
+	}
+
+	/**
+	 * The trigonometric function calculated.
+	 */
+	public enum Function {
+		SINE, COSINE, TANGENT
+	}
+}
@@ -27,6 +27,7 @@ import org.jbasics.parser.annotations.*;
 import org.jbasics.parser.invoker.AttributeInvoker;
 import org.jbasics.parser.invoker.ContentInvoker;
 import org.jbasics.parser.invoker.ElementInvoker;
+import org.jbasics.parser.invoker.FactoryInvoker;
 import org.jbasics.parser.invoker.Invoker;
 import org.jbasics.parser.invoker.QualifiedNameInvoker;
 import org.jbasics.pattern.builder.Builder;
@@ -37,12 +38,14 @@ import org.jbasics.types.tuples.Pair;
 
 import javax.xml.namespace.QName;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 @SuppressWarnings("unchecked")
 public class AnnotationScanner {
-//	private final Map<Class<? extends Builder>, ParsingInfo> parsedBuilders = new HashMap<Class<? extends Builder>, ParsingInfo>();
+	// Element types already scanned keyed by the element type and the builder given at the method (if any)
+	private final Map<Pair<Class<?>, Class<?>>, ScannedElement> scannedElements = new HashMap<Pair<Class<?>, Class<?>>, ScannedElement>();
 
 	public Map<QName, ParsingInfo> scan(Class<?>... root) {
 		if (root == null || root.length == 0) {
@@ -79,27 +82,26 @@ public class AnnotationScanner {
 
 	private <T> ParsingInfoBuilder scan(ParsingInfoBuilder builder, Class<T> implClass) {
 		ElementBuilder temp = implClass.getAnnotation(ElementBuilder.class);
-		Class<? extends Builder> builderType;
-		Factory<? extends Builder> factory;
+		Class<? extends Builder<?>> builderType;
+		Factory<? extends Builder<?>> factory;
 		if (temp != null) {
 			builderType = temp.value();
-			factory = ReflectionFactory.create(builderType);
+			factory = compileFactory(builderType, ReflectionFactory.DEFAULT_FACTORY_METHOD_NAME, builderType);
 		} else {
-			ReflectionBuilderFactory<T> tempFactory = ReflectionBuilderFactory.createFactory(implClass);
-			builderType = tempFactory.getBuilderClass();
-			factory = tempFactory;
+			builderType = getBuilderClass(implClass);
+			factory = compileFactory(implClass, ReflectionBuilderFactory.BUILDER_FACTORY_METHOD_NAME, builderType);
 		}
 		return scanType(builder, builderType, factory);
 	}
 
-	private ParsingInfoBuilder scanType(ParsingInfoBuilder builder, Class<? extends Builder> builderType,
-										Factory<? extends Builder> builderFactory) {
+	private ParsingInfoBuilder scanType(ParsingInfoBuilder builder, Class<? extends Builder<?>> builderType,
+										Factory<? extends Builder<?>> builderFactory) {
 		assert builderType != null;
 		builder.setBuilderType(builderType);
 		if (builderFactory != null) {
 			builder.setBuilderFactory(builderFactory);
 		} else {
-			builder.setBuilderFactory(ReflectionFactory.create(builderType));
+			builder.setBuilderFactory(compileFactory(builderType, ReflectionFactory.DEFAULT_FACTORY_METHOD_NAME, builderType));
 		}
 		for (Method m : builderType.getMethods()) {
 			QualifiedName qualifiedName = m.getAnnotation(QualifiedName.class);
@@ -170,30 +172,38 @@ public class AnnotationScanner {
 		// return type would be the builder class
 		// 2. Annotate the builder class at the instance type with a BuilderAnnotation
 		// 3. Annotate the builder in the element description
-		Class<? extends Builder> subBuilderType = null;
-		Factory<? extends Builder> subBuilderFactory = null;
-		try {
-			ElementBuilder temp = m.getAnnotation(ElementBuilder.class);
-			if (temp == null) {
-				temp = type.getAnnotation(ElementBuilder.class);
+		ElementBuilder methodBuilder = m.getAnnotation(ElementBuilder.class);
+		Pair<Class<?>, Class<?>> scannedKey = new Pair<Class<?>, Class<?>>(type, methodBuilder != null ? methodBuilder.value() : null);
+		ScannedElement scanned = this.scannedElements.get(scannedKey);
+		if (scanned == null) {
+			Class<? extends Builder<?>> subBuilderType = null;
+			Factory<? extends Builder<?>> subBuilderFactory = null;
+			try {
+				ElementBuilder temp = methodBuilder;
+				if (temp == null) {
+					temp = type.getAnnotation(ElementBuilder.class);
+				}
+				if (temp != null) {
+					subBuilderType = temp.value();
+					subBuilderFactory = compileFactory(subBuilderType, ReflectionFactory.DEFAULT_FACTORY_METHOD_NAME, subBuilderType);
+				} else {
+					subBuilderType = getBuilderClass(type);
+					subBuilderFactory = compileFactory(type, ReflectionBuilderFactory.BUILDER_FACTORY_METHOD_NAME, subBuilderType);
+				}
+			} catch (RuntimeException e) {
+				subBuilderType = (Class<? extends Builder<?>>) (Class<?>) SimpleTypeBuilder.class;
+				subBuilderFactory = SimpleTypeBuilder.BuilderFactory.createFactory(type);
 			}
-			if (temp != null) {
-				subBuilderType = temp.value();
-				subBuilderFactory = ReflectionFactory.create(subBuilderType);
+			if (subBuilderType == builder.getBuilderType()) {
+				scanned = new ScannedElement(subBuilderType, ParsingInfo.SELF);
 			} else {
-				ReflectionBuilderFactory<?> tempFactory = ReflectionBuilderFactory.createFactory(type);
-				subBuilderType = tempFactory.getBuilderClass();
-				subBuilderFactory = tempFactory;
+				scanned = new ScannedElement(subBuilderType, scanType(new ParsingInfoBuilder(), subBuilderType, subBuilderFactory).build());
+				this.scannedElements.put(scannedKey, scanned);
 			}
-		} catch (RuntimeException e) {
-			subBuilderType = SimpleTypeBuilder.class;
-			subBuilderFactory = SimpleTypeBuilder.BuilderFactory.createFactory(type);
 		}
-		ParsingInfo subInfo = null;
-		if (subBuilderType == builder.getBuilderType()) {
+		ParsingInfo subInfo = scanned.info;
+		if (scanned.builderType == builder.getBuilderType()) {
 			subInfo = ParsingInfo.SELF;
-		} else {
-			subInfo = scanType(new ParsingInfoBuilder(), subBuilderType, subBuilderFactory).build();
 		}
 		// TODO: The builderType cannot be right here can it? It should be the builder on which the
 		// element to add right? That however is another
@@ -210,6 +220,16 @@ public class AnnotationScanner {
 		return builder;
 	}
 
+	private Class<? extends Builder<?>> getBuilderClass(Class<?> type) {
+		return (Class<? extends Builder<?>>) ReflectionBuilderFactory.createFactory(type).getBuilderClass();
+	}
+
+	private Factory<? extends Builder<?>> compileFactory(Class<?> declaringType, String factoryMethodName,
+														 Class<? extends Builder<?>> builderType) {
+		// Builders are created for every element so we call the factory through a compiled call site
+		return FactoryInvoker.createFactory(declaringType, factoryMethodName, builderType);
+	}
+
 	private boolean isMoreThanNotNull(Object... elements) {
 		boolean foundOne = false;
 		for (Object temp : elements) {
@@ -223,4 +243,14 @@ public class AnnotationScanner {
 		}
 		return false;
 	}
+
+	private static final class ScannedElement {
+		private final Class<?> builderType;
+		private final ParsingInfo info;
+
+		private ScannedElement(final Class<?> builderType, final ParsingInfo info) {
+			this.builderType = builderType;
+			this.info = info;
+		}
+	}
 }
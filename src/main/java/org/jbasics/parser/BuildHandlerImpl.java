@@ -32,11 +32,23 @@ import javax.xml.namespace.QName;
 
 @SuppressWarnings("unchecked")
 public class BuildHandlerImpl implements BuildHandler {
+	private final QName elementName;
 	private final ParsingInfo parsingInfo;
+	private final Invoker<Builder<?>, Object> parentInvoker;
 	private final Builder<?> builder;
 
 	public BuildHandlerImpl(QName elementName, ParsingInfo parsingInfo) {
+		this(elementName, parsingInfo, null);
+	}
+
+	/**
+	 * Creates the handler with the invoker of the parent already resolved when the element started so the result
+	 * can be added without looking it up again.
+	 */
+	public BuildHandlerImpl(QName elementName, ParsingInfo parsingInfo, Invoker<?, ?> parentInvoker) {
+		this.elementName = elementName;
 		this.parsingInfo = ContractCheck.mustNotBeNull(parsingInfo, "parsingInfo");
+		this.parentInvoker = (Invoker<Builder<?>, Object>) parentInvoker;
 		this.builder = this.parsingInfo.getBuilderFactory().newInstance();
 		Invoker<Builder<?>, QName> temp = (Invoker<Builder<?>, QName>) this.parsingInfo.getQualifiedNameInvoker();
 		if (temp != null) {
@@ -44,6 +56,10 @@ public class BuildHandlerImpl implements BuildHandler {
 		}
 	}
 
+	public QName getElementName() {
+		return this.elementName;
+	}
+
 	public ParsingInfo getParsingInfo() {
 		return this.parsingInfo;
 	}
@@ -89,4 +105,12 @@ public class BuildHandlerImpl implements BuildHandler {
 	public Object getResult() {
 		return this.builder.build();
 	}
+
+	public void addResultTo(BuildHandler parent) {
+		if (this.parentInvoker != null && parent instanceof BuildHandlerImpl) {
+			this.parentInvoker.invoke(((BuildHandlerImpl) parent).builder, this.elementName, this.builder.build());
+		} else {
+			parent.addElement(this.elementName, getResult());
+		}
+	}
 }
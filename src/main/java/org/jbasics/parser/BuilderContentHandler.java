@@ -123,6 +123,7 @@ public class BuilderContentHandler<T> extends DefaultHandler2 {
 			}
 			QName name = createQualifiedName(uri, localName, qName);
 			ParsingInfo parseInfo = null;
+			Invoker<?, ?> parentInvoker = null;
 			if (this.states.isEmpty()) {
 				// Root processing
 				parseInfo = this.context.getParsingInfo(name);
@@ -162,6 +163,7 @@ public class BuilderContentHandler<T> extends DefaultHandler2 {
 					Pair<ParsingInfo, Invoker<?, ?>> x = parseInfo.getElementInvoker(name);
 					if (x != null) {
 						parseInfo = x.first();
+						parentInvoker = x.second();
 					} else {
 						parseInfo = null;
 					}
@@ -178,7 +180,7 @@ public class BuilderContentHandler<T> extends DefaultHandler2 {
 			// TODO: Here we need to discover if we have a content handler delegate set so we can delegate
 			// everything instead of the following
 
-			BuildHandler handler = new BuildHandlerImpl(name, parseInfo);
+			BuildHandler handler = new BuildHandlerImpl(name, parseInfo, parentInvoker);
 			for (int i = 0; i < attributes.getLength(); i++) {
 				QName attrName = createQualifiedName(attributes.getURI(i), attributes.getLocalName(i), attributes.getQName(i));
 				String attrValue = attributes.getValue(i);
@@ -205,7 +207,6 @@ public class BuilderContentHandler<T> extends DefaultHandler2 {
 						this.customParserDepth--;
 					}
 				} else {
-					QName name = createQualifiedName(uri, localName, qName);
 					BuildHandler current = this.states.pop();
 					if (this.characterBuffer.length() > 0) {
 						current.addText(this.characterBuffer.toString());
@@ -219,7 +220,11 @@ public class BuilderContentHandler<T> extends DefaultHandler2 {
 						this.result = (T) current.getResult();
 					} else {
 						BuildHandler parent = this.states.peek();
-						parent.addElement(name, current.getResult());
+						if (current instanceof BuildHandlerImpl) {
+							((BuildHandlerImpl) current).addResultTo(parent);
+						} else {
+							parent.addElement(createQualifiedName(uri, localName, qName), current.getResult());
+						}
 					}
 				}
 			} catch (RuntimeException e) {
@@ -26,39 +26,222 @@ package org.jbasics.parser;
 import org.jbasics.checker.ContractCheck;
 
 import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Holds the parsing information scanned from the builder annotations of a document type. <p> Scanning reflects over
+ * every builder reachable from the document type and compiles its invokers, so the first {@link
+ * #getOrCreateContext(Class)} of a type is expensive. Services can move that cost to startup with {@link
+ * #warmUp(Class[])} or {@link #warmUpAsync(Executor, Collection)}, which scan the given types in parallel. The document
+ * types can also be configured with the system property {@value #WARM_UP_PROPERTY} and warmed with {@link
+ * #warmUpFromSystemProperty()}. The static counters and {@link #getScanTime(TimeUnit)} show how much time went into
+ * scanning. </p>
+ */
 public class BuilderParserContext<T> {
-	private static final ConcurrentMap<Class<?>, BuilderParserContext<?>> CONTEXT_CACHE;
+	/**
+	 * System property holding a comma separated list of document type class names to warm up.
+	 */
+	public static final String WARM_UP_PROPERTY = "org.jbasics.parser.warmUp"; //$NON-NLS-1$
+
+	private static final ConcurrentMap<Class<?>, CompletableFuture<BuilderParserContext<?>>> CONTEXT_CACHE;
+	private static final LongAdder CACHE_HITS = new LongAdder();
+	private static final LongAdder CACHE_MISSES = new LongAdder();
+	private static final LongAdder SCAN_NANOS = new LongAdder();
 	private final Map<QName, ParsingInfo> parsingInformation;
+	private final long scanNanos;
 
 	static {
-		CONTEXT_CACHE = new ConcurrentHashMap<Class<?>, BuilderParserContext<?>>();
+		CONTEXT_CACHE = new ConcurrentHashMap<Class<?>, CompletableFuture<BuilderParserContext<?>>>();
 	}
 
 	public BuilderParserContext(Class<? extends T> documentType) {
+		long start = System.nanoTime();
 		this.parsingInformation = new AnnotationScanner().scan(ContractCheck
 				.mustNotBeNull(documentType, "documentType"));
+		this.scanNanos = System.nanoTime() - start;
+		BuilderParserContext.SCAN_NANOS.add(this.scanNanos);
+		Logger logger = Logger.getLogger(BuilderParserContext.class.getName());
+		if (logger.isLoggable(Level.FINE)) {
+			logger.log(Level.FINE, "Scanned parsing information of {0} in {1}ms", //$NON-NLS-1$
+					new Object[]{documentType.getName(), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(this.scanNanos))});
+		}
 	}
 
 	public static <T> BuilderParserContext<T> getOrCreateContext(Class<? extends T> documentType) {
-		BuilderParserContext<T> result = (BuilderParserContext<T>) CONTEXT_CACHE.get(documentType);
+		return (BuilderParserContext<T>) scanIfAbsent(ContractCheck.mustNotBeNull(documentType, "documentType"), new boolean[1]); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the cached context or scans it. Exactly one of the hit or miss counters is incremented, also for the
+	 * threads waiting for another thread to scan the same type.
+	 */
+	private static BuilderParserContext<?> scanIfAbsent(Class<?> documentType, final boolean[] scanned) {
+		CompletableFuture<BuilderParserContext<?>> result = CONTEXT_CACHE.get(documentType);
 		if (result == null) {
-			result = new BuilderParserContext<T>(documentType);
-			BuilderParserContext<T> temp = (BuilderParserContext<T>) CONTEXT_CACHE.putIfAbsent(documentType, result);
-			if (temp != null) {
-				result = temp;
+			// Only one thread scans a type, others wait for its future. The scan runs outside of the map so it does not
+			// block other types in the same bin of the map.
+			CompletableFuture<BuilderParserContext<?>> scan = new CompletableFuture<BuilderParserContext<?>>();
+			result = CONTEXT_CACHE.putIfAbsent(documentType, scan);
+			if (result == null) {
+				result = scan;
+				scanned[0] = true;
+				BuilderParserContext.CACHE_MISSES.increment();
+				try {
+					scan.complete(new BuilderParserContext<Object>(documentType));
+				} catch (RuntimeException | Error e) {
+					// failed scans are not cached so a later lookup tries again
+					CONTEXT_CACHE.remove(documentType, scan);
+					scan.completeExceptionally(e);
+					throw e;
+				}
+			}
+		}
+		if (!scanned[0]) {
+			BuilderParserContext.CACHE_HITS.increment();
+		}
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Scans all given document types not already cached in parallel on the common fork join pool and waits for them.
+	 *
+	 * @param documentTypes The document types to warm up (must not be null).
+	 * @return The number of document types scanned.
+	 */
+	public static int warmUp(Class<?>... documentTypes) {
+		try {
+			return warmUpAsync(ForkJoinPool.commonPool(), Arrays.asList(ContractCheck.mustNotBeNull(documentTypes, "documentTypes"))).join() //$NON-NLS-1$
+					.intValue();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Scans all given document types not already cached in parallel, each one as a task of the executor.
+	 *
+	 * @param executor      The executor running the scans (must not be null).
+	 * @param documentTypes The document types to warm up (must not be null).
+	 * @return A future completing with the number of document types scanned once all are cached.
+	 */
+	public static CompletableFuture<Integer> warmUpAsync(Executor executor, Collection<? extends Class<?>> documentTypes) {
+		ContractCheck.mustNotBeNull(executor, "executor"); //$NON-NLS-1$
+		final List<CompletableFuture<Boolean>> scans = new ArrayList<CompletableFuture<Boolean>>();
+		for (final Class<?> documentType : ContractCheck.mustNotBeNull(documentTypes, "documentTypes")) { //$NON-NLS-1$
+			ContractCheck.mustNotBeNull(documentType, "documentType"); //$NON-NLS-1$
+			scans.add(CompletableFuture.supplyAsync(() -> {
+				final boolean[] scanned = new boolean[1];
+				scanIfAbsent(documentType, scanned);
+				return Boolean.valueOf(scanned[0]);
+			}, executor));
+		}
+		return CompletableFuture.allOf(scans.toArray(new CompletableFuture<?>[scans.size()])).thenApply(done -> {
+			int count = 0;
+			for (CompletableFuture<Boolean> scan : scans) {
+				if (scan.join().booleanValue()) {
+					count++;
+				}
+			}
+			return Integer.valueOf(count);
+		});
+	}
+
+	/**
+	 * Warms up the document types listed in the system property {@value #WARM_UP_PROPERTY}. The types are loaded with
+	 * the context class loader of the current thread.
+	 *
+	 * @return The number of document types scanned.
+	 * @throws IllegalArgumentException If a configured type cannot be loaded.
+	 */
+	public static int warmUpFromSystemProperty() {
+		String configured = System.getProperty(BuilderParserContext.WARM_UP_PROPERTY);
+		if (configured == null || configured.trim().length() == 0) {
+			return 0;
+		}
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = BuilderParserContext.class.getClassLoader();
+		}
+		List<Class<?>> documentTypes = new ArrayList<Class<?>>();
+		for (String name : configured.split(",")) { //$NON-NLS-1$
+			name = name.trim();
+			if (name.length() > 0) {
+				try {
+					documentTypes.add(Class.forName(name, true, loader));
+				} catch (ClassNotFoundException e) {
+					throw new IllegalArgumentException("Cannot load document type " + name + " configured in " //$NON-NLS-1$ //$NON-NLS-2$
+							+ BuilderParserContext.WARM_UP_PROPERTY, e);
+				}
 			}
 		}
-		return result;
+		return warmUp(documentTypes.toArray(new Class<?>[documentTypes.size()]));
+	}
+
+	public static boolean isCached(Class<?> documentType) {
+		CompletableFuture<BuilderParserContext<?>> context = CONTEXT_CACHE.get(documentType);
+		return context != null && context.isDone() && !context.isCompletedExceptionally();
+	}
+
+	public static int getCachedContextCount() {
+		return CONTEXT_CACHE.size();
+	}
+
+	public static long getCacheHitCount() {
+		return BuilderParserContext.CACHE_HITS.sum();
+	}
+
+	public static long getCacheMissCount() {
+		return BuilderParserContext.CACHE_MISSES.sum();
+	}
+
+	/**
+	 * Returns the time spent scanning document types by all contexts created so far.
+	 */
+	public static long getTotalScanTime(TimeUnit unit) {
+		return ContractCheck.mustNotBeNull(unit, "unit").convert(BuilderParserContext.SCAN_NANOS.sum(), TimeUnit.NANOSECONDS); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the time spent scanning the document type of this context.
+	 */
+	public long getScanTime(TimeUnit unit) {
+		return ContractCheck.mustNotBeNull(unit, "unit").convert(this.scanNanos, TimeUnit.NANOSECONDS); //$NON-NLS-1$
 	}
 
 	public BuilderContentHandler<T> createContentHandler() {
 		return new BuilderContentHandler<T>(this);
 	}
 
+	public BuilderStreamParser<T> createStreamParser() {
+		return new BuilderStreamParser<T>(this);
+	}
+
 	public ParsingInfo getParsingInfo(QName name) {
 		return this.parsingInformation.get(name);
 	}
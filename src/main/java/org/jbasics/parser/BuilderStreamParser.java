@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.parser.invoker.Invoker;
+import org.jbasics.types.tuples.Pair;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.function.Consumer;
+
+/**
+ * Pull parser backend driving the builders of a {@link BuilderParserContext} from an {@link XMLStreamReader}. <p> Next
+ * to building the whole document it can stream out repeated record elements one at a time. A record is built like any
+ * other element but instead of being added to its parent it is handed to the caller, so only the record currently
+ * parsed is held in memory no matter how many records the document contains. Records nested inside a record are built
+ * into the enclosing one as usual. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class BuilderStreamParser<T> {
+	private final BuilderParserContext<T> context;
+
+	public BuilderStreamParser(final BuilderParserContext<T> context) {
+		this.context = ContractCheck.mustNotBeNull(context, "context"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Parses the document (or the element the reader is positioned at) into the complete result.
+	 *
+	 * @param reader The reader to parse from (must not be null).
+	 * @return The built document.
+	 * @throws XMLStreamException If the input is not well formed, contains unknown elements or a builder failed.
+	 */
+	public T parse(final XMLStreamReader reader) throws XMLStreamException {
+		RecordCursor<T, Object> cursor = new RecordCursor<T, Object>(this.context, reader, null, Object.class);
+		while (cursor.readNext() != null) {
+			// Without a record name nothing is streamed
+		}
+		return cursor.getResult();
+	}
+
+	/**
+	 * Parses the document and hands each record element over to the sink as soon as it is complete. Records are not
+	 * added to their parent so the returned document does not contain them.
+	 *
+	 * @param reader     The reader to parse from (must not be null).
+	 * @param recordName The qualified name of the repeated record element (must not be null).
+	 * @param recordType The type the record elements build (must not be null).
+	 * @param sink       The sink receiving each record in document order (must not be null).
+	 * @return The built document without the records.
+	 * @throws XMLStreamException If the input is not well formed, contains unknown elements or a builder failed.
+	 */
+	public <E> T parse(final XMLStreamReader reader, final QName recordName, final Class<E> recordType,
+					   final Consumer<? super E> sink) throws XMLStreamException {
+		ContractCheck.mustNotBeNull(sink, "sink"); //$NON-NLS-1$
+		try (RecordCursor<T, E> cursor = open(reader, recordName, recordType)) {
+			E record;
+			while ((record = cursor.readNext()) != null) {
+				sink.accept(record);
+			}
+			return cursor.getResult();
+		}
+	}
+
+	/**
+	 * Opens a cursor pulling one record element after the other from the reader.
+	 *
+	 * @param reader     The reader to parse from (must not be null).
+	 * @param recordName The qualified name of the repeated record element (must not be null).
+	 * @param recordType The type the record elements build (must not be null).
+	 * @return The cursor which closes the reader when closed.
+	 */
+	public <E> RecordCursor<T, E> open(final XMLStreamReader reader, final QName recordName, final Class<E> recordType) {
+		return new RecordCursor<T, E>(this.context, reader, ContractCheck.mustNotBeNull(recordName, "recordName"), recordType); //$NON-NLS-1$
+	}
+
+	@SuppressWarnings("unchecked")
+	public static final class RecordCursor<T, E> implements AutoCloseable {
+		private final BuilderParserContext<T> context;
+		private final XMLStreamReader reader;
+		private final QName recordName;
+		private final Class<E> recordType;
+		private final StateStack<BuildHandler> states;
+		private final StringBuilder characterBuffer;
+		private final StringBuilder commentBuffer;
+		private int recordLevel;
+		private boolean positioned;
+		private boolean finished;
+		private T result;
+
+		RecordCursor(final BuilderParserContext<T> context, final XMLStreamReader reader, final QName recordName,
+					 final Class<E> recordType) {
+			this.context = context;
+			this.reader = ContractCheck.mustNotBeNull(reader, "reader"); //$NON-NLS-1$
+			this.recordName = recordName;
+			this.recordType = ContractCheck.mustNotBeNull(recordType, "recordType"); //$NON-NLS-1$
+			this.states = new StateStack<BuildHandler>();
+			this.characterBuffer = new StringBuilder();
+			this.commentBuffer = new StringBuilder();
+			this.recordLevel = -1;
+			// A reader already positioned at an element parses just that element
+			this.positioned = reader.getEventType() == XMLStreamConstants.START_ELEMENT;
+		}
+
+		/**
+		 * Returns the next record or null once the document element has ended.
+		 */
+		public E readNext() throws XMLStreamException {
+			try {
+				while (!this.finished) {
+					int event;
+					if (this.positioned) {
+						this.positioned = false;
+						event = this.reader.getEventType();
+					} else if (this.reader.hasNext()) {
+						event = this.reader.next();
+					} else {
+						throw new XMLStreamException("Unexpected end of document", this.reader.getLocation()); //$NON-NLS-1$
+					}
+					switch (event) {
+						case XMLStreamConstants.START_ELEMENT:
+							startElement();
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							Object record = endElement();
+							if (record != null) {
+								return this.recordType.cast(record);
+							}
+							break;
+						case XMLStreamConstants.CHARACTERS:
+						case XMLStreamConstants.CDATA:
+							characters();
+							break;
+						case XMLStreamConstants.COMMENT:
+							comment();
+							break;
+						default:
+							// Ignorable white space, processing instructions and document events are not of interest
+					}
+				}
+				return null;
+			} catch (RuntimeException e) {
+				throw createParsingException(e);
+			}
+		}
+
+		/**
+		 * Returns the document once the cursor reached its end or null before.
+		 */
+		public T getResult() {
+			return this.result;
+		}
+
+		public void close() throws XMLStreamException {
+			this.reader.close();
+		}
+
+		private void startElement() throws XMLStreamException {
+			QName name = createQualifiedName(this.reader.getNamespaceURI(), this.reader.getLocalName(), this.reader.getPrefix());
+			ParsingInfo parseInfo = null;
+			Invoker<?, ?> parentInvoker = null;
+			if (this.states.isEmpty()) {
+				parseInfo = this.context.getParsingInfo(name);
+				if (parseInfo == null) {
+					throw new XMLStreamException("Unknown root element " + name, this.reader.getLocation()); //$NON-NLS-1$
+				}
+			} else {
+				BuildHandler current = this.states.peek();
+				flushBuffers(current);
+				Pair<ParsingInfo, Invoker<?, ?>> x = current.getParsingInfo().getElementInvoker(name);
+				if (x != null) {
+					parseInfo = x.first();
+					parentInvoker = x.second();
+				}
+			}
+			if (parseInfo == null) {
+				throw new XMLStreamException("Unrecognized element " + name, this.reader.getLocation()); //$NON-NLS-1$
+			}
+			BuildHandler handler = new BuildHandlerImpl(name, parseInfo, parentInvoker);
+			for (int i = 0; i < this.reader.getAttributeCount(); i++) {
+				handler.setAttribute(createQualifiedName(this.reader.getAttributeNamespace(i), this.reader.getAttributeLocalName(i),
+						this.reader.getAttributePrefix(i)), this.reader.getAttributeValue(i));
+			}
+			this.states.push(handler);
+			if (this.recordLevel < 0 && this.states.size() > 1 && name.equals(this.recordName)) {
+				this.recordLevel = this.states.size();
+			}
+		}
+
+		private Object endElement() {
+			boolean isRecord = this.states.size() == this.recordLevel;
+			BuildHandler current = this.states.pop();
+			flushBuffers(current);
+			if (this.states.isEmpty()) {
+				this.result = (T) current.getResult();
+				this.finished = true;
+			} else if (isRecord) {
+				this.recordLevel = -1;
+				return current.getResult();
+			} else if (current instanceof BuildHandlerImpl) {
+				((BuildHandlerImpl) current).addResultTo(this.states.peek());
+			} else {
+				this.states.peek().addElement(createQualifiedName(this.reader.getNamespaceURI(), this.reader.getLocalName(),
+						this.reader.getPrefix()), current.getResult());
+			}
+			return null;
+		}
+
+		private void characters() {
+			if (!this.states.isEmpty()) {
+				if (this.commentBuffer.length() > 0) {
+					this.states.peek().addComment(this.commentBuffer.toString());
+					this.commentBuffer.setLength(0);
+				}
+				this.characterBuffer.append(this.reader.getTextCharacters(), this.reader.getTextStart(), this.reader.getTextLength());
+			}
+		}
+
+		private void comment() {
+			if (!this.states.isEmpty()) {
+				if (this.characterBuffer.length() > 0) {
+					this.states.peek().addText(this.characterBuffer.toString());
+					this.characterBuffer.setLength(0);
+				}
+				this.commentBuffer.append(this.reader.getTextCharacters(), this.reader.getTextStart(), this.reader.getTextLength());
+			}
+		}
+
+		private void flushBuffers(final BuildHandler current) {
+			if (this.characterBuffer.length() > 0) {
+				current.addText(this.characterBuffer.toString());
+				this.characterBuffer.setLength(0);
+			}
+			if (this.commentBuffer.length() > 0) {
+				current.addComment(this.commentBuffer.toString());
+				this.commentBuffer.setLength(0);
+			}
+		}
+
+		private QName createQualifiedName(String namespace, final String localName, final String prefix) {
+			// Same as the SAX handler we remove a trailing / from the namespace
+			if (namespace == null) {
+				namespace = ""; //$NON-NLS-1$
+			} else if (namespace.endsWith("/")) { //$NON-NLS-1$
+				namespace = namespace.substring(0, namespace.length() - 1);
+			}
+			if (prefix != null && prefix.length() > 0) {
+				return new QName(namespace, localName, prefix);
+			} else {
+				return new QName(namespace, localName);
+			}
+		}
+
+		private XMLStreamException createParsingException(final RuntimeException eo) {
+			Throwable e = eo;
+			while (e.getCause() != null && e.getCause() != e) {
+				e = e.getCause();
+			}
+			return new XMLStreamException("[" + e.getClass().getSimpleName() + "] " + e.getMessage(), //$NON-NLS-1$ //$NON-NLS-2$
+					this.reader.getLocation(), e);
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.jbasics.pattern.factory.Factory;
 import org.jbasics.types.tuples.Pair;
 
 import javax.xml.namespace.QName;
+import java.util.HashMap;
 import java.util.Map;
 
 @SuppressWarnings("unchecked")
@@ -63,14 +64,30 @@ public class ParsingInfo {
 						  Invoker<?, String> contentInvoker, Invoker<?, String> commentInvoker) {
 		this.builderFactory = ContractCheck.mustNotBeNull(builderFactory, "builderFactory");
 		this.qualifiedNameInvoker = qualifiedNameInvoker;
-		this.attributeInvokers = attributeInvokers;
+		// The dispatch tables are plain hash maps with self references resolved so a lookup never allocates
+		this.attributeInvokers = new HashMap<QName, Invoker<?, String>>();
+		if (attributeInvokers != null) {
+			this.attributeInvokers.putAll(attributeInvokers);
+		}
 		this.defaultAttributeInvoker = defaultAttributeInvoker;
-		this.elementInvokers = elementInvokers;
-		this.defaultElementInvoker = defaultElementInvoker;
+		this.elementInvokers = new HashMap<QName, Pair<ParsingInfo, Invoker<?, ?>>>();
+		if (elementInvokers != null) {
+			for (Map.Entry<QName, Pair<ParsingInfo, Invoker<?, ?>>> entry : elementInvokers.entrySet()) {
+				this.elementInvokers.put(entry.getKey(), resolveSelf(entry.getValue()));
+			}
+		}
+		this.defaultElementInvoker = resolveSelf(defaultElementInvoker);
 		this.contentInvoker = contentInvoker;
 		this.commentInvoker = commentInvoker;
 	}
 
+	private Pair<ParsingInfo, Invoker<?, ?>> resolveSelf(Pair<ParsingInfo, Invoker<?, ?>> invoker) {
+		if (invoker != null && invoker.first() == SELF) {
+			return new Pair<ParsingInfo, Invoker<?, ?>>(this, invoker.second());
+		}
+		return invoker;
+	}
+
 	/**
 	 * @return the builderFactory
 	 */
@@ -98,9 +115,6 @@ public class ParsingInfo {
 		if (temp == null) {
 			temp = this.defaultElementInvoker;
 		}
-		if (temp != null && temp.first() == SELF) {
-			temp = new Pair<ParsingInfo, Invoker<?, ?>>(this, temp.second());
-		}
 		return temp;
 	}
 
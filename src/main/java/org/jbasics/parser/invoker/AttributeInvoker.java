@@ -28,27 +28,27 @@ import org.jbasics.pattern.factory.ParameterFactory;
 import org.jbasics.types.factories.ValueOfStringTypeFactory;
 
 import javax.xml.namespace.QName;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 public class AttributeInvoker<T> implements Invoker<T, String> {
-	private final boolean useExtendedForm;
-	private final Method method;
+	private final CompiledInvocation.Setter setter;
+	private final CompiledInvocation.QualifiedSetter qualifiedSetter;
 	private final ParameterFactory<?, String> factory;
 
 	private AttributeInvoker(Method method) {
-		this.method = ContractCheck.mustNotBeNull(method, "method");
-		Class<?>[] params = method.getParameterTypes();
+		Class<?>[] params = ContractCheck.mustNotBeNull(method, "method").getParameterTypes();
 		Class<?> type = null;
 		if (params.length == 1) {
-			this.useExtendedForm = false;
+			this.setter = CompiledInvocation.compileSetter(method);
+			this.qualifiedSetter = null;
 			type = params[0];
 		} else if (params.length == 2) {
-			this.useExtendedForm = true;
 			if (params[0] != QName.class) {
 				throw new IllegalArgumentException(
 						"Supplied method has not the right signature. Must be either method(type) or method(QName, type)");
 			}
+			this.setter = null;
+			this.qualifiedSetter = CompiledInvocation.compileQualifiedSetter(method);
 			type = params[1];
 		} else {
 			throw new IllegalArgumentException(
@@ -70,19 +70,10 @@ public class AttributeInvoker<T> implements Invoker<T, String> {
 		if (this.factory != null) {
 			temp = this.factory.create(data);
 		}
-		try {
-			if (this.useExtendedForm) {
-				this.method.invoke(instance, name, temp);
-			} else {
-				this.method.invoke(instance, temp);
-			}
-		} catch (InvocationTargetException e) {
-			if (e.getCause() instanceof RuntimeException) {
-				throw (RuntimeException) e.getCause();
-			}
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
+		if (this.qualifiedSetter != null) {
+			this.qualifiedSetter.set(instance, name, temp);
+		} else {
+			this.setter.set(instance, temp);
 		}
 	}
 }
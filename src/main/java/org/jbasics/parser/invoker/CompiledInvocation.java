@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser.invoker;
+
+import javax.xml.namespace.QName;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Compiles reflective members into direct call sites once so that the parser does not have to go through {@link
+ * Method#invoke(Object, Object...)} for every element, attribute or text node. <p> Whenever the member is accessible
+ * and all involved types are visible to this class loader a {@link LambdaMetafactory} generated implementation is used
+ * which the JIT can inline like a hand written call. Otherwise (non public builders, builders loaded by a child class
+ * loader or members declaring exceptions) the call goes through a {@link MethodHandle} bound at compile time which
+ * wraps checked exceptions into a {@link RuntimeException}. </p>
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class CompiledInvocation {
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType QUALIFIED_SETTER_TYPE = MethodType.methodType(void.class, Object.class, QName.class, Object.class);
+	private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+
+	private CompiledInvocation() {
+		// no instances
+	}
+
+	static Setter compileSetter(final Method method) {
+		final Target target = Target.of(method);
+		Setter result = target.metafactory(Setter.class, "set", SETTER_TYPE); //$NON-NLS-1$
+		if (result == null) {
+			final MethodHandle handle = target.handle.asType(SETTER_TYPE);
+			result = new Setter() {
+				public void set(final Object instance, final Object value) {
+					try {
+						handle.invokeExact(instance, value);
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Error e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new RuntimeException(e);
+					}
+				}
+			};
+		}
+		return result;
+	}
+
+	static QualifiedSetter compileQualifiedSetter(final Method method) {
+		final Target target = Target.of(method);
+		QualifiedSetter result = target.metafactory(QualifiedSetter.class, "set", QUALIFIED_SETTER_TYPE); //$NON-NLS-1$
+		if (result == null) {
+			final MethodHandle handle = target.handle.asType(QUALIFIED_SETTER_TYPE);
+			result = new QualifiedSetter() {
+				public void set(final Object instance, final QName name, final Object value) {
+					try {
+						handle.invokeExact(instance, name, value);
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Error e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new RuntimeException(e);
+					}
+				}
+			};
+		}
+		return result;
+	}
+
+	static Supplier compileSupplier(final Method staticMethod) {
+		return compileSupplier(Target.of(staticMethod));
+	}
+
+	static Supplier compileSupplier(final Constructor<?> constructor) {
+		return compileSupplier(Target.of(constructor));
+	}
+
+	private static Supplier compileSupplier(final Target target) {
+		Supplier result = target.metafactory(Supplier.class, "get", SUPPLIER_TYPE); //$NON-NLS-1$
+		if (result == null) {
+			final MethodHandle handle = target.handle.asType(SUPPLIER_TYPE);
+			result = new Supplier() {
+				public Object get() {
+					try {
+						return handle.invokeExact();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Error e) {
+						throw e;
+					} catch (Throwable e) {
+						throw new RuntimeException(e);
+					}
+				}
+			};
+		}
+		return result;
+	}
+
+	interface Setter {
+		void set(Object instance, Object value);
+	}
+
+	interface QualifiedSetter {
+		void set(Object instance, QName name, Object value);
+	}
+
+	interface Supplier {
+		Object get();
+	}
+
+	private static final class Target {
+		private final MethodHandle handle;
+		private final boolean direct;
+
+		private Target(final MethodHandle handle, final boolean direct) {
+			this.handle = handle;
+			this.direct = direct;
+		}
+
+		static Target of(final Method method) {
+			try {
+				return new Target(CompiledInvocation.LOOKUP.unreflect(method),
+						method.getExceptionTypes().length == 0
+								&& isVisible(method.getDeclaringClass(), method.getReturnType(), method.getParameterTypes()));
+			} catch (IllegalAccessException e) {
+				method.setAccessible(true);
+				try {
+					return new Target(CompiledInvocation.LOOKUP.unreflect(method), false);
+				} catch (IllegalAccessException e2) {
+					throw new IllegalArgumentException("Cannot access method " + method, e2); //$NON-NLS-1$
+				}
+			}
+		}
+
+		static Target of(final Constructor<?> constructor) {
+			try {
+				return new Target(CompiledInvocation.LOOKUP.unreflectConstructor(constructor),
+						constructor.getExceptionTypes().length == 0
+								&& isVisible(constructor.getDeclaringClass(), void.class, constructor.getParameterTypes()));
+			} catch (IllegalAccessException e) {
+				constructor.setAccessible(true);
+				try {
+					return new Target(CompiledInvocation.LOOKUP.unreflectConstructor(constructor), false);
+				} catch (IllegalAccessException e2) {
+					throw new IllegalArgumentException("Cannot access constructor " + constructor, e2); //$NON-NLS-1$
+				}
+			}
+		}
+
+		/**
+		 * Returns a lambda implementing the functional type or null if no direct lambda can be spun for the target. A
+		 * lambda would let checked exceptions pass unwrapped so members declaring exceptions are never direct.
+		 */
+		<F> F metafactory(final Class<F> functionType, final String name, final MethodType erasedType) {
+			if (!this.direct) {
+				return null;
+			}
+			MethodType instantiated = this.handle.type().wrap();
+			if (erasedType.returnType() == void.class) {
+				instantiated = instantiated.changeReturnType(void.class);
+			}
+			try {
+				return functionType.cast(LambdaMetafactory.metafactory(CompiledInvocation.LOOKUP, name,
+						MethodType.methodType(functionType), erasedType, this.handle, instantiated).getTarget().invoke());
+			} catch (Throwable e) {
+				// The metafactory rejected the target so we stay with the method handle
+				return null;
+			}
+		}
+
+		private static boolean isVisible(final Class<?> declaringClass, final Class<?> returnType, final Class<?>... parameterTypes) {
+			if (!isVisible(declaringClass) || !isVisible(returnType)) {
+				return false;
+			}
+			for (Class<?> type : parameterTypes) {
+				if (!isVisible(type)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isVisible(final Class<?> type) {
+			Class<?> temp = type;
+			while (temp.isArray()) {
+				temp = temp.getComponentType();
+			}
+			if (temp.isPrimitive()) {
+				return true;
+			}
+			try {
+				return Class.forName(temp.getName(), false, CompiledInvocation.class.getClassLoader()) == temp;
+			} catch (ClassNotFoundException e) {
+				return false;
+			} catch (LinkageError e) {
+				return false;
+			}
+		}
+	}
+}
@@ -26,15 +26,13 @@ package org.jbasics.parser.invoker;
 import org.jbasics.checker.ContractCheck;
 
 import javax.xml.namespace.QName;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 public class ContentInvoker<T> implements Invoker<T, String> {
-	private final Method method;
+	private final CompiledInvocation.Setter setter;
 
 	private ContentInvoker(Method method) {
-		this.method = ContractCheck.mustNotBeNull(method, "method");
-		Class<?>[] params = method.getParameterTypes();
+		Class<?>[] params = ContractCheck.mustNotBeNull(method, "method").getParameterTypes();
 		if (params.length != 1) {
 			throw new IllegalArgumentException(
 					"Supplied method has not the right signature. Must be setContent(String)");
@@ -43,6 +41,7 @@ public class ContentInvoker<T> implements Invoker<T, String> {
 			throw new IllegalArgumentException(
 					"Supplied method has not the right signature. Must be setContent(String)");
 		}
+		this.setter = CompiledInvocation.compileSetter(method);
 	}
 
 	public static <T> ContentInvoker<T> createInvoker(Class<T> type, Method m) {
@@ -50,12 +49,6 @@ public class ContentInvoker<T> implements Invoker<T, String> {
 	}
 
 	public void invoke(T instance, QName name, String data) {
-		try {
-			this.method.invoke(instance, data);
-		} catch (InvocationTargetException e) {
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		this.setter.set(instance, data);
 	}
 }
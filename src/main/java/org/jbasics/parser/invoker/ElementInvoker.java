@@ -26,21 +26,17 @@ package org.jbasics.parser.invoker;
 import org.jbasics.checker.ContractCheck;
 
 import javax.xml.namespace.QName;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
-@SuppressWarnings("unchecked")
 public class ElementInvoker<T, E> implements Invoker<T, E> {
-	private final Method method;
-	private final Class<E> dataClass;
+	private final CompiledInvocation.Setter setter;
 
 	private ElementInvoker(Method method) {
-		this.method = ContractCheck.mustNotBeNull(method, "method");
-		Class<?>[] params = method.getParameterTypes();
-		if (params.length != 1) {
+		if (ContractCheck.mustNotBeNull(method, "method").getParameterTypes().length != 1) {
 			throw new IllegalArgumentException("Method signature does not fit");
 		}
-		this.dataClass = (Class<E>) params[0];
+		// The compiled setter casts the data to the parameter type of the method
+		this.setter = CompiledInvocation.compileSetter(method);
 	}
 
 	public static <T, E> ElementInvoker<T, E> createInvoker(Class<T> instanceType, Class<E> dataType, Method method) {
@@ -48,12 +44,6 @@ public class ElementInvoker<T, E> implements Invoker<T, E> {
 	}
 
 	public void invoke(T instance, QName name, E data) {
-		try {
-			this.method.invoke(instance, this.dataClass.cast(data));
-		} catch (InvocationTargetException e) {
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		this.setter.set(instance, data);
 	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser.invoker;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.factory.Factory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Factory calling a public static no argument factory method or, if no such method exists, the public empty
+ * constructor through a compiled call site instead of reflection.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public final class FactoryInvoker<T> implements Factory<T> {
+	private final Class<T> resultType;
+	private final CompiledInvocation.Supplier supplier;
+
+	private FactoryInvoker(final Class<T> resultType, final CompiledInvocation.Supplier supplier) {
+		this.resultType = resultType;
+		this.supplier = supplier;
+	}
+
+	/**
+	 * Creates a factory calling the static method with the given name on the declaring type or the public empty
+	 * constructor of the declaring type.
+	 *
+	 * @param declaringType     The type declaring the factory method or constructor (must not be null)
+	 * @param factoryMethodName The name of the static factory method (must not be null)
+	 * @param resultType        The type of the created instances (must not be null)
+	 * @return The compiled factory
+	 * @throws IllegalArgumentException If neither a matching factory method nor an empty constructor exists
+	 */
+	public static <T> FactoryInvoker<T> createFactory(final Class<?> declaringType, final String factoryMethodName,
+													  final Class<T> resultType) {
+		ContractCheck.mustNotBeNull(declaringType, "declaringType"); //$NON-NLS-1$
+		ContractCheck.mustNotBeNull(factoryMethodName, "factoryMethodName"); //$NON-NLS-1$
+		ContractCheck.mustNotBeNull(resultType, "resultType"); //$NON-NLS-1$
+		try {
+			Method factoryMethod = declaringType.getMethod(factoryMethodName);
+			if (Modifier.isStatic(factoryMethod.getModifiers()) && resultType.isAssignableFrom(factoryMethod.getReturnType())) {
+				return new FactoryInvoker<T>(resultType, CompiledInvocation.compileSupplier(factoryMethod));
+			}
+		} catch (NoSuchMethodException e) {
+			// Try the constructor next
+		}
+		if (resultType.isAssignableFrom(declaringType)) {
+			try {
+				return new FactoryInvoker<T>(resultType, CompiledInvocation.compileSupplier(declaringType.getConstructor()));
+			} catch (NoSuchMethodException e) {
+				// Reported below
+			}
+		}
+		throw new IllegalArgumentException("Neither a \"public static " + resultType.getSimpleName() + " " //$NON-NLS-1$ //$NON-NLS-2$
+				+ factoryMethodName + "()\" method nor an empty public constructor found for type " + declaringType); //$NON-NLS-1$
+	}
+
+	public T newInstance() {
+		return this.resultType.cast(this.supplier.get());
+	}
+}
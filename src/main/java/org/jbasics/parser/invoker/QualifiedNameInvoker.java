@@ -26,15 +26,13 @@ package org.jbasics.parser.invoker;
 import org.jbasics.checker.ContractCheck;
 
 import javax.xml.namespace.QName;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 public class QualifiedNameInvoker<T> implements Invoker<T, QName> {
-	private final Method method;
+	private final CompiledInvocation.Setter setter;
 
 	private QualifiedNameInvoker(Method method) {
-		this.method = ContractCheck.mustNotBeNull(method, "method");
-		Class<?>[] params = method.getParameterTypes();
+		Class<?>[] params = ContractCheck.mustNotBeNull(method, "method").getParameterTypes();
 		if (params.length == 1) {
 			if (params[0] != QName.class) {
 				throw new IllegalArgumentException(
@@ -44,6 +42,7 @@ public class QualifiedNameInvoker<T> implements Invoker<T, QName> {
 			throw new IllegalArgumentException(
 					"Supplied method has not the right signature. must be setQualifiedName(QName name)");
 		}
+		this.setter = CompiledInvocation.compileSetter(method);
 	}
 
 	public static <T> QualifiedNameInvoker<T> createInvoker(Class<T> type, Method m) {
@@ -51,12 +50,6 @@ public class QualifiedNameInvoker<T> implements Invoker<T, QName> {
 	}
 
 	public void invoke(T instance, QName name, QName data) {
-		try {
-			this.method.invoke(instance, data);
-		} catch (InvocationTargetException e) {
-			throw new RuntimeException(e);
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException(e);
-		}
+		this.setter.set(instance, data);
 	}
 }
@@ -26,8 +26,8 @@ package org.jbasics.text;
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.pattern.factory.Factory;
 import org.jbasics.pattern.pooling.Pool;
-import org.jbasics.types.pools.LazyQueuePool;
 import org.jbasics.types.pools.PooledDelegate;
+import org.jbasics.types.pools.StripedPool;
 
 import java.text.FieldPosition;
 import java.text.Format;
@@ -38,7 +38,7 @@ public class FormatPool<T extends Format> extends Format implements Pool<T> {
 	private final Pool<T> formatPool;
 
 	public FormatPool(final Factory<T> formatFactory) {
-		this.formatPool = new LazyQueuePool<T>(ContractCheck.mustNotBeNull(formatFactory, "formatFactory"));
+		this.formatPool = new StripedPool<T>(ContractCheck.mustNotBeNull(formatFactory, "formatFactory"));
 	}
 
 	@Override
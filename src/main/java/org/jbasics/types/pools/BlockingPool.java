@@ -25,41 +25,99 @@ package org.jbasics.types.pools;
 
 import org.jbasics.checker.ContractCheck;
 import org.jbasics.exception.DelegatedException;
+import org.jbasics.jmx.ObjectNameBuilder;
 import org.jbasics.pattern.delegation.LifecycleDelegate;
 import org.jbasics.pattern.factory.Factory;
 import org.jbasics.pattern.pooling.NewPool;
 import org.jbasics.pattern.pooling.PooledInstance;
 
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class BlockingPool<T> implements NewPool<T> {
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+public class BlockingPool<T> implements NewPool<T>, BlockingPoolMXBean {
 	public final static long DEFAULT_MAX_WAIT = 5000;
 	public final static int DEFAULT_MAX_IDLE = 5;
 	public final static int DEFAULT_MAX_ACTIVE = 50;
+	protected final int minIdle;
 	protected final int maxIdle;
 	protected final int maxActive;
 	protected final long maxWait;
+	protected final long maxIdleTime;
 	protected final Factory<LifecycleDelegate<T>> instanceFactory;
 	protected final BlockingQueue<LifecycleDelegate<T>> passiveInstances;
-	protected final List<LifecycleDelegate<T>> managedInstances;
+	// the passive instances used as stack (most recently used first) and the time each instance got idle
+	private final BlockingDeque<LifecycleDelegate<T>> idleStack;
+	private final Map<LifecycleDelegate<T>, Long> idleSince;
+	// identity set since the exact instance must be removed, NOT an equal one
+	private final Set<LifecycleDelegate<T>> managedInstances;
+	private final long evictionInterval;
 	private final Logger logger = Logger.getLogger(BlockingQueue.class.getName());
-	protected boolean closed = false;
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final LongAdder acquired = new LongAdder();
+	private final LongAdder created = new LongAdder();
+	private final LongAdder destroyed = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final WaitTimeHistogram waitTimes = new WaitTimeHistogram();
+	private ScheduledFuture<?> evictionTask;
+	private volatile boolean evictionStarted;
+	private ObjectName registeredName;
+	protected volatile boolean closed = false;
 
 	public BlockingPool(final Factory<LifecycleDelegate<T>> instanceFactory, final int maxIdle, final int maxActive, final long maxWait) {
+		this(instanceFactory, maxIdle, maxActive, maxWait, 0, 0L, 0L);
+	}
+
+	/**
+	 * Creates a pool evicting idle instances in the background. The eviction runs every eviction interval on a shared
+	 * daemon thread and destroys the instances idle for longer than the maximum idle time as long as more than the
+	 * minimum idle instances are left. Afterwards it creates instances until the minimum idle count is reached, so the
+	 * first run also prewarms the pool. The eviction starts with the first acquire or when calling {@link
+	 * #startEviction()}.
+	 *
+	 * @param instanceFactory  The factory of the pooled instances (must not be null)
+	 * @param maxIdle          The maximum number of idle instances (default if zero or less)
+	 * @param maxActive        The maximum number of instances (default if zero or less)
+	 * @param maxWait          The maximum wait in milliseconds (default if negative)
+	 * @param minIdle          The number of idle instances to keep (at most max idle)
+	 * @param maxIdleTime      The time in milliseconds after which an idle instance is evicted or zero to keep them
+	 * @param evictionInterval The interval in milliseconds of the background eviction or zero to not run it
+	 */
+	public BlockingPool(final Factory<LifecycleDelegate<T>> instanceFactory, final int maxIdle, final int maxActive, final long maxWait,
+						final int minIdle, final long maxIdleTime, final long evictionInterval) {
 		this.instanceFactory = ContractCheck.mustNotBeNull(instanceFactory, "instanceFactory"); //$NON-NLS-1$
 		this.maxIdle = maxIdle <= 0 ? BlockingPool.DEFAULT_MAX_IDLE : maxIdle;
 		final int maxActiveTemp = maxActive <= 0 ? BlockingPool.DEFAULT_MAX_ACTIVE : maxActive;
 		this.maxActive = maxIdle > maxActiveTemp ? maxIdle : maxActiveTemp;
 		this.maxWait = maxWait < 0 ? BlockingPool.DEFAULT_MAX_WAIT : maxWait;
-		this.passiveInstances = new ArrayBlockingQueue<LifecycleDelegate<T>>(this.maxIdle);
-		this.managedInstances = new ArrayList<LifecycleDelegate<T>>();
+		this.minIdle = Math.max(0, Math.min(minIdle, this.maxIdle));
+		this.maxIdleTime = Math.max(0L, maxIdleTime);
+		this.idleStack = new LinkedBlockingDeque<LifecycleDelegate<T>>(this.maxIdle);
+		this.passiveInstances = this.idleStack;
+		this.managedInstances = Collections.newSetFromMap(new IdentityHashMap<LifecycleDelegate<T>, Boolean>());
+		this.idleSince = Collections.synchronizedMap(new IdentityHashMap<LifecycleDelegate<T>, Long>());
+		this.evictionInterval = evictionInterval;
 	}
 
 	@Override
@@ -67,6 +125,7 @@ public class BlockingPool<T> implements NewPool<T> {
 		if (this.closed) {
 			throw new IllegalStateException("Pool already closed"); //$NON-NLS-1$
 		}
+		startEviction();
 		return new PooledDelegate(-1);
 	}
 
@@ -75,13 +134,45 @@ public class BlockingPool<T> implements NewPool<T> {
 		if (this.closed) {
 			throw new IllegalStateException("Pool already closed"); //$NON-NLS-1$
 		}
+		startEviction();
 		return new PooledDelegate(timeout);
 	}
 
+	/**
+	 * Starts the background eviction if configured and not yet started. Calling it right after creating the pool
+	 * prewarms the pool instead of waiting for the first acquire.
+	 */
+	public void startEviction() {
+		if (!this.evictionStarted) {
+			synchronized (this) {
+				if (!this.evictionStarted && !this.closed && this.evictionInterval > 0 && (this.minIdle > 0 || this.maxIdleTime > 0)) {
+					this.evictionTask = Evictor.schedule(this, this.evictionInterval);
+				}
+				this.evictionStarted = true;
+			}
+		}
+	}
+
 	@Override
 	public void close() {
 		this.closed = true;
-		for (final LifecycleDelegate<T> pooled : this.managedInstances) {
+		synchronized (this) {
+			this.evictionStarted = true;
+			if (this.evictionTask != null) {
+				this.evictionTask.cancel(false);
+				this.evictionTask = null;
+			}
+		}
+		unregisterMBean();
+		final List<LifecycleDelegate<T>> instances;
+		synchronized (this.managedInstances) {
+			// instances released here are no longer managed so releasing a checked out one later does not destroy it again
+			instances = new ArrayList<LifecycleDelegate<T>>(this.managedInstances);
+			this.managedInstances.clear();
+		}
+		this.passiveInstances.clear();
+		this.idleSince.clear();
+		for (final LifecycleDelegate<T> pooled : instances) {
 			try {
 				pooled.passivate();
 			} catch (final RuntimeException e) {
@@ -99,6 +190,269 @@ public class BlockingPool<T> implements NewPool<T> {
 		}
 	}
 
+	@Override
+	public int evictIdle() {
+		int count = 0;
+		if (this.maxIdleTime > 0) {
+			final long now = System.nanoTime();
+			final long maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(this.maxIdleTime);
+			while (!this.closed && this.idleStack.size() > this.minIdle) {
+				final LifecycleDelegate<T> oldest = this.idleStack.peekLast();
+				if (oldest == null || now - getIdleSince(oldest, now) < maxIdleNanos) {
+					break;
+				}
+				if (this.idleStack.removeLastOccurrence(oldest)) {
+					this.idleSince.remove(oldest);
+					destroyQuietly(oldest);
+					this.evicted.increment();
+					count++;
+				}
+			}
+		}
+		ensureMinIdle();
+		return count;
+	}
+
+	/**
+	 * Creates idle instances until the minimum idle count is reached as far as the maximum active count allows.
+	 *
+	 * @return The number of created instances
+	 */
+	public int ensureMinIdle() {
+		int count = 0;
+		while (!this.closed && this.idleStack.size() < this.minIdle) {
+			final LifecycleDelegate<T> instance = create();
+			if (instance == null) {
+				break;
+			}
+			count++;
+			this.idleSince.put(instance, Long.valueOf(System.nanoTime()));
+			if (!this.idleStack.offerLast(instance)) {
+				this.idleSince.remove(instance);
+				destroyQuietly(instance);
+				break;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Registers the metrics of this pool at the platform MBean server under the name {@code
+	 * org.jbasics:type=BlockingPool,name=<name>}. The registration is removed when the pool is closed.
+	 *
+	 * @param name The name of the pool (must not be null or empty)
+	 *
+	 * @return The object name registered
+	 */
+	public synchronized ObjectName registerMBean(final String name) {
+		final ObjectName objectName = new ObjectNameBuilder().withDomain("org.jbasics").withProperty("type", "BlockingPool") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				.withProperty("name", ContractCheck.mustNotBeNullOrTrimmedEmpty(name, "name")).build(); //$NON-NLS-1$ //$NON-NLS-2$
+		unregisterMBean();
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, BlockingPoolMXBean.class, true), objectName);
+		} catch (final Exception e) {
+			throw DelegatedException.delegate(e);
+		}
+		this.registeredName = objectName;
+		return objectName;
+	}
+
+	public synchronized void unregisterMBean() {
+		if (this.registeredName != null) {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				if (server.isRegistered(this.registeredName)) {
+					server.unregisterMBean(this.registeredName);
+				}
+			} catch (final Exception e) {
+				throw DelegatedException.delegate(e);
+			} finally {
+				this.registeredName = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns a snapshot of all instances currently managed by this pool, idle and checked out ones.
+	 *
+	 * @return The managed instances in no particular order
+	 */
+	protected List<LifecycleDelegate<T>> getManagedInstances() {
+		synchronized (this.managedInstances) {
+			return new ArrayList<LifecycleDelegate<T>>(this.managedInstances);
+		}
+	}
+
+	@Override
+	public int getMinIdle() {
+		return this.minIdle;
+	}
+
+	@Override
+	public int getMaxIdle() {
+		return this.maxIdle;
+	}
+
+	@Override
+	public int getMaxActive() {
+		return this.maxActive;
+	}
+
+	@Override
+	public long getMaxIdleTime() {
+		return this.maxIdleTime;
+	}
+
+	@Override
+	public int getActiveCount() {
+		final int managed;
+		synchronized (this.managedInstances) {
+			managed = this.managedInstances.size();
+		}
+		return Math.max(0, managed - this.passiveInstances.size());
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.passiveInstances.size();
+	}
+
+	@Override
+	public int getWaitingCount() {
+		return this.waiting.get();
+	}
+
+	@Override
+	public long getAcquiredCount() {
+		return this.acquired.sum();
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return this.created.sum();
+	}
+
+	@Override
+	public long getDestroyedCount() {
+		return this.destroyed.sum();
+	}
+
+	@Override
+	public long getEvictedCount() {
+		return this.evicted.sum();
+	}
+
+	@Override
+	public long getTimeoutCount() {
+		return this.timeouts.sum();
+	}
+
+	@Override
+	public double getAverageWaitMillis() {
+		return this.waitTimes.getAverageMillis();
+	}
+
+	@Override
+	public double getMaxWaitMillis() {
+		return this.waitTimes.getMaxMillis();
+	}
+
+	@Override
+	public long[] getWaitTimeBucketLimits() {
+		return this.waitTimes.getLimits();
+	}
+
+	@Override
+	public long[] getWaitTimeHistogram() {
+		return this.waitTimes.getCounts();
+	}
+
+	private long getIdleSince(final LifecycleDelegate<T> instance, final long now) {
+		final Long since = this.idleSince.get(instance);
+		return since != null ? since.longValue() : now;
+	}
+
+	private LifecycleDelegate<T> create() {
+		synchronized (this.managedInstances) {
+			if (this.closed || this.managedInstances.size() >= this.maxActive) {
+				return null;
+			}
+			final LifecycleDelegate<T> instance = this.instanceFactory.newInstance();
+			this.managedInstances.add(instance);
+			this.created.increment();
+			return instance;
+		}
+	}
+
+	private void destroy(final LifecycleDelegate<T> instance) {
+		final boolean managed;
+		synchronized (this.managedInstances) {
+			managed = this.managedInstances.remove(instance);
+		}
+		// instances no longer managed have already been released when the pool was closed
+		if (managed) {
+			this.destroyed.increment();
+			instance.release();
+		}
+	}
+
+	private void destroyQuietly(final LifecycleDelegate<T> instance) {
+		try {
+			destroy(instance);
+		} catch (final RuntimeException e) {
+			if (this.logger.isLoggable(Level.WARNING)) {
+				this.logger.log(Level.WARNING, "Could not release pool instance", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static final class Evictor {
+		private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+			final Thread thread = new Thread(r, "BlockingPool-Evictor"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		/**
+		 * Schedules the eviction of the pool. The scheduled task only weakly references the pool and cancels itself
+		 * once the pool got garbage collected without being closed.
+		 */
+		static ScheduledFuture<?> schedule(final BlockingPool<?> pool, final long interval) {
+			final Task task = new Task(pool);
+			task.future = Evictor.EXECUTOR.scheduleWithFixedDelay(task, 0L, interval, TimeUnit.MILLISECONDS);
+			return task.future;
+		}
+
+		private static final class Task implements Runnable {
+			private final WeakReference<BlockingPool<?>> pool;
+			private volatile ScheduledFuture<?> future;
+
+			Task(final BlockingPool<?> pool) {
+				this.pool = new WeakReference<BlockingPool<?>>(pool);
+			}
+
+			@Override
+			public void run() {
+				final BlockingPool<?> temp = this.pool.get();
+				if (temp == null) {
+					// the future is only missing if the first run is faster than the scheduling, the next run cancels
+					final ScheduledFuture<?> self = this.future;
+					if (self != null) {
+						self.cancel(false);
+					}
+					return;
+				}
+				try {
+					temp.evictIdle();
+				} catch (final RuntimeException e) {
+					if (temp.logger.isLoggable(Level.WARNING)) {
+						temp.logger.log(Level.WARNING, "Idle eviction failed", e); //$NON-NLS-1$
+					}
+				}
+			}
+		}
+	}
+
 	class PooledDelegate implements PooledInstance<T> {
 		private final long timeout;
 		private LifecycleDelegate<T> instance = null;
@@ -111,18 +465,10 @@ public class BlockingPool<T> implements NewPool<T> {
 		public boolean release() {
 			if (this.instance != null) {
 				this.instance.passivate();
-				if (!BlockingPool.this.passiveInstances.offer(this.instance)) {
-					this.instance.release();
-					synchronized (BlockingPool.this.managedInstances) {
-						final Iterator<LifecycleDelegate<T>> i = BlockingPool.this.managedInstances.iterator();
-						while (i.hasNext()) {
-							// we want to remove the exact instance NOT the equals checked instance
-							if (this.instance == i.next()) {
-								i.remove();
-								break;
-							}
-						}
-					}
+				BlockingPool.this.idleSince.put(this.instance, Long.valueOf(System.nanoTime()));
+				if (BlockingPool.this.closed || !BlockingPool.this.idleStack.offerFirst(this.instance)) {
+					BlockingPool.this.idleSince.remove(this.instance);
+					BlockingPool.this.destroy(this.instance);
 				}
 				this.instance = null;
 			}
@@ -135,30 +481,33 @@ public class BlockingPool<T> implements NewPool<T> {
 				throw new IllegalStateException("Pool already closed and therefor all pooled instance are freed"); //$NON-NLS-1$
 			}
 			if (this.instance == null) {
-				this.instance = BlockingPool.this.passiveInstances.poll();
+				final long start = System.nanoTime();
+				this.instance = BlockingPool.this.idleStack.pollFirst();
 				if (this.instance == null) {
-					synchronized (BlockingPool.this.managedInstances) {
-						final int currentActive = BlockingPool.this.managedInstances.size();
-						if (currentActive < BlockingPool.this.maxActive) {
-							BlockingPool.this.managedInstances.add(this.instance = BlockingPool.this.instanceFactory.newInstance());
-						}
-					}
+					this.instance = BlockingPool.this.create();
 				}
 				if (this.instance == null) {
 					// we did not create one so we must already be at the limit. Go and take rather than poll.
+					BlockingPool.this.waiting.incrementAndGet();
 					try {
 						if (this.timeout > 0) {
-							this.instance = BlockingPool.this.passiveInstances.poll(this.timeout, TimeUnit.MILLISECONDS);
+							this.instance = BlockingPool.this.idleStack.pollFirst(this.timeout, TimeUnit.MILLISECONDS);
 						} else {
-							this.instance = BlockingPool.this.passiveInstances.take();
+							this.instance = BlockingPool.this.idleStack.takeFirst();
 						}
 					} catch (final InterruptedException e) {
 						throw DelegatedException.delegate(e);
+					} finally {
+						BlockingPool.this.waiting.decrementAndGet();
 					}
 					if (this.instance == null) {
+						BlockingPool.this.timeouts.increment();
 						throw new RuntimeException("Pool did not provide an instance to be used within the given time out"); //$NON-NLS-1$
 					}
 				}
+				BlockingPool.this.waitTimes.record(System.nanoTime() - start);
+				BlockingPool.this.idleSince.remove(this.instance);
+				BlockingPool.this.acquired.increment();
 				this.instance.activate();
 			}
 			return this.instance.delegate();
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+/**
+ * Management interface of the {@link BlockingPool}. Counters are totals since the pool was created, the wait times
+ * include the acquisitions which got an instance without waiting.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public interface BlockingPoolMXBean {
+
+	int getMinIdle();
+
+	int getMaxIdle();
+
+	int getMaxActive();
+
+	long getMaxIdleTime();
+
+	/**
+	 * Returns the number of instances currently handed out to callers.
+	 *
+	 * @return The number of active instances
+	 */
+	int getActiveCount();
+
+	int getIdleCount();
+
+	/**
+	 * Returns the number of callers currently blocked waiting for an instance.
+	 *
+	 * @return The number of waiting callers
+	 */
+	int getWaitingCount();
+
+	long getAcquiredCount();
+
+	long getCreatedCount();
+
+	long getDestroyedCount();
+
+	long getEvictedCount();
+
+	long getTimeoutCount();
+
+	double getAverageWaitMillis();
+
+	double getMaxWaitMillis();
+
+	/**
+	 * Returns the upper limits in milliseconds of the wait time histogram buckets. The last bucket has no upper limit.
+	 *
+	 * @return The bucket limits
+	 */
+	long[] getWaitTimeBucketLimits();
+
+	/**
+	 * Returns the number of acquisitions per wait time bucket. The array has one more element than {@link
+	 * #getWaitTimeBucketLimits()}, the last one counting everything above the last limit.
+	 *
+	 * @return The counts per bucket
+	 */
+	long[] getWaitTimeHistogram();
+
+	/**
+	 * Destroys idle instances exceeding the maximum idle time and creates new ones up to the minimum idle count.
+	 *
+	 * @return The number of evicted instances
+	 */
+	int evictIdle();
+}
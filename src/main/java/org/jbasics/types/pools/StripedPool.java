@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+import org.jbasics.checker.ContractCheck;
+import org.jbasics.pattern.factory.Factory;
+import org.jbasics.pattern.pooling.Pool;
+
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock free {@link Pool} with the semantics of the {@link LazyQueuePool}. The pooled instances are kept in a fixed
+ * array of slots, one slot per allowed pool entry. Acquire and release start probing at a slot derived from the current
+ * thread and claim a slot with a compare and set, so threads mostly work on their own slot and get back the instance
+ * they released before. Like the queue of the {@link LazyQueuePool} the slot array is only softly reachable and
+ * recreated empty after the garbage collector cleared it on memory demand. If the pool is empty a new instance is
+ * created by the factory.
+ *
+ * @param <T> The type of the pooled instances
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+public class StripedPool<T> implements Pool<T> {
+	private static final int DEFAULT_MAX_POOL_SIZE = 5;
+	private final Factory<T> factory;
+	private final int maxPoolSize;
+	private final AtomicReference<SoftReference<Slots<T>>> slots;
+
+	public StripedPool(final Factory<T> factory) {
+		this(factory, StripedPool.DEFAULT_MAX_POOL_SIZE);
+	}
+
+	/**
+	 * Creates a pool keeping at most the given number of instances.
+	 *
+	 * @param factory     The factory creating new instances (must not be null)
+	 * @param maxPoolSize The maximum number of pooled instances or zero to not pool at all
+	 */
+	public StripedPool(final Factory<T> factory, final int maxPoolSize) {
+		this.factory = ContractCheck.mustNotBeNull(factory, "factory"); //$NON-NLS-1$
+		this.maxPoolSize = Math.max(0, maxPoolSize);
+		this.slots = new AtomicReference<SoftReference<Slots<T>>>(new SoftReference<Slots<T>>(null));
+	}
+
+	public T acquire() {
+		final Slots<T> temp = this.maxPoolSize > 0 ? this.slots.get().get() : null;
+		if (temp != null && temp.available.get() > 0) {
+			final int start = StripedPool.home(this.maxPoolSize);
+			for (int i = 0; i < this.maxPoolSize; i++) {
+				final int index = (start + i) % this.maxPoolSize;
+				final T result = temp.get(index);
+				if (result != null && temp.compareAndSet(index, result, null)) {
+					temp.available.decrementAndGet();
+					return result;
+				}
+			}
+		}
+		return this.factory.newInstance();
+	}
+
+	public boolean release(final T object) {
+		if (object == null || this.maxPoolSize == 0) {
+			return false;
+		}
+		final Slots<T> temp = slots();
+		if (temp.available.get() >= this.maxPoolSize) {
+			return false;
+		}
+		final int start = StripedPool.home(this.maxPoolSize);
+		for (int i = 0; i < this.maxPoolSize; i++) {
+			final int index = (start + i) % this.maxPoolSize;
+			if (temp.get(index) == null && temp.compareAndSet(index, null, object)) {
+				temp.available.incrementAndGet();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of instances currently held by the pool.
+	 *
+	 * @return The number of pooled instances
+	 */
+	public int size() {
+		final Slots<T> temp = this.slots.get().get();
+		return temp == null ? 0 : temp.available.get();
+	}
+
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	private Slots<T> slots() {
+		while (true) {
+			final SoftReference<Slots<T>> reference = this.slots.get();
+			final Slots<T> temp = reference.get();
+			if (temp != null) {
+				return temp;
+			}
+			final Slots<T> created = new Slots<T>(this.maxPoolSize);
+			if (this.slots.compareAndSet(reference, new SoftReference<Slots<T>>(created))) {
+				return created;
+			}
+		}
+	}
+
+	private static int home(final int length) {
+		final long id = Thread.currentThread().getId();
+		final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return ((h ^ (h >>> 16)) & 0x7fffffff) % length;
+	}
+
+	private static final class Slots<T> extends AtomicReferenceArray<T> {
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger available = new AtomicInteger();
+
+		private Slots(final int length) {
+			super(length);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed bucket histogram of wait times with a roughly logarithmic scale from below one millisecond up to ten seconds.
+ *
+ * @author Stephan Schloepke
+ * @since 2.0
+ */
+final class WaitTimeHistogram {
+	private static final long[] LIMITS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+	private static final long[] LIMIT_NANOS = new long[WaitTimeHistogram.LIMITS.length];
+
+	static {
+		for (int i = 0; i < WaitTimeHistogram.LIMITS.length; i++) {
+			WaitTimeHistogram.LIMIT_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(WaitTimeHistogram.LIMITS[i]);
+		}
+	}
+
+	private final AtomicLongArray buckets = new AtomicLongArray(WaitTimeHistogram.LIMITS.length + 1);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+	void record(final long nanos) {
+		int index = 0;
+		while (index < WaitTimeHistogram.LIMIT_NANOS.length && nanos >= WaitTimeHistogram.LIMIT_NANOS[index]) {
+			index++;
+		}
+		this.buckets.incrementAndGet(index);
+		this.count.increment();
+		this.totalNanos.add(nanos);
+		this.maxNanos.accumulate(nanos);
+	}
+
+	long[] getLimits() {
+		return WaitTimeHistogram.LIMITS.clone();
+	}
+
+	long[] getCounts() {
+		final long[] result = new long[this.buckets.length()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = this.buckets.get(i);
+		}
+		return result;
+	}
+
+	double getAverageMillis() {
+		final long n = this.count.sum();
+		return n == 0L ? 0.0 : this.totalNanos.sum() / (n * 1000000.0);
+	}
+
+	double getMaxMillis() {
+		return this.maxNanos.get() / 1000000.0;
+	}
+}
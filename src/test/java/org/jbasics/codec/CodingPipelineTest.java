@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.codec;
+
+import org.jbasics.pattern.coder.Decoder;
+import org.jbasics.pattern.coder.Encoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+@SuppressWarnings("nls")
+public class CodingPipelineTest {
+
+	@Test
+	public void testFusedChainMatchesUnfused() {
+		final Random random = new Random(5);
+		final ChunkedEncoder chunked = new ChunkedEncoder(76, "\r\n");
+		final Encoder<byte[], CharSequence> encoder = new EncoderChain<byte[], CharSequence>(RFC3548Base64Codec.INSTANCE, chunked);
+		Assert.assertNotNull(((StagedEncoder<byte[], CharSequence>) encoder).newEncodingStage());
+		for (final int length : new int[]{0, 1, 56, 57, 58, 1000, 100000}) {
+			final byte[] data = new byte[length];
+			random.nextBytes(data);
+			final String expected = chunked.encode(RFC3548Base64Codec.INSTANCE.encode(data)).toString();
+			Assert.assertEquals(expected, encoder.encode(data).toString());
+			Assert.assertArrayEquals(data, RFC3548Base64Codec.INSTANCE.decode(expected));
+		}
+	}
+
+	@Test
+	public void testCryptRoundTrip() {
+		final XOrCryptCodec crypt = new XOrCryptCodec("Protecting the secret", Charset.forName("UTF-8"));
+		final Encoder<CharSequence, CharSequence> encoder = new EncoderChain<CharSequence, CharSequence>(
+				new EncoderChain<CharSequence, CharSequence>(crypt, RFC3548Base64Codec.INSTANCE), new ChunkedEncoder(64, "\n"));
+		final Decoder<CharSequence, CharSequence> decoder = new DecoderChain<CharSequence, CharSequence>(RFC3548Base64Codec.INSTANCE, crypt);
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append("Gr\u00fc\u00dfe \ud83d\ude00 line ").append(i).append('\n');
+		}
+		final CharSequence encoded = encoder.encode(text);
+		Assert.assertEquals(text.toString(), decoder.decode(encoded).toString());
+		Assert.assertEquals(text.toString(), crypt.decode(RFC3548Base64Codec.INSTANCE.decode(encoded)).toString());
+		Assert.assertEquals("", decoder.decode(encoder.encode("")).toString());
+	}
+
+	@Test
+	public void testStreamingInChunks() {
+		final byte[] data = new byte[50000];
+		new Random(9).nextBytes(data);
+		final CodingStage<ByteBuffer, CharBuffer> stage = CodingPipeline.compose(RFC3548Base32Codec.INSTANCE.newEncodingStage(),
+				new ChunkedEncoder(10, "|").newEncodingStage());
+		final StringBuilder encoded = new StringBuilder();
+		final CodingPipeline<ByteBuffer, CharBuffer> pipeline = new CodingPipeline<ByteBuffer, CharBuffer>(stage, CodingPipeline.appendTo(encoded));
+		final ByteBuffer chunk = ByteBuffer.allocate(333);
+		for (int offset = 0; offset < data.length; ) {
+			final int length = Math.min(chunk.remaining(), data.length - offset);
+			chunk.put(data, offset, length);
+			offset += length;
+			chunk.flip();
+			pipeline.process(chunk, offset == data.length);
+			chunk.compact();
+		}
+		Assert.assertEquals(new ChunkedEncoder(10, "|").encode(RFC3548Base32Codec.INSTANCE.encode(data)).toString(), encoded.toString());
+		final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		new CodingPipeline<CharBuffer, ByteBuffer>(RFC3548Base32Codec.INSTANCE.newDecodingStage(), CodingPipeline.writeTo(decoded)).process(CharBuffer.wrap(encoded), true);
+		Assert.assertArrayEquals(data, decoded.toByteArray());
+	}
+
+	@Test
+	public void testUnstagedChainFallsBack() {
+		final Encoder<CharSequence, CharSequence> encoder = new EncoderChain<CharSequence, CharSequence>(new Identity(), new ChunkedEncoder(2, "-"));
+		Assert.assertNull(((StagedEncoder<CharSequence, CharSequence>) encoder).newEncodingStage());
+		Assert.assertEquals("ab-cd-e", encoder.encode("abcde").toString());
+	}
+
+	private static final class Identity implements Encoder<CharSequence, CharSequence> {
+		@Override
+		public CharSequence encode(final CharSequence input) {
+			return input;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.codec;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Base64;
+import java.util.Random;
+
+public class RFC3548BufferCodecTest {
+	private static final AbstractRFC3548Codec[] CODECS = {RFC3548Base16Codec.INSTANCE, RFC3548Base32Codec.INSTANCE,
+			RFC3548Base64Codec.INSTANCE, RFC3548Base64Codec.INSTANCE_ALT, new RFC3548Base32Codec(true)};
+
+	@Test
+	public void testAgainstJdkBase64() {
+		final Random random = new Random(42);
+		for (int length = 0; length < 200; length++) {
+			final byte[] data = new byte[length];
+			random.nextBytes(data);
+			Assert.assertEquals(Base64.getEncoder().encodeToString(data), RFC3548Base64Codec.INSTANCE.encode(data).toString());
+			Assert.assertEquals(Base64.getUrlEncoder().encodeToString(data), RFC3548Base64Codec.INSTANCE_ALT.encode(data).toString());
+			Assert.assertArrayEquals(data, RFC3548Base64Codec.INSTANCE.decode(Base64.getMimeEncoder().encodeToString(data)));
+		}
+	}
+
+	@Test
+	public void testBuffers() {
+		final Random random = new Random(7);
+		for (final AbstractRFC3548Codec codec : RFC3548BufferCodecTest.CODECS) {
+			for (int length = 0; length < 64; length++) {
+				final byte[] data = new byte[length];
+				random.nextBytes(data);
+				final String expected = codec.encode(data).toString();
+				Assert.assertEquals(expected, codec.encodeBuffer(ByteBuffer.wrap(data)).toString());
+				final ByteBuffer direct = ByteBuffer.allocateDirect(length);
+				direct.put(data).flip();
+				Assert.assertEquals(expected, codec.encodeBuffer(direct).toString());
+				Assert.assertEquals(ByteBuffer.wrap(codec.decode(expected)), codec.decodeBuffer(CharBuffer.wrap(expected)));
+			}
+		}
+	}
+
+	@Test
+	public void testBufferChunks() {
+		final byte[] data = new byte[1000];
+		new Random(3).nextBytes(data);
+		final AbstractRFC3548Codec codec = RFC3548Base32Codec.INSTANCE;
+		final ByteBuffer input = ByteBuffer.wrap(data);
+		final CharBuffer chunk = CharBuffer.allocate(19);
+		final StringBuilder encoded = new StringBuilder();
+		boolean done = false;
+		while (!done) {
+			done = codec.encode(input, chunk, true);
+			chunk.flip();
+			encoded.append(chunk);
+			chunk.clear();
+		}
+		Assert.assertEquals(codec.encode(data).toString(), encoded.toString());
+		final CharBuffer chars = CharBuffer.wrap(encoded);
+		final ByteBuffer bytes = ByteBuffer.allocate(7);
+		final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+		done = false;
+		while (!done) {
+			done = codec.decode(chars, bytes, true);
+			decoded.write(bytes.array(), 0, bytes.position());
+			bytes.clear();
+		}
+		Assert.assertArrayEquals(data, decoded.toByteArray());
+	}
+
+	@Test
+	public void testStreams() throws IOException {
+		final byte[] data = new byte[100003];
+		new Random(11).nextBytes(data);
+		for (final AbstractRFC3548Codec codec : RFC3548BufferCodecTest.CODECS) {
+			final StringWriter writer = new StringWriter();
+			try (OutputStream out = codec.newEncodingStream(writer)) {
+				out.write(data, 0, 5);
+				out.write(data[5]);
+				out.write(data, 6, data.length - 6);
+			}
+			Assert.assertEquals(codec.encode(data).toString(), writer.toString());
+			final StringBuilder wrapped = new StringBuilder(writer.toString());
+			for (int i = wrapped.length() - 76; i > 0; i -= 76) {
+				wrapped.insert(i, "\r\n"); //$NON-NLS-1$
+			}
+			final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+			try (InputStream in = codec.newDecodingStream(new StringReader(wrapped.toString()))) {
+				final byte[] buffer = new byte[333];
+				for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+					decoded.write(buffer, 0, read);
+				}
+			}
+			Assert.assertArrayEquals(codec.decode(writer.toString()), decoded.toByteArray());
+		}
+		try (InputStream in = RFC3548Base16Codec.INSTANCE.newDecodingStream(new StringReader("4a6B"))) { //$NON-NLS-1$
+			Assert.assertEquals(0x4a, in.read());
+			Assert.assertEquals(0x6b, in.read());
+			Assert.assertEquals(-1, in.read());
+		}
+	}
+}
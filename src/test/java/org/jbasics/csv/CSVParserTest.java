@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CSVParserTest {
+	private static final String csvFileData =
+			"ID,Name,Remark\r\n" +
+			"1,One,\"Quoted, with separator\"\r\n" + // Dont break;
+			"2,Two,\"Multi\nline \"\"quoted\"\"\"\n" + // Dont break;
+			"\n\n" + // Dont break;
+			"3,Three,Last";
+
+	@Test
+	public void testStreamingMatchesTable() throws IOException {
+		final CSVTable table = new CSVParser().parse(new StringReader(CSVParserTest.csvFileData));
+		final List<CSVRecord> streamed = new ArrayList<CSVRecord>();
+		try (CSVDataConnection connection = new CSVParser().open(new StringReader(CSVParserTest.csvFileData))) {
+			Assert.assertEquals(table.getHeaders(), connection.getHeaders());
+			CSVRecord current;
+			while ((current = connection.readNext()) != null) {
+				streamed.add(current);
+			}
+		}
+		Assert.assertEquals(3, streamed.size());
+		Assert.assertEquals(table.size(), streamed.size());
+		for (int i = 0; i < streamed.size(); i++) {
+			Assert.assertEquals(table.getRecord(i), streamed.get(i));
+		}
+		Assert.assertEquals("Multi\nline \"quoted\"", streamed.get(1).getField(2));
+		Assert.assertEquals(new CSVRecord("3", "Three", "Last"), streamed.get(2));
+	}
+
+	@Test
+	public void testStreamingSink() throws IOException {
+		final StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			input.append(i).append(";\"value ").append(i).append("\";x\n");
+		}
+		final List<CSVRecord> records = new ArrayList<CSVRecord>();
+		final CSVRecord headers = new CSVParser(false, ';', true).parse(new StringReader(input.toString()), records::add);
+		Assert.assertNull(headers);
+		Assert.assertEquals(1000, records.size());
+		Assert.assertEquals(new CSVRecord("999", "value 999", "x"), records.get(999));
+	}
+}
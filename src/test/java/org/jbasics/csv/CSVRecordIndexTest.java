@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class CSVRecordIndexTest {
+	private static final String csvFileData =
+			"country,city,population\r\n" +
+			"DE,Berlin,3500000\r\n" +
+			"DE,Hamburg,1800000\r\n" +
+			"FR,Paris,2200000\r\n" +
+			"DE,Berlin,3600000\r\n" +
+			"US,,\r\n";
+
+	@Test
+	public void testMultiValuedLookup() {
+		final CSVTable table = new CSVParser().parse(CSVRecordIndexTest.csvFileData);
+		final CSVRecordIndex index = table.index("country", "city");
+		Assert.assertEquals(5, index.size());
+		Assert.assertEquals(4, index.keyCount());
+		final List<CSVRecord> berlin = index.getAll("DE", "Berlin");
+		Assert.assertEquals(2, berlin.size());
+		Assert.assertEquals("3500000", berlin.get(0).getField(2));
+		Assert.assertEquals("3600000", berlin.get(1).getField(2));
+		Assert.assertEquals(berlin.get(0), index.get("DE", "Berlin"));
+		Assert.assertEquals("2200000", index.get("FR", "Paris").getField(2));
+		Assert.assertEquals("US", index.get("US", "").getField(0));
+		Assert.assertNull(index.get("FR", "Berlin"));
+		Assert.assertTrue(index.getAll("IT", "Rome").isEmpty());
+	}
+
+	@Test
+	public void testProbeLookup() {
+		final CSVTable table = new CSVParser().parse(CSVRecordIndexTest.csvFileData);
+		final CSVRecordIndex index = new CSVRecordIndex(ColumnarCSVTable.valueOf(table), false, 1);
+		final CSVRecord probe = new CSVRecord("x", "Hamburg");
+		Assert.assertEquals(new CSVRecord("DE", "Hamburg", "1800000"), index.get(probe, 1));
+		Assert.assertEquals(2, index.getAll(new CSVRecord("Berlin"), 0).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUniqueViolation() {
+		CSVRecordIndex.create(new CSVParser().parse(CSVRecordIndexTest.csvFileData), true, "country", "city");
+	}
+
+	@Test
+	public void testUniqueIndex() {
+		final CSVRecordIndex index = CSVRecordIndex.create(new CSVParser().parse(CSVRecordIndexTest.csvFileData), true, "population");
+		Assert.assertEquals(index.size(), index.keyCount());
+		Assert.assertEquals("Hamburg", index.get("1800000").getField(1));
+	}
+}
@@ -26,7 +26,11 @@ package org.jbasics.csv;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 public class CSVRecordWriterTest {
 
@@ -41,4 +45,41 @@ public class CSVRecordWriterTest {
 		new CSVRecordWriter(out2).write(record).write(record2).write(record, record2).close();
 		Assert.assertEquals("One,Two,Three\r\nOneOne,\"Two,Two\",ThreeThree\r\nOne,Two,Three\r\nOneOne,\"Two,Two\",ThreeThree\r\n", out2.toString());
 	}
+
+	@Test
+	public void testBufferedBulkWrite() throws IOException {
+		final StringBuilder value = new StringBuilder();
+		for (int i = 0; i < 3000; i++) {
+			value.append("a\"b");
+		}
+		final CSVRecord record = new CSVRecord("x", value.toString(), null, "line\nbreak");
+		final StringWriter out = new StringWriter();
+		final CSVRecordWriter writer = new CSVRecordWriter(out, CSVSeparator.SEMICOLON, true);
+		writer.write(Arrays.asList(record, record));
+		Assert.assertEquals("Data is buffered until flush", 0, out.getBuffer().length() % 8192);
+		writer.flush();
+		final StringBuilder expected = new StringBuilder();
+		record.append(expected, ';').append("\r\n");
+		record.append(expected, ';').append("\r\n");
+		Assert.assertEquals(expected.toString(), out.toString());
+		Assert.assertEquals(value.toString(), new CSVParser(false, ';', true).parse(out.toString()).getRecord(1).getField(1));
+	}
+
+	@Test
+	public void testWriteThroughToWriter() throws IOException {
+		final StringWriter out = new StringWriter();
+		final CSVRecordWriter writer = new CSVRecordWriter(out, CSVSeparator.COMMA);
+		writer.write(new CSVRecord("a", "b\"c"));
+		Assert.assertEquals("a,\"b\"\"c\"\r\n", out.toString());
+		writer.writeFields("d", null);
+		Assert.assertEquals("a,\"b\"\"c\"\r\nd,\r\n", out.toString());
+	}
+
+	@Test
+	public void testWriteColumnsWithCharset() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final Charset utf8 = Charset.forName("UTF-8");
+		new CSVRecordWriter(out, utf8, CSVSeparator.COMMA).writeColumns(new String[]{"1", "2"}, new String[]{"\u00e4", "x,y"}).close();
+		Assert.assertEquals("1,\u00e4\r\n2,\"x,y\"\r\n", new String(out.toByteArray(), utf8));
+	}
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+public class ColumnarCSVTableTest {
+	private static final String csvFileData =
+			"id,amount,price,rate,name,remark\r\n" +
+			"1,10,1.5,0.25,Alpha,\r\n" +
+			"2,-20,2,1.50,Beta,\"with, separator\"\r\n" +
+			"3,30,3.75,007,Alpha\r\n" +
+			"4,,4.5,1E+3,Gamma,x\r\n";
+
+	@Test
+	public void testTypeInferenceAndRoundTrip() {
+		final CSVTable table = new CSVParser().parse(ColumnarCSVTableTest.csvFileData);
+		final ColumnarCSVTable columnar = ColumnarCSVTable.valueOf(table);
+		Assert.assertEquals(table.getHeaders(), columnar.getHeaders());
+		Assert.assertEquals(table.rowSize(), columnar.rowSize());
+		Assert.assertEquals(table.columnSize(), columnar.columnSize());
+		Assert.assertEquals(ColumnarCSVTable.ColumnType.LONG, columnar.getColumnType(0));
+		Assert.assertEquals(ColumnarCSVTable.ColumnType.LONG, columnar.getColumnType(1));
+		Assert.assertEquals(ColumnarCSVTable.ColumnType.DECIMAL, columnar.getColumnType(2));
+		Assert.assertEquals(ColumnarCSVTable.ColumnType.STRING, columnar.getColumnType(3));
+		Assert.assertEquals(ColumnarCSVTable.ColumnType.STRING, columnar.getColumnType(4));
+		for (int row = 0; row < table.rowSize(); row++) {
+			Assert.assertEquals(table.getRecord(row), columnar.getRecord(row));
+			for (int column = 0; column < table.columnSize(); column++) {
+				Assert.assertEquals(table.getValueAtRowAndColumn(row, column), columnar.getValueAtRowAndColumn(row, column));
+			}
+		}
+		Assert.assertEquals(table.toString(), columnar.toCSVTable().toString());
+	}
+
+	@Test
+	public void testTypedAccess() {
+		final ColumnarCSVTable columnar = ColumnarCSVTable.valueOf(new CSVParser().parse(ColumnarCSVTableTest.csvFileData));
+		Assert.assertEquals(-20L, columnar.getLong(1, 1));
+		Assert.assertTrue(columnar.isNullOrEmpty(3, 1));
+		Assert.assertTrue(Double.isNaN(columnar.getDouble(3, 1)));
+		Assert.assertEquals(0L, columnar.getLong(3, 1));
+		Assert.assertEquals(3.75d, columnar.getDouble(2, 2), 0d);
+		Assert.assertEquals(new BigDecimal("2"), columnar.getDecimal(1, 2));
+		Assert.assertNull(columnar.getValueAtRowAndColumn(2, 5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLongAccessOnStringColumn() {
+		ColumnarCSVTable.valueOf(new CSVParser().parse(ColumnarCSVTableTest.csvFileData)).getLong(0, 4);
+	}
+}
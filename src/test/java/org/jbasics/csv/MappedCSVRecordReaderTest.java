@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedCSVRecordReaderTest {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String csvFileData =
+			"\"x\",\"y\",\"z\"\n" +
+			"One,Two,Three\n" + // Dont break;
+			"\"2nd,One\",2ndTwo,\"2nd \"\"Three\"\"\"\r\n" + // Dont break;
+			"\r\n" + // Dont break;
+			"\u00dcmlaut,\u00c4pfel,\u00d6l\r" + // Dont break;
+			"LastOne,\"Last\nTwo\",LastThree"; // Dont break;
+
+	@Test
+	public void testReadLikeRecordReader() throws IOException {
+		final List<CSVRecord> expected = readAll(new CSVRecordReader(new StringReader(MappedCSVRecordReaderTest.csvFileData)));
+		final File file = createFile(MappedCSVRecordReaderTest.csvFileData);
+		try {
+			for (final int windowSize : new int[]{1, 3, 16, MappedCSVRecordReader.DEFAULT_WINDOW_SIZE}) {
+				final MappedCSVRecordReader reader = new MappedCSVRecordReader(file.toPath(), MappedCSVRecordReaderTest.UTF8, CSVSeparator.COMMA, true, windowSize);
+				final List<CSVRecord> records = new ArrayList<CSVRecord>();
+				CSVRecord current;
+				while ((current = reader.readNext()) != null) {
+					records.add(current);
+				}
+				reader.close();
+				Assert.assertEquals("Window size " + windowSize, expected, records);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testLazyFieldAccess() throws IOException {
+		final File file = createFile("a;b;\"c;d\"\n1;2;3");
+		try (MappedCSVRecordReader reader = new MappedCSVRecordReader(file.toPath(), MappedCSVRecordReaderTest.UTF8, CSVSeparator.SEMICOLON, true)) {
+			final CSVRecord first = reader.readNext();
+			final CSVRecord second = reader.readNext();
+			Assert.assertNull(reader.readNext());
+			Assert.assertEquals("c;d", first.getField(2));
+			Assert.assertEquals(3, second.size());
+			Assert.assertEquals(new CSVRecord("1", "2", "3"), second);
+			Assert.assertEquals(new CSVRecord("1", "2", "3").hashCode(), second.hashCode());
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static List<CSVRecord> readAll(final CSVRecordReader reader) throws IOException {
+		final List<CSVRecord> records = new ArrayList<CSVRecord>();
+		CSVRecord current;
+		while ((current = reader.readNext()) != null) {
+			records.add(current);
+		}
+		reader.close();
+		return records;
+	}
+
+	private static File createFile(final String content) throws IOException {
+		final File file = File.createTempFile("jbasics-mapped", ".csv");
+		Files.write(file.toPath(), content.getBytes(MappedCSVRecordReaderTest.UTF8));
+		return file;
+	}
+}
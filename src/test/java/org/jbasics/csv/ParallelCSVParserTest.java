@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.csv;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelCSVParserTest {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	@Test
+	public void testOrderedParse() throws IOException {
+		final String data = createData(500);
+		final CSVTable expected = new CSVParser(true, ',', true).parse(new StringReader(data));
+		final File file = createFile(data);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (final long chunkSize : new long[]{1L, 7L, 64L, 100L, 1000L, 4096L, ParallelCSVParser.DEFAULT_CHUNK_SIZE}) {
+				final CSVTable table = new ParallelCSVParser(pool, ParallelCSVParserTest.UTF8, CSVSeparator.COMMA, true, true, chunkSize).parse(file.toPath());
+				Assert.assertEquals(expected.getHeaders(), table.getHeaders());
+				Assert.assertEquals("Chunk size " + chunkSize, expected.size(), table.size());
+				for (int i = 0; i < expected.size(); i++) {
+					Assert.assertEquals("Chunk size " + chunkSize, expected.getRecord(i), table.getRecord(i));
+				}
+			}
+		} finally {
+			pool.shutdown();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testUnorderedParse() throws IOException {
+		final File file = createFile(createData(200));
+		try {
+			final List<CSVRecord> records = Collections.synchronizedList(new ArrayList<CSVRecord>());
+			final CSVRecord headers = new ParallelCSVParser(null, ParallelCSVParserTest.UTF8, CSVSeparator.COMMA, true, true, 64L).parse(file.toPath(), records::add);
+			Assert.assertEquals(new CSVRecord("id", "text", "value"), headers);
+			Assert.assertEquals(200, records.size());
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static String createData(final int rows) {
+		final StringBuilder result = new StringBuilder("id,text,value\r\n");
+		for (int i = 0; i < rows; i++) {
+			result.append(i).append(',');
+			switch (i % 4) {
+				case 0:
+					result.append("\"multi\r\nline, \"\"quoted\"\"\"");
+					break;
+				case 1:
+					result.append("\"\n\"");
+					break;
+				case 2:
+					result.append("plain");
+					break;
+				default:
+					result.append("\"\"");
+			}
+			result.append(',').append(i * 3).append(i % 3 == 0 ? "\n" : "\r\n");
+		}
+		return result.toString();
+	}
+
+	private static File createFile(final String content) throws IOException {
+		final File file = File.createTempFile("jbasics-parallel", ".csv");
+		Files.write(file.toPath(), content.getBytes(ParallelCSVParserTest.UTF8));
+		return file;
+	}
+}
@@ -26,6 +26,10 @@ package org.jbasics.math;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
+
 public class BigDecimalMatrixTest {
 
 	@Test
@@ -93,4 +97,57 @@ public class BigDecimalMatrixTest {
 		BigDecimalMatrix C = BigDecimalMatrix.create().withRowFromLongs(12, -6).withRowFromLongs(39, -12).build();
 		Assert.assertEquals(A.add(B).multiply(C), A.multiply(C).add(B.multiply(C)));
 	}
+
+	@Test
+	public void testParallelMultiplyIsBitIdentical() {
+		BigDecimalMatrix A = BigDecimalMatrix.createRandomMatrix(90, 70, new JavaRandomNumberSequence(4711L));
+		BigDecimalMatrix B = BigDecimalMatrix.createRandomMatrix(70, 130, new JavaRandomNumberSequence(815L));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (MathContext mc : new MathContext[]{MathContext.DECIMAL32, MathContext.DECIMAL128, MathContext.UNLIMITED}) {
+				BigDecimalMatrix expected = naiveMultiply(A, B, mc);
+				Assert.assertEquals(expected, A.multiply(B, mc));
+				Assert.assertEquals(expected, A.multiply(B, mc, pool));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelElementwiseKernels() {
+		BigDecimalMatrix A = BigDecimalMatrix.createRandomMatrix(300, 120, new JavaRandomNumberSequence(1L));
+		BigDecimalMatrix B = BigDecimalMatrix.createRandomMatrix(300, 120, new JavaRandomNumberSequence(2L));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			BigDecimalMatrix transposed = A.transpose(pool);
+			Assert.assertEquals(120, transposed.rowSize());
+			Assert.assertEquals(300, transposed.columnSize());
+			Assert.assertEquals(A, transposed.transpose(pool));
+			Assert.assertSame(A.get(17, 42), transposed.get(42, 17));
+			Assert.assertEquals(A.add(B, MathContext.DECIMAL64), A.add(B, MathContext.DECIMAL64, pool));
+			Assert.assertEquals(A.subtract(B, MathContext.DECIMAL64), A.subtract(B, MathContext.DECIMAL64, pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParallelMultiplyDimensionMismatch() {
+		BigDecimalMatrix.createRandomMatrix(3, 4).multiply(BigDecimalMatrix.createRandomMatrix(3, 4), MathContext.DECIMAL64, ForkJoinPool.commonPool());
+	}
+
+	private static BigDecimalMatrix naiveMultiply(BigDecimalMatrix left, BigDecimalMatrix right, MathContext mc) {
+		Number[] values = new Number[left.rowSize() * right.columnSize()];
+		for (int i = 0; i < right.columnSize(); i++) {
+			for (int j = 0; j < left.rowSize(); j++) {
+				BigDecimal temp = BigDecimal.ZERO;
+				for (int k = 0; k < left.columnSize(); k++) {
+					temp = temp.add(left.get(j, k).multiply(right.get(k, i)));
+				}
+				values[j * right.columnSize() + i] = temp.round(mc);
+			}
+		}
+		return new BigDecimalMatrix(left.rowSize(), right.columnSize(), values);
+	}
 }
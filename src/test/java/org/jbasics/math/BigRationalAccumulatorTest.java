@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class BigRationalAccumulatorTest {
+
+	@Test
+	public void testAddMatchesBigRational() {
+		Random random = new Random(42);
+		BigRational expected = BigRational.ZERO;
+		BigRationalAccumulator accumulator = new BigRationalAccumulator(16, 256);
+		for (int i = 0; i < 2000; i++) {
+			BigRational value = new BigRational(random.nextInt(2000) - 1000, 1 + random.nextInt(50));
+			expected = expected.add(value).reduce();
+			if (i % 3 == 0) {
+				accumulator.subtract(value.negate());
+			} else {
+				accumulator.add(value);
+			}
+		}
+		Assert.assertEquals(expected, accumulator.toBigRational());
+	}
+
+	@Test
+	public void testSameDenominatorAndIntegers() {
+		BigRationalAccumulator accumulator = new BigRationalAccumulator();
+		for (int i = 0; i < 1000; i++) {
+			accumulator.add(new BigRational(i, 100));
+		}
+		accumulator.add(5L).add(BigInteger.TEN);
+		Assert.assertEquals(new BigRational(999 * 1000 / 2 + 1500, 100).reduce(), accumulator.toBigRational());
+		Assert.assertSame(BigRational.ZERO, new BigRationalAccumulator().add(BigRational.ONE).add(BigRational.ONE.negate()).toBigRational());
+	}
+
+	@Test
+	public void testAddAll() {
+		List<BigRational> values = new ArrayList<BigRational>();
+		BigRational expected = BigRational.ZERO;
+		for (int i = 1; i <= 500; i++) {
+			BigRational value = new BigRational(1, i);
+			values.add(value);
+			expected = expected.add(value).reduce();
+		}
+		Assert.assertEquals(expected, new BigRationalAccumulator().addAll(values.toArray(new BigRational[values.size()])).toBigRational());
+		Assert.assertEquals(expected, new BigRationalAccumulator(8, 64).addAll(values.toArray(new BigRational[values.size()])).toBigRational());
+		Assert.assertEquals(expected, new BigRationalAccumulator().addAll(values).toBigRational());
+		Assert.assertEquals(expected, new BigRationalAccumulator().addAll(values.stream()).toBigRational());
+		Assert.assertEquals(expected, new BigRationalAccumulator().addAll(values.parallelStream()).toBigRational());
+		Assert.assertSame(BigRational.ZERO, new BigRationalAccumulator().addAll(new BigRational[0]).toBigRational());
+	}
+
+	@Test
+	public void testCollectors() {
+		BigRational expected = BigRational.ZERO;
+		BigRational expectedProduct = BigRational.ONE;
+		for (int i = 1; i <= 300; i++) {
+			expected = expected.add(new BigRational(i, i + 1)).reduce();
+			expectedProduct = expectedProduct.multiply(new BigRational(i, i + 1)).reduce();
+		}
+		Assert.assertEquals(expected, IntStream.rangeClosed(1, 300).parallel().mapToObj(i -> new BigRational(i, i + 1))
+				.collect(BigRationalAccumulator.summing()));
+		Assert.assertEquals(expectedProduct, IntStream.rangeClosed(1, 300).parallel().mapToObj(i -> new BigRational(i, i + 1))
+				.collect(BigRationalAccumulator.multiplying()));
+		Assert.assertEquals(new BigRational(1, 301), expectedProduct);
+	}
+
+	@Test
+	public void testMultiplyAndCombine() {
+		BigRationalAccumulator first = new BigRationalAccumulator().add(new BigRational(1, 3)).multiply(6L)
+				.multiply(new BigRational(3, 4));
+		Assert.assertEquals(new BigRational(3, 2), first.toBigRational());
+		BigRationalAccumulator second = new BigRationalAccumulator().add(new BigRational(1, 6));
+		Assert.assertEquals(new BigRational(5, 3), first.combine(second).toBigRational());
+		Assert.assertEquals(new BigRational(5, 18), first.combineProduct(second).toBigRational());
+		Assert.assertEquals(BigRational.valueOf(7L), first.reset(BigRational.valueOf(7L)).toBigRational());
+		Assert.assertSame(BigRational.ZERO, first.reset().toBigRational());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalInterval() {
+		new BigRationalAccumulator(0, 10);
+	}
+}
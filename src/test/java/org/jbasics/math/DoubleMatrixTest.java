@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
+
+public class DoubleMatrixTest {
+	private static final double EPSILON = 1e-9;
+
+	@Test
+	public void testBuilder() {
+		DoubleMatrix m = DoubleMatrix.create().withRow(1, 2).withRowFromLongs(3).build();
+		Assert.assertEquals(2, m.rowSize());
+		Assert.assertEquals(2, m.columnSize());
+		Assert.assertEquals(new DoubleMatrix(2, 2, 1, 2, 3, 0), m);
+		Assert.assertEquals(Double.valueOf(3), m.getValueAtRowAndColumn(1, 0));
+		DoubleMatrix sized = DoubleMatrix.create().withSize(3, 4).set(2, 3, 7.5).build();
+		Assert.assertEquals(3, sized.rowSize());
+		Assert.assertEquals(4, sized.columnSize());
+		Assert.assertEquals(7.5, sized.get(1, 2), 0.0);
+		Assert.assertEquals(0.0, sized.get(2, 3), 0.0);
+	}
+
+	@Test
+	public void testTransposeAddSubtract() {
+		DoubleMatrix input = DoubleMatrix.create().withRow(1, -3, 2).withRow(1, 2, 7).build();
+		DoubleMatrix summant = DoubleMatrix.create().withRow(0, 3, 5).withRow(2, 1, -1).build();
+		Assert.assertEquals(DoubleMatrix.create().withRow(1, 1).withRow(-3, 2).withRow(2, 7).build(), input.transpose());
+		Assert.assertEquals(DoubleMatrix.create().withRow(1, 0, 7).withRow(3, 3, 6).build(), input.add(summant));
+		Assert.assertEquals(input, input.add(summant).subtract(summant));
+		Assert.assertEquals(DoubleMatrix.create().withRow(5, -15, 10).withRow(5, 10, 35).build(), input.multiply(5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddDimensionMismatch() {
+		new DoubleMatrix(2, 3).add(new DoubleMatrix(3, 2));
+	}
+
+	@Test
+	public void testMultiply() {
+		DoubleMatrix input = DoubleMatrix.create().withRow(1, 2, 3).withRow(4, 5, 6).build();
+		DoubleMatrix factor = DoubleMatrix.create().withRow(6, -1).withRow(3, 2).withRow(0, -3).build();
+		Assert.assertEquals(DoubleMatrix.create().withRow(12, -6).withRow(39, -12).build(), input.multiply(factor));
+	}
+
+	@Test
+	public void testParallelMultiplyMatchesSequential() {
+		DoubleMatrix a = DoubleMatrix.createRandomMatrix(150, 130, new JavaRandomNumberSequence(1L));
+		DoubleMatrix b = DoubleMatrix.createRandomMatrix(130, 90, new JavaRandomNumberSequence(2L));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Assert.assertEquals(a.multiply(b), a.multiply(b, pool));
+			Assert.assertEquals(a.transpose(), a.transpose(pool));
+			Assert.assertEquals(a.add(a), a.add(a, pool));
+			Assert.assertEquals(a.subtract(a), a.subtract(a, pool));
+		} finally {
+			pool.shutdown();
+		}
+		BigDecimalMatrix exact = a.toBigDecimalMatrix().multiply(b.toBigDecimalMatrix(), MathContext.DECIMAL64);
+		DoubleMatrix product = a.multiply(b);
+		for (int i = 0; i < product.rowSize(); i++) {
+			for (int j = 0; j < product.columnSize(); j++) {
+				Assert.assertEquals(exact.get(i, j).doubleValue(), product.get(i, j), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testLUDecomposition() {
+		DoubleMatrix a = DoubleMatrix.create().withRow(0, 2, 1).withRow(1, 1, 1).withRow(2, 1, 3).build();
+		DoubleLUDecomposition lu = a.decomposeLU();
+		Assert.assertFalse(lu.isSingular());
+		Assert.assertEquals(-3.0, lu.determinant(), EPSILON);
+		int[] pivot = lu.getPivot();
+		DoubleMatrix product = lu.getLower().multiply(lu.getUpper());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				Assert.assertEquals(a.get(pivot[i], j), product.get(i, j), EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testSolve() {
+		DoubleMatrix a = DoubleMatrix.createRandomMatrix(40, 40, new JavaRandomNumberSequence(3L)).add(DoubleMatrix.createIdentityMatrix(40).multiply(10));
+		DoubleMatrix x = DoubleMatrix.createRandomMatrix(40, 3, new JavaRandomNumberSequence(4L));
+		DoubleMatrix solved = a.solve(a.multiply(x));
+		for (int i = 0; i < x.rowSize(); i++) {
+			for (int j = 0; j < x.columnSize(); j++) {
+				Assert.assertEquals(x.get(i, j), solved.get(i, j), EPSILON);
+			}
+		}
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testSolveSingular() {
+		DoubleMatrix a = DoubleMatrix.create().withRow(1, 2).withRow(2, 4).build();
+		Assert.assertTrue(a.decomposeLU().isSingular());
+		a.solve(DoubleMatrix.createColumnVector(1, 2));
+	}
+
+	@Test
+	public void testBigDecimalConversion() {
+		BigDecimalMatrix exact = BigDecimalMatrix.create().withRowFromStrings("0.1", "2.5").withRowFromStrings("-3", "1e3").build();
+		DoubleMatrix fast = exact.toDoubleMatrix();
+		Assert.assertEquals(new DoubleMatrix(2, 2, 0.1, 2.5, -3, 1000), fast);
+		Assert.assertEquals(fast, DoubleMatrix.valueOf(fast.toBigDecimalMatrix()));
+		Assert.assertEquals(0, fast.toBigDecimalMatrix().get(0, 0).compareTo(exact.get(0, 0)));
+	}
+}
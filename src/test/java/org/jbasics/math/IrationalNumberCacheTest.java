@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IrationalNumberCacheTest {
+
+	@Test
+	public void testHigherPrecisionServesLowerPrecision() {
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().build();
+		CountingNumber number = new CountingNumber();
+		IrationalNumber<BigDecimal> cached = cache.lookup("sin", number, new BigDecimal("0.5"));
+		BigDecimal high = cached.valueToPrecision(new MathContext(50));
+		Assert.assertEquals(1, cache.getMissCount());
+		Assert.assertEquals(50, cache.getTotalDigits());
+		BigDecimal low = cache.lookup("sin", new CountingNumber(), new BigDecimal("0.50")).valueToPrecision(MathContext.DECIMAL64);
+		Assert.assertEquals(high.round(MathContext.DECIMAL64), low);
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(1, cache.size());
+		cached.valueToPrecision(new MathContext(60));
+		Assert.assertEquals(2, cache.getMissCount());
+		Assert.assertEquals(60, cache.getTotalDigits());
+		Assert.assertEquals(3, number.calls.get());
+		Assert.assertEquals(1.0 / 3.0, cache.getHitRatio(), 1e-12);
+	}
+
+	@Test
+	public void testDifferentFunctionsAndArguments() {
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().build();
+		cache.lookup("sin", new CountingNumber(), BigDecimal.ONE).valueToPrecision(null);
+		cache.lookup("cos", new CountingNumber(), BigDecimal.ONE).valueToPrecision(null);
+		cache.lookup("sin", new CountingNumber(), BigDecimal.TEN).valueToPrecision(null);
+		Assert.assertEquals(3, cache.size());
+		Assert.assertEquals(3, cache.getMissCount());
+		Assert.assertEquals(3 * MathContext.DECIMAL128.getPrecision(), cache.getTotalDigits());
+	}
+
+	@Test
+	public void testEvictionByEntries() {
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().setMaximumEntries(8).build();
+		for (int i = 0; i < 9; i++) {
+			cache.lookup("f", new CountingNumber(), BigDecimal.valueOf(i)).valueToPrecision(MathContext.DECIMAL32);
+		}
+		Assert.assertEquals(7, cache.size());
+		Assert.assertEquals(2, cache.getEvictionCount());
+		Assert.assertEquals(7 * 7, cache.getTotalDigits());
+		// the least recently used entries 0 and 1 got evicted
+		cache.lookup("f", new CountingNumber(), BigDecimal.valueOf(8)).valueToPrecision(MathContext.DECIMAL32);
+		cache.lookup("f", new CountingNumber(), BigDecimal.valueOf(0)).valueToPrecision(MathContext.DECIMAL32);
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(10, cache.getMissCount());
+	}
+
+	@Test
+	public void testEvictionByDigitsLargestFirst() {
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().setMaximumDigits(200)
+				.setEvictionPolicy(IrationalNumberCache.EvictionPolicy.LARGEST_FIRST).build();
+		cache.lookup("f", new CountingNumber(), BigDecimal.ONE).valueToPrecision(new MathContext(120));
+		cache.lookup("f", new CountingNumber(), BigDecimal.TEN).valueToPrecision(new MathContext(20));
+		cache.lookup("f", new CountingNumber(), BigDecimal.ZERO).valueToPrecision(new MathContext(70));
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(90, cache.getTotalDigits());
+		cache.lookup("f", new CountingNumber(), BigDecimal.TEN).valueToPrecision(new MathContext(20));
+		Assert.assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testConcurrentLookupsWhileEvicting() throws Exception {
+		final IrationalNumberCache cache = IrationalNumberCache.newBuilder().setMaximumEntries(16)
+				.setEvictionPolicy(IrationalNumberCache.EvictionPolicy.LEAST_FREQUENTLY_USED).build();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 20000; i++) {
+							cache.lookup("f", new CountingNumber(), BigDecimal.valueOf((i * 7 + seed) % 40)).valueToPrecision(MathContext.DECIMAL32);
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertNull(String.valueOf(failure.get()), failure.get());
+		// Eviction is skipped while another thread evicts so only an uncontended miss restores the bound
+		cache.lookup("f", new CountingNumber(), BigDecimal.valueOf(-1)).valueToPrecision(MathContext.DECIMAL32);
+		Assert.assertTrue(cache.size() <= 16);
+	}
+
+	@Test
+	public void testClear() {
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().build();
+		cache.lookup("f", new CountingNumber(), BigDecimal.ONE).valueToPrecision(null);
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getTotalDigits());
+	}
+
+	@Test
+	public void testLibraryUsesSharedCache() {
+		IrationalNumberCache previous = IrationalNumberCache.getSharedInstance();
+		IrationalNumberCache cache = IrationalNumberCache.newBuilder().build();
+		IrationalNumberCache.setSharedInstance(cache);
+		try {
+			BigDecimal x = new BigDecimal("0.75");
+			BigDecimal expected = BigDecimalMathLibrary.sin(x).valueToPrecision(MathContext.DECIMAL128);
+			Assert.assertEquals(expected.round(MathContext.DECIMAL64), BigDecimalMathLibrary.sin(x).valueToPrecision(MathContext.DECIMAL64));
+			Assert.assertEquals(1, cache.getHitCount());
+			Assert.assertEquals(1, cache.getMissCount());
+			IrationalNumberCache.setSharedInstance(null);
+			Assert.assertEquals(expected, BigDecimalMathLibrary.sin(x).valueToPrecision(MathContext.DECIMAL128));
+			Assert.assertEquals(1, cache.getMissCount());
+		} finally {
+			IrationalNumberCache.setSharedInstance(previous);
+		}
+	}
+
+	private static class CountingNumber implements IrationalNumber<BigDecimal> {
+		private final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public BigDecimal valueToPrecision(MathContext mc) {
+			this.calls.incrementAndGet();
+			return BigDecimalMathLibrary.CONSTANT_ONE.divide(BigDecimalMathLibrary.CONSTANT_THREE, mc == null ? MathContext.DECIMAL128 : mc);
+		}
+	}
+}
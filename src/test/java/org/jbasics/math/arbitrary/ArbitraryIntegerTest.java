@@ -153,6 +153,92 @@ public class ArbitraryIntegerTest extends Java14LoggingTestCase {
 		}
 	}
 
+	@Test
+	public void testLargeMultiplyAndPow() {
+		for (int i = 0; i < 20; i++) {
+			final BigInteger referenceX = new BigInteger(32 * (200 + this.randomizer.nextInt(3000)), this.randomizer).negate();
+			final BigInteger referenceY = new BigInteger(32 * (200 + this.randomizer.nextInt(3000)), this.randomizer);
+			final ArbitraryInteger x = ArbitraryInteger.valueOf(referenceX.toByteArray());
+			final ArbitraryInteger y = ArbitraryInteger.valueOf(referenceY.toByteArray());
+			Assert.assertEquals(referenceX.multiply(referenceY), x.multiply(y).toNumber());
+			Assert.assertEquals(referenceX.pow(2), x.square().toNumber());
+		}
+		final BigInteger reference = BigInteger.valueOf(this.randomizer.nextLong());
+		Assert.assertEquals(reference.pow(1000), ArbitraryInteger.valueOf(reference.toByteArray()).pow(1000).toNumber());
+	}
+
+	@Test
+	public void testDivideAndRemainder() {
+		for (int i = 0; i < 2000; i++) {
+			BigInteger referenceX = new BigInteger(1 + this.randomizer.nextInt(32 * 80), this.randomizer);
+			BigInteger referenceY = new BigInteger(1 + this.randomizer.nextInt(32 * 40), this.randomizer).add(BigInteger.ONE);
+			if (this.randomizer.nextBoolean()) {
+				referenceX = referenceX.negate();
+			}
+			if (this.randomizer.nextBoolean()) {
+				referenceY = referenceY.negate();
+			}
+			final ArbitraryInteger x = ArbitraryInteger.valueOf(referenceX.toByteArray());
+			final ArbitraryInteger y = ArbitraryInteger.valueOf(referenceY.toByteArray());
+			final BigInteger[] expected = referenceX.divideAndRemainder(referenceY);
+			final ArbitraryInteger[] result = x.divideAndRemainder(y);
+			Assert.assertEquals(expected[0], result[0].toNumber());
+			Assert.assertEquals(expected[1], result[1].toNumber());
+			Assert.assertEquals(referenceX.mod(referenceY.abs()), x.mod(y.abs()).toNumber());
+		}
+		// the add back step of algorithm D is rare with random values so force it with a special case
+		final BigInteger dividend = new BigInteger("7fffffff800000010000000000000000", 16);
+		final BigInteger divisor = new BigInteger("800000000000000000000003", 16);
+		Assert.assertEquals(dividend.divide(divisor), ArbitraryInteger.valueOf(dividend.toByteArray()).quotient(
+				ArbitraryInteger.valueOf(divisor.toByteArray())).toNumber());
+		Assert.assertEquals(dividend.remainder(divisor), ArbitraryInteger.valueOf(dividend.toByteArray()).remainder(
+				ArbitraryInteger.valueOf(divisor.toByteArray())).toNumber());
+		try {
+			ArbitraryInteger.ONE.quotient(ArbitraryInteger.ZERO);
+			Assert.fail("Division by zero should yield an ArithmeticException");
+		} catch (final ArithmeticException e) {
+			// thats good
+		}
+	}
+
+	@Test
+	public void testGcd() {
+		for (int i = 0; i < 2000; i++) {
+			final BigInteger common = new BigInteger(1 + this.randomizer.nextInt(32 * 10), this.randomizer);
+			final BigInteger referenceX = new BigInteger(this.randomizer.nextInt(32 * 40), this.randomizer).multiply(common).negate();
+			final BigInteger referenceY = new BigInteger(this.randomizer.nextInt(32 * 40), this.randomizer).multiply(common);
+			final ArbitraryInteger x = ArbitraryInteger.valueOf(referenceX.toByteArray());
+			final ArbitraryInteger y = ArbitraryInteger.valueOf(referenceY.toByteArray());
+			Assert.assertEquals(referenceX.gcd(referenceY), x.gcd(y).toNumber());
+			Assert.assertEquals(referenceX.gcd(referenceY), y.gcd(x).toNumber());
+		}
+	}
+
+	@Test
+	public void testModPow() {
+		for (int i = 0; i < 200; i++) {
+			final BigInteger base = new BigInteger(1 + this.randomizer.nextInt(32 * 20), this.randomizer).subtract(BigInteger.TEN);
+			final BigInteger exponent = new BigInteger(this.randomizer.nextInt(32 * 8), this.randomizer);
+			final BigInteger modulus = new BigInteger(1 + this.randomizer.nextInt(32 * 16), this.randomizer).add(BigInteger.ONE);
+			Assert.assertEquals(base.modPow(exponent, modulus), ArbitraryInteger.valueOf(base.toByteArray()).modPow(
+					ArbitraryInteger.valueOf(exponent.toByteArray()), ArbitraryInteger.valueOf(modulus.toByteArray())).toNumber());
+		}
+	}
+
+	@Test
+	public void testModPowEdgeCases() {
+		final ArbitraryInteger seven = ArbitraryInteger.valueOf(BigInteger.valueOf(7).toByteArray());
+		final ArbitraryInteger five = ArbitraryInteger.valueOf(BigInteger.valueOf(5).toByteArray());
+		Assert.assertEquals(BigInteger.ONE, seven.modPow(ArbitraryInteger.ZERO, five).toNumber());
+		Assert.assertEquals(BigInteger.ZERO, seven.modPow(ArbitraryInteger.ZERO, ArbitraryInteger.ONE).toNumber());
+		try {
+			seven.modPow(ArbitraryInteger.MINUS_ONE, five);
+			Assert.fail("A negative exponent must be rejected");
+		} catch (final ArithmeticException e) {
+			// thats good
+		}
+	}
+
 	@Test
 	//	@Ignore
 	public void testError() {
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class ArbitraryRationalTest {
+
+	@Test
+	public void testNormalized() {
+		ArbitraryRational value = ArbitraryRational.valueOf(ArbitraryInteger.valueOf(-12), ArbitraryInteger.valueOf(-18));
+		Assert.assertEquals(BigInteger.valueOf(2), value.numerator().toNumber());
+		Assert.assertEquals(BigInteger.valueOf(3), value.denominator().toNumber());
+		value = ArbitraryRational.valueOf(ArbitraryInteger.valueOf(12), ArbitraryInteger.valueOf(-18));
+		Assert.assertEquals(BigInteger.valueOf(-2), value.numerator().toNumber());
+		Assert.assertEquals(BigInteger.valueOf(3), value.denominator().toNumber());
+		value = value.multiply(ArbitraryInteger.valueOf(6));
+		Assert.assertEquals(BigInteger.valueOf(-4), value.numerator().toNumber());
+		Assert.assertTrue(value.denominator().isOne());
+		value = value.divide(ArbitraryInteger.valueOf(-8));
+		Assert.assertEquals(BigInteger.ONE, value.numerator().toNumber());
+		Assert.assertEquals(BigInteger.valueOf(2), value.denominator().toNumber());
+	}
+
+	@Test
+	public void testHarmonicSum() {
+		ArbitraryRational sum = ArbitraryRational.ZERO;
+		BigInteger numerator = BigInteger.ZERO;
+		BigInteger denominator = BigInteger.ONE;
+		for (int i = 1; i <= 300; i++) {
+			sum = sum.add(ArbitraryInteger.valueOf(i).reciprocal());
+			numerator = numerator.multiply(BigInteger.valueOf(i)).add(denominator);
+			denominator = denominator.multiply(BigInteger.valueOf(i));
+			final BigInteger g = numerator.gcd(denominator);
+			numerator = numerator.divide(g);
+			denominator = denominator.divide(g);
+			Assert.assertEquals(numerator, sum.numerator().toNumber());
+			Assert.assertEquals(denominator, sum.denominator().toNumber());
+		}
+	}
+
+	@Test
+	public void testChain() {
+		final ArbitraryRational third = ArbitraryRational.valueOf(ArbitraryInteger.ONE, ArbitraryInteger.valueOf(3));
+		final ArbitraryRational sixth = ArbitraryRational.valueOf(ArbitraryInteger.ONE, ArbitraryInteger.valueOf(6));
+		ArbitraryRational value = ArbitraryRational.ONE;
+		for (int i = 0; i < 1000; i++) {
+			value = value.add(third).subtract(sixth).subtract(sixth).multiply(third).divide(third).square().reciprocal().square();
+		}
+		Assert.assertTrue(value.numerator().isOne());
+		Assert.assertTrue(value.denominator().isOne());
+		Assert.assertEquals(ArbitraryRational.ZERO, third.subtract(sixth).subtract(sixth));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.arbitrary.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class SubquadraticMultiplicationTest {
+	private final Random randomizer = new Random(4711);
+
+	@Test
+	public void testSchoolbook() {
+		checkCalculation(new Int32CalculationImpl(), 1, 120);
+	}
+
+	@Test
+	public void testKaratsuba() {
+		checkCalculation(new KaratsubaCalculationImpl(2), 1, 120);
+		checkCalculation(new KaratsubaCalculationImpl(8), 1, 300);
+	}
+
+	@Test
+	public void testToomCook3() {
+		checkCalculation(new ToomCook3CalculationImpl(2, 3), 1, 120);
+		checkCalculation(new ToomCook3CalculationImpl(4, 9), 1, 300);
+		checkCalculation(new ToomCook3CalculationImpl(8, 24), 100, 600);
+	}
+
+	@Test
+	public void testDefaultDispatcher() {
+		checkCalculation(InternalCalculation.IMPL, InternalCalculation.TOOM_COOK_3_THRESHOLD - 10,
+				InternalCalculation.TOOM_COOK_3_THRESHOLD * 4);
+	}
+
+	@Test
+	public void testAllOnes() {
+		InternalCalculation calculation = new ToomCook3CalculationImpl(2, 3);
+		for (int len = 1; len < 100; len++) {
+			BigInteger x = BigInteger.ONE.shiftLeft(32 * len).subtract(BigInteger.ONE);
+			Assert.assertEquals(x.multiply(x), toBigInteger(calculation.multiply(toMagnitude(x), toMagnitude(x))));
+			Assert.assertEquals(x.multiply(x), toBigInteger(calculation.square(toMagnitude(x))));
+		}
+	}
+
+	@Test
+	public void testSliceWithOffset() {
+		InternalCalculation calculation = new ToomCook3CalculationImpl(4, 9);
+		int[] x = toMagnitude(new BigInteger(32 * 80, this.randomizer));
+		int[] y = toMagnitude(new BigInteger(32 * 70, this.randomizer));
+		BigInteger expected = toBigInteger(slice(x, 5, 60)).multiply(toBigInteger(slice(y, 3, 50)));
+		Assert.assertEquals(expected, toBigInteger(calculation.multiply(x, y, 5, 60, 3, 50)));
+	}
+
+	private void checkCalculation(final InternalCalculation calculation, final int minWords, final int maxWords) {
+		for (int i = 0; i < 200; i++) {
+			BigInteger x = new BigInteger(32 * (minWords + this.randomizer.nextInt(maxWords - minWords)) - this.randomizer.nextInt(32), this.randomizer);
+			BigInteger y = new BigInteger(32 * (minWords + this.randomizer.nextInt(maxWords - minWords)) - this.randomizer.nextInt(32), this.randomizer);
+			Assert.assertEquals(x.multiply(y), toBigInteger(calculation.multiply(toMagnitude(x), toMagnitude(y))));
+			Assert.assertEquals(x.multiply(x), toBigInteger(calculation.square(toMagnitude(x))));
+		}
+	}
+
+	private static int[] slice(final int[] x, final int off, final int len) {
+		int[] result = new int[len];
+		System.arraycopy(x, off, result, 0, len);
+		return result;
+	}
+
+	private static int[] toMagnitude(final BigInteger x) {
+		int[] result = new int[(x.bitLength() + 31) >>> 5];
+		for (int i = 0; i < result.length; i++) {
+			result[result.length - 1 - i] = x.shiftRight(32 * i).intValue();
+		}
+		return result;
+	}
+
+	private static BigInteger toBigInteger(final int[] magnitude) {
+		return new BigInteger(1, MagnitudeHelper.convertMagnitude(magnitude));
+	}
+}
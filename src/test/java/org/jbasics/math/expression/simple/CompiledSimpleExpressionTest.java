@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.jbasics.math.expression.simple.impl.SimpleAddExpression;
+import org.jbasics.math.expression.simple.impl.SimpleBinaryExpression;
+import org.jbasics.math.expression.simple.impl.SimpleFunctionCallExpression;
+import org.jbasics.math.expression.simple.impl.SimpleSymbolExpression;
+import org.jbasics.pattern.strategy.ContextualExecuteStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class CompiledSimpleExpressionTest {
+	private static final MathContext MC = MathContext.DECIMAL128;
+
+	@Test
+	public void testSameResultAsTree() {
+		final String[] expressions = {"a + b * c", "a * (b - c) / 7", "(a + 2) ^ 3 - b", "10 - 5 - 2", "a / b / c + 1.5 * 2",
+				"$x1 * a + $x1"};
+		for (final String expression : expressions) {
+			final SimpleExpression tree = SimpleExpression.parse(expression);
+			final CompiledSimpleExpression compiled = tree.compile(CompiledSimpleExpressionTest.MC, "a", "b", "c");
+			for (int row = 1; row < 50; row++) {
+				final BigDecimal a = BigDecimal.valueOf(row * 37L, 2);
+				final BigDecimal b = BigDecimal.valueOf(row + 3L);
+				final BigDecimal c = BigDecimal.valueOf(-row * 11L, 1);
+				final BigDecimal x1 = BigDecimal.valueOf(row);
+				final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMathContext(CompiledSimpleExpressionTest.MC)
+						.withSymbol("a", a).withSymbol("b", b).withSymbol("c", c).withSymbol("x1", x1).build();
+				final BigDecimal[] values = new BigDecimal[compiled.getSymbols().size()];
+				values[0] = a;
+				values[1] = b;
+				values[2] = c;
+				if (compiled.getSlot("x1") >= 0) {
+					values[compiled.getSlot("x1")] = x1;
+				}
+				final BigDecimal expected = tree.eval(context);
+				Assert.assertEquals(expression, expected, compiled.eval(values));
+				Assert.assertEquals(expression, expected, compiled.eval(context));
+			}
+		}
+	}
+
+	@Test
+	public void testSlots() {
+		final CompiledSimpleExpression compiled = SimpleExpression.parse("b * a + c * b").compile("c");
+		Assert.assertEquals(Arrays.asList("c", "b", "a"), compiled.getSymbols());
+		Assert.assertEquals(1, compiled.getSlot("b"));
+		Assert.assertEquals(-1, compiled.getSlot("d"));
+		Assert.assertEquals(MathContext.DECIMAL64, compiled.getMathContext());
+		Assert.assertEquals(new BigDecimal("27"), compiled.eval(BigDecimal.valueOf(4), BigDecimal.valueOf(3), BigDecimal.valueOf(5)));
+	}
+
+	@Test
+	public void testConstantFolding() {
+		CompiledSimpleExpression compiled = SimpleExpression.parse("(2 + 3) * 4 ^ 2 - 1 / 4").compile(CompiledSimpleExpressionTest.MC);
+		Assert.assertTrue(compiled.isConstant());
+		Assert.assertEquals(1, compiled.getInstructionCount());
+		Assert.assertEquals(0, new BigDecimal("79.75").compareTo(compiled.eval()));
+		compiled = SimpleExpression.parse("a * (60 * 60 * 24)").compile(CompiledSimpleExpressionTest.MC);
+		Assert.assertEquals(3, compiled.getInstructionCount());
+		Assert.assertEquals(new BigDecimal("172800"), compiled.eval(BigDecimal.valueOf(2)));
+		// division by zero is not folded but raised on evaluation like the tree does
+		compiled = SimpleExpression.parse("a + 1 / 0").compile(CompiledSimpleExpressionTest.MC);
+		Assert.assertFalse(compiled.isConstant());
+		try {
+			compiled.eval(BigDecimal.ONE);
+			Assert.fail("Division by zero should yield an ArithmeticException");
+		} catch (final ArithmeticException e) {
+			// thats good
+		}
+	}
+
+	@Test
+	public void testNullPropagation() {
+		final CompiledSimpleExpression compiled = SimpleExpression.parse("a + b * 2").compile(CompiledSimpleExpressionTest.MC);
+		Assert.assertNull(compiled.eval(BigDecimal.ONE, null));
+		final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMissingSymbolOrFunctionResolvesToNull()
+				.withSymbol("a", BigDecimal.ONE).build();
+		Assert.assertNull(compiled.eval(context));
+		try {
+			compiled.eval(BigDecimal.ONE);
+			Assert.fail("Missing values should be rejected");
+		} catch (final IllegalArgumentException e) {
+			// thats good
+		}
+	}
+
+	@Test
+	public void testNullSkipsRemainingOperands() {
+		final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMathContext(CompiledSimpleExpressionTest.MC)
+				.withMissingSymbolOrFunctionResolvesToNull()
+				.withFunction("fail", new ContextualExecuteStrategy<BigDecimal, SimpleFunctionCallExpression, SimpleExpressionContext>() {
+					@Override
+					public BigDecimal execute(final SimpleFunctionCallExpression request, final SimpleExpressionContext ctx) {
+						throw new IllegalStateException("Function must not be called after a null operand");
+					}
+				}).build();
+		final SimpleExpression tree = SimpleExpression.parse("a * 2 + fail(b)");
+		Assert.assertNull(tree.eval(context));
+		final CompiledSimpleExpression compiled = tree.compile(CompiledSimpleExpressionTest.MC);
+		Assert.assertNull(compiled.eval(context));
+		Assert.assertNull(compiled.eval(new BigDecimal[]{null, BigDecimal.ONE}, context));
+	}
+
+	@Test
+	public void testCustomExpressions() {
+		final SimpleExpression modulo = new SimpleBinaryExpression(SimpleExpression.parse("a"), SimpleExpression.parse("3")) {
+			@Override
+			protected BigDecimal evalOp(final BigDecimal left, final BigDecimal right, final MathContext mc) {
+				return left.remainder(right, mc);
+			}
+		};
+		final SimpleExpression custom = new SimpleAddExpression(modulo, new SimpleExpression() {
+			@Override
+			public BigDecimal eval(final SimpleExpressionContext context) {
+				return context.resolve(new SimpleSymbolExpression("b")).negate();
+			}
+
+			@Override
+			public <T extends Collection<String>> void collectSymbols(final T collection) {
+				collection.add("b");
+			}
+		});
+		final CompiledSimpleExpression compiled = custom.compile(CompiledSimpleExpressionTest.MC, "a", "b");
+		final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMathContext(CompiledSimpleExpressionTest.MC)
+				.withSymbol("a", BigDecimal.valueOf(11)).withSymbol("b", BigDecimal.valueOf(4)).build();
+		Assert.assertEquals(BigDecimal.valueOf(-2), custom.eval(context));
+		Assert.assertEquals(BigDecimal.valueOf(-2), compiled.eval(context));
+		Assert.assertEquals(BigDecimal.valueOf(-2), compiled.eval(new BigDecimal[]{BigDecimal.valueOf(11), BigDecimal.valueOf(4)}, context));
+	}
+
+	@Test
+	public void testFunctionCall() {
+		final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMathContext(CompiledSimpleExpressionTest.MC)
+				.withSymbol("offset", BigDecimal.TEN)
+				.withFunction("twice", new ContextualExecuteStrategy<BigDecimal, SimpleFunctionCallExpression, SimpleExpressionContext>() {
+					@Override
+					public BigDecimal execute(final SimpleFunctionCallExpression request, final SimpleExpressionContext ctx) {
+						return request.getParameterExpressions()[0].eval(ctx).multiply(BigDecimal.valueOf(2));
+					}
+				}).build();
+		final CompiledSimpleExpression compiled = SimpleExpression.parse("twice(a + offset) + a").compile(CompiledSimpleExpressionTest.MC, "a");
+		Assert.assertEquals(Arrays.asList("a", "offset"), compiled.getSymbols());
+		final BigDecimal[] values = new BigDecimal[]{BigDecimal.valueOf(5), BigDecimal.valueOf(1)};
+		Assert.assertEquals(BigDecimal.valueOf(17), compiled.eval(values, context));
+		try {
+			compiled.eval(values);
+			Assert.fail("Function calls require a context");
+		} catch (final IllegalStateException e) {
+			// thats good
+		}
+	}
+
+	@Test
+	public void testEvalBatch() {
+		final int rows = 20000;
+		final Map<String, BigDecimal[]> columns = new HashMap<String, BigDecimal[]>();
+		final BigDecimal[] a = new BigDecimal[rows];
+		final BigDecimal[] b = new BigDecimal[rows];
+		for (int i = 0; i < rows; i++) {
+			a[i] = BigDecimal.valueOf(i, 2);
+			b[i] = i % 1000 == 0 ? null : BigDecimal.valueOf(i % 17 + 1);
+		}
+		columns.put("a", a);
+		columns.put("b", b);
+		final SimpleExpressionContext context = SimpleExpressionContext.newBuilder().withMathContext(CompiledSimpleExpressionTest.MC)
+				.withSymbol("rate", new BigDecimal("1.07")).build();
+		final SimpleExpression expression = SimpleExpression.parse("(a + b) * rate / b - 2 * 3");
+		final CompiledSimpleExpression compiled = expression.compile(CompiledSimpleExpressionTest.MC);
+		final BigDecimal[] sequential = compiled.evalBatch(columns, context, null);
+		final BigDecimal[] parallel = compiled.evalBatch(columns, context, ForkJoinPool.commonPool());
+		final BigDecimal[] convenience = expression.evalBatch(columns, context);
+		for (int i = 0; i < rows; i++) {
+			final BigDecimal expected = compiled.eval(new BigDecimal[]{a[i], b[i], new BigDecimal("1.07")});
+			Assert.assertEquals(expected, sequential[i]);
+			Assert.assertEquals(expected, parallel[i]);
+			Assert.assertEquals(expected, convenience[i]);
+		}
+		Assert.assertNull(sequential[0]);
+		try {
+			compiled.evalBatch(columns);
+			Assert.fail("Missing column without context should be rejected");
+		} catch (final IllegalArgumentException e) {
+			// thats good
+		}
+		columns.put("rate", new BigDecimal[1]);
+		try {
+			compiled.evalBatch(columns);
+			Assert.fail("Columns with different row count should be rejected");
+		} catch (final IllegalArgumentException e) {
+			// thats good
+		}
+	}
+
+	@Test
+	public void testEvalBatchDouble() {
+		final int rows = 10000;
+		final Map<String, double[]> columns = new HashMap<String, double[]>();
+		final double[] x = new double[rows];
+		final double[] y = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			x[i] = i * 0.25;
+			y[i] = i % 7 + 1;
+		}
+		columns.put("x", x);
+		columns.put("y", y);
+		final CompiledSimpleExpression compiled = SimpleExpression.parse("x ^ 2 - (x + 1) / y * 0.5").compile();
+		final double[] sequential = compiled.evalBatchDouble(columns);
+		final double[] parallel = compiled.evalBatchDouble(columns, ForkJoinPool.commonPool());
+		for (int i = 0; i < rows; i++) {
+			final double expected = Math.pow(x[i], 2) - (x[i] + 1) / (y[i] * 0.5);
+			Assert.assertEquals(expected, sequential[i], 0.0);
+			Assert.assertEquals(expected, parallel[i], 0.0);
+		}
+	}
+}
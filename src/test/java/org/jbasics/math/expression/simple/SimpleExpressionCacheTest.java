@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.expression.simple;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+
+public class SimpleExpressionCacheTest {
+
+	@Test
+	public void testHitsAndMisses() {
+		final SimpleExpressionCache cache = new SimpleExpressionCache(16);
+		final SimpleExpression first = cache.get("a + b * 2");
+		Assert.assertSame(first, cache.get(new StringBuilder("a + b * 2")));
+		Assert.assertSame(first, cache.get("a + b * 2"));
+		Assert.assertEquals(1L, cache.getMissCount());
+		Assert.assertEquals(2L, cache.getHitCount());
+		Assert.assertEquals(2.0 / 3.0, cache.getHitRate(), 1e-9);
+		Assert.assertEquals(1, cache.size());
+		cache.resetStatistics();
+		Assert.assertEquals(1.0, cache.getHitRate(), 0.0);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		final SimpleExpressionCache cache = new SimpleExpressionCache(2, 1);
+		cache.get("1 + 1");
+		cache.get("2 + 2");
+		cache.get("1 + 1");
+		cache.get("3 + 3");
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1L, cache.getEvictionCount());
+		Assert.assertTrue(cache.contains("1 + 1"));
+		Assert.assertFalse(cache.contains("2 + 2"));
+		Assert.assertTrue(cache.contains("3 + 3"));
+	}
+
+	@Test
+	public void testSegmentsNeverExceedMaximumSize() {
+		final SimpleExpressionCache cache = new SimpleExpressionCache(10, 16);
+		for (int i = 0; i < 100; i++) {
+			cache.get("a * " + i);
+		}
+		Assert.assertEquals(10, cache.size());
+		Assert.assertEquals(90L, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testWarmUpAndCompiled() {
+		final SimpleExpressionCache cache = new SimpleExpressionCache();
+		Assert.assertEquals(2, cache.warmUp(MathContext.DECIMAL32, Arrays.asList("x * 2", "x / 4", "x * 2")));
+		Assert.assertEquals(0, cache.warmUp("x * 2"));
+		Assert.assertEquals(0L, cache.getMissCount());
+		final CompiledSimpleExpression compiled = cache.getCompiled("x * 2", MathContext.DECIMAL32);
+		Assert.assertSame(compiled, cache.getCompiled("x * 2", MathContext.DECIMAL32));
+		Assert.assertEquals(new BigDecimal("5.0"), compiled.eval(new BigDecimal("2.5")));
+		Assert.assertEquals(MathContext.DECIMAL64, cache.getCompiled("x * 2", MathContext.DECIMAL64).getMathContext());
+		Assert.assertEquals(3L, cache.getHitCount());
+	}
+
+	@Test
+	public void testValueOfUsesSharedCache() {
+		Assert.assertSame(SimpleExpression.valueOf("c ^ 2 - 1"), SimpleExpression.valueOf("c ^ 2 - 1"));
+		Assert.assertTrue(SimpleExpressionCache.getSharedInstance().contains("c ^ 2 - 1"));
+		Assert.assertNotSame(SimpleExpression.parse("c ^ 2 - 1"), SimpleExpression.parse("c ^ 2 - 1"));
+	}
+}
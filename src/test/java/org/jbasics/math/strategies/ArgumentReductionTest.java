@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import org.jbasics.math.AlgorithmStrategy;
+import org.jbasics.math.impl.PiIrationalNumber;
+import org.jbasics.math.impl.SineIrationalNumber;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+public class ArgumentReductionTest {
+	private static final MathContext MC = new MathContext(60);
+	private static final String[] ARGUMENTS = {"0.5", "-0.7", "3", "-100", "1000000", "12345678.9", "-1E15"};
+
+	@Test
+	public void testTrigonometricReductionMatchesDirectSeries() {
+		AlgorithmStrategy<BigDecimal> sin = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.SINE);
+		AlgorithmStrategy<BigDecimal> cos = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.COSINE);
+		AlgorithmStrategy<BigDecimal> tan = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.TANGENT);
+		for (String argument : ArgumentReductionTest.ARGUMENTS) {
+			BigDecimal x = new BigDecimal(argument);
+			Assert.assertEquals(argument, new SineAlgorithmStrategy().calculate(MC, null, x), sin.calculate(MC, null, x));
+			Assert.assertEquals(argument, new CosineAlgorithmStrategy().calculate(MC, null, x), cos.calculate(MC, null, x));
+			Assert.assertEquals(argument, new TangentAlgorithmStrategy().calculate(MC, null, x), tan.calculate(MC, null, x));
+		}
+	}
+
+	@Test
+	public void testCloseToMultipleOfHalfPi() {
+		AlgorithmStrategy<BigDecimal> sin = new TrigonometricReductionAlgorithmStrategy(TrigonometricReductionAlgorithmStrategy.Function.SINE);
+		Assert.assertEquals(new BigDecimal("-0.0000301443533594884492143302800086500996"), sin.calculate(new MathContext(36), null, BigDecimal.valueOf(355)));
+		// pi rounded to 30 digits times 10^6 is only about 5E-25 away from a multiple of pi so the unreduced series
+		// needs about 25 additional digits to get the same result
+		BigDecimal x = PiIrationalNumber.PI.valueToPrecision(new MathContext(30)).multiply(BigDecimal.valueOf(1000000));
+		BigDecimal expected = new SineAlgorithmStrategy().calculate(new MathContext(MC.getPrecision() + 30), null, x).round(MC);
+		Assert.assertEquals(expected, sin.calculate(MC, null, x));
+	}
+
+	@Test
+	public void testExponentialReductionMatchesDirectSeries() {
+		AlgorithmStrategy<BigDecimal> exp = new ExponentialReductionAlgorithmStrategy();
+		for (String argument : new String[]{"0.2", "1", "-7.5", "100", "-1000", "123456.789"}) {
+			BigDecimal x = new BigDecimal(argument);
+			Assert.assertEquals(argument, new ExponentialTaylerAlgorithmStrategy().calculate(MC, null, x), exp.calculate(MC, null, x));
+		}
+		Assert.assertEquals(BigDecimal.ONE, exp.calculate(MC, null, BigDecimal.ZERO));
+	}
+
+	@Test
+	public void testExponentialReductionWithLargeArgument() {
+		AlgorithmStrategy<BigDecimal> exp = new ExponentialReductionAlgorithmStrategy();
+		Assert.assertEquals(new BigDecimal("5.12572713376368110189585549346699342025400083824920496283933E+1302883445"),
+				exp.calculate(MC, null, new BigDecimal("3E9")));
+		Assert.assertEquals(new BigDecimal("1.95094271291364544029589832351072011112274565327723586756438E-1302883446"),
+				exp.calculate(MC, null, new BigDecimal("-3E9")));
+		Assert.assertEquals(new BigDecimal("9.44662792442911741801009930559031241736858005687845001549900E+1085736204"),
+				exp.calculate(MC, null, new BigDecimal("2500000000.5")));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testExponentialReductionBeyondScaleRange() {
+		new ExponentialReductionAlgorithmStrategy().calculate(MC, null, new BigDecimal("5E9"));
+	}
+
+	@Test
+	public void testIrationalNumbersUseReduction() {
+		Assert.assertEquals(new SineAlgorithmStrategy().calculate(MC, null, BigDecimal.valueOf(100)),
+				SineIrationalNumber.valueOf(BigDecimal.valueOf(100)).valueToPrecision(MC));
+		Assert.assertTrue(SineIrationalNumber.STRATEGY instanceof TrigonometricReductionAlgorithmStrategy);
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.math.strategies;
+
+import org.jbasics.math.AlgorithmStrategy;
+import org.jbasics.math.impl.PiIrationalNumber;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
+
+public class BinarySplittingSeriesTest {
+	private static final MathContext MC = new MathContext(1000);
+
+	@Test
+	public void testSeriesMatchesTermByTermSum() {
+		// sum of 1/n! for n = 0..29
+		BinarySplittingSeries series = new BinarySplittingSeries() {
+			@Override
+			protected BigInteger p(int n) {
+				return BigInteger.ONE;
+			}
+
+			@Override
+			protected BigInteger q(int n) {
+				return n == 0 ? BigInteger.ONE : BigInteger.valueOf(n);
+			}
+		};
+		BigDecimal expected = BigDecimal.ZERO;
+		BigInteger faculty = BigInteger.ONE;
+		for (int n = 0; n < 30; n++) {
+			faculty = n == 0 ? faculty : faculty.multiply(BigInteger.valueOf(n));
+			expected = expected.add(BigDecimal.ONE.divide(new BigDecimal(faculty), MC));
+		}
+		Assert.assertEquals(0, expected.round(new MathContext(990)).compareTo(series.sum(30, MC, null).round(new MathContext(990))));
+	}
+
+	@Test
+	public void testParallelIsIdenticalToSequential() {
+		MathContext mc = new MathContext(5000);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			BigDecimal x = new BigDecimal("0.7071067811865475244008443621048490392848359376884740365883398689953662392310535");
+			Assert.assertEquals(new ExponentialTaylerAlgorithmStrategy(null).calculate(mc, null, x),
+					new ExponentialTaylerAlgorithmStrategy(pool).calculate(mc, null, x));
+			Assert.assertEquals(new SineAlgorithmStrategy(null).calculate(mc, null, x), new SineAlgorithmStrategy(pool).calculate(mc, null, x));
+			Assert.assertEquals(new PiSeriesAlgorithmStrategy(null).calculate(mc, null), new PiSeriesAlgorithmStrategy(pool).calculate(mc, null));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testExponential() {
+		AlgorithmStrategy<BigDecimal> exp = ExponentialTaylerAlgorithmStrategy.STRATEGY;
+		BigDecimal e = BigDecimal.ONE, term = BigDecimal.ONE;
+		MathContext work = new MathContext(MC.getPrecision() + 10);
+		for (int k = 1; term.compareTo(BigDecimal.ONE.movePointLeft(MC.getPrecision() + 5)) > 0; k++) {
+			term = term.divide(BigDecimal.valueOf(k), work);
+			e = e.add(term, work);
+		}
+		Assert.assertEquals(e.round(MC), exp.calculate(MC, null, BigDecimal.ONE));
+		BigDecimal x = new BigDecimal("-12.345678901234567890123");
+		BigDecimal product = exp.calculate(MC, null, x).multiply(exp.calculate(MC, null, x.negate()), MC);
+		Assert.assertTrue(product.subtract(BigDecimal.ONE).abs().compareTo(BigDecimal.ONE.movePointLeft(MC.getPrecision() - 3)) < 0);
+		Assert.assertEquals(BigDecimal.ONE, exp.calculate(MC, null, BigDecimal.ZERO));
+	}
+
+	@Test
+	public void testTrigonometric() {
+		BigDecimal pi = PiIrationalNumber.PI.valueToPrecision(new MathContext(MC.getPrecision() + 10));
+		MathContext work = new MathContext(MC.getPrecision() + 10);
+		BigDecimal half = new BigDecimal("0.5");
+		Assert.assertEquals(0, half.compareTo(new SineAlgorithmStrategy().calculate(MC, null, pi.divide(BigDecimal.valueOf(6), work))));
+		Assert.assertEquals(0, half.compareTo(new CosineAlgorithmStrategy().calculate(MC, null, pi.divide(BigDecimal.valueOf(3), work))));
+		Assert.assertEquals(0, BigDecimal.ONE.compareTo(new TangentAlgorithmStrategy().calculate(MC, null, pi.divide(BigDecimal.valueOf(4), work))));
+		Assert.assertEquals(new BigDecimal("-0.506365641109758793656557610460"), new SineAlgorithmStrategy().calculate(new MathContext(30), null, BigDecimal.valueOf(100)));
+		Assert.assertEquals(new BigDecimal("1.00000000000000000000000000000E-20"), new SineAlgorithmStrategy().calculate(new MathContext(30), null, new BigDecimal("1E-20")));
+	}
+
+	@Test
+	public void testPiAndLogarithm() {
+		Assert.assertEquals(PiIrationalNumber.PI.valueToPrecision(MC), PiSeriesAlgorithmStrategy.STRATEGY.calculate(MC, null));
+		BigDecimal e = ExponentialTaylerAlgorithmStrategy.STRATEGY.calculate(new MathContext(MC.getPrecision() + 10), null, BigDecimal.ONE);
+		Assert.assertEquals(0, BigDecimal.ONE.compareTo(new NaturalLogarithmAlgorithmStrategy().calculate(MC, null, e)));
+	}
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser;
+
+import org.jbasics.parser.annotations.Attribute;
+import org.jbasics.parser.annotations.Comment;
+import org.jbasics.parser.annotations.Content;
+import org.jbasics.parser.annotations.Element;
+import org.jbasics.parser.annotations.ElementImplementor;
+import org.jbasics.parser.annotations.QualifiedName;
+import org.jbasics.parser.invoker.AttributeInvoker;
+import org.jbasics.parser.invoker.ContentInvoker;
+import org.jbasics.parser.invoker.Invoker;
+import org.jbasics.pattern.builder.Builder;
+import org.jbasics.types.tuples.Pair;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BuilderContentHandlerTest {
+	public static final String NS = "urn:jbasics:test:catalog"; //$NON-NLS-1$
+
+	public static Catalog parse(final String xml) throws Exception {
+		SAXParserFactory factory = SAXParserFactory.newInstance();
+		factory.setNamespaceAware(true);
+		BuilderContentHandler<Catalog> handler = BuilderParserContext.<Catalog>getOrCreateContext(Catalog.class).createContentHandler();
+		XMLReader reader = factory.newSAXParser().getXMLReader();
+		reader.setContentHandler(handler);
+		reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler); //$NON-NLS-1$
+		reader.parse(new InputSource(new StringReader(xml)));
+		return handler.getParsingResult();
+	}
+
+	@Test
+	public void testParseDocument() throws Exception {
+		Catalog catalog = parse("<c:catalog xmlns:c=\"" + NS + "\" name=\"Parts\">" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "<c:item id=\"a\" count=\"3\">First<c:item id=\"a.1\" count=\"1\"/></c:item>" //$NON-NLS-1$
+				+ "<c:item id=\"b\"><!--note-->Second</c:item>" //$NON-NLS-1$
+				+ "<c:tag>red</c:tag><c:tag>blue</c:tag>" //$NON-NLS-1$
+				+ "</c:catalog>"); //$NON-NLS-1$
+		assertEquals("Parts", catalog.name); //$NON-NLS-1$
+		assertEquals(new QName(NS, "catalog"), catalog.qualifiedName); //$NON-NLS-1$
+		assertEquals(2, catalog.items.size());
+		Item first = catalog.items.get(0);
+		assertEquals("a", first.id); //$NON-NLS-1$
+		assertEquals(Integer.valueOf(3), first.count);
+		assertEquals("First", first.text); //$NON-NLS-1$
+		assertEquals(1, first.children.size());
+		assertEquals("a.1", first.children.get(0).id); //$NON-NLS-1$
+		Item second = catalog.items.get(1);
+		assertNull(second.count);
+		assertEquals("note", second.comment); //$NON-NLS-1$
+		assertEquals("Second", second.text); //$NON-NLS-1$
+		assertEquals(2, catalog.tags.size());
+		assertEquals("blue", catalog.tags.get(1)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBuilderExceptionIsReported() throws Exception {
+		try {
+			parse("<c:catalog xmlns:c=\"" + NS + "\"><c:item count=\"-1\"/></c:catalog>"); //$NON-NLS-1$ //$NON-NLS-2$
+			fail("Negative count must be rejected by the builder"); //$NON-NLS-1$
+		} catch (SAXParseException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("negative count")); //$NON-NLS-1$
+		}
+	}
+
+	@Test(expected = SAXException.class)
+	public void testUnknownAttribute() throws Exception {
+		parse("<c:catalog xmlns:c=\"" + NS + "\" unknown=\"x\"/>"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testSelfReferenceIsResolvedOnce() {
+		ParsingInfo catalog = BuilderParserContext.getOrCreateContext(Catalog.class).getParsingInfo(new QName(NS, "catalog")); //$NON-NLS-1$
+		ParsingInfo item = catalog.getElementInvoker(new QName(NS, "item")).first(); //$NON-NLS-1$
+		Pair<ParsingInfo, Invoker<?, ?>> child = item.getElementInvoker(new QName(NS, "item")); //$NON-NLS-1$
+		assertSame(item, child.first());
+		assertSame(child, item.getElementInvoker(new QName(NS, "item"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testInvokersOnNonPublicBuilder() throws Exception {
+		HiddenBuilder builder = new HiddenBuilder();
+		ContentInvoker<HiddenBuilder> content = ContentInvoker.createInvoker(HiddenBuilder.class,
+				HiddenBuilder.class.getMethod("setText", String.class)); //$NON-NLS-1$
+		content.invoke(builder, null, "text"); //$NON-NLS-1$
+		AttributeInvoker<HiddenBuilder> attribute = AttributeInvoker.createInvoker(HiddenBuilder.class,
+				HiddenBuilder.class.getMethod("setAttribute", QName.class, Integer.class)); //$NON-NLS-1$
+		attribute.invoke(builder, new QName("size"), "42"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("text", builder.text); //$NON-NLS-1$
+		assertEquals("size=42", builder.attribute); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCheckedExceptionIsWrapped() throws Exception {
+		ContentInvoker<CheckedBuilder> content = ContentInvoker.createInvoker(CheckedBuilder.class,
+				CheckedBuilder.class.getMethod("setText", String.class)); //$NON-NLS-1$
+		try {
+			content.invoke(new CheckedBuilder(), null, "text"); //$NON-NLS-1$
+			fail("The checked exception must be thrown wrapped"); //$NON-NLS-1$
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@ElementImplementor(builderClass = Catalog.class, namespace = NS, localName = "catalog")
+	public static class Catalog {
+		QName qualifiedName;
+		String name;
+		List<Item> items;
+		List<String> tags;
+
+		public static CatalogBuilder newBuilder() {
+			return new CatalogBuilder();
+		}
+	}
+
+	public static class CatalogBuilder implements Builder<Catalog> {
+		private final Catalog catalog = new Catalog();
+
+		public CatalogBuilder() {
+			reset();
+		}
+
+		@QualifiedName
+		public CatalogBuilder setQualifiedName(final QName name) {
+			this.catalog.qualifiedName = name;
+			return this;
+		}
+
+		@Attribute(name = "name")
+		public CatalogBuilder setName(final String name) {
+			this.catalog.name = name;
+			return this;
+		}
+
+		@Element(namespace = NS, name = "item", maxOccurs = Element.UNBOUND)
+		public CatalogBuilder addItem(final Item item) {
+			this.catalog.items.add(item);
+			return this;
+		}
+
+		@Element(namespace = NS, name = "tag", maxOccurs = Element.UNBOUND)
+		public void addTag(final String tag) {
+			this.catalog.tags.add(tag);
+		}
+
+		public void reset() {
+			this.catalog.items = new ArrayList<Item>();
+			this.catalog.tags = new ArrayList<String>();
+		}
+
+		public Catalog build() {
+			return this.catalog;
+		}
+	}
+
+	public static class Item {
+		String id;
+		Integer count;
+		String text;
+		String comment;
+		List<Item> children = new ArrayList<Item>();
+
+		public static ItemBuilder newBuilder() {
+			return new ItemBuilder();
+		}
+	}
+
+	public static class ItemBuilder implements Builder<Item> {
+		private Item item = new Item();
+
+		@Attribute(name = "id")
+		public ItemBuilder setId(final String id) {
+			this.item.id = id;
+			return this;
+		}
+
+		@Attribute(name = "count")
+		public ItemBuilder setCount(final Integer count) {
+			if (count.intValue() < 0) {
+				throw new IllegalArgumentException("negative count " + count); //$NON-NLS-1$
+			}
+			this.item.count = count;
+			return this;
+		}
+
+		@Content
+		public ItemBuilder setText(final String text) {
+			this.item.text = text;
+			return this;
+		}
+
+		@Comment
+		public ItemBuilder setComment(final String comment) {
+			this.item.comment = comment;
+			return this;
+		}
+
+		@Element(namespace = NS, name = "item", maxOccurs = Element.UNBOUND)
+		public ItemBuilder addChild(final Item child) {
+			this.item.children.add(child);
+			return this;
+		}
+
+		public void reset() {
+			this.item = new Item();
+		}
+
+		public Item build() {
+			return this.item;
+		}
+	}
+
+	public static class CheckedBuilder {
+		public void setText(final String text) throws IOException {
+			throw new IOException(text);
+		}
+	}
+
+	static class HiddenBuilder {
+		String text;
+		String attribute;
+
+		public void setText(final String text) {
+			this.text = text;
+		}
+
+		public void setAttribute(final QName name, final Integer value) {
+			this.attribute = name.getLocalPart() + "=" + value; //$NON-NLS-1$
+		}
+	}
+}
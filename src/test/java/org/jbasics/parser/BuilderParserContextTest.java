@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser;
+
+import org.jbasics.parser.BuilderContentHandlerTest.Catalog;
+import org.jbasics.parser.BuilderContentHandlerTest.Item;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.jbasics.parser.BuilderContentHandlerTest.NS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BuilderParserContextTest {
+
+	@Test
+	public void testWarmUpScansOnlyOnce() throws Exception {
+		BuilderParserContext.warmUp(Catalog.class);
+		assertTrue(BuilderParserContext.isCached(Catalog.class));
+		long hits = BuilderParserContext.getCacheHitCount();
+		assertEquals(0, BuilderParserContext.warmUp(Catalog.class, Catalog.class));
+		BuilderParserContext<Catalog> context = BuilderParserContext.getOrCreateContext(Catalog.class);
+		assertSame(context, BuilderParserContext.getOrCreateContext(Catalog.class));
+		// other tests may use the cache concurrently so only a lower bound of the shared counters is known
+		assertTrue(BuilderParserContext.getCacheHitCount() - hits >= 4);
+		assertTrue(context.getScanTime(TimeUnit.NANOSECONDS) > 0);
+		assertTrue(BuilderParserContext.getTotalScanTime(TimeUnit.NANOSECONDS) >= context.getScanTime(TimeUnit.NANOSECONDS));
+		assertNotNull(context.getParsingInfo(new QName(NS, "catalog"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testConcurrentLookupsAreCounted() throws Exception {
+		final int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<BuilderParserContext<RaceDocument>>> lookups = new ArrayList<Future<BuilderParserContext<RaceDocument>>>();
+			for (int i = 0; i < threads; i++) {
+				lookups.add(executor.submit(() -> {
+					start.await();
+					return BuilderParserContext.<RaceDocument>getOrCreateContext(RaceDocument.class);
+				}));
+			}
+			long before = BuilderParserContext.getCacheHitCount() + BuilderParserContext.getCacheMissCount();
+			start.countDown();
+			BuilderParserContext<RaceDocument> context = lookups.get(0).get();
+			for (Future<BuilderParserContext<RaceDocument>> lookup : lookups) {
+				assertSame(context, lookup.get());
+			}
+			assertTrue(BuilderParserContext.getCacheHitCount() + BuilderParserContext.getCacheMissCount() - before >= threads);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testWarmUpAsync() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// Item is no document type, so the scan finds no root element but the context is cached all the same
+			assertEquals(1, BuilderParserContext.warmUpAsync(executor, Arrays.asList(Item.class, Item.class)).get().intValue());
+			assertTrue(BuilderParserContext.isCached(Item.class));
+			assertEquals(0, BuilderParserContext.warmUpAsync(executor, Arrays.asList(Item.class)).get().intValue());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testWarmUpFromSystemProperty() {
+		String old = System.getProperty(BuilderParserContext.WARM_UP_PROPERTY);
+		try {
+			System.setProperty(BuilderParserContext.WARM_UP_PROPERTY, " " + Catalog.class.getName() + ", "); //$NON-NLS-1$ //$NON-NLS-2$
+			BuilderParserContext.warmUpFromSystemProperty();
+			assertTrue(BuilderParserContext.isCached(Catalog.class));
+			System.setProperty(BuilderParserContext.WARM_UP_PROPERTY, "org.jbasics.parser.DoesNotExist"); //$NON-NLS-1$
+			try {
+				BuilderParserContext.warmUpFromSystemProperty();
+				fail("Unknown document types must be reported"); //$NON-NLS-1$
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().contains("DoesNotExist")); //$NON-NLS-1$
+			}
+		} finally {
+			if (old == null) {
+				System.clearProperty(BuilderParserContext.WARM_UP_PROPERTY);
+			} else {
+				System.setProperty(BuilderParserContext.WARM_UP_PROPERTY, old);
+			}
+		}
+	}
+
+	// only used by the concurrent lookup test so the first lookups race for the scan
+	public static class RaceDocument {
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.parser;
+
+import org.jbasics.parser.BuilderContentHandlerTest.Catalog;
+import org.jbasics.parser.BuilderContentHandlerTest.Item;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jbasics.parser.BuilderContentHandlerTest.NS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BuilderStreamParserTest {
+	private static final QName ITEM = new QName(NS, "item"); //$NON-NLS-1$
+	private static final String DOCUMENT = "<c:catalog xmlns:c=\"" + NS + "\" name=\"Parts\">" //$NON-NLS-1$ //$NON-NLS-2$
+			+ "<c:item id=\"a\" count=\"3\">First<c:item id=\"a.1\" count=\"1\"/></c:item>" //$NON-NLS-1$
+			+ "<c:item id=\"b\"><!--note-->Second</c:item>" //$NON-NLS-1$
+			+ "<c:tag>red</c:tag><c:tag><![CDATA[blue]]></c:tag>" //$NON-NLS-1$
+			+ "</c:catalog>"; //$NON-NLS-1$
+
+	private static XMLStreamReader createReader(final String xml) throws XMLStreamException {
+		return XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml));
+	}
+
+	private static BuilderStreamParser<Catalog> createParser() {
+		return BuilderParserContext.<Catalog>getOrCreateContext(Catalog.class).createStreamParser();
+	}
+
+	@Test
+	public void testParseDocument() throws Exception {
+		Catalog catalog = createParser().parse(createReader(DOCUMENT));
+		Catalog expected = BuilderContentHandlerTest.parse(DOCUMENT);
+		assertEquals(expected.name, catalog.name);
+		assertEquals(expected.qualifiedName, catalog.qualifiedName);
+		assertEquals(expected.tags, catalog.tags);
+		assertEquals(2, catalog.items.size());
+		assertEquals("First", catalog.items.get(0).text); //$NON-NLS-1$
+		assertEquals("a.1", catalog.items.get(0).children.get(0).id); //$NON-NLS-1$
+		assertEquals("note", catalog.items.get(1).comment); //$NON-NLS-1$
+		assertEquals("Second", catalog.items.get(1).text); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testStreamRecordsToSink() throws Exception {
+		final List<Item> records = new ArrayList<Item>();
+		Catalog catalog = createParser().parse(createReader(DOCUMENT), ITEM, Item.class, records::add);
+		assertEquals(2, records.size());
+		assertEquals("a", records.get(0).id); //$NON-NLS-1$
+		// Nested items are built into their record and not streamed
+		assertEquals(1, records.get(0).children.size());
+		assertEquals("b", records.get(1).id); //$NON-NLS-1$
+		assertEquals("Parts", catalog.name); //$NON-NLS-1$
+		assertTrue(catalog.items.isEmpty());
+		assertEquals(2, catalog.tags.size());
+	}
+
+	@Test
+	public void testCursorPullsOneRecordAtATime() throws Exception {
+		StringBuilder xml = new StringBuilder("<c:catalog xmlns:c=\"").append(NS).append("\">"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < 1000; i++) {
+			xml.append("<c:item id=\"").append(i).append("\" count=\"").append(i).append("\"/>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		xml.append("</c:catalog>"); //$NON-NLS-1$
+		XMLStreamReader reader = createReader(xml.toString());
+		try (BuilderStreamParser.RecordCursor<Catalog, Item> cursor = createParser().open(reader, ITEM, Item.class)) {
+			assertEquals("0", cursor.readNext().id); //$NON-NLS-1$
+			// The reader did not move past the end of the first record
+			assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+			assertNull(cursor.getResult());
+			int count = 1;
+			Item item;
+			while ((item = cursor.readNext()) != null) {
+				assertEquals(Integer.valueOf(count++), item.count);
+			}
+			assertEquals(1000, count);
+			assertTrue(cursor.getResult().items.isEmpty());
+			assertNull(cursor.readNext());
+		}
+	}
+
+	@Test
+	public void testParseElementReaderIsPositionedAt() throws Exception {
+		XMLStreamReader reader = createReader("<wrapper><c:catalog xmlns:c=\"" + NS + "\" name=\"Inner\"/><after/></wrapper>"); //$NON-NLS-1$ //$NON-NLS-2$
+		reader.nextTag();
+		reader.nextTag();
+		assertEquals("Inner", createParser().parse(reader).name); //$NON-NLS-1$
+		assertEquals("catalog", reader.getLocalName()); //$NON-NLS-1$
+		assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+	}
+
+	@Test
+	public void testErrorsCarryLocation() throws Exception {
+		try {
+			createParser().parse(createReader("<c:catalog xmlns:c=\"" + NS + "\">\n<c:item count=\"-1\"/></c:catalog>")); //$NON-NLS-1$ //$NON-NLS-2$
+			fail("Negative count must be rejected by the builder"); //$NON-NLS-1$
+		} catch (XMLStreamException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("negative count")); //$NON-NLS-1$
+			assertEquals(2, e.getLocation().getLineNumber());
+		}
+		try {
+			createParser().parse(createReader("<c:catalog xmlns:c=\"" + NS + "\"><c:unknown/></c:catalog>")); //$NON-NLS-1$ //$NON-NLS-2$
+			fail("Unknown elements must be rejected"); //$NON-NLS-1$
+		} catch (XMLStreamException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Unrecognized element")); //$NON-NLS-1$
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+import org.jbasics.jmx.JMXServerAccessor;
+import org.jbasics.jmx.ObjectAccessor;
+import org.jbasics.pattern.delegation.LifecycleDelegate;
+import org.jbasics.pattern.factory.Factory;
+import org.jbasics.pattern.pooling.PooledInstance;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+public class BlockingPoolTest {
+
+	@Test
+	public void testMetrics() {
+		final CountingFactory factory = new CountingFactory();
+		final BlockingPool<Object> pool = new BlockingPool<Object>(factory, 1, 2, 1000);
+		try {
+			final PooledInstance<Object> first = pool.aquire();
+			final PooledInstance<Object> second = pool.aquire();
+			final Object a = first.delegate();
+			second.delegate();
+			Assert.assertEquals(2, pool.getActiveCount());
+			Assert.assertEquals(0, pool.getIdleCount());
+			Assert.assertEquals(2, pool.getManagedInstances().size());
+			try {
+				pool.aquire(20).delegate();
+				Assert.fail("Expected a time out"); //$NON-NLS-1$
+			} catch (final RuntimeException e) {
+				Assert.assertEquals(1L, pool.getTimeoutCount());
+			}
+			first.release();
+			second.release();
+			Assert.assertEquals(1, pool.getIdleCount());
+			Assert.assertEquals(0, pool.getActiveCount());
+			Assert.assertEquals(1L, pool.getDestroyedCount());
+			Assert.assertSame(a, pool.aquire().delegate());
+			Assert.assertEquals(2L, pool.getCreatedCount());
+			Assert.assertEquals(3L, pool.getAcquiredCount());
+			long total = 0;
+			for (final long count : pool.getWaitTimeHistogram()) {
+				total += count;
+			}
+			Assert.assertEquals(3L, total);
+			Assert.assertEquals(pool.getWaitTimeBucketLimits().length + 1, pool.getWaitTimeHistogram().length);
+		} finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void testIdleEvictionAndMinIdle() throws InterruptedException {
+		final CountingFactory factory = new CountingFactory();
+		final BlockingPool<Object> pool = new BlockingPool<Object>(factory, 4, 4, 1000, 1, 1L, 0L);
+		try {
+			Assert.assertEquals(1, pool.ensureMinIdle());
+			final List<PooledInstance<Object>> instances = new ArrayList<PooledInstance<Object>>();
+			for (int i = 0; i < 3; i++) {
+				final PooledInstance<Object> instance = pool.aquire();
+				instance.delegate();
+				instances.add(instance);
+			}
+			for (final PooledInstance<Object> instance : instances) {
+				instance.release();
+			}
+			Assert.assertEquals(3, pool.getIdleCount());
+			Thread.sleep(10);
+			Assert.assertEquals(2, pool.evictIdle());
+			Assert.assertEquals(1, pool.getIdleCount());
+			Assert.assertEquals(2L, pool.getEvictedCount());
+			Assert.assertEquals(2, factory.released.get());
+		} finally {
+			pool.close();
+		}
+		Assert.assertEquals(3, factory.released.get());
+	}
+
+	@Test
+	public void testBackgroundPrewarm() throws InterruptedException {
+		final BlockingPool<Object> pool = new BlockingPool<Object>(new CountingFactory(), 5, 10, 1000, 3, 60000L, 10L);
+		try {
+			Thread.sleep(20);
+			Assert.assertEquals(0, pool.getIdleCount());
+			pool.startEviction();
+			for (int i = 0; i < 200 && pool.getIdleCount() < 3; i++) {
+				Thread.sleep(5);
+			}
+			Assert.assertEquals(3, pool.getIdleCount());
+		} finally {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void testUnclosedPoolIsCollected() throws InterruptedException {
+		final WeakReference<BlockingPool<Object>> reference = startUnclosedPool();
+		for (int i = 0; i < 100 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertNull("Evictor keeps the pool reachable", reference.get()); //$NON-NLS-1$
+	}
+
+	private static WeakReference<BlockingPool<Object>> startUnclosedPool() {
+		final BlockingPool<Object> pool = new BlockingPool<Object>(new CountingFactory(), 2, 4, 1000, 1, 60000L, 5L);
+		pool.startEviction();
+		return new WeakReference<BlockingPool<Object>>(pool);
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		final BlockingPool<Object> pool = new BlockingPool<Object>(new CountingFactory(), 2, 4, 1000);
+		final ObjectName name = pool.registerMBean("test,pool"); //$NON-NLS-1$
+		try {
+			pool.aquire().delegate();
+			final ObjectAccessor accessor = new JMXServerAccessor().createObjectAccessor(name);
+			Assert.assertEquals("test,pool", ObjectName.unquote(accessor.getObjectNameProperty("name"))); //$NON-NLS-1$ //$NON-NLS-2$
+			Assert.assertEquals(1, accessor.getAttribute("ActiveCount")); //$NON-NLS-1$
+			Assert.assertEquals(1L, accessor.getAttribute("CreatedCount")); //$NON-NLS-1$
+			Assert.assertEquals(0, accessor.invoke("evictIdle", new Object[0], new String[0])); //$NON-NLS-1$
+		} finally {
+			pool.close();
+		}
+		Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+
+	@Test
+	public void testReleaseAfterClose() {
+		final CountingFactory factory = new CountingFactory();
+		final BlockingPool<Object> pool = new BlockingPool<Object>(factory, 2, 2, 1000);
+		final PooledInstance<Object> instance = pool.aquire();
+		instance.delegate();
+		pool.close();
+		Assert.assertEquals(1, factory.released.get());
+		instance.release();
+		Assert.assertEquals(1, factory.released.get());
+		Assert.assertEquals(0L, pool.getDestroyedCount());
+	}
+
+	private static final class CountingFactory implements Factory<LifecycleDelegate<Object>> {
+		private final AtomicInteger released = new AtomicInteger();
+
+		@Override
+		public LifecycleDelegate<Object> newInstance() {
+			final Object instance = new Object();
+			return new LifecycleDelegate<Object>() {
+				@Override
+				public void activate() {
+				}
+
+				@Override
+				public void passivate() {
+				}
+
+				@Override
+				public boolean release() {
+					CountingFactory.this.released.incrementAndGet();
+					return true;
+				}
+
+				@Override
+				public Object delegate() {
+					return instance;
+				}
+			};
+		}
+	}
+}
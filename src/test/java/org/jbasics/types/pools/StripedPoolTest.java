@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2009-2015
+ * 	IT-Consulting Stephan Schloepke (http://www.schloepke.de/)
+ * 	klemm software consulting Mirko Klemm (http://www.klemm-scs.com/)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbasics.types.pools;
+
+import org.jbasics.pattern.factory.Factory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedPoolTest {
+
+	@Test
+	public void testReuseAndMaxPoolSize() {
+		final CountingFactory factory = new CountingFactory();
+		final StripedPool<Object> pool = new StripedPool<Object>(factory, 2);
+		final Object first = pool.acquire();
+		Assert.assertTrue(pool.release(first));
+		Assert.assertSame(first, pool.acquire());
+		Assert.assertEquals(1, factory.created.get());
+		final Object a = pool.acquire();
+		final Object b = pool.acquire();
+		final Object c = pool.acquire();
+		Assert.assertTrue(pool.release(a));
+		Assert.assertTrue(pool.release(b));
+		Assert.assertFalse(pool.release(c));
+		Assert.assertEquals(2, pool.size());
+		Assert.assertFalse(pool.release(null));
+	}
+
+	@Test
+	public void testZeroSizeDoesNotPool() {
+		final CountingFactory factory = new CountingFactory();
+		final StripedPool<Object> pool = new StripedPool<Object>(factory, 0);
+		Assert.assertFalse(pool.release(pool.acquire()));
+		pool.acquire();
+		Assert.assertEquals(2, factory.created.get());
+	}
+
+	@Test
+	public void testConcurrentExclusiveAccess() throws InterruptedException {
+		final CountingFactory factory = new CountingFactory();
+		final StripedPool<Object> pool = new StripedPool<Object>(factory, 4);
+		final Set<Object> inUse = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		final AtomicInteger violations = new AtomicInteger();
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 8; t++) {
+			final Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int i = 0; i < 20000; i++) {
+						final Object instance = pool.acquire();
+						synchronized (inUse) {
+							if (!inUse.add(instance)) {
+								violations.incrementAndGet();
+							}
+						}
+						synchronized (inUse) {
+							inUse.remove(instance);
+						}
+						pool.release(instance);
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(0, violations.get());
+		Assert.assertTrue(pool.size() <= 4);
+	}
+
+	private static final class CountingFactory implements Factory<Object> {
+		private final AtomicInteger created = new AtomicInteger();
+
+		@Override
+		public Object newInstance() {
+			this.created.incrementAndGet();
+			return new Object();
+		}
+	}
+}